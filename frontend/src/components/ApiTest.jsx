@@ -41,20 +41,21 @@ const ApiTest = () => {
       
       // Test stage API
       console.log('Testing stage API...');
-      const stagesResponse = await stageApi.getAll();
+      // Première page seulement : la liste complète n'est plus chargée d'un bloc
+      const stagesResponse = await stageApi.getPage({ size: 3 });
       results.stages = {
         success: true,
-        count: stagesResponse.data.length,
-        data: stagesResponse.data.slice(0, 3)
+        count: stagesResponse.data.items.length,
+        data: stagesResponse.data.items
       };
       
       // Test periode API
       console.log('Testing periode API...');
-      const periodesResponse = await periodeApi.getAll();
+      const periodesResponse = await periodeApi.getPage({ size: 3 });
       results.periodes = {
         success: true,
-        count: periodesResponse.data.length,
-        data: periodesResponse.data.slice(0, 3)
+        count: periodesResponse.data.items.length,
+        data: periodesResponse.data.items
       };
       
       // Test appreciation API
@@ -1,5 +1,5 @@
 import { useState, useEffect } from 'react';
-import { stageApi, periodeApi, evaluationApi, categorieApi, competencesApi, appreciationApi } from '../services/api';
+import { stageApi, periodeApi } from '../services/api';
 import EvaluationVisualizer from './EvaluationVisualizer';
 
 const ViewDetailsIcon = () => (
@@ -9,9 +9,14 @@ const ViewDetailsIcon = () => (
   </svg>
 );
 
+// Stages chargés par pages (pagination par curseur côté serveur)
+const PAGE_SIZE = 50;
+
 const Dashboard = () => {
   const [view, setView] = useState('list');
   const [stages, setStages] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [selectedStageDetails, setSelectedStageDetails] = useState(null);
   
   const [loading, setLoading] = useState(true);
@@ -22,8 +27,9 @@ const Dashboard = () => {
       try {
         setLoading(true);
         setError(null);
-        const response = await stageApi.getAll();
-        setStages(response.data || []);
+        const response = await stageApi.getPage({ size: PAGE_SIZE });
+        setStages(response.data.items || []);
+        setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
       } catch (err) {
         console.error("Erreur lors de la récupération des stages:", err);
         setError(err.message || "Une erreur est survenue lors du chargement des stages.");
@@ -34,77 +40,53 @@ const Dashboard = () => {
     fetchStages();
   }, []);
 
+  const fetchMoreStages = async () => {
+    try {
+      setLoadingMore(true);
+      const response = await stageApi.getPage({ size: PAGE_SIZE, cursor: nextCursor });
+      setStages(previous => [...previous, ...(response.data.items || [])]);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+    } catch (err) {
+      console.error("Erreur lors de la récupération des stages suivants:", err);
+      setError(err.message || "Une erreur est survenue lors du chargement des stages.");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const fetchStageDetails = async (stageId) => {
     try {
       setLoading(true);
       setError(null);
       setSelectedStageDetails(null);
 
-      const stageResponse = await stageApi.getById(stageId);
-      if (!stageResponse.data) {
+      // Un seul appel : le serveur ne renvoie que les lignes de ce stage
+      const response = await stageApi.getDashboard(stageId);
+      if (!response.data) {
         throw new Error("Stage non trouvé.");
       }
-      const stage = stageResponse.data;
-      
-      let periode = null;
-      if (stage.periodes && stage.periodes.length > 0) {
-         periode = stage.periodes[0]; 
-      } else {
-        console.warn("Aucune période directement associée au stage dans l'objet stage. Verififez la structure des données.");
-        const allPeriodesRes = await periodeApi.getAll();
-        const foundPeriode = allPeriodesRes.data.find(p => p.stage && p.stage.id === stageId);
-        if (foundPeriode) {
-            periode = foundPeriode;
-        } else {
-             console.error(`Aucune période trouvée pour le stage ID: ${stageId}`);
-        }
+      const dashboard = response.data;
+      if (!dashboard.periode) {
+        console.warn(`Période non trouvée pour le stage ${stageId}, détails d'appréciation incomplets.`);
       }
-      
-      let appreciationsData = [];
-      let evaluationsData = [];
-      let competencesData = [];
-      let categoriesData = [];
-
-      if (periode && periode.id) {
-        const allAppreciationsRes = await appreciationApi.getAll();
-        appreciationsData = allAppreciationsRes.data.filter(app => app.periode && app.periode.id === periode.id);
-
-        const evaluationIds = new Set();
-        const competenceIds = new Set();
-        appreciationsData.forEach(app => {
-          if (app.evaluation) evaluationIds.add(app.evaluation.id);
-          if (app.competences) competenceIds.add(app.competences.id);
-        });
-
-        if (evaluationIds.size > 0) {
-          const allEvalsRes = await evaluationApi.getAll();
-          evaluationsData = allEvalsRes.data.filter(ev => evaluationIds.has(ev.id));
-        }
 
-        if (competenceIds.size > 0) {
-          const allCompsRes = await competencesApi.getAll();
-          competencesData = allCompsRes.data.filter(c => competenceIds.has(c.id));
-          
-          const categoryIds = new Set();
-          competencesData.forEach(c => {
-            if (c.categorie) categoryIds.add(c.categorie.id);
-          });
-          if (categoryIds.size > 0) {
-            const allCatsRes = await categorieApi.getAll();
-            categoriesData = allCatsRes.data.filter(cat => categoryIds.has(cat.id));
-          }
+      // Profil de la période pour les graphiques (moyennes calculées côté serveur) ;
+      // sans lui, le reste des détails s'affiche quand même
+      let profile = null;
+      if (dashboard.periode) {
+        try {
+          profile = (await periodeApi.getProfile(dashboard.periode.id)).data;
+        } catch (profileErr) {
+          console.warn(`Profil indisponible pour la période ${dashboard.periode.id}:`, profileErr);
         }
-    } else {
-        console.warn(`Période non trouvée pour le stage ${stageId}, détails d'appréciation incomplets.`);
       }
-      
+
       setSelectedStageDetails({
-        stage,
-        periode,
-        appreciations: appreciationsData,
-        evaluations: evaluationsData,
-        competences: competencesData,
-        categories: categoriesData
+        stage: dashboard,
+        periode: dashboard.periode,
+        competences: dashboard.competences || [],
+        categories: dashboard.categories || [],
+        profile
       });
       setView('details');
 
@@ -165,6 +147,17 @@ const Dashboard = () => {
               })}
             </tbody>
           </table>
+          {nextCursor && (
+            <div className="flex justify-center mt-6">
+              <button
+                onClick={fetchMoreStages}
+                disabled={loadingMore}
+                className="bg-gray-200 hover:bg-gray-300 text-gray-700 font-semibold py-2 px-4 rounded-lg transition-colors disabled:opacity-50"
+              >
+                {loadingMore ? 'Chargement...' : 'Afficher plus'}
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>
@@ -175,40 +168,21 @@ const Dashboard = () => {
       return <p className="text-gray-600">Sélectionnez une évaluation pour voir les détails.</p>;
     }
 
-    const { stage, periode, appreciations, evaluations, competences, categories } = selectedStageDetails;
+    const { stage, periode, competences, categories, profile } = selectedStageDetails;
+
+    const generalCategory = categories.find(cat => cat.intitule === "Appréciations Générales");
+    const findGeneralAppreciation = (intitule) => generalCategory
+      ? competences.find(comp => comp.categorieId === generalCategory.id && comp.intitule === intitule)
+      : null;
 
     const getGeneralAppreciationValue = (intitule) => {
-      const appreciation = appreciations.find(app => 
-        app.evaluation && app.evaluation.categorieStr === intitule &&
-        app.competences && app.competences.categorie && app.competences.categorie.intitule === "Appréciations Générales"
-      );
-      return appreciation && appreciation.evaluation ? (appreciation.evaluation.valeur !== null ? `${appreciation.evaluation.valeur}/20` : 'Non évalué') : 'N/A';
+      const appreciation = findGeneralAppreciation(intitule);
+      return appreciation ? (appreciation.valeur !== null ? `${appreciation.valeur}/20` : 'Non évalué') : 'N/A';
     };
     
     const getGeneralAppreciationComment = (intitule) => {
-         const appreciation = appreciations.find(app => 
-            app.evaluation && app.evaluation.categorieStr === intitule &&
-            app.competences && app.competences.categorie && app.competences.categorie.intitule === "Appréciations Générales"
-         );
-         return appreciation && appreciation.evaluation ? appreciation.evaluation.commentaire || '' : 'Aucun commentaire';
-    };
-
-    const calculateCategoryAverage = (categoryName) => {
-        const relevantCompetences = competences.filter(c => c.categorie && c.categorie.intitule === categoryName);
-        if (!relevantCompetences.length) return 'N/A';
-        
-        let totalScore = 0;
-        let count = 0;
-        
-        relevantCompetences.forEach(comp => {
-            const appreciation = appreciations.find(app => app.competences && app.competences.id === comp.id);
-            if (appreciation && appreciation.evaluation && appreciation.evaluation.valeur !== null) {
-                totalScore += appreciation.evaluation.valeur;
-                count++;
-            }
-        });
-        
-        return count > 0 ? (totalScore / count).toFixed(1) + "/20" : "Non noté";
+         const appreciation = findGeneralAppreciation(intitule);
+         return appreciation ? appreciation.commentaire || '' : 'Aucun commentaire';
     };
     
     const getCategoryOverallScore = (categoryName) => {
@@ -216,12 +190,6 @@ const Dashboard = () => {
         return cat && cat.valeur !== null ? cat.valeur.toFixed(1) + "/20" : "N/A (global)";
     };
 
-  const evaluationDataForVisualizer = {
-    categories,
-    competencies: competences,
-    evaluations
-  };
-    
     const studentName = stage.stagiaire ? `${stage.stagiaire.prenom || ''} ${stage.stagiaire.nom || 'N/A'}`.trim() : 'N/A';
     const tutorName = stage.tuteur ? `${stage.tuteur.prenom || ''} ${stage.tuteur.nom || 'N/A'}`.trim() : 'N/A';
 
@@ -296,23 +264,26 @@ const Dashboard = () => {
             </dl>
                   </div>
                   
+          {profile && (
+            <div className="bg-white p-6 rounded-lg shadow-md border border-gray-200">
+              <h3 className="text-xl font-semibold text-gray-700 mb-4 border-b pb-2">Visualisation de l'Évaluation</h3>
+              <EvaluationVisualizer profile={profile} />
+            </div>
+          )}
+
           <div className="bg-sky-50 p-6 rounded-lg shadow-md border border-sky-200">
                 <h3 className="text-xl font-semibold text-sky-700 mb-4 border-b pb-2">Détail des Compétences Évaluées</h3>
                 {categories.filter(cat => cat.intitule !== "Appréciations Générales").map(category => (
                     <div key={category.id} className="mb-4">
                         <h4 className="text-lg font-semibold text-gray-700 mb-2">{category.intitule} (Score Global: {category.valeur !== null ? category.valeur.toFixed(1) + "/20" : "N/A"})</h4>
-                        {competences.filter(comp => comp.categorie && comp.categorie.id === category.id).length > 0 ? (
+                        {competences.filter(comp => comp.categorieId === category.id).length > 0 ? (
                             <ul className="list-disc pl-5 space-y-1">
-                                {competences.filter(comp => comp.categorie && comp.categorie.id === category.id).map(comp => {
-                                    const evalApp = appreciations.find(app => app.competences && app.competences.id === comp.id);
-                                    const evaluation = evalApp ? evaluations.find(ev => ev.id === evalApp.evaluation.id) : null;
-                                    return (
-                                        <li key={comp.id} className="text-sm">
-                                            <span className="font-medium">{comp.intitule}:</span> {evaluation ? `${evaluation.valeur}/20` : 'Non évaluée'}
-                                            {evaluation && evaluation.commentaire && <span className="italic text-gray-600"> - "{evaluation.commentaire}"</span>}
+                                {competences.filter(comp => comp.categorieId === category.id).map(comp => (
+                                        <li key={comp.evaluationId || comp.competenceId} className="text-sm">
+                                            <span className="font-medium">{comp.intitule}:</span> {comp.valeur !== null ? `${comp.valeur}/20` : 'Non évaluée'}
+                                            {comp.commentaire && <span className="italic text-gray-600"> - "{comp.commentaire}"</span>}
                                         </li>
-                                    );
-                                })}
+                                ))}
                             </ul>
                         ) : (
                             <p className="text-sm text-gray-500 italic">Aucune compétence détaillée pour cette catégorie.</p>
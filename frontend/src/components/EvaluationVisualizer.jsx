@@ -1,20 +1,29 @@
 import { useState, useEffect } from 'react';
 
-const EvaluationVisualizer = ({ evaluationData = {}, showDetails = true }) => {
+// profile : réponse de GET /api/periodes/{id}/profile (moyennes déjà calculées, notes sur 20).
+// Sans profile, les graphiques sont calculés à partir de evaluationData comme auparavant.
+const EvaluationVisualizer = ({ evaluationData = {}, profile = null, showDetails = true }) => {
   const [activeTab, setActiveTab] = useState('categories');
   
   // Extract data
-  const categories = evaluationData.categories || [];
-  const competencies = evaluationData.competencies || [];
-  const evaluations = evaluationData.evaluations || [];
+  const categories = profile
+    ? profile.categories.map(cat => ({ id: cat.id, intitule: cat.intitule, valeur: cat.moyenne }))
+    : evaluationData.categories || [];
+  const competencies = profile
+    ? profile.competences.map((intitule, i) => ({ intitule, note: profile.valeurs[i] }))
+    : evaluationData.competencies || [];
+  const evaluations = profile ? [] : evaluationData.evaluations || [];
+  const scale = profile ? 20 : 5;
 
   // Calculate stats
   const totalCategories = categories.length;
   const totalCompetencies = competencies.length;
-  const totalEvaluations = evaluations.length;
-  const averageScore = evaluations.length > 0 
-    ? (evaluations.reduce((sum, evaluation) => sum + parseFloat(evaluation.valeur || 0), 0) / evaluations.length).toFixed(1)
-    : 'N/A';
+  const totalEvaluations = profile ? profile.nombre : evaluations.length;
+  const averageScore = profile
+    ? (profile.moyenne != null ? profile.moyenne.toFixed(1) : 'N/A')
+    : evaluations.length > 0
+      ? (evaluations.reduce((sum, evaluation) => sum + parseFloat(evaluation.valeur || 0), 0) / evaluations.length).toFixed(1)
+      : 'N/A';
 
   // Generate colors for chart elements
   const generateColor = (index, total) => {
@@ -33,7 +42,7 @@ const EvaluationVisualizer = ({ evaluationData = {}, showDetails = true }) => {
     // Calculate positions for each competency
     const points = competencies.map((comp, i) => {
       const score = comp.note || 0;
-      const radius = (score / 5) * maxRadius; // Assuming score is between 0-5
+      const radius = (score / scale) * maxRadius; // Score between 0 and scale
       const x = centerX + radius * Math.sin(angles[i]);
       const y = centerY - radius * Math.cos(angles[i]);
       return { x, y, label: comp.intitule };
@@ -114,7 +123,7 @@ const EvaluationVisualizer = ({ evaluationData = {}, showDetails = true }) => {
 
   // Render bar chart for categories
   const renderBarChart = () => {
-    const maxValue = Math.max(...categories.map(cat => cat.valeur || 0), 5);
+    const maxValue = Math.max(...categories.map(cat => cat.valeur || 0), scale);
     
     return (
       <div className="space-y-4 my-4">
@@ -122,7 +131,7 @@ const EvaluationVisualizer = ({ evaluationData = {}, showDetails = true }) => {
           <div key={index} className="relative">
             <div className="flex justify-between items-center mb-1">
               <span className="text-sm font-medium text-gray-700">{category.intitule}</span>
-              <span className="text-sm text-gray-600">{category.valeur || 0}/5</span>
+              <span className="text-sm text-gray-600">{category.valeur || 0}/{scale}</span>
             </div>
             <div className="w-full h-4 bg-gray-200 rounded-full overflow-hidden">
               <div 
@@ -99,8 +99,20 @@ export const apiHealthCheck = {
   }
 };
 
+// Créations que le serveur sait dédupliquer grâce à l'en-tête Idempotency-Key
+const IDEMPOTENT_POSTS = [
+  /^\/stages\/create-from-dto$/,
+  /^\/periodes$/,
+  /^\/appreciations\/tuteur\/[^/]+\/periode\/[^/]+$/
+];
+
 // Request interceptor - log all requests
 apiClient.interceptors.request.use(request => {
+  // La clé reste dans la config de la requête : un nouvel essai réutilise la même clé
+  if (request.method === 'post' && IDEMPOTENT_POSTS.some(pattern => pattern.test(request.url))
+      && !request.headers['Idempotency-Key']) {
+    request.headers['Idempotency-Key'] = crypto.randomUUID();
+  }
   console.log('Starting Request:', request.url);
   console.log('Request Data:', request.data);
   return request;
@@ -181,11 +193,17 @@ apiClient.interceptors.response.use(
 
 // Stage (Internship) API
 export const stageApi = {
-  // Get all stages
-  getAll: () => apiClient.get('/stages'),
+  // Get all stages (full list, unpaged)
+  getAll: () => apiClient.get('/stages', { params: { unpaged: true } }),
+
+  // Get one page: params = { size, sort, direction, cursor, ...filters }; the response carries nextCursor
+  getPage: (params) => apiClient.get('/stages', { params }),
   
   // Get stage by ID
   getById: (id) => apiClient.get(`/stages/${id}`),
+
+  // Get the dashboard of a stage (stage, people, category scores and competency evaluations of one periode)
+  getDashboard: (id, periodeId) => apiClient.get(`/stages/${id}/dashboard`, { params: periodeId ? { periodeId } : {} }),
   
   // Create new stage
   create: (stageData) => apiClient.post('/stages', stageData),
@@ -211,8 +229,11 @@ export const stageApi = {
 
 // Période (Period) API
 export const periodeApi = {
-  // Get all periods
-  getAll: () => apiClient.get('/periodes'),
+  // Get all periods (full list, unpaged)
+  getAll: () => apiClient.get('/periodes', { params: { unpaged: true } }),
+
+  // Get one page: params = { size, sort, direction, cursor, ...filters }; the response carries nextCursor
+  getPage: (params) => apiClient.get('/periodes', { params }),
   
   // Create new period with proper relationships
   create: (periodeData) => apiClient.post('/periodes', periodeData),
@@ -249,6 +270,9 @@ export const periodeApi = {
   
   // Update period
   update: (id, periodeData) => apiClient.put(`/periodes/${id}`, periodeData),
+
+  // Evaluation profile for charts: per-category averages and ordered competency vector (0-20)
+  getProfile: (id) => apiClient.get(`/periodes/${id}/profile`),
   
   // Associate a tutor with a period - try different endpoint formats
   addTuteur: (periodeId, tuteurId) => {
@@ -324,8 +348,11 @@ export const periodeApi = {
 
 // Tuteur (Tutor) API
 export const tuteurApi = {
-  // Get all tutors
-  getAll: () => apiClient.get('/tuteurs'),
+  // Get all tutors (full list, unpaged)
+  getAll: () => apiClient.get('/tuteurs', { params: { unpaged: true } }),
+
+  // Get one page: params = { size, sort, direction, cursor, ...filters }; the response carries nextCursor
+  getPage: (params) => apiClient.get('/tuteurs', { params }),
   
   // Get tutor by ID
   getById: (id) => apiClient.get(`/tuteurs/${id}`),
@@ -413,8 +440,11 @@ export const tuteurApi = {
 
 // Stagiaire (Intern) API
 export const stagiaireApi = {
-  // Get all interns
-  getAll: () => apiClient.get('/stagiaires'),
+  // Get all interns (full list, unpaged)
+  getAll: () => apiClient.get('/stagiaires', { params: { unpaged: true } }),
+
+  // Get one page: params = { size, sort, direction, cursor, ...filters }; the response carries nextCursor
+  getPage: (params) => apiClient.get('/stagiaires', { params }),
   
   // Get intern by ID
   getById: (id) => apiClient.get(`/stagiaires/${id}`),
@@ -515,8 +545,11 @@ export const stagiaireApi = {
 
 // Appreciation API
 export const appreciationApi = {
-  // Get all appreciations
-  getAll: () => apiClient.get('/appreciations'),
+  // Get all appreciations (full list, unpaged)
+  getAll: () => apiClient.get('/appreciations', { params: { unpaged: true } }),
+
+  // Get one page: params = { size, sort, direction, cursor, ...filters }; the response carries nextCursor
+  getPage: (params) => apiClient.get('/appreciations', { params }),
   
   // Get appreciation by ID
   getById: (id) => apiClient.get(`/appreciations/${id}`),
@@ -554,8 +587,11 @@ export const appreciationApi = {
 
 // Compétences (Skills) API
 export const competencesApi = {
-  // Get all competences
-  getAll: () => apiClient.get('/competences'),
+  // Get all competences (full list, unpaged)
+  getAll: () => apiClient.get('/competences', { params: { unpaged: true } }),
+
+  // Get one page: params = { size, sort, direction, cursor, ...filters }; the response carries nextCursor
+  getPage: (params) => apiClient.get('/competences', { params }),
   
   // Get competence by ID
   getById: (id) => apiClient.get(`/competences/${id}`),
@@ -622,8 +658,11 @@ export const categorieApi = {
 
 // Evaluation API
 export const evaluationApi = {
-  // Get all evaluations
-  getAll: () => apiClient.get('/evaluations'),
+  // Get all evaluations (full list, unpaged)
+  getAll: () => apiClient.get('/evaluations', { params: { unpaged: true } }),
+
+  // Get one page: params = { size, sort, direction, cursor, ...filters }; the response carries nextCursor
+  getPage: (params) => apiClient.get('/evaluations', { params }),
   
   // Create new evaluation
   create: (evaluationData) => apiClient.post('/evaluations', evaluationData),
@@ -0,0 +1,202 @@
+package com.gestion.stage.controller;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gestion.stage.dto.CompetencyDetailDTO;
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Categorie;
+import com.gestion.stage.model.Competences;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.model.Tuteur;
+
+/**
+ * Jackson sur les charges de l'API, avec la configuration de Spring MVC
+ * ({@link Jackson2ObjectMapperBuilder}) :
+ * <ul>
+ * <li>sérialisation d'un stage complet, stage -> périodes -> appréciations -> évaluation et
+ * compétence, comme GET /api/stages/{id} ;</li>
+ * <li>désérialisation d'un formulaire create-from-dto dont chaque catégorie compte 10,
+ * 100 ou 1000 compétences.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonPayloadBenchmark {
+
+    private static final String[] LEVELS = {"NA", "DEBUTANT", "AUTONOME", "AUTONOME +"};
+    /** Notes sur 20 correspondant à ces niveaux. */
+    private static final double[] NOTES = {0, 8, 14, 18};
+    private static final String[] CATEGORIES = {"Individu", "Entreprise", "Technique", "Métier"};
+    private static final int PERIODES = 2;
+    private static final int COMPETENCES_PER_CATEGORY = 10;
+
+    private ObjectWriter stageWriter;
+    private Stage stage;
+
+    /** Formulaire sérialisé, pour chaque taille de catégorie. */
+    @State(Scope.Benchmark)
+    public static class Form {
+
+        @Param({"10", "100", "1000"})
+        private int competencies;
+
+        private ObjectReader reader;
+        private byte[] json;
+
+        @Setup
+        public void setUp() throws Exception {
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            reader = objectMapper.readerFor(StageCreateDTO.class);
+            json = objectMapper.writeValueAsBytes(form(competencies));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        stageWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(Stage.class);
+        stage = stage();
+    }
+
+    @Benchmark
+    public byte[] serializeStageGraph() throws Exception {
+        return stageWriter.writeValueAsBytes(stage);
+    }
+
+    @Benchmark
+    public StageCreateDTO deserializeStageCreateDTO(Form form) throws Exception {
+        return form.reader.readValue(form.json);
+    }
+
+    /** Un stage de {@value #PERIODES} périodes, chacune évaluée sur tout le catalogue. */
+    private static Stage stage() {
+        Stagiaire stagiaire = new Stagiaire();
+        stagiaire.setId(1L);
+        stagiaire.setNom("Alaoui");
+        stagiaire.setPrenom("Yasmine");
+        stagiaire.setEmail("yasmine.alaoui@ecole.fr");
+        stagiaire.setInstitution("ENSA");
+        Tuteur tuteur = new Tuteur();
+        tuteur.setId(1L);
+        tuteur.setNom("Bennani");
+        tuteur.setPrenom("Karim");
+        tuteur.setEmail("karim.bennani@entreprise.fr");
+        tuteur.setEntreprise("Entreprise 3");
+
+        List<Competences> catalogue = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            Categorie categorie = new Categorie();
+            categorie.setId((long) c + 1);
+            categorie.setIntitule(CATEGORIES[c]);
+            categorie.setValeur(14.0);
+            for (int k = 0; k < COMPETENCES_PER_CATEGORY; k++) {
+                Competences competence = new Competences();
+                competence.setId((long) catalogue.size() + 1);
+                competence.setIntitule(CATEGORIES[c] + " compétence " + k);
+                competence.setNote(14.0);
+                competence.setCategorie(categorie);
+                catalogue.add(competence);
+            }
+        }
+
+        Stage stage = new Stage();
+        stage.setId(1L);
+        stage.setDescription("Stage de développement");
+        stage.setObjectif("Objectif du stage");
+        stage.setEntreprise("Entreprise 3");
+        stage.setStagiaire(stagiaire);
+        stage.setTuteur(tuteur);
+        stage.setPeriodes(new ArrayList<>());
+        long appreciationId = 1;
+        for (int p = 0; p < PERIODES; p++) {
+            Periode periode = new Periode();
+            periode.setId((long) p + 1);
+            periode.setDateDebut(LocalDate.of(2024, 2, 1).plusMonths(3L * p));
+            periode.setDateFin(LocalDate.of(2024, 4, 30).plusMonths(3L * p));
+            periode.setStage(stage);
+            periode.setStagiaire(stagiaire);
+            periode.setTuteur(tuteur);
+            periode.setAppreciations(new ArrayList<>());
+            for (Competences competence : catalogue) {
+                Evaluation evaluation = new Evaluation();
+                evaluation.setId(appreciationId);
+                evaluation.setValeur(NOTES[(int) (appreciationId % NOTES.length)]);
+                evaluation.setCategorieStr(competence.getCategorie().getIntitule());
+                evaluation.setCommentaire("Commentaire " + competence.getIntitule());
+                Appreciation appreciation = new Appreciation();
+                appreciation.setId(appreciationId++);
+                appreciation.setTuteur(tuteur);
+                appreciation.setPeriode(periode);
+                appreciation.setEvaluation(evaluation);
+                appreciation.setCompetences(competence);
+                periode.getAppreciations().add(appreciation);
+            }
+            stage.getPeriodes().add(periode);
+        }
+        return stage;
+    }
+
+    private static StageCreateDTO form(int competencies) {
+        StageCreateDTO dto = new StageCreateDTO();
+        dto.setDescription("Stage de développement");
+        dto.setObjectif("Objectif du stage");
+        dto.setEntreprise("Entreprise 3");
+        dto.setStudentName("Yasmine Alaoui");
+        dto.setStudentEmail("yasmine.alaoui@ecole.fr");
+        dto.setStagiaireInstitution("ENSA");
+        dto.setTutorName("Karim Bennani");
+        dto.setTutorEmail("karim.bennani@entreprise.fr");
+        dto.setDateDebut(LocalDate.of(2024, 2, 1));
+        dto.setDateFin(LocalDate.of(2024, 6, 30));
+        dto.setImplicationNote(15.0);
+        dto.setOuvertureNote(12.0);
+        dto.setQualiteTravailNote(16.0);
+        dto.setIndividualCompetencies(competencies(CATEGORIES[0], competencies));
+        dto.setCompanyCompetencies(competencies(CATEGORIES[1], competencies));
+        dto.setTechnicalCompetencies(competencies(CATEGORIES[2], competencies));
+        dto.setSpecificJobCompetencies(competencies(CATEGORIES[3], competencies));
+        dto.setIndividualScore(14);
+        dto.setCompanyScore(12);
+        dto.setTechnicalScore(16);
+        return dto;
+    }
+
+    private static Map<String, CompetencyDetailDTO> competencies(String prefix, int count) {
+        Map<String, CompetencyDetailDTO> map = new LinkedHashMap<>();
+        for (int c = 0; c < count; c++) {
+            CompetencyDetailDTO detail = new CompetencyDetailDTO();
+            detail.setLevel(LEVELS[c % LEVELS.length]);
+            detail.setComment("Commentaire " + prefix + " " + c);
+            map.put(prefix + " compétence " + c, detail);
+        }
+        return map;
+    }
+}
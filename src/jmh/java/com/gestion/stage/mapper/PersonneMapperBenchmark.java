@@ -0,0 +1,79 @@
+package com.gestion.stage.mapper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gestion.stage.dto.StagiaireDTO;
+import com.gestion.stage.dto.TuteurDTO;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.model.Tuteur;
+
+/**
+ * Conversions entité <-> DTO de {@link StagiaireMapper} et {@link TuteurMapper}, faites pour
+ * chaque personne des listes renvoyées par l'API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonneMapperBenchmark {
+
+    private final StagiaireMapper stagiaireMapper = new StagiaireMapper();
+    private final TuteurMapper tuteurMapper = new TuteurMapper();
+
+    private Stagiaire stagiaire;
+    private StagiaireDTO stagiaireDTO;
+    private Tuteur tuteur;
+    private TuteurDTO tuteurDTO;
+
+    @Setup
+    public void setUp() {
+        stagiaire = new Stagiaire();
+        stagiaire.setId(42L);
+        stagiaire.setNom("Alaoui");
+        stagiaire.setPrenom("Yasmine");
+        stagiaire.setEmail("yasmine.alaoui@ecole.fr");
+        stagiaire.setInstitution("ENSA");
+        stagiaireDTO = stagiaireMapper.toDTO(stagiaire);
+
+        tuteur = new Tuteur();
+        tuteur.setId(7L);
+        tuteur.setNom("Bennani");
+        tuteur.setPrenom("Karim");
+        tuteur.setEmail("karim.bennani@entreprise.fr");
+        tuteur.setEntreprise("Entreprise 3");
+        tuteurDTO = tuteurMapper.toDTO(tuteur);
+    }
+
+    @Benchmark
+    public StagiaireDTO stagiaireToDTO() {
+        return stagiaireMapper.toDTO(stagiaire);
+    }
+
+    @Benchmark
+    public Stagiaire stagiaireToEntity() {
+        return stagiaireMapper.toEntity(stagiaireDTO);
+    }
+
+    @Benchmark
+    public TuteurDTO tuteurToDTO() {
+        return tuteurMapper.toDTO(tuteur);
+    }
+
+    @Benchmark
+    public Tuteur tuteurToEntity() {
+        return tuteurMapper.toEntity(tuteurDTO);
+    }
+}
@@ -0,0 +1,68 @@
+package com.gestion.stage.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.gestion.stage.dto.CompetencyDetailDTO;
+
+/**
+ * Notation du formulaire d'évaluation : conversion niveau -> note sur 20 et moyenne d'une
+ * catégorie de compétences, telles qu'appelées par create-from-dto pour chaque catégorie.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompetencyScoringBenchmark {
+
+    /** Niveaux tels que saisis, casse et variantes comprises. */
+    private static final String[] LEVELS = {"NA", "DEBUTANT", "AUTONOME", "AUTONOME +", "autonome+", "Debutant", null};
+
+    /** Une catégorie du formulaire, pour chaque nombre de compétences. */
+    @State(Scope.Benchmark)
+    public static class Category {
+
+        @Param({"10", "100"})
+        private int competencies;
+
+        private Map<String, CompetencyDetailDTO> details;
+
+        @Setup
+        public void setUp() {
+            details = new LinkedHashMap<>();
+            for (int c = 0; c < competencies; c++) {
+                CompetencyDetailDTO detail = new CompetencyDetailDTO();
+                detail.setLevel(LEVELS[c % LEVELS.length]);
+                detail.setComment("Commentaire " + c);
+                details.put("Compétence " + c, detail);
+            }
+        }
+    }
+
+    @Benchmark
+    public void competencyLevelToNumeric(Blackhole blackhole) {
+        for (String level : LEVELS) {
+            blackhole.consume(StageFormService.competencyLevelToNumeric(level));
+        }
+    }
+
+    @Benchmark
+    public double averageLevel(Category category) {
+        return StageFormService.averageLevel(category.details);
+    }
+}
@@ -0,0 +1,53 @@
+package com.gestion.stage.config;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Identifiant de corrélation de chaque requête : repris de l'en-tête {@value #HEADER} s'il
+ * est fourni et raisonnable, généré sinon, renvoyé dans la réponse et placé dans le MDC
+ * sous {@value #MDC_KEY}. Toutes les lignes de journal de la requête le portent (champ JSON,
+ * ou motif texte de logging.pattern.correlation). Il suit aussi les tâches de l'exécuteur
+ * applicatif (@Async, StreamingResponseBody, voir {@link LoggingConfig}), les rendus du pool
+ * des fiches d'évaluation et, par la ligne du job, l'enregistrement asynchrone d'un
+ * formulaire ; les autres threads (tâches planifiées, cumuls) n'en ont pas.
+ * <p>
+ * Placé avant {@link RouteDbMetricsFilter} et les autres filtres pour couvrir leurs journaux.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    /** Valeur reçue acceptée telle quelle : courte, sans caractère qui casserait une ligne de journal. */
+    private static final Pattern ACCEPTED = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String received = request.getHeader(HEADER);
+        String correlationId = received != null && ACCEPTED.matcher(received).matches()
+                ? received : UUID.randomUUID().toString();
+        response.setHeader(HEADER, correlationId);
+        MDC.put(MDC_KEY, correlationId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
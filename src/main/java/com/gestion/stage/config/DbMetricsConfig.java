@@ -0,0 +1,52 @@
+package com.gestion.stage.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Branche {@link RouteDbMetrics} sur Hibernate et sur le gestionnaire de transactions.
+ * Les statistiques Hibernate doivent être actives ({@code hibernate.generate_statistics}).
+ */
+@Configuration
+public class DbMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer routeDbMetricsHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATS_BUILDER, new RouteDbMetrics.Factory());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    RouteDbMetrics.SessionListener.class.getName());
+        };
+    }
+
+    /**
+     * Appliqué par Spring Boot au gestionnaire de transactions JPA ; n'est appelé que pour
+     * les transactions réellement ouvertes, pas pour celles qui rejoignent une transaction
+     * existante.
+     */
+    @Bean
+    public TransactionExecutionListener routeDbMetricsTransactionListener() {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+                if (beginFailure == null) {
+                    RouteDbMetrics.transactionBegun();
+                }
+            }
+
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                RouteDbMetrics.transactionCompleted();
+            }
+
+            @Override
+            public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+                RouteDbMetrics.transactionCompleted();
+            }
+        };
+    }
+}
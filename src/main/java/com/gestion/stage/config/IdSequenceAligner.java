@@ -0,0 +1,91 @@
+package com.gestion.stage.config;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Aligne les séquences d'identifiants sur les données existantes.
+ * <p>
+ * Les entités utilisaient auparavant des colonnes AUTO_INCREMENT. MySQL n'ayant pas de
+ * séquences, Hibernate les émule par des tables (stage_seq, periode_seq...) qui démarrent
+ * à 1 : sur une base déjà remplie, les premiers identifiants alloués entreraient en
+ * collision avec les lignes existantes. Au démarrage, chaque table de séquence est donc
+ * avancée au-delà du plus grand identifiant de sa table, une fois le schéma mis à jour.
+ */
+@Component
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    /** Taille de bloc des @SequenceGenerator des entités. */
+    static final int ALLOCATION_SIZE = 50;
+
+    /** Table de séquence -> table de l'entité. */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "appreciation_seq", "appreciation",
+            "categorie_seq", "categorie",
+            "competences_seq", "competences",
+            "evaluation_seq", "evaluation",
+            "ingestion_job_seq", "ingestion_job",
+            "periode_seq", "periode",
+            "periode_categorie_score_seq", "periode_categorie_score",
+            "personne_seq", "personne",
+            "stage_seq", "stage");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    // L'EntityManagerFactory est injectée pour que le schéma (ddl-auto) soit à jour avant l'alignement.
+    @Autowired
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequenceTable, entityTable) -> {
+            try {
+                if (!tableExists(sequenceTable)) {
+                    // Séquences natives (H2...) : rien à émuler, rien à aligner
+                    return;
+                }
+                Long maxId = jdbcTemplate.queryForObject("select max(id) from " + entityTable, Long.class);
+                if (maxId == null) {
+                    return;
+                }
+                long nextValue = maxId + ALLOCATION_SIZE + 1;
+                int updated = jdbcTemplate.update(
+                        "update " + sequenceTable + " set next_val = ? where next_val < ?", nextValue, nextValue);
+                if (updated > 0) {
+                    logger.info("Séquence {} avancée à {} (max(id) de {} = {})", sequenceTable, nextValue, entityTable, maxId);
+                }
+            } catch (Exception e) {
+                logger.error("Impossible d'aligner la séquence {} sur la table {}", sequenceTable, entityTable, e);
+            }
+        });
+    }
+
+    private boolean tableExists(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[] {"TABLE"})) {
+                return tables.next();
+            }
+        }
+    }
+}
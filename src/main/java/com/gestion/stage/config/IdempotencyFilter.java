@@ -0,0 +1,186 @@
+package com.gestion.stage.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.gestion.stage.model.IdempotencyRecord;
+import com.gestion.stage.service.IdempotencyService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Prise en charge de l'en-tête Idempotency-Key sur les créations sensibles aux doublons
+ * (formulaire d'évaluation, période, appréciation).
+ * <p>
+ * La première requête portant une clé réserve celle-ci puis, une fois traitée, sa réponse
+ * est mémorisée. Une requête répétée avec la même clé reçoit la réponse mémorisée sans
+ * que les écritures soient rejouées ; si la première est encore en cours, elle reçoit 409,
+ * jusqu'à ce que le bail de la réservation expire (voir {@link IdempotencyService}).
+ * Réutiliser une clé avec un autre corps de requête est refusé (422). Une réponse en
+ * erreur libère la clé pour permettre un nouvel essai.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final List<String> ROUTES = List.of(
+            "/api/stages/create-from-dto",
+            "/api/periodes",
+            "/api/appreciations/tuteur/*/periode/*");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final IdempotencyService idempotencyService;
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return ROUTES.stream().noneMatch(route -> pathMatcher.match(route, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                "L'en-tête " + HEADER + " doit contenir entre 1 et " + MAX_KEY_LENGTH + " caractères.");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String recordId = IdempotencyService.recordId(request.getRequestURI(), key);
+        String requestHash = IdempotencyService.sha256(body);
+        IdempotencyService.Reservation reservation = idempotencyService.begin(recordId, requestHash);
+        if (!reservation.isReserved()) {
+            replay(reservation.existing(), requestHash, response);
+            return;
+        }
+        long token = reservation.token();
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyService.release(recordId, token);
+            throw e;
+        }
+
+        // Seules les réussites sont mémorisées : une requête refusée n'a rien écrit et le
+        // corps des erreurs est produit plus tard, par le dispatch d'erreur du conteneur.
+        int status = cachingResponse.getStatus();
+        if (status < 200 || status >= 300) {
+            idempotencyService.release(recordId, token);
+        } else {
+            idempotencyService.complete(recordId, token, status, cachingResponse.getContentType(),
+                    cachingResponse.getContentAsByteArray());
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    private void replay(IdempotencyRecord record, String requestHash, HttpServletResponse response) throws IOException {
+        if (!record.getRequestHash().equals(requestHash)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "Cette clé " + HEADER + " a déjà été utilisée pour une autre requête.");
+            return;
+        }
+        if (!record.isCompleted()) {
+            response.sendError(HttpStatus.CONFLICT.value(),
+                "Une requête avec cette clé " + HEADER + " est encore en cours de traitement.");
+            return;
+        }
+        response.setStatus(record.getResponseStatus());
+        if (record.getResponseContentType() != null) {
+            response.setContentType(record.getResponseContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] responseBody = record.getResponseBody() != null ? record.getResponseBody() : new byte[0];
+        response.setContentLength(responseBody.length);
+        response.getOutputStream().write(responseBody);
+    }
+
+    /**
+     * Requête dont le corps, déjà lu pour calculer son empreinte, est relu depuis la mémoire.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * Le corps est déjà en mémoire : toujours prêt, il est signalé disponible
+                 * puis entièrement lu dès l'enregistrement de l'écouteur.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
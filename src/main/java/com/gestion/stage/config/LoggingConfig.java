@@ -0,0 +1,56 @@
+package com.gestion.stage.config;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Journalisation hors appenders (ceux-ci sont dans logback-spring.xml) : ordres SQL
+ * échantillonnés et propagation du MDC, donc de l'identifiant de corrélation, aux tâches
+ * de l'exécuteur applicatif.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlHibernateProperties(
+            @Value("${gestion.logging.sql.sample-rate:0}") double sampleRate) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SampledSqlInspector(sampleRate));
+    }
+
+    /**
+     * Appliqué par Spring Boot à l'exécuteur applicatif : tâches @Async et corps de réponse
+     * asynchrones (StreamingResponseBody) gardent le MDC du thread qui les a soumis. Les
+     * exécuteurs créés par les services (pool des fiches, workers d'enregistrement) ne passent
+     * pas par ce décorateur et transmettent le MDC eux-mêmes.
+     */
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) {
+                    MDC.setContextMap(context);
+                } else {
+                    MDC.clear();
+                }
+                try {
+                    task.run();
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
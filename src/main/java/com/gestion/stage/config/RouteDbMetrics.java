@@ -0,0 +1,211 @@
+package com.gestion.stage.config;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.model.domain.NavigableRole;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Activité base de données de la requête HTTP en cours, enregistrée par route par
+ * {@link RouteDbMetricsFilter}.
+ * <p>
+ * Les compteurs sont alimentés par les statistiques Hibernate ({@link Statistics}, qui
+ * conservent aussi les totaux globaux), le temps d'obtention des connexions par un
+ * {@link SessionListener} et le temps de transaction par le gestionnaire de transactions
+ * (voir {@link DbMetricsConfig}). Hors requête HTTP (tâches planifiées, workers
+ * d'ingestion), seuls les totaux globaux sont mis à jour.
+ */
+public final class RouteDbMetrics {
+
+    private static final ThreadLocal<RouteDbMetrics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entitiesLoaded;
+    private long cacheHits;
+    private long cacheMisses;
+    private long transactionNanos;
+    private long connectionNanos;
+    private final Deque<Long> transactionStarts = new ArrayDeque<>();
+
+    private RouteDbMetrics() {
+    }
+
+    static RouteDbMetrics start() {
+        RouteDbMetrics metrics = new RouteDbMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RouteDbMetrics current() {
+        return CURRENT.get();
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getTransactionNanos() {
+        return transactionNanos;
+    }
+
+    public long getConnectionNanos() {
+        return connectionNanos;
+    }
+
+    static void transactionBegun() {
+        RouteDbMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.transactionStarts.push(System.nanoTime());
+        }
+    }
+
+    static void transactionCompleted() {
+        RouteDbMetrics metrics = CURRENT.get();
+        if (metrics != null && !metrics.transactionStarts.isEmpty()) {
+            metrics.transactionNanos += System.nanoTime() - metrics.transactionStarts.pop();
+        }
+    }
+
+    /**
+     * Statistiques Hibernate qui reportent aussi sur la requête en cours les ordres
+     * préparés, les entités chargées et les accès au cache de second niveau.
+     */
+    public static class Statistics extends StatisticsImpl {
+
+        public Statistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void prepareStatement() {
+            super.prepareStatement();
+            RouteDbMetrics metrics = CURRENT.get();
+            if (metrics != null) {
+                metrics.statements++;
+            }
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            RouteDbMetrics metrics = CURRENT.get();
+            if (metrics != null) {
+                metrics.entitiesLoaded++;
+            }
+        }
+
+        @Override
+        public void entityCacheHit(NavigableRole entityName, String regionName) {
+            super.entityCacheHit(entityName, regionName);
+            cacheHit();
+        }
+
+        @Override
+        public void entityCacheMiss(NavigableRole entityName, String regionName) {
+            super.entityCacheMiss(entityName, regionName);
+            cacheMiss();
+        }
+
+        @Override
+        public void collectionCacheHit(NavigableRole collectionRole, String regionName) {
+            super.collectionCacheHit(collectionRole, regionName);
+            cacheHit();
+        }
+
+        @Override
+        public void collectionCacheMiss(NavigableRole collectionRole, String regionName) {
+            super.collectionCacheMiss(collectionRole, regionName);
+            cacheMiss();
+        }
+
+        @Override
+        public void naturalIdCacheHit(NavigableRole entityName, String regionName) {
+            super.naturalIdCacheHit(entityName, regionName);
+            cacheHit();
+        }
+
+        @Override
+        public void naturalIdCacheMiss(NavigableRole entityName, String regionName) {
+            super.naturalIdCacheMiss(entityName, regionName);
+            cacheMiss();
+        }
+
+        @Override
+        public void queryCacheHit(String hql, String regionName) {
+            super.queryCacheHit(hql, regionName);
+            cacheHit();
+        }
+
+        @Override
+        public void queryCacheMiss(String hql, String regionName) {
+            super.queryCacheMiss(hql, regionName);
+            cacheMiss();
+        }
+
+        private static void cacheHit() {
+            RouteDbMetrics metrics = CURRENT.get();
+            if (metrics != null) {
+                metrics.cacheHits++;
+            }
+        }
+
+        private static void cacheMiss() {
+            RouteDbMetrics metrics = CURRENT.get();
+            if (metrics != null) {
+                metrics.cacheMisses++;
+            }
+        }
+    }
+
+    /** Fabrique déclarée à Hibernate par {@code hibernate.stats.factory}. */
+    public static class Factory implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new Statistics(sessionFactory);
+        }
+    }
+
+    /**
+     * Mesure l'obtention des connexions JDBC ; instancié par Hibernate pour chaque
+     * session ({@code hibernate.session.events.auto}).
+     */
+    public static class SessionListener implements SessionEventListener {
+
+        private long acquisitionStart;
+
+        @Override
+        public void jdbcConnectionAcquisitionStart() {
+            acquisitionStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcConnectionAcquisitionEnd() {
+            RouteDbMetrics metrics = CURRENT.get();
+            if (metrics != null) {
+                metrics.connectionNanos += System.nanoTime() - acquisitionStart;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.gestion.stage.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Enregistre l'activité base de données de chaque requête sous sa route, avec les mêmes
+ * étiquettes {@code method} et {@code uri} que {@code http.server.requests} :
+ * <ul>
+ * <li>{@code gestion.db.statements} : ordres SQL préparés par Hibernate ;</li>
+ * <li>{@code gestion.db.entities.loaded} : entités chargées ;</li>
+ * <li>{@code gestion.db.cache.hits} / {@code gestion.db.cache.misses} : accès au cache
+ * de second niveau ;</li>
+ * <li>{@code gestion.db.transaction} : temps passé dans les transactions ouvertes par la requête ;</li>
+ * <li>{@code gestion.db.connection.acquisition} : temps d'obtention des connexions JDBC.</li>
+ * </ul>
+ * Un échantillon par requête : {@code _sum / _count} donne le coût moyen d'un appel de la
+ * route, {@code _max} le pire appel récent. Exposé sur {@code /actuator/prometheus}.
+ * <p>
+ * Placé avant les autres filtres pour compter aussi leurs accès (Idempotency-Key).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RouteDbMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RouteDbMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteDbMetrics metrics = RouteDbMetrics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RouteDbMetrics.end();
+            record(request, metrics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RouteDbMetrics metrics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(),
+                "uri", pattern != null ? pattern.toString() : UNKNOWN_ROUTE);
+
+        summary("gestion.db.statements", "Ordres SQL préparés par requête", tags)
+                .record(metrics.getStatements());
+        summary("gestion.db.entities.loaded", "Entités chargées par requête", tags)
+                .record(metrics.getEntitiesLoaded());
+        summary("gestion.db.cache.hits", "Accès réussis au cache de second niveau par requête", tags)
+                .record(metrics.getCacheHits());
+        summary("gestion.db.cache.misses", "Accès manqués au cache de second niveau par requête", tags)
+                .record(metrics.getCacheMisses());
+        Timer.builder("gestion.db.transaction")
+                .description("Temps passé dans les transactions par requête")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(metrics.getTransactionNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("gestion.db.connection.acquisition")
+                .description("Temps d'obtention des connexions JDBC par requête")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(metrics.getConnectionNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
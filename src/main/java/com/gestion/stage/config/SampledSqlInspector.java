@@ -0,0 +1,46 @@
+package com.gestion.stage.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Journalise l'ordre SQL d'une fraction des requêtes (gestion.logging.sql.sample-rate),
+ * sous le logger {@value #LOGGER}, à la place de spring.jpa.show-sql qui écrit tout.
+ * <p>
+ * Le tirage se fait sur l'identifiant de corrélation : une requête échantillonnée a tous
+ * ses ordres SQL dans le journal, avec son identifiant. Hors requête HTTP (tâches planifiées,
+ * workers), chaque ordre est tiré séparément.
+ */
+final class SampledSqlInspector implements StatementInspector {
+
+    static final String LOGGER = "com.gestion.stage.sql";
+
+    private static final Logger logger = LoggerFactory.getLogger(LOGGER);
+    private static final int BUCKETS = 10_000;
+
+    private final int sampledBuckets;
+
+    SampledSqlInspector(double sampleRate) {
+        this.sampledBuckets = (int) Math.round(Math.max(0, Math.min(1, sampleRate)) * BUCKETS);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampledBuckets > 0 && logger.isInfoEnabled() && sampled()) {
+            logger.info("{}", sql);
+        }
+        return sql;
+    }
+
+    private boolean sampled() {
+        String correlationId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        int bucket = correlationId != null
+                ? Math.floorMod(correlationId.hashCode(), BUCKETS)
+                : ThreadLocalRandom.current().nextInt(BUCKETS);
+        return bucket < sampledBuckets;
+    }
+}
@@ -0,0 +1,31 @@
+package com.gestion.stage.config;
+
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.fr.FrenchLightStemFilterFactory;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
+import org.apache.lucene.analysis.util.ElisionFilterFactory;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Analyseurs de l'index de recherche plein texte (hibernate.search.backend.analysis.configurer).
+ * <p>
+ * {@link #FRANCAIS} : minuscules, élisions (l', d', qu'...) retirées, accents supprimés et
+ * racinisation légère : « developpement » trouve « Développements » et « entreprise »
+ * trouve « l'Entreprise ».
+ */
+public class SearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    public static final String FRANCAIS = "francais";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(FRANCAIS).custom()
+                .tokenizer(StandardTokenizerFactory.class)
+                .tokenFilter(LowerCaseFilterFactory.class)
+                .tokenFilter(ElisionFilterFactory.class)
+                .tokenFilter(ASCIIFoldingFilterFactory.class)
+                .tokenFilter(FrenchLightStemFilterFactory.class);
+    }
+}
@@ -35,8 +35,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Collections.singletonList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token"));
-        configuration.setExposedHeaders(Arrays.asList("x-auth-token"));
+        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token", "idempotency-key",
+                "if-match", "if-none-match", "if-modified-since"));
+        configuration.setExposedHeaders(Arrays.asList("x-auth-token", "idempotency-replayed", "etag", "last-modified"));
         configuration.setAllowCredentials(false); // Set to false when using "*" for allowedOrigins
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
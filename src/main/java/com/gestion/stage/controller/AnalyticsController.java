@@ -0,0 +1,63 @@
+package com.gestion.stage.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gestion.stage.dto.AnalyticsDTO;
+import com.gestion.stage.model.AnalyticsCumul;
+import com.gestion.stage.service.AnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Moyenne par catégorie pour chaque entreprise : ?entreprise= ou ?categorieId= pour
+     * restreindre, ?page=&size= (taille plafonnée par gestion.pagination.max-size).
+     */
+    @GetMapping("/entreprises")
+    public ResponseEntity<AnalyticsDTO> getParEntreprise(@RequestParam(required = false) String entreprise,
+                                                         @RequestParam(required = false) Long categorieId,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(analyticsService.getCumuls(AnalyticsCumul.Dimension.ENTREPRISE,
+                entreprise, categorieId, page, size));
+    }
+
+    /**
+     * Moyenne par catégorie pour chaque institution des stagiaires : ?institution= ou
+     * ?categorieId= pour restreindre, ?page=&size=.
+     */
+    @GetMapping("/institutions")
+    public ResponseEntity<AnalyticsDTO> getParInstitution(@RequestParam(required = false) String institution,
+                                                          @RequestParam(required = false) Long categorieId,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(analyticsService.getCumuls(AnalyticsCumul.Dimension.INSTITUTION,
+                institution, categorieId, page, size));
+    }
+
+    /**
+     * Recalcule tous les cumuls depuis la base (après un chargement SQL direct, par exemple).
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        return ResponseEntity.ok(Map.of("appreciations", analyticsService.rebuild()));
+    }
+}
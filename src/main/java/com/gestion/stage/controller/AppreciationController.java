@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,8 +15,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Appreciation;
 import com.gestion.stage.model.Competences;
 import com.gestion.stage.model.Evaluation;
@@ -23,7 +29,11 @@ import com.gestion.stage.model.Periode;
 import com.gestion.stage.service.AppreciationService;
 import com.gestion.stage.service.CompetencesService;
 import com.gestion.stage.service.EvaluationService;
+import com.gestion.stage.service.NdjsonExportService;
 import com.gestion.stage.service.PeriodeService;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
+import com.gestion.stage.service.StageImportService;
 import com.gestion.stage.service.TuteurService;
 
 import jakarta.validation.Valid;
@@ -38,27 +48,67 @@ public class AppreciationController {
     private final CompetencesService competencesService;
     private final PeriodeService periodeService;
     private final EvaluationService evaluationService;
+    private final ResourceVersions resourceVersions;
+    private final NdjsonExportService ndjsonExportService;
 
     @Autowired
     public AppreciationController(AppreciationService appreciationService,
                                  TuteurService tuteurService,
                                  CompetencesService competencesService,
                                  PeriodeService periodeService,
-                                 EvaluationService evaluationService) {
+                                 EvaluationService evaluationService,
+                                 ResourceVersions resourceVersions,
+                                 NdjsonExportService ndjsonExportService) {
         this.appreciationService = appreciationService;
         this.tuteurService = tuteurService;
         this.competencesService = competencesService;
         this.periodeService = periodeService;
         this.evaluationService = evaluationService;
+        this.resourceVersions = resourceVersions;
+        this.ndjsonExportService = ndjsonExportService;
     }
 
+    /**
+     * Liste paginée par curseur : ?size=&sort=&direction=&cursor= plus les filtres.
+     * La taille de page est plafonnée (gestion.pagination.max-size).
+     */
     @GetMapping
+    public ResponseEntity<CursorPage<Appreciation>> getAppreciationsPage(
+            PageQuery page,
+            @RequestParam(required = false) Long periodeId,
+            @RequestParam(required = false) Long tuteurId,
+            @RequestParam(required = false) Long competenceId) {
+        return ResponseEntity.ok(appreciationService.getAppreciationsPage(page, periodeId, tuteurId, competenceId));
+    }
+
+    /**
+     * Liste complète, non paginée (comportement historique), sur demande explicite : ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<Appreciation>> getAllAppreciations() {
         return ResponseEntity.ok(appreciationService.getAllAppreciations());
     }
 
+    /**
+     * Export complet en NDJSON, écrit en flux sans charger la table en mémoire (voir
+     * NdjsonExportService) : pour les exports et écrans d'administration.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppreciations() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(StageImportService.NDJSON_VALUE))
+                .body(ndjsonExportService.export("appreciations", appreciationService::streamAllAppreciations));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Appreciation> getAppreciationById(@PathVariable Long id) {
+    public ResponseEntity<Appreciation> getAppreciationById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.appreciation(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return appreciationService.getAppreciationById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -162,10 +212,18 @@ public class AppreciationController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Appreciation> updateAppreciation(@PathVariable Long id, @Valid @RequestBody Appreciation appreciation) {
+    public ResponseEntity<Appreciation> updateAppreciation(@PathVariable Long id, @Valid @RequestBody Appreciation appreciation, WebRequest request) {
+        ResourceVersion version = resourceVersions.appreciation(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return appreciationService.getAppreciationById(id)
                 .map(existingAppreciation -> {
                     appreciation.setId(id);
+                    appreciation.setVersion(version.version());
                     appreciation.setTuteur(existingAppreciation.getTuteur()); // Préserver la relation
 
                     // Preserve periode relationship if not specified
@@ -183,7 +241,7 @@ public class AppreciationController {
                         appreciation.setEvaluation(existingAppreciation.getEvaluation());
                     }
 
-                    return ResponseEntity.ok(appreciationService.saveAppreciation(appreciation));
+                    return ResponseEntity.ok(version.update(() -> appreciationService.saveAppreciation(appreciation)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
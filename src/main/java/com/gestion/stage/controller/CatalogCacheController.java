@@ -0,0 +1,62 @@
+package com.gestion.stage.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gestion.stage.service.CatalogCache;
+import com.gestion.stage.service.PeriodeProfileCache;
+import com.gestion.stage.service.SecondLevelCacheStats;
+
+@RestController
+@RequestMapping("/api/catalog-cache")
+@CrossOrigin(origins = "*")
+public class CatalogCacheController {
+
+    private final CatalogCache catalogCache;
+    private final SecondLevelCacheStats secondLevelCacheStats;
+    private final PeriodeProfileCache periodeProfileCache;
+
+    @Autowired
+    public CatalogCacheController(CatalogCache catalogCache, SecondLevelCacheStats secondLevelCacheStats,
+                                  PeriodeProfileCache periodeProfileCache) {
+        this.catalogCache = catalogCache;
+        this.secondLevelCacheStats = secondLevelCacheStats;
+        this.periodeProfileCache = periodeProfileCache;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(catalogCache.getStats());
+    }
+
+    /**
+     * Cache de second niveau Hibernate (catégories, compétences, personnes et recherches par
+     * intitulé ou email) : succès, défauts et taux de succès par région.
+     */
+    @GetMapping("/second-level/stats")
+    public ResponseEntity<Map<String, Object>> getSecondLevelStats() {
+        return ResponseEntity.ok(secondLevelCacheStats.getStats());
+    }
+
+    /**
+     * Cache des profils de période (GET /api/periodes/{id}/profile) : succès, défauts, taux de
+     * succès et nombre de périodes en cache.
+     */
+    @GetMapping("/periode-profiles/stats")
+    public ResponseEntity<Map<String, Object>> getPeriodeProfileStats() {
+        return ResponseEntity.ok(periodeProfileCache.getStats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> invalidate() {
+        catalogCache.invalidate();
+        return ResponseEntity.noContent().build();
+    }
+}
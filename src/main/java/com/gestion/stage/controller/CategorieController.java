@@ -14,9 +14,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.gestion.stage.dto.ScoreStatsDTO;
 import com.gestion.stage.model.Categorie;
+import com.gestion.stage.service.AnalyticsService;
 import com.gestion.stage.service.CategorieService;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
 
 import jakarta.validation.Valid;
 
@@ -26,19 +31,48 @@ import jakarta.validation.Valid;
 public class CategorieController {
 
     private final CategorieService categorieService;
+    private final ResourceVersions resourceVersions;
+    private final AnalyticsService analyticsService;
 
     @Autowired
-    public CategorieController(CategorieService categorieService) {
+    public CategorieController(CategorieService categorieService, ResourceVersions resourceVersions,
+                               AnalyticsService analyticsService) {
         this.categorieService = categorieService;
+        this.resourceVersions = resourceVersions;
+        this.analyticsService = analyticsService;
     }
 
+    /**
+     * Toutes les catégories avec leurs compétences ; 304 sans les charger si rien n'a
+     * changé depuis l'ETag envoyé (écran de gestion des catégories interrogé en boucle).
+     */
     @GetMapping
-    public ResponseEntity<List<Categorie>> getAllCategories() {
+    public ResponseEntity<List<Categorie>> getAllCategories(WebRequest request) {
+        if (resourceVersions.categories().checkNotModified(request)) {
+            return null;
+        }
         return ResponseEntity.ok(categorieService.getAllCategories());
     }
 
+    /**
+     * Distribution des valeurs d'évaluation de la catégorie, ses compétences confondues :
+     * centiles p10/p50/p90, histogramme et nombre par niveau, tenus à jour avec les cumuls
+     * analytiques.
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ScoreStatsDTO> getStats(@PathVariable Long id) {
+        return ResponseEntity.ok(analyticsService.getCategorieStats(id));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Categorie> getCategorieById(@PathVariable Long id) {
+    public ResponseEntity<Categorie> getCategorieById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.categorie(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return categorieService.getCategorieById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -57,11 +91,19 @@ public class CategorieController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Categorie> updateCategorie(@PathVariable Long id, @Valid @RequestBody Categorie categorie) {
+    public ResponseEntity<Categorie> updateCategorie(@PathVariable Long id, @Valid @RequestBody Categorie categorie, WebRequest request) {
+        ResourceVersion version = resourceVersions.categorie(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return categorieService.getCategorieById(id)
                 .map(existingCategorie -> {
                     categorie.setId(id);
-                    return ResponseEntity.ok(categorieService.saveCategorie(categorie));
+                    categorie.setVersion(version.version());
+                    return ResponseEntity.ok(version.update(() -> categorieService.saveCategorie(categorie)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -13,10 +13,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
+import com.gestion.stage.dto.ScoreStatsDTO;
 import com.gestion.stage.model.Competences;
+import com.gestion.stage.service.AnalyticsService;
 import com.gestion.stage.service.CompetencesService;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
 
 import jakarta.validation.Valid;
 
@@ -26,19 +34,55 @@ import jakarta.validation.Valid;
 public class CompetencesController {
 
     private final CompetencesService competencesService;
+    private final ResourceVersions resourceVersions;
+    private final AnalyticsService analyticsService;
 
     @Autowired
-    public CompetencesController(CompetencesService competencesService) {
+    public CompetencesController(CompetencesService competencesService, ResourceVersions resourceVersions,
+                                 AnalyticsService analyticsService) {
         this.competencesService = competencesService;
+        this.resourceVersions = resourceVersions;
+        this.analyticsService = analyticsService;
     }
 
+    /**
+     * Liste paginée par curseur : ?size=&sort=&direction=&cursor= plus les filtres.
+     * La taille de page est plafonnée (gestion.pagination.max-size).
+     */
     @GetMapping
+    public ResponseEntity<CursorPage<Competences>> getCompetencesPage(
+            PageQuery page,
+            @RequestParam(required = false) Long categorieId,
+            @RequestParam(required = false) String intitule) {
+        return ResponseEntity.ok(competencesService.getCompetencesPage(page, categorieId, intitule));
+    }
+
+    /**
+     * Liste complète, non paginée (comportement historique), sur demande explicite : ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<Competences>> getAllCompetences() {
         return ResponseEntity.ok(competencesService.getAllCompetences());
     }
 
+    /**
+     * Distribution des valeurs d'évaluation de la compétence : centiles p10/p50/p90,
+     * histogramme et nombre par niveau, tenus à jour avec les cumuls analytiques.
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ScoreStatsDTO> getStats(@PathVariable Long id) {
+        return ResponseEntity.ok(analyticsService.getCompetenceStats(id));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Competences> getCompetencesById(@PathVariable Long id) {
+    public ResponseEntity<Competences> getCompetencesById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.competences(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return competencesService.getCompetencesById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -57,11 +101,19 @@ public class CompetencesController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Competences> updateCompetences(@PathVariable Long id, @Valid @RequestBody Competences competences) {
+    public ResponseEntity<Competences> updateCompetences(@PathVariable Long id, @Valid @RequestBody Competences competences, WebRequest request) {
+        ResourceVersion version = resourceVersions.competences(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return competencesService.getCompetencesById(id)
                 .map(existingCompetences -> {
                     competences.setId(id);
-                    return ResponseEntity.ok(competencesService.saveCompetences(competences));
+                    competences.setVersion(version.version());
+                    return ResponseEntity.ok(version.update(() -> competencesService.saveCompetences(competences)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -13,13 +13,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Appreciation;
 import com.gestion.stage.model.Evaluation;
 import com.gestion.stage.service.AppreciationService;
 import com.gestion.stage.service.CompetencesService;
 import com.gestion.stage.service.EvaluationService;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
 
 import jakarta.validation.Valid;
 
@@ -31,24 +37,48 @@ public class EvaluationController {
     private final EvaluationService evaluationService;
     private final AppreciationService appreciationService;
     private final CompetencesService competencesService;
+    private final ResourceVersions resourceVersions;
 
     @Autowired
     public EvaluationController(
             EvaluationService evaluationService,
             AppreciationService appreciationService,
-            CompetencesService competencesService) {
+            CompetencesService competencesService,
+            ResourceVersions resourceVersions) {
         this.evaluationService = evaluationService;
         this.appreciationService = appreciationService;
         this.competencesService = competencesService;
+        this.resourceVersions = resourceVersions;
     }
 
+    /**
+     * Liste paginée par curseur : ?size=&sort=&direction=&cursor= plus les filtres.
+     * La taille de page est plafonnée (gestion.pagination.max-size).
+     */
     @GetMapping
+    public ResponseEntity<CursorPage<Evaluation>> getEvaluationsPage(
+            PageQuery page,
+            @RequestParam(required = false) String categorie) {
+        return ResponseEntity.ok(evaluationService.getEvaluationsPage(page, categorie));
+    }
+
+    /**
+     * Liste complète, non paginée (comportement historique), sur demande explicite : ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<Evaluation>> getAllEvaluations() {
         return ResponseEntity.ok(evaluationService.getAllEvaluations());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Evaluation> getEvaluationById(@PathVariable Long id) {
+    public ResponseEntity<Evaluation> getEvaluationById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.evaluation(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return evaluationService.getEvaluationById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -72,11 +102,19 @@ public class EvaluationController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Evaluation> updateEvaluation(@PathVariable Long id, @Valid @RequestBody Evaluation evaluation) {
+    public ResponseEntity<Evaluation> updateEvaluation(@PathVariable Long id, @Valid @RequestBody Evaluation evaluation, WebRequest request) {
+        ResourceVersion version = resourceVersions.evaluation(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return evaluationService.getEvaluationById(id)
                 .map(existingEvaluation -> {
                     evaluation.setId(id);
-                    return ResponseEntity.ok(evaluationService.saveEvaluation(evaluation));
+                    evaluation.setVersion(version.version());
+                    return ResponseEntity.ok(version.update(() -> evaluationService.saveEvaluation(evaluation)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
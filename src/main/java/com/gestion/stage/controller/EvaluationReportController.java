@@ -0,0 +1,100 @@
+package com.gestion.stage.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.gestion.stage.service.EvaluationReportService;
+import com.gestion.stage.service.SpreadsheetExportService;
+
+@RestController
+@RequestMapping("/api/rapports")
+@CrossOrigin(origins = "*")
+public class EvaluationReportController {
+
+    private static final MediaType ZIP = MediaType.parseMediaType("application/zip");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final EvaluationReportService evaluationReportService;
+    private final SpreadsheetExportService spreadsheetExportService;
+
+    @Autowired
+    public EvaluationReportController(EvaluationReportService evaluationReportService,
+                                      SpreadsheetExportService spreadsheetExportService) {
+        this.evaluationReportService = evaluationReportService;
+        this.spreadsheetExportService = spreadsheetExportService;
+    }
+
+    /**
+     * Fiche d'évaluation PDF d'une période.
+     */
+    @GetMapping("/periodes/{id}")
+    public ResponseEntity<byte[]> getFichePeriode(@PathVariable Long id) {
+        byte[] pdf = evaluationReportService.renderPeriode(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename("periode-" + id + ".pdf").build().toString())
+                .body(pdf);
+    }
+
+    /**
+     * Archive ZIP des fiches de toutes les périodes qui chevauchent ?debut=&fin=, générées
+     * en parallèle et écrites en flux.
+     */
+    @GetMapping("/periodes")
+    public ResponseEntity<StreamingResponseBody> getFichesPeriodes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin) {
+        StreamingResponseBody body = evaluationReportService.renderBatch(debut, fin);
+        return ResponseEntity.ok()
+                .contentType(ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("fiches-" + debut + "-" + fin + ".zip").build().toString())
+                .body(body);
+    }
+
+    /**
+     * Toutes les évaluations avec leur catégorie, compétence, période, stagiaire et tuteur,
+     * en tableur : ?format=csv (par défaut) ou ?format=xlsx. Écrit en flux depuis une seule
+     * requête (voir SpreadsheetExportService).
+     */
+    @GetMapping("/evaluations")
+    public ResponseEntity<StreamingResponseBody> exportEvaluations(@RequestParam(defaultValue = "csv") String format) {
+        StreamingResponseBody body;
+        MediaType type;
+        switch (format) {
+            case "csv" -> {
+                body = spreadsheetExportService.exportCsv();
+                type = CSV;
+            }
+            case "xlsx" -> {
+                body = spreadsheetExportService.exportXlsx();
+                type = XLSX;
+            }
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Format d'export inconnu: " + format + " (csv ou xlsx)");
+        }
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("evaluations." + format).build().toString())
+                .body(body);
+    }
+}
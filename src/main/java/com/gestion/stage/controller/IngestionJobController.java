@@ -0,0 +1,32 @@
+package com.gestion.stage.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gestion.stage.model.IngestionJob;
+import com.gestion.stage.service.IngestionQueueService;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class IngestionJobController {
+
+    private final IngestionQueueService ingestionQueueService;
+
+    @Autowired
+    public IngestionJobController(IngestionQueueService ingestionQueueService) {
+        this.ingestionQueueService = ingestionQueueService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<IngestionJob> getJob(@PathVariable Long id) {
+        return ingestionQueueService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -5,8 +5,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,8 +20,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.gestion.stage.dto.CalendrierDTO;
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
+import com.gestion.stage.dto.PeriodeProfileDTO;
 import com.gestion.stage.model.Appreciation;
 import com.gestion.stage.model.Categorie;
 import com.gestion.stage.model.Competences;
@@ -29,7 +40,13 @@ import com.gestion.stage.service.AppreciationService;
 import com.gestion.stage.service.CategorieService;
 import com.gestion.stage.service.CompetencesService;
 import com.gestion.stage.service.EvaluationService;
+import com.gestion.stage.service.NdjsonExportService;
+import com.gestion.stage.service.PeriodeCalendar;
+import com.gestion.stage.service.PeriodeProfileService;
 import com.gestion.stage.service.PeriodeService;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
+import com.gestion.stage.service.StageImportService;
 import com.gestion.stage.service.StageService;
 import com.gestion.stage.service.StagiaireService;
 import com.gestion.stage.service.TuteurService;
@@ -41,6 +58,8 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "*")
 public class PeriodeController {
 
+    private static final Logger logger = LoggerFactory.getLogger(PeriodeController.class);
+
     private final PeriodeService periodeService;
     private final StageService stageService;
     private final TuteurService tuteurService;
@@ -49,9 +68,13 @@ public class PeriodeController {
     private final CategorieService categorieService;
     private final CompetencesService competencesService;
     private final EvaluationService evaluationService;
+    private final ResourceVersions resourceVersions;
+    private final NdjsonExportService ndjsonExportService;
+    private final PeriodeCalendar periodeCalendar;
+    private final PeriodeProfileService periodeProfileService;
 
     @Autowired
-    public PeriodeController(PeriodeService periodeService, StageService stageService, TuteurService tuteurService, StagiaireService stagiaireService, AppreciationService appreciationService, CategorieService categorieService, CompetencesService competencesService, EvaluationService evaluationService) {
+    public PeriodeController(PeriodeService periodeService, StageService stageService, TuteurService tuteurService, StagiaireService stagiaireService, AppreciationService appreciationService, CategorieService categorieService, CompetencesService competencesService, EvaluationService evaluationService, ResourceVersions resourceVersions, NdjsonExportService ndjsonExportService, PeriodeCalendar periodeCalendar, PeriodeProfileService periodeProfileService) {
         this.periodeService = periodeService;
         this.stageService = stageService;
         this.tuteurService = tuteurService;
@@ -60,20 +83,112 @@ public class PeriodeController {
         this.categorieService = categorieService;
         this.competencesService = competencesService;
         this.evaluationService = evaluationService;
+        this.resourceVersions = resourceVersions;
+        this.ndjsonExportService = ndjsonExportService;
+        this.periodeCalendar = periodeCalendar;
+        this.periodeProfileService = periodeProfileService;
     }
 
+    /**
+     * Liste paginée par curseur : ?size=&sort=&direction=&cursor= plus les filtres.
+     * La taille de page est plafonnée (gestion.pagination.max-size).
+     */
     @GetMapping
+    public ResponseEntity<CursorPage<Periode>> getPeriodesPage(
+            PageQuery page,
+            @RequestParam(required = false) Long stageId,
+            @RequestParam(required = false) Long stagiaireId,
+            @RequestParam(required = false) Long tuteurId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebutMin,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFinMax) {
+        return ResponseEntity.ok(periodeService.getPeriodesPage(page, stageId, stagiaireId, tuteurId, dateDebutMin, dateFinMax));
+    }
+
+    /**
+     * Liste complète, non paginée (comportement historique), sur demande explicite : ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<Periode>> getAllPeriodes() {
         return ResponseEntity.ok(periodeService.getAllPeriodes());
     }
 
+    /**
+     * Export complet en NDJSON, écrit en flux sans charger la table en mémoire (voir
+     * NdjsonExportService) : pour les exports et écrans d'administration.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPeriodes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(StageImportService.NDJSON_VALUE))
+                .body(ndjsonExportService.export("periodes", periodeService::streamAllPeriodes));
+    }
+
+    /**
+     * Périodes en cours à une date, paginées par curseur : ?date=&size=&sort=&direction=&cursor=
+     */
+    @GetMapping("/actives")
+    public ResponseEntity<CursorPage<Periode>> getPeriodesActives(
+            PageQuery page,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(periodeService.getPeriodesActivesPage(page, date));
+    }
+
+    /**
+     * Périodes qui chevauchent une fenêtre [debut, fin], paginées par curseur.
+     */
+    @GetMapping("/chevauchant")
+    public ResponseEntity<CursorPage<Periode>> getPeriodesChevauchant(
+            PageQuery page,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin) {
+        return ResponseEntity.ok(periodeService.getPeriodesChevauchantPage(page, debut, fin));
+    }
+
+    /**
+     * Calendrier : identifiant et dates des périodes qui chevauchent [debut, fin], servis
+     * depuis la mémoire (PeriodeCalendar), au plus ?limit= (gestion.periodes.calendrier.max-results).
+     */
+    @GetMapping("/calendrier")
+    public ResponseEntity<CalendrierDTO> getCalendrier(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(periodeCalendar.overlapping(debut, fin, limit));
+    }
+
+    /**
+     * Recharge le calendrier depuis la base (après un import SQL direct, par exemple).
+     */
+    @PostMapping("/calendrier/reload")
+    public ResponseEntity<Void> reloadCalendrier() {
+        periodeCalendar.reload();
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Periode> getPeriodeById(@PathVariable Long id) {
+    public ResponseEntity<Periode> getPeriodeById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.periode(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return periodeService.getPeriodeById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Profil d'évaluation de la période pour les graphiques : moyenne par catégorie et vecteur
+     * ordonné des compétences (notes sur 20), servi depuis un cache invalidé à chaque
+     * modification de ses appréciations.
+     */
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<PeriodeProfileDTO> getProfile(@PathVariable Long id) {
+        return ResponseEntity.ok(periodeProfileService.getProfile(id));
+    }
+
     @GetMapping("/debut-apres/{date}")
     public ResponseEntity<List<Periode>> getPeriodesDebutantApres(
             @PathVariable @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate date) {
@@ -136,16 +251,24 @@ public class PeriodeController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Periode> updatePeriode(@PathVariable Long id, @Valid @RequestBody Periode periode) {
+    public ResponseEntity<Periode> updatePeriode(@PathVariable Long id, @Valid @RequestBody Periode periode, WebRequest request) {
+        ResourceVersion version = resourceVersions.periode(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return periodeService.getPeriodeById(id)
                 .map(existingPeriode -> {
                     periode.setId(id);
+                    periode.setVersion(version.version());
                     periode.setStage(existingPeriode.getStage()); // Préserver la relation
                     // Preserve stagiaire relationship if not specified
                     if (periode.getStagiaire() == null) {
                         periode.setStagiaire(existingPeriode.getStagiaire());
                     }
-                    return ResponseEntity.ok(periodeService.savePeriode(periode));
+                    return ResponseEntity.ok(version.update(() -> periodeService.savePeriode(periode)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -168,7 +291,7 @@ public class PeriodeController {
      */
     @PostMapping("/{periodeId}/tuteur/{tuteurId}")
     public ResponseEntity<Periode> associateTuteurToPeriodePost(@PathVariable Long periodeId, @PathVariable Long tuteurId) {
-        System.out.println("POST association tuteur " + tuteurId + " à période " + periodeId);
+        logger.debug("POST association tuteur {} à période {}", tuteurId, periodeId);
         return associateTuteurToPeriode(periodeId, tuteurId);
     }
 
@@ -180,7 +303,7 @@ public class PeriodeController {
      */
     @PutMapping("/{periodeId}/tuteur/{tuteurId}")
     public ResponseEntity<Periode> associateTuteurToPeriodePut(@PathVariable Long periodeId, @PathVariable Long tuteurId) {
-        System.out.println("PUT association tuteur " + tuteurId + " à période " + periodeId);
+        logger.debug("PUT association tuteur {} à période {}", tuteurId, periodeId);
         return associateTuteurToPeriode(periodeId, tuteurId);
     }
 
@@ -188,19 +311,17 @@ public class PeriodeController {
      * Méthode privée commune pour associer un tuteur à une période
      */
     private ResponseEntity<Periode> associateTuteurToPeriode(Long periodeId, Long tuteurId) {
-        System.out.println("Tentative d'association tuteur " + tuteurId + " à période " + periodeId);
-
         Optional<Periode> optionalPeriode = periodeService.getPeriodeById(periodeId);
         Optional<Tuteur> optionalTuteur = tuteurService.getTuteurById(tuteurId);
 
         // Vérifier si la période et istent
         if (!optionalPeriode.isPresent()) {
-            System.out.println("Période non trouvée avec ID: " + periodeId);
+            logger.debug("Période non trouvée avec ID: {}", periodeId);
             return ResponseEntity.notFound().build();
         }
 
         if (!optionalTuteur.isPresent()) {
-            System.out.println("Tuteur non trouvé avec ID: " + tuteurId);
+            logger.debug("Tuteur non trouvé avec ID: {}", tuteurId);
             return ResponseEntity.notFound().build();
         }
 
@@ -211,7 +332,7 @@ public class PeriodeController {
         // Associer le tuteur à la période
         periode.setTuteur(tuteur);
         Periode updatedPeriode = periodeService.savePeriode(periode);
-        System.out.println("Association réussie: tuteur " + tuteurId + " à période " + periodeId);
+        logger.info("Tuteur {} associé à la période {}", tuteurId, periodeId);
 
         return ResponseEntity.ok(updatedPeriode);
     }
@@ -251,7 +372,7 @@ public class PeriodeController {
                 // Associer le tuteur à la période
                 periode.setTuteur(tuteur);
                 periode = periodeService.savePeriode(periode);
-                System.out.println("Tuteur par défaut associé à la période ID: " + periode.getId());
+                logger.debug("Tuteur par défaut associé à la période ID: {}", periode.getId());
             }
 
             // Créer une appréciation
@@ -287,7 +408,7 @@ public class PeriodeController {
                 "message", "Test complet exécuté avec succès. Données créées dans toutes les tables."
             ));
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Échec du test complet", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", e.getMessage()));
         }
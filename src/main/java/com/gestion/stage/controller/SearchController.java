@@ -0,0 +1,48 @@
+package com.gestion.stage.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gestion.stage.dto.SearchResultsDTO;
+import com.gestion.stage.service.SearchService;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Recherche plein texte dans les stages (description, objectif, entreprise) et les
+     * commentaires d'évaluation, classée par pertinence : ?q=&type=&page=&size=
+     */
+    @GetMapping
+    public ResponseEntity<SearchResultsDTO> search(@RequestParam(required = false) String q,
+                                                   @RequestParam(required = false) String type,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(searchService.search(q, type, page, size));
+    }
+
+    /**
+     * Reconstruit l'index depuis la base (après un chargement SQL direct, par exemple).
+     * Répond immédiatement, la reconstruction se poursuit en tâche de fond.
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<Void> reindex() {
+        searchService.reindex();
+        return ResponseEntity.accepted().build();
+    }
+}
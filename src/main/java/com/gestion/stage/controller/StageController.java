@@ -1,16 +1,16 @@
 package com.gestion.stage.controller;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.lang.Nullable;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,27 +21,29 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.gestion.stage.dto.CompetencyDetailDTO;
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.ImportReportDTO;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.dto.StageCreateDTO;
-import com.gestion.stage.model.Appreciation;
-import com.gestion.stage.model.Categorie;
-import com.gestion.stage.model.Competences;
-import com.gestion.stage.model.Evaluation;
-import com.gestion.stage.model.Periode;
+import com.gestion.stage.dto.StageDashboardDTO;
+import com.gestion.stage.model.IngestionJob;
 import com.gestion.stage.model.Stage;
 import com.gestion.stage.model.Stagiaire;
-import com.gestion.stage.model.Tuteur;
-import com.gestion.stage.repository.AppreciationRepository;
-import com.gestion.stage.repository.CategorieRepository;
-import com.gestion.stage.repository.CompetencesRepository;
-import com.gestion.stage.repository.EvaluationRepository;
-import com.gestion.stage.repository.PeriodeRepository;
 import com.gestion.stage.repository.StagiaireRepository;
-import com.gestion.stage.repository.TuteurRepository;
+import com.gestion.stage.service.IngestionQueueService;
+import com.gestion.stage.service.NdjsonExportService;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
+import com.gestion.stage.service.StageDashboardService;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.service.StageImportService;
 import com.gestion.stage.service.StageService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -52,45 +54,101 @@ public class StageController {
     private static final Logger logger = LoggerFactory.getLogger(StageController.class);
 
     private final StageService stageService;
+    private final StageFormService stageFormService;
+    private final StageImportService stageImportService;
+    private final IngestionQueueService ingestionQueueService;
+    private final StageDashboardService stageDashboardService;
     private final StagiaireRepository stagiaireRepository;
-    private final TuteurRepository tuteurRepository;
-    private final EvaluationRepository evaluationRepository;
-    private final AppreciationRepository appreciationRepository;
-    private final CategorieRepository categorieRepository;
-    private final CompetencesRepository competencesRepository;
-    private final PeriodeRepository periodeRepository;
+    private final ResourceVersions resourceVersions;
+    private final NdjsonExportService ndjsonExportService;
 
     @Autowired
     public StageController(StageService stageService,
+                         StageFormService stageFormService,
+                         StageImportService stageImportService,
+                         IngestionQueueService ingestionQueueService,
+                         StageDashboardService stageDashboardService,
                          StagiaireRepository stagiaireRepository,
-                         TuteurRepository tuteurRepository,
-                         EvaluationRepository evaluationRepository,
-                         AppreciationRepository appreciationRepository,
-                         CategorieRepository categorieRepository,
-                         CompetencesRepository competencesRepository,
-                         PeriodeRepository periodeRepository) {
+                         ResourceVersions resourceVersions,
+                         NdjsonExportService ndjsonExportService) {
         this.stageService = stageService;
+        this.stageFormService = stageFormService;
+        this.stageImportService = stageImportService;
+        this.ingestionQueueService = ingestionQueueService;
+        this.stageDashboardService = stageDashboardService;
         this.stagiaireRepository = stagiaireRepository;
-        this.tuteurRepository = tuteurRepository;
-        this.evaluationRepository = evaluationRepository;
-        this.appreciationRepository = appreciationRepository;
-        this.categorieRepository = categorieRepository;
-        this.competencesRepository = competencesRepository;
-        this.periodeRepository = periodeRepository;
+        this.resourceVersions = resourceVersions;
+        this.ndjsonExportService = ndjsonExportService;
     }
 
+    /**
+     * Liste paginée par curseur : ?size=&sort=&direction=&cursor= plus les filtres.
+     * La taille de page est plafonnée (gestion.pagination.max-size).
+     */
     @GetMapping
+    public ResponseEntity<CursorPage<Stage>> getStagesPage(
+            PageQuery page,
+            @RequestParam(required = false) String entreprise,
+            @RequestParam(required = false) Long stagiaireId,
+            @RequestParam(required = false) Long tuteurId) {
+        return ResponseEntity.ok(stageService.getStagesPage(page, entreprise, stagiaireId, tuteurId));
+    }
+
+    /**
+     * Liste complète, non paginée (comportement historique), sur demande explicite : ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<Stage>> getAllStages() {
         return ResponseEntity.ok(stageService.getAllStages());
     }
 
+    /**
+     * Export complet en NDJSON, écrit en flux sans charger la table en mémoire (voir
+     * NdjsonExportService) : pour les exports et écrans d'administration.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStages() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(StageImportService.NDJSON_VALUE))
+                .body(ndjsonExportService.export("stages", stageService::streamAllStages));
+    }
+
+    /**
+     * Stage avec ses périodes et appréciations. Répond 304 sans les charger si l'ETag
+     * envoyé en If-None-Match est toujours celui du stage.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Stage> getStageById(@PathVariable Long id) {
+    public ResponseEntity<Stage> getStageById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.stage(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return stageService.getStageById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Tableau de bord d'un stage : stage, stagiaire, tuteur, scores par catégorie et
+     * évaluations par compétence de la période demandée (la première par défaut).
+     */
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<StageDashboardDTO> getStageDashboard(@PathVariable Long id,
+                                                               @RequestParam(required = false) Long periodeId,
+                                                               WebRequest request) {
+        ResourceVersion version = resourceVersions.stageDashboard(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(stageDashboardService.getDashboard(id, periodeId));
+    }
+
     @GetMapping("/stagiaire/{stagiaireId}")
     public ResponseEntity<List<Stage>> getStagesByStagiaire(@PathVariable Long stagiaireId) {
         return stagiaireRepository.findById(stagiaireId)
@@ -127,7 +185,7 @@ public class StageController {
             @RequestParam String stagiaireId) {
 
         try {
-            System.out.println("Creating stage with raw ID string: stagiaireId=" + stagiaireId);
+            logger.debug("Creating stage with raw ID string: stagiaireId={}", stagiaireId);
 
             // Manual parameter validation and conversion
             if (stagiaireId == null || stagiaireId.trim().isEmpty()) {
@@ -144,7 +202,7 @@ public class StageController {
                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         "L'ID du stagiaire doit être un nombre positif: " + stagiaireId);
                 }
-                System.out.println("Parsed stagiaireId: " + stagiaireIdLong + " (type: Long)");
+                logger.debug("Parsed stagiaireId: {}", stagiaireIdLong);
             } catch (NumberFormatException e) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "L'ID du stagiaire doit être un nombre valide: " + stagiaireId);
@@ -156,7 +214,7 @@ public class StageController {
                 stagiaire = stagiaireRepository.findById(stagiaireIdLong)
                         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                                 "Stagiaire not found with id: " + stagiaireIdLong));
-                System.out.println("Found stagiaire: " + stagiaire);
+                logger.debug("Found stagiaire: {}", stagiaire.getId());
             } catch (Exception e) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Erreur lors de la récupération du stagiaire: " + e.getMessage());
@@ -168,31 +226,43 @@ public class StageController {
             // Save the stage
             try {
                 Stage savedStage = stageService.saveStage(stage);
-                System.out.println("Stage saved successfully with ID: " + savedStage.getId());
+                logger.debug("Stage saved successfully with ID: {}", savedStage.getId());
                 return new ResponseEntity<>(savedStage, HttpStatus.CREATED);
             } catch (Exception e) {
-                System.err.println("Error saving stage: " + e.getMessage());
-                e.printStackTrace();
+                logger.error("Error saving stage", e);
                 throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Erreur lors de l'enregistrement du stage: " + e.getMessage());
             }
         } catch (ResponseStatusException e) {
             throw e; // Re-throw response exceptions as-is
         } catch (Exception e) {
-            System.err.println("Unexpected error in createStageWithIds: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Unexpected error in createStageWithIds", e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                 "Erreur inattendue lors de la création du stage: " + e.getMessage());
         }
     }
 
+    /**
+     * Met à jour le stage ; avec If-Match, seulement s'il n'a pas changé depuis (412 sinon).
+     * Les périodes se modifient par leurs propres endpoints.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Stage> updateStage(@PathVariable Long id, @Valid @RequestBody Stage stage) {
-        if (!stageService.existsById(id)) {
+    public ResponseEntity<Stage> updateStage(@PathVariable Long id, @Valid @RequestBody Stage stage, WebRequest request) {
+        ResourceVersion version = resourceVersions.stage(id).orElse(null);
+        if (version == null) {
             return ResponseEntity.notFound().build();
         }
-        stage.setId(id);
-        return ResponseEntity.ok(stageService.saveStage(stage));
+        if (version.checkNotModified(request)) {
+            return null;
+        }
+        return stageService.getStageById(id)
+                .map(existingStage -> {
+                    stage.setId(id);
+                    stage.setVersion(version.version());
+                    stage.setPeriodes(existingStage.getPeriodes()); // Préserver la relation
+                    return ResponseEntity.ok(version.update(() -> stageService.saveStage(stage)));
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -203,87 +273,10 @@ public class StageController {
      * @return The created stage
      */
     @PostMapping("/create-from-dto")
-    @Transactional
     public ResponseEntity<Stage> createStageFromDTO(@Valid @RequestBody StageCreateDTO stageCreateDTO) {
         try {
-            logger.info("Received StageCreateDTO: {}", stageCreateDTO.toString());
-
-            if (stageCreateDTO.getDateDebut() == null || stageCreateDTO.getDateFin() == null) {
-                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Les dates de début et de fin sont obligatoires.");
-            }
-            if (stageCreateDTO.getDateDebut().isAfter(stageCreateDTO.getDateFin())) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La date de début ne peut pas être après la date de fin.");
-            }
-
-            // Utilisation des nouvelles méthodes et des champs du DTO
-            Stagiaire stagiaire = findOrCreateStagiaire(stageCreateDTO.getStudentName(),
-                                                      stageCreateDTO.getStudentEmail(),
-                                                      stageCreateDTO.getStagiaireInstitution());
-            Tuteur tuteur = findOrCreateTuteur(stageCreateDTO.getTutorName(),
-                                                 stageCreateDTO.getTutorEmail(),
-                                                 stageCreateDTO.getEntreprise());
-
-            Stage stage = new Stage();
-            stage.setDescription(stageCreateDTO.getDescription());
-            stage.setObjectif(stageCreateDTO.getObjectif());
-            stage.setEntreprise(stageCreateDTO.getEntreprise());
-            stage.setStagiaire(stagiaire);
-            stage.setTuteur(tuteur);
-
-            Stage savedStage = stageService.saveStage(stage);
-
-            Periode periode = new Periode();
-            periode.setStage(savedStage);
-            periode.setDateDebut(stageCreateDTO.getDateDebut());
-            periode.setDateFin(stageCreateDTO.getDateFin());
-            periode.setStagiaire(stagiaire);
-            periode.setTuteur(tuteur);
-            Periode savedPeriode = periodeRepository.save(periode);
-            logger.info("Saved Periode with ID: {}", savedPeriode.getId());
-
-            createEvaluationAndAppreciation("Implication dans ses activités", stageCreateDTO.getImplicationNote(), savedPeriode, tuteur, "Appréciations Générales");
-            createEvaluationAndAppreciation("Ouverture aux autres", stageCreateDTO.getOuvertureNote(), savedPeriode, tuteur, "Appréciations Générales");
-            createEvaluationAndAppreciation("Qualité du travail", stageCreateDTO.getQualiteTravailNote(), savedPeriode, tuteur, "Appréciations Générales");
-
-            processCompetencyCategory("Compétences liées à l\'individu", stageCreateDTO.getIndividualCompetencies(), stageCreateDTO.getIndividualScore(), savedPeriode, tuteur);
-            processCompetencyCategory("Compétences liées à l\'entreprise", stageCreateDTO.getCompanyCompetencies(), stageCreateDTO.getCompanyScore(), savedPeriode, tuteur);
-            processCompetencyCategory("Compétences Scientifiques et Techniques", stageCreateDTO.getTechnicalCompetencies(), stageCreateDTO.getTechnicalScore(), savedPeriode, tuteur);
-            processCompetencyCategory("Compétences Spécifiques Métier", stageCreateDTO.getSpecificJobCompetencies(), null, savedPeriode, tuteur);
-
-            // Calculate and set average score for "Appréciations Générales"
-            try {
-                double implicationNote = stageCreateDTO.getImplicationNote() != null ? stageCreateDTO.getImplicationNote() : 0.0;
-                double ouvertureNote = stageCreateDTO.getOuvertureNote() != null ? stageCreateDTO.getOuvertureNote() : 0.0;
-                double qualiteTravailNote = stageCreateDTO.getQualiteTravailNote() != null ? stageCreateDTO.getQualiteTravailNote() : 0.0;
-
-                int count = 0;
-                if (stageCreateDTO.getImplicationNote() != null) {
-                    count++;
-                }
-                if (stageCreateDTO.getOuvertureNote() != null) {
-                    count++;
-                }
-                if (stageCreateDTO.getQualiteTravailNote() != null) {
-                    count++;
-                }
-
-                double appreciationsGeneralesAvgScore = 0.0;
-                if (count > 0) {
-                    appreciationsGeneralesAvgScore = (implicationNote + ouvertureNote + qualiteTravailNote) / count;
-                }
-
-                Categorie appreciationsGeneralesCat = categorieRepository.findByIntitule("Appréciations Générales")
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Categorie 'Appréciations Générales' not found after creation."));
-                appreciationsGeneralesCat.setValeur(appreciationsGeneralesAvgScore);
-                categorieRepository.save(appreciationsGeneralesCat);
-                logger.info("Updated 'Appréciations Générales' category with average score: {}", appreciationsGeneralesAvgScore);
-
-            } catch (Exception e) {
-                logger.error("Error calculating or saving average score for 'Appréciations Générales': ", e);
-                // Decide if this should be a fatal error or just logged
-            }
-
-                return new ResponseEntity<>(savedStage, HttpStatus.CREATED);
+            logger.debug("Received StageCreateDTO: {}", stageCreateDTO);
+            return new ResponseEntity<>(stageFormService.createStageFromDTO(stageCreateDTO), HttpStatus.CREATED);
         } catch (ResponseStatusException e) {
             logger.error("ResponseStatusException in createStageFromDTO: {} - {}", e.getStatusCode(), e.getReason());
             throw e;
@@ -293,140 +286,31 @@ public class StageController {
         }
     }
 
-    private int competencyLevelToNumeric(String level) {
-        if (level == null) {
-			return 0;
-		}
-        switch (level.toUpperCase()) {
-            case "NA": return 0;
-            case "DEBUTANT": return 8;
-            case "AUTONOME": return 14;
-            case "AUTONOME +":
-            case "AUTONOME+":
-                return 18;
-            default: return 0;
-        }
-    }
-
-    private void processCompetencyCategory(String categoryName,
-                                           Map<String, CompetencyDetailDTO> competenciesMap,
-                                           @Nullable Integer globalCategoryScore,
-                                           Periode periode,
-                                           Tuteur tuteur) {
-        Double actualGlobalScore;
-        if (globalCategoryScore != null) {
-            actualGlobalScore = globalCategoryScore.doubleValue();
-        } else if ("Compétences Spécifiques Métier".equals(categoryName) && competenciesMap != null && !competenciesMap.isEmpty()) {
-            double sum = 0;
-            int numCompetencies = 0;
-            for (CompetencyDetailDTO detail : competenciesMap.values()) {
-                if (detail != null && detail.getLevel() != null) {
-                    sum += competencyLevelToNumeric(detail.getLevel());
-                    numCompetencies++;
-                }
-            }
-            actualGlobalScore = (numCompetencies > 0) ? (sum / numCompetencies) : 0.0;
-            logger.info("Calculated average score for '{}': {}", categoryName, actualGlobalScore);
-        } else {
-            actualGlobalScore = 0.0;
-        }
-
-        final Double finalActualGlobalScore = actualGlobalScore;
-
-        Categorie mainCategorie = categorieRepository.findByIntitule(categoryName)
-                .orElseGet(() -> {
-                    Categorie newCat = new Categorie();
-                    newCat.setIntitule(categoryName);
-                    newCat.setValeur(finalActualGlobalScore);
-                    return categorieRepository.save(newCat);
-                });
-
-        if (mainCategorie.getId() != null && (mainCategorie.getValeur() == null || !mainCategorie.getValeur().equals(finalActualGlobalScore))) {
-            mainCategorie.setValeur(finalActualGlobalScore);
-            categorieRepository.save(mainCategorie);
-        }
-
-        if (competenciesMap == null || competenciesMap.isEmpty()) {
-            logger.info("Aucune compétence détaillée fournie pour la catégorie: {}", categoryName);
-            return;
-        }
-
-        for (Map.Entry<String, CompetencyDetailDTO> entry : competenciesMap.entrySet()) {
-            String competenceIntitule = entry.getKey();
-            CompetencyDetailDTO detail = entry.getValue();
-            if (detail == null) {
-                logger.warn("CompetencyDetailDTO is null for competence: {} in category: {}", competenceIntitule, categoryName);
-                continue;
-            }
-            int numericNoteInt = competencyLevelToNumeric(detail.getLevel());
-            Double numericNote = (double) numericNoteInt;
-
-            Evaluation evaluation = new Evaluation();
-            evaluation.setValeur(numericNote);
-            evaluation.setCategorieStr(competenceIntitule);
-            evaluation.setCommentaire(detail.getComment());
-            evaluationRepository.save(evaluation);
-
-            Competences competence = competencesRepository.findByIntituleAndCategorie(competenceIntitule, mainCategorie)
-                .orElseGet(() -> {
-                    Competences newComp = new Competences();
-                    newComp.setIntitule(competenceIntitule);
-                    newComp.setNote(numericNote);
-                    newComp.setCategorie(mainCategorie);
-                    return competencesRepository.save(newComp);
-                });
-            if (competence.getId() != null && (competence.getNote() == null || !competence.getNote().equals(numericNote))) {
-                 competence.setNote(numericNote);
-                 competencesRepository.save(competence);
-            }
-
-            Appreciation appreciation = new Appreciation();
-            appreciation.setPeriode(periode);
-            appreciation.setTuteur(tuteur);
-            appreciation.setEvaluation(evaluation);
-            appreciation.setCompetences(competence);
-            appreciationRepository.save(appreciation);
-        }
+    /**
+     * Variante asynchrone de create-from-dto : le formulaire est validé, journalisé et mis
+     * en file, puis enregistré en tâche de fond. Le suivi se fait sur GET /api/jobs/{id}.
+     *
+     * @param stageCreateDTO le formulaire d'évaluation
+     * @return 202 avec le job créé (statut PENDING)
+     */
+    @PostMapping("/create-from-dto/async")
+    public ResponseEntity<IngestionJob> createStageFromDTOAsync(@Valid @RequestBody StageCreateDTO stageCreateDTO) {
+        IngestionJob job = ingestionQueueService.submit(stageCreateDTO);
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
     }
 
-    private void createEvaluationAndAppreciation(String competenceIntitule, Double note, Periode periode, Tuteur tuteur, String categoryName) {
-        if (note == null) {
-			return;
-		}
-        Double noteAsDouble = note;
-
-        Categorie categorie = categorieRepository.findByIntitule(categoryName)
-                .orElseGet(() -> {
-                    Categorie newCat = new Categorie();
-                    newCat.setIntitule(categoryName);
-                    newCat.setValeur(0.0);
-                    return categorieRepository.save(newCat);
-                });
-
-        Evaluation evaluation = new Evaluation();
-        evaluation.setCategorieStr(competenceIntitule);
-        evaluation.setValeur(noteAsDouble);
-        evaluationRepository.save(evaluation);
-
-        Competences competence = competencesRepository.findByIntituleAndCategorie(competenceIntitule, categorie)
-            .orElseGet(() -> {
-                Competences newComp = new Competences();
-                newComp.setIntitule(competenceIntitule);
-                newComp.setNote(noteAsDouble);
-                newComp.setCategorie(categorie);
-                return competencesRepository.save(newComp);
-            });
-        if (competence.getId() != null && (competence.getNote() == null || !competence.getNote().equals(noteAsDouble))) {
-             competence.setNote(noteAsDouble);
-             competencesRepository.save(competence);
-        }
-
-        Appreciation appreciation = new Appreciation();
-        appreciation.setPeriode(periode);
-        appreciation.setTuteur(tuteur);
-        appreciation.setEvaluation(evaluation);
-        appreciation.setCompetences(competence);
-        appreciationRepository.save(appreciation);
+    /**
+     * Import en masse de formulaires d'évaluation, lus en flux depuis le corps de la requête.
+     * Formats acceptés : NDJSON (un StageCreateDTO par ligne) ou CSV avec en-tête.
+     *
+     * @param chunkSize nombre de formulaires enregistrés par transaction (gestion.import.chunk-size par défaut)
+     * @return Le compte rendu de l'import, avec les erreurs par numéro de ligne
+     */
+    @PostMapping(value = "/import", consumes = {StageImportService.NDJSON_VALUE, StageImportService.CSV_VALUE})
+    public ResponseEntity<ImportReportDTO> importStages(HttpServletRequest request,
+                                                        @RequestParam(required = false) Integer chunkSize) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        return ResponseEntity.ok(stageImportService.importForms(request.getInputStream(), contentType, chunkSize));
     }
 
     @DeleteMapping("/{id}")
@@ -437,60 +321,4 @@ public class StageController {
         stageService.deleteStage(id);
         return ResponseEntity.noContent().build();
     }
-
-    // Helper method to parse "Prénom Nom" into a String[2] = {prénom, nom}
-    // Basic split, assumes first word is prenom, rest is nom.
-    private String[] parseNomPrenom(String nomComplet) {
-        if (nomComplet == null || nomComplet.trim().isEmpty()) {
-            return new String[]{"", ""};
-        }
-        String[] parts = nomComplet.trim().split("\\s+", 2);
-        if (parts.length == 1) {
-            return new String[]{"", parts[0]}; // Considérer comme nom si un seul mot
-        }
-        return new String[]{parts[0], parts[1]};
-    }
-
-    private Stagiaire findOrCreateStagiaire(String nomComplet, String email, String institution) {
-        if (email == null || email.trim().isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "L'email du stagiaire est obligatoire pour le retrouver ou le créer.");
-        }
-        // Utiliser l'email comme clé principale pour la recherche/création
-        return stagiaireRepository.findByEmail(email.trim()).orElseGet(() -> {
-            logger.info("Stagiaire non trouvé avec l'email {}, création en cours...", email);
-            String[] nomPrenom = parseNomPrenom(nomComplet);
-            Stagiaire newStagiaire = new Stagiaire();
-            newStagiaire.setPrenom(nomPrenom[0].trim());
-            newStagiaire.setNom(nomPrenom[1].trim());
-            newStagiaire.setEmail(email.trim());
-            if (newStagiaire.getNom().isEmpty()){
-                  throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le nom du stagiaire (partie du nom complet) ne peut pas être vide.");
-            }
-            // Le prénom peut être vide, mais le nom et l'email sont essentiels.
-            newStagiaire.setInstitution((institution != null && !institution.trim().isEmpty()) ? institution.trim() :"N/A");
-            return stagiaireRepository.save(newStagiaire);
-        });
-    }
-
-    private Tuteur findOrCreateTuteur(String nomComplet, String email, String entrepriseNom) {
-        if (email == null || email.trim().isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "L'email du tuteur est obligatoire pour le retrouver ou le créer.");
-        }
-        return tuteurRepository.findByEmail(email.trim()).orElseGet(() -> {
-            logger.info("Tuteur non trouvé avec l'email {}, création en cours...", email);
-            String[] nomPrenom = parseNomPrenom(nomComplet);
-            Tuteur newTuteur = new Tuteur();
-            newTuteur.setPrenom(nomPrenom[0].trim());
-            newTuteur.setNom(nomPrenom[1].trim());
-            newTuteur.setEmail(email.trim());
-             if (newTuteur.getNom().isEmpty()){
-                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le nom du tuteur (partie du nom complet) ne peut pas être vide.");
-            }
-            if (entrepriseNom == null || entrepriseNom.trim().isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le nom de l'entreprise est obligatoire pour créer un tuteur.");
-            }
-            newTuteur.setEntreprise(entrepriseNom.trim());
-            return tuteurRepository.save(newTuteur);
-        });
-    }
 }
\ No newline at end of file
@@ -13,9 +13,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
 import com.gestion.stage.service.StagiaireService;
 
 import jakarta.validation.Valid;
@@ -26,19 +32,43 @@ import jakarta.validation.Valid;
 public class StagiaireController {
 
     private final StagiaireService stagiaireService;
+    private final ResourceVersions resourceVersions;
 
     @Autowired
-    public StagiaireController(StagiaireService stagiaireService) {
+    public StagiaireController(StagiaireService stagiaireService, ResourceVersions resourceVersions) {
         this.stagiaireService = stagiaireService;
+        this.resourceVersions = resourceVersions;
     }
 
+    /**
+     * Liste paginée par curseur : ?size=&sort=&direction=&cursor= plus les filtres.
+     * La taille de page est plafonnée (gestion.pagination.max-size).
+     */
     @GetMapping
+    public ResponseEntity<CursorPage<Stagiaire>> getStagiairesPage(
+            PageQuery page,
+            @RequestParam(required = false) String institution,
+            @RequestParam(required = false) String q) {
+        return ResponseEntity.ok(stagiaireService.getStagiairesPage(page, institution, q));
+    }
+
+    /**
+     * Liste complète, non paginée (comportement historique), sur demande explicite : ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<Stagiaire>> getAllStagiaires() {
         return ResponseEntity.ok(stagiaireService.getAllStagiaires());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Stagiaire> getStagiaireById(@PathVariable Long id) {
+    public ResponseEntity<Stagiaire> getStagiaireById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.stagiaire(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return stagiaireService.getStagiaireById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -57,11 +87,19 @@ public class StagiaireController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Stagiaire> updateStagiaire(@PathVariable Long id, @Valid @RequestBody Stagiaire stagiaire) {
+    public ResponseEntity<Stagiaire> updateStagiaire(@PathVariable Long id, @Valid @RequestBody Stagiaire stagiaire, WebRequest request) {
+        ResourceVersion version = resourceVersions.stagiaire(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return stagiaireService.getStagiaireById(id)
                 .map(existingStagiaire -> {
                     stagiaire.setId(id);
-                    return ResponseEntity.ok(stagiaireService.saveStagiaire(stagiaire));
+                    stagiaire.setVersion(version.version());
+                    return ResponseEntity.ok(version.update(() -> stagiaireService.saveStagiaire(stagiaire)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -13,9 +13,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.service.ResourceVersion;
+import com.gestion.stage.service.ResourceVersions;
 import com.gestion.stage.service.TuteurService;
 
 import jakarta.validation.Valid;
@@ -26,19 +32,43 @@ import jakarta.validation.Valid;
 public class TuteurController {
 
     private final TuteurService tuteurService;
+    private final ResourceVersions resourceVersions;
 
     @Autowired
-    public TuteurController(TuteurService tuteurService) {
+    public TuteurController(TuteurService tuteurService, ResourceVersions resourceVersions) {
         this.tuteurService = tuteurService;
+        this.resourceVersions = resourceVersions;
     }
 
+    /**
+     * Liste paginée par curseur : ?size=&sort=&direction=&cursor= plus les filtres.
+     * La taille de page est plafonnée (gestion.pagination.max-size).
+     */
     @GetMapping
+    public ResponseEntity<CursorPage<Tuteur>> getTuteursPage(
+            PageQuery page,
+            @RequestParam(required = false) String entreprise,
+            @RequestParam(required = false) String q) {
+        return ResponseEntity.ok(tuteurService.getTuteursPage(page, entreprise, q));
+    }
+
+    /**
+     * Liste complète, non paginée (comportement historique), sur demande explicite : ?unpaged=true
+     */
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<Tuteur>> getAllTuteurs() {
         return ResponseEntity.ok(tuteurService.getAllTuteurs());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Tuteur> getTuteurById(@PathVariable Long id) {
+    public ResponseEntity<Tuteur> getTuteurById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = resourceVersions.tuteur(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return tuteurService.getTuteurById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -62,11 +92,19 @@ public class TuteurController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Tuteur> updateTuteur(@PathVariable Long id, @Valid @RequestBody Tuteur tuteur) {
+    public ResponseEntity<Tuteur> updateTuteur(@PathVariable Long id, @Valid @RequestBody Tuteur tuteur, WebRequest request) {
+        ResourceVersion version = resourceVersions.tuteur(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return tuteurService.getTuteurById(id)
                 .map(existingTuteur -> {
                     tuteur.setId(id);
-                    return ResponseEntity.ok(tuteurService.saveTuteur(tuteur));
+                    tuteur.setVersion(version.version());
+                    return ResponseEntity.ok(version.update(() -> tuteurService.saveTuteur(tuteur)));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
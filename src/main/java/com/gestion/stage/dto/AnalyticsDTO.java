@@ -0,0 +1,33 @@
+package com.gestion.stage.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Moyennes des valeurs d'évaluation par catégorie, pour chaque entreprise ou institution
+ * (GET /api/analytics/entreprises, /api/analytics/institutions), lues dans les tables de cumuls.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsDTO {
+    private String dimension;
+    private int page;
+    private int size;
+    private List<Ligne> lignes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Ligne {
+        /** Entreprise ou institution. */
+        private String cle;
+        private Long categorieId;
+        private String categorie;
+        private Double moyenne;
+        private long nombre;
+    }
+}
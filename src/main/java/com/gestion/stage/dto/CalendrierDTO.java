@@ -0,0 +1,31 @@
+package com.gestion.stage.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Périodes qui chevauchent une fenêtre de dates, par date de début croissante
+ * (GET /api/periodes/calendrier). {@link #truncated} indique que la limite a été atteinte.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendrierDTO {
+    private LocalDate debut;
+    private LocalDate fin;
+    private boolean truncated;
+    private List<Intervalle> periodes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Intervalle {
+        private Long id;
+        private LocalDate dateDebut;
+        private LocalDate dateFin;
+    }
+}
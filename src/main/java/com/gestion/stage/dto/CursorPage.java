@@ -0,0 +1,23 @@
+package com.gestion.stage.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page d'une liste paginée par curseur (keyset). Pour la page suivante, renvoyer
+ * {@link #nextCursor} avec les mêmes paramètres de tri et de filtre.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private int size;
+    private String sort;
+    private String direction;
+    private boolean hasMore;
+    private String nextCursor;
+}
@@ -0,0 +1,43 @@
+package com.gestion.stage.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compte rendu d'un import en masse de formulaires d'évaluation.
+ * Seules les {@link #MAX_REPORTED_ERRORS} premières erreurs sont détaillées.
+ */
+@Data
+public class ImportReportDTO {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long totalRecords;
+    private long imported;
+    private long failed;
+    private int chunks;
+    private long durationMillis;
+    private boolean errorsTruncated;
+    private List<LineError> errors = new ArrayList<>();
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new LineError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
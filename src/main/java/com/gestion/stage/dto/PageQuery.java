@@ -0,0 +1,21 @@
+package com.gestion.stage.dto;
+
+import lombok.Data;
+
+/**
+ * Paramètres de pagination par curseur des listes (?cursor=...&size=...&sort=...&direction=...).
+ */
+@Data
+public class PageQuery {
+
+    /** Curseur renvoyé par la page précédente ({@link CursorPage#getNextCursor()}), absent pour la première page. */
+    private String cursor;
+
+    private Integer size;
+
+    /** Attribut de tri ; l'identifiant départage les égalités. */
+    private String sort = "id";
+
+    /** asc ou desc. */
+    private String direction = "asc";
+}
@@ -0,0 +1,35 @@
+package com.gestion.stage.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Profil d'évaluation d'une période (GET /api/periodes/{id}/profile), prêt à tracer :
+ * moyenne par catégorie pour les barres, et vecteur des compétences pour le radar
+ * ({@link #competences} et {@link #valeurs} dans le même ordre : catégorie puis compétence).
+ * Valeurs sur 20, arrondies au centième.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodeProfileDTO {
+    private Long periodeId;
+    private Double moyenne;
+    private int nombre;
+    private List<Categorie> categories;
+    private List<String> competences;
+    private List<Double> valeurs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Categorie {
+        private Long id;
+        private String intitule;
+        private Double moyenne;
+        private int nombre;
+    }
+}
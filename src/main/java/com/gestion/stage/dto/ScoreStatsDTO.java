@@ -0,0 +1,40 @@
+package com.gestion.stage.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Distribution des valeurs d'évaluation d'une compétence ou d'une catégorie
+ * (GET /api/competences/{id}/stats, /api/categories/{id}/stats), lue dans les histogrammes
+ * tenus à jour par les cumuls analytiques. Les centiles sont estimés par la moyenne de leur
+ * classe : exacts quand la classe ne contient qu'une valeur, comme pour les niveaux.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreStatsDTO {
+    private Long id;
+    private long nombre;
+    private Double moyenne;
+    private Double p10;
+    private Double p50;
+    private Double p90;
+    /** Nombre de valeurs par niveau : NA, DEBUTANT, AUTONOME, AUTONOME +. */
+    private Map<String, Long> niveaux;
+    /** Classes non vides, par valeur croissante. */
+    private List<Classe> histogramme;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Classe {
+        /** Borne inférieure incluse ; la borne supérieure (exclue) est min + 1. */
+        private int min;
+        private long nombre;
+        private double moyenne;
+    }
+}
@@ -0,0 +1,40 @@
+package com.gestion.stage.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page de résultats de la recherche plein texte (GET /api/search), du plus pertinent au
+ * moins pertinent. Au-delà de quelques milliers de résultats, {@link #total} est un minimum
+ * ({@link #totalExact} à false) : compter tous les documents ralentirait chaque requête.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultsDTO {
+    private String query;
+    private int page;
+    private int size;
+    private long total;
+    private boolean totalExact;
+    private long tookMillis;
+    private List<Hit> hits;
+
+    /**
+     * Stage (titre : entreprise, extrait : description) ou évaluation (titre : catégorie,
+     * extrait : commentaire).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private String type;
+        private Long id;
+        private float score;
+        private String titre;
+        private String extrait;
+    }
+}
@@ -0,0 +1,88 @@
+package com.gestion.stage.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tableau de bord d'un stage, pour une de ses périodes : le stage, ses personnes,
+ * les scores par catégorie de la période et l'évaluation de chaque compétence.
+ */
+@Data
+public class StageDashboardDTO {
+
+    private Long id;
+    private String description;
+    private String objectif;
+    private String entreprise;
+    private StagiaireInfo stagiaire;
+    private TuteurInfo tuteur;
+
+    /** Période affichée ; nulle si le stage n'en a aucune. */
+    private PeriodeInfo periode;
+    private List<PeriodeInfo> periodes = new ArrayList<>();
+
+    private List<CategorieScore> categories = new ArrayList<>();
+    private List<CompetenceEvaluation> competences = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StagiaireInfo {
+        private Long id;
+        private String nom;
+        private String prenom;
+        private String email;
+        private String institution;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TuteurInfo {
+        private Long id;
+        private String nom;
+        private String prenom;
+        private String email;
+        private String entreprise;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PeriodeInfo {
+        private Long id;
+        private LocalDate dateDebut;
+        private LocalDate dateFin;
+    }
+
+    /**
+     * Catégorie évaluée sur la période : {@code score} est la note de la période (nulle
+     * si le formulaire n'en donnait pas), {@code valeur} la moyenne globale de la catégorie.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategorieScore {
+        private Long id;
+        private String intitule;
+        private Double score;
+        private Double valeur;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompetenceEvaluation {
+        private Long competenceId;
+        private String intitule;
+        private Long categorieId;
+        private Long evaluationId;
+        private Double valeur;
+        private String commentaire;
+    }
+}
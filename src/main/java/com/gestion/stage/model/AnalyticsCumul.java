@@ -0,0 +1,68 @@
+package com.gestion.stage.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Somme et nombre des valeurs d'évaluation d'une catégorie pour une entreprise ou une
+ * institution. Tenu à jour par {@code AnalyticsService} à partir des {@link ScoreContribution}.
+ */
+@Data
+@Entity
+@IdClass(AnalyticsCumul.Key.class)
+@Table(indexes = @Index(name = "idx_analytics_cumul_categorie", columnList = "dimension, categorieId, cle"))
+@NoArgsConstructor
+public class AnalyticsCumul {
+
+    public enum Dimension {
+        ENTREPRISE, INSTITUTION
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Dimension dimension;
+        private String cle;
+        private Long categorieId;
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Dimension dimension;
+
+    /** Nom de l'entreprise ou de l'institution. */
+    @Id
+    private String cle;
+
+    @Id
+    private Long categorieId;
+
+    /** Null tant que la ligne n'est pas insérée : save() la persiste alors sans la relire. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    private double total;
+
+    private long nombre;
+
+    public AnalyticsCumul(Key key) {
+        this.dimension = key.getDimension();
+        this.cle = key.getCle();
+        this.categorieId = key.getCategorieId();
+    }
+}
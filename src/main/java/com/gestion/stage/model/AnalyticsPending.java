@@ -0,0 +1,36 @@
+package com.gestion.stage.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+/**
+ * Écriture dont les cumuls analytiques ({@link AnalyticsCumul}) n'ont pas encore tenu compte :
+ * l'entité modifiée, dont {@code AnalyticsService} recalcule les appréciations concernées.
+ */
+@Data
+@Entity
+public class AnalyticsPending {
+
+    public enum Type {
+        APPRECIATION, PERIODE, EVALUATION, STAGE, STAGIAIRE
+    }
+
+    // Auto-incrément plutôt qu'une séquence : les lignes sont insérées en JDBC pendant le flush
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Type type;
+
+    /** Identifiant de l'entité modifiée. */
+    @Column(nullable = false)
+    private Long cle;
+}
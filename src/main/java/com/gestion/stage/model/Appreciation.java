@@ -1,38 +1,72 @@
 package com.gestion.stage.model;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestion.stage.service.AnalyticsListener;
+import com.gestion.stage.service.PeriodeProfileListener;
+import com.gestion.stage.service.ResourceContentListener;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners({AnalyticsListener.class, PeriodeProfileListener.class, ResourceContentListener.class})
+@NamedEntityGraph(name = Appreciation.DETAIL, attributeNodes = {
+        @NamedAttributeNode("tuteur"),
+        @NamedAttributeNode("periode"),
+        @NamedAttributeNode("evaluation"),
+        @NamedAttributeNode(value = "competences", subgraph = "competences")
+}, subgraphs = @NamedSubgraph(name = "competences", attributeNodes = @NamedAttributeNode("categorie")))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Appreciation {
 
+    /** Appréciation avec son évaluation, sa compétence et sa catégorie ; la période est jointe, son stage chargé par lots. */
+    public static final String DETAIL = "Appreciation.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appreciation_seq")
+    @SequenceGenerator(name = "appreciation_seq", sequenceName = "appreciation_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tuteur_id")
     @JsonIgnoreProperties("appreciations")
     private Tuteur tuteur;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "periode_id")
     @JsonIgnoreProperties("appreciations")
     private Periode periode;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "evaluation_id")
     private Evaluation evaluation;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "competences_id")
     private Competences competences;
 }
\ No newline at end of file
@@ -1,28 +1,47 @@
 package com.gestion.stage.model;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categorie")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Categorie {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categorie_seq")
+    @SequenceGenerator(name = "categorie_seq", sequenceName = "categorie_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @NotBlank(message = "L'intitulé est obligatoire")
     private String intitule;
 
@@ -30,6 +49,7 @@ public class Categorie {
     private Double valeur;
 
     @OneToMany(mappedBy = "categorie", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categorie.competences")
     @JsonIgnoreProperties("categorie")
     private List<Competences> competences;
 }
@@ -0,0 +1,25 @@
+package com.gestion.stage.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Somme et nombre des scores par période déjà pris en compte pour une catégorie.
+ * Seul {@code CategorieScoreService} écrit ces lignes, jamais les formulaires.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorieScoreCumul {
+
+    @Id
+    private Long categorieId;
+
+    private double total;
+
+    private long nombre;
+}
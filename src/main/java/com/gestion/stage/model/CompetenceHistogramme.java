@@ -0,0 +1,63 @@
+package com.gestion.stage.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Une classe de l'histogramme des valeurs d'évaluation d'une compétence : les valeurs de
+ * [classe, classe + 1), 0 recevant aussi les valeurs négatives et 20 celles au-delà. Tenu à
+ * jour par {@code AnalyticsService} à partir des {@link ScoreContribution} ; les histogrammes
+ * de plusieurs compétences s'additionnent classe par classe (voir {@code ScoreHistogram}).
+ */
+@Data
+@Entity
+@IdClass(CompetenceHistogramme.Key.class)
+@NoArgsConstructor
+public class CompetenceHistogramme {
+
+    public static final int CLASSES = 21;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long competenceId;
+        private Integer classe;
+    }
+
+    @Id
+    private Long competenceId;
+
+    @Id
+    private Integer classe;
+
+    /** Null tant que la ligne n'est pas insérée : save() la persiste alors sans la relire. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    private long nombre;
+
+    private double total;
+
+    /** Valeurs égales à la borne de la classe : les niveaux (NA = 0, DEBUTANT = 8...) en font partie. */
+    private long entiers;
+
+    public CompetenceHistogramme(Key key) {
+        this.competenceId = key.getCompetenceId();
+        this.classe = key.getClasse();
+    }
+
+    /** Classe d'une valeur. */
+    public static int classe(double valeur) {
+        return (int) Math.max(0, Math.min(CLASSES - 1, Math.floor(valeur)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.gestion.stage.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Somme et nombre des notes par période déjà prises en compte pour une compétence.
+ * Seul {@code CompetenceScoreService} écrit ces lignes, jamais les formulaires.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompetenceScoreCumul {
+
+    @Id
+    private Long competencesId;
+
+    private double total;
+
+    private long nombre;
+}
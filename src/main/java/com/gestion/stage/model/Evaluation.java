@@ -1,28 +1,52 @@
 package com.gestion.stage.model;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestion.stage.config.SearchAnalysisConfigurer;
+import com.gestion.stage.service.AnalyticsListener;
+import com.gestion.stage.service.PeriodeProfileListener;
+import com.gestion.stage.service.ResourceContentListener;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners({AnalyticsListener.class, PeriodeProfileListener.class, ResourceContentListener.class})
+@Indexed(index = "evaluation")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Evaluation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evaluation_seq")
+    @SequenceGenerator(name = "evaluation_seq", sequenceName = "evaluation_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     @NotNull(message = "La valeur est obligatoire")
     private Double valeur;
 
@@ -30,6 +54,7 @@ public class Evaluation {
     private String categorieStr;
 
     @Column(name = "commentaire", length = 1024)
+    @FullTextField(analyzer = SearchAnalysisConfigurer.FRANCAIS)
     private String commentaire;
 
     @OneToMany(mappedBy = "evaluation", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -0,0 +1,53 @@
+package com.gestion.stage.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Data;
+
+/**
+ * Réponse mémorisée pour une requête POST portant un en-tête Idempotency-Key.
+ * L'identifiant est l'empreinte SHA-256 de la route et de la clé.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    /** Null tant que la clé n'est pas réservée : save() l'insère alors sans la relire. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /** Empreinte SHA-256 du corps de la requête d'origine. */
+    @Column(length = 64, nullable = false)
+    private String requestHash;
+
+    /** Faux tant que la première requête est en cours de traitement. */
+    private boolean completed;
+
+    /**
+     * Début de la requête qui détient la réservation. Passé gestion.idempotency.lease-seconds
+     * sans réponse, la réservation est tenue pour abandonnée et peut être reprise.
+     */
+    private LocalDateTime reservedAt;
+
+    private Integer responseStatus;
+
+    private String responseContentType;
+
+    @Lob
+    private byte[] responseBody;
+
+    private LocalDateTime expiresAt;
+}
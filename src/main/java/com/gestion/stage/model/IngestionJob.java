@@ -0,0 +1,69 @@
+package com.gestion.stage.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Formulaire d'évaluation reçu en mode asynchrone (POST /api/stages/create-from-dto/async).
+ * La ligne est écrite avant la réponse 202 et sert de journal : un formulaire encore
+ * PENDING au redémarrage est remis en file.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_ingestion_job_status", columnList = "status"))
+public class IngestionJob {
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingestion_job_seq")
+    @SequenceGenerator(name = "ingestion_job_seq", sequenceName = "ingestion_job_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Status status;
+
+    /** Le StageCreateDTO reçu, en JSON. */
+    @Lob
+    @JsonIgnore
+    private String payload;
+
+    private Long stageId;
+
+    @Column(length = 1000)
+    private String error;
+
+    /** Essais interrompus par une erreur passagère (verrou, interblocage, connexion). */
+    private int attempts;
+
+    /** Après une erreur passagère, le job n'est pas remis en file avant cette date. */
+    private LocalDateTime nextAttemptAt;
+
+    /** Identifiant de corrélation de la requête de dépôt, repris dans les journaux du worker. */
+    @Column(length = 64)
+    private String correlationId;
+
+    private LocalDateTime createdAt;
+
+    /** Prise en charge par un worker (passage à RUNNING). */
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -1,45 +1,102 @@
 package com.gestion.stage.model;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestion.stage.service.AnalyticsListener;
+import com.gestion.stage.service.PeriodeCalendarListener;
+import com.gestion.stage.service.ResourceContentListener;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 @Entity
+// Recherches par chevauchement de dates (début <= fin de la fenêtre et fin >= début) : l'index
+// (dateFin, dateDebut) sert les fenêtres récentes, où peu de périodes finissent après le début,
+// l'index (dateDebut, dateFin) les fenêtres anciennes, où peu de périodes ont déjà commencé.
+@Table(indexes = {
+        @Index(name = "idx_periode_debut_fin", columnList = "dateDebut, dateFin"),
+        @Index(name = "idx_periode_fin_debut", columnList = "dateFin, dateDebut")
+})
+@EntityListeners({PeriodeCalendarListener.class, AnalyticsListener.class, ResourceContentListener.class})
+@NamedEntityGraph(name = Periode.DETAIL, attributeNodes = {
+        @NamedAttributeNode(value = "stage", subgraph = "stage"),
+        @NamedAttributeNode("stagiaire"),
+        @NamedAttributeNode("tuteur")
+}, subgraphs = @NamedSubgraph(name = "stage", attributeNodes = {
+        @NamedAttributeNode("stagiaire"),
+        @NamedAttributeNode("tuteur")
+}))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Periode {
 
+    /** Période avec son stage et ses personnes ; les appréciations sont chargées par lots. */
+    public static final String DETAIL = "Periode.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "periode_seq")
+    @SequenceGenerator(name = "periode_seq", sequenceName = "periode_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    /**
+     * Avance quand une appréciation de la période, ou son évaluation, est ajoutée, modifiée
+     * ou retirée ({@link ResourceContentListener}). Jamais écrit par Hibernate après l'insertion.
+     */
+    @JsonIgnore
+    @Column(nullable = false, updatable = false)
+    private long contentVersion;
+
+    @JsonIgnore
+    @Column(updatable = false)
+    private Instant contentUpdatedAt;
+
     @NotNull(message = "La date de début est obligatoire")
     private LocalDate dateDebut;
 
     @NotNull(message = "La date de fin est obligatoire")
     private LocalDate dateFin;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "stage_id")
     @JsonIgnoreProperties("periodes")
     private Stage stage;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "stagiaire_id")
     @JsonIgnoreProperties("periodes")
     private Stagiaire stagiaire;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tuteur_id")
     @JsonIgnoreProperties({"periodes", "appreciations"})
     private Tuteur tuteur;
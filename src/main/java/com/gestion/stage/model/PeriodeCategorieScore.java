@@ -0,0 +1,48 @@
+package com.gestion.stage.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Score global d'une catégorie pour une période, tel que saisi dans le formulaire
+ * d'évaluation. Chaque formulaire insère ses propres lignes ; la moyenne de la catégorie
+ * (Categorie.valeur) en est tirée périodiquement par {@code CategorieScoreService}.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_periode_categorie_score_folded", columnList = "folded"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class PeriodeCategorieScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "periode_categorie_score_seq")
+    @SequenceGenerator(name = "periode_categorie_score_seq", sequenceName = "periode_categorie_score_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "periode_id")
+    @JsonIgnore
+    private Periode periode;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "categorie_id")
+    @JsonIgnoreProperties("competences")
+    private Categorie categorie;
+
+    private Double score;
+
+    /** Vrai une fois le score ajouté au cumul de sa catégorie. */
+    private boolean folded;
+}
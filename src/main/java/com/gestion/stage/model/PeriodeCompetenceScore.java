@@ -0,0 +1,48 @@
+package com.gestion.stage.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Note d'une compétence pour une période, telle que saisie dans le formulaire
+ * d'évaluation. Chaque formulaire insère ses propres lignes ; la note moyenne de la
+ * compétence (Competences.note) en est tirée périodiquement par {@code CompetenceScoreService}.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_periode_competence_score_folded", columnList = "folded"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class PeriodeCompetenceScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "periode_competence_score_seq")
+    @SequenceGenerator(name = "periode_competence_score_seq", sequenceName = "periode_competence_score_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "periode_id")
+    @JsonIgnore
+    private Periode periode;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "competences_id")
+    @JsonIgnore
+    private Competences competences;
+
+    private Double score;
+
+    /** Vrai une fois la note ajoutée au cumul de sa compétence. */
+    private boolean folded;
+}
@@ -0,0 +1,57 @@
+package com.gestion.stage.model;
+
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ce qu'une appréciation apporte actuellement aux cumuls analytiques : la valeur de son
+ * évaluation, comptée pour sa catégorie, l'entreprise du stage et l'institution du stagiaire,
+ * et dans l'histogramme de sa compétence.
+ * Permet de retirer l'ancienne contribution quand l'appréciation change ou disparaît.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_score_contribution_periode", columnList = "periodeId"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreContribution {
+
+    @Id
+    private Long appreciationId;
+
+    /** Null tant que la ligne n'est pas insérée : save() la persiste alors sans la relire. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    private Long periodeId;
+
+    private Long categorieId;
+
+    private Long competenceId;
+
+    private String entreprise;
+
+    private String institution;
+
+    private double valeur;
+
+    /** Même apport aux cumuls, versions mises à part. */
+    public boolean sameAs(ScoreContribution other) {
+        return other != null && valeur == other.valeur
+                && Objects.equals(periodeId, other.periodeId)
+                && Objects.equals(categorieId, other.categorieId)
+                && Objects.equals(competenceId, other.competenceId)
+                && Objects.equals(entreprise, other.entreprise)
+                && Objects.equals(institution, other.institution);
+    }
+}
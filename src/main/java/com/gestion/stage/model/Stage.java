@@ -1,49 +1,98 @@
 package com.gestion.stage.model;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestion.stage.config.SearchAnalysisConfigurer;
+import com.gestion.stage.service.AnalyticsListener;
+import com.gestion.stage.service.ResourceContentListener;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners({AnalyticsListener.class, ResourceContentListener.class})
+@NamedEntityGraph(name = Stage.WITH_PERSONNES, attributeNodes = {
+        @NamedAttributeNode("stagiaire"),
+        @NamedAttributeNode("tuteur")
+})
+@Indexed(index = "stage")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Stage {
 
+    /** Stage avec son stagiaire et son tuteur ; les périodes sont chargées par lots. */
+    public static final String WITH_PERSONNES = "Stage.personnes";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stage_seq")
+    @SequenceGenerator(name = "stage_seq", sequenceName = "stage_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    /**
+     * Avance quand une période du stage est ajoutée, modifiée ou retirée, ou que son contenu
+     * change ({@link ResourceContentListener}) : l'ETag du stage ne relit que sa ligne.
+     * Jamais écrit par Hibernate après l'insertion.
+     */
+    @JsonIgnore
+    @Column(nullable = false, updatable = false)
+    private long contentVersion;
+
+    @JsonIgnore
+    @Column(updatable = false)
+    private Instant contentUpdatedAt;
+
     @NotBlank(message = "La description est obligatoire")
     @Column(length = 1000)
+    @FullTextField(analyzer = SearchAnalysisConfigurer.FRANCAIS)
     private String description;
 
     @NotBlank(message = "L'objectif est obligatoire")
     @Column(length = 1000)
+    @FullTextField(analyzer = SearchAnalysisConfigurer.FRANCAIS)
     private String objectif;
 
     @NotBlank(message = "L'entreprise est obligatoire")
+    @FullTextField(analyzer = SearchAnalysisConfigurer.FRANCAIS)
     private String entreprise;
 
     @OneToMany(mappedBy = "stage", cascade = CascadeType.ALL)
     @JsonIgnoreProperties("stage")
     private List<Periode> periodes;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "stagiaire_id")
     private Stagiaire stagiaire;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tuteur_id")
     private Tuteur tuteur;
 }
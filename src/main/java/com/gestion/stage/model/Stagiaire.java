@@ -3,8 +3,10 @@ package com.gestion.stage.model;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gestion.stage.service.AnalyticsListener;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.OneToMany;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
@@ -13,6 +15,7 @@ import lombok.EqualsAndHashCode;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@EntityListeners(AnalyticsListener.class)
 public class Stagiaire extends Personne {
 
     @NotBlank(message = "L'institution est obligatoire")
@@ -0,0 +1,50 @@
+package com.gestion.stage.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.gestion.stage.model.AnalyticsCumul;
+
+@Repository
+public interface AnalyticsCumulRepository extends JpaRepository<AnalyticsCumul, AnalyticsCumul.Key> {
+
+    /** Cumuls d'une dimension : [cle, categorie id, intitulé, total, nombre], par clé puis catégorie. */
+    @Query("select c.cle, c.categorieId, cat.intitule, c.total, c.nombre "
+            + "from AnalyticsCumul c join Categorie cat on cat.id = c.categorieId "
+            + "where c.dimension = :dimension order by c.cle, c.categorieId")
+    List<Object[]> findRows(@Param("dimension") AnalyticsCumul.Dimension dimension, Pageable pageable);
+
+    /** Cumuls d'une entreprise ou d'une institution, par catégorie. */
+    @Query("select c.cle, c.categorieId, cat.intitule, c.total, c.nombre "
+            + "from AnalyticsCumul c join Categorie cat on cat.id = c.categorieId "
+            + "where c.dimension = :dimension and c.cle = :cle order by c.categorieId")
+    List<Object[]> findRowsByCle(@Param("dimension") AnalyticsCumul.Dimension dimension,
+                                 @Param("cle") String cle, Pageable pageable);
+
+    /** Cumuls d'une catégorie, par entreprise ou institution. */
+    @Query("select c.cle, c.categorieId, cat.intitule, c.total, c.nombre "
+            + "from AnalyticsCumul c join Categorie cat on cat.id = c.categorieId "
+            + "where c.dimension = :dimension and c.categorieId = :categorieId order by c.cle")
+    List<Object[]> findRowsByCategorieId(@Param("dimension") AnalyticsCumul.Dimension dimension,
+                                         @Param("categorieId") Long categorieId, Pageable pageable);
+
+    @Modifying
+    @Query("insert into AnalyticsCumul (dimension, cle, categorieId, version, total, nombre) "
+            + "select com.gestion.stage.model.AnalyticsCumul.Dimension.ENTREPRISE, c.entreprise, c.categorieId, 0L, "
+            + "sum(c.valeur), count(c) "
+            + "from ScoreContribution c where c.entreprise is not null group by c.entreprise, c.categorieId")
+    int insertEntrepriseCumuls();
+
+    @Modifying
+    @Query("insert into AnalyticsCumul (dimension, cle, categorieId, version, total, nombre) "
+            + "select com.gestion.stage.model.AnalyticsCumul.Dimension.INSTITUTION, c.institution, c.categorieId, 0L, "
+            + "sum(c.valeur), count(c) "
+            + "from ScoreContribution c where c.institution is not null group by c.institution, c.categorieId")
+    int insertInstitutionCumuls();
+}
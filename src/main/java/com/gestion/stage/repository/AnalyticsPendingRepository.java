@@ -0,0 +1,31 @@
+package com.gestion.stage.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.gestion.stage.model.AnalyticsPending;
+
+@Repository
+public interface AnalyticsPendingRepository extends JpaRepository<AnalyticsPending, Long> {
+
+    @Query("select p from AnalyticsPending p order by p.id")
+    List<AnalyticsPending> findOldest(Pageable pageable);
+
+    @Query("select max(p.id) from AnalyticsPending p")
+    Long findMaxId();
+
+    @Modifying
+    @Query("delete from AnalyticsPending p where p.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from AnalyticsPending p where p.id <= :maxId")
+    int deleteUpTo(@Param("maxId") Long maxId);
+}
@@ -1,8 +1,17 @@
 package com.gestion.stage.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Appreciation;
@@ -10,11 +19,87 @@ import com.gestion.stage.model.Competences;
 import com.gestion.stage.model.Evaluation;
 import com.gestion.stage.model.Periode;
 import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.service.NdjsonExportService;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface AppreciationRepository extends JpaRepository<Appreciation, Long> {
+public interface AppreciationRepository extends JpaRepository<Appreciation, Long>, JpaSpecificationExecutor<Appreciation> {
+    @Override
+    @EntityGraph(Appreciation.DETAIL)
+    List<Appreciation> findAll();
+
+    @Override
+    @EntityGraph(Appreciation.DETAIL)
+    Optional<Appreciation> findById(Long id);
+
+    @EntityGraph(Appreciation.DETAIL)
     List<Appreciation> findByTuteur(Tuteur tuteur);
+
+    @EntityGraph(Appreciation.DETAIL)
     List<Appreciation> findByPeriode(Periode periode);
+
+    @EntityGraph(Appreciation.DETAIL)
     List<Appreciation> findByEvaluation(Evaluation evaluation);
+
+    @EntityGraph(Appreciation.DETAIL)
     List<Appreciation> findByCompetences(Competences competences);
-}
\ No newline at end of file
+
+    /**
+     * Toutes les appréciations, lues en flux pour l'export NDJSON (voir StageRepository#streamAll).
+     * Sans la collection competences de {@link Appreciation#DETAIL} : une jointure sur une
+     * collection répéterait les lignes ; elle est chargée par lots avec chaque lot exporté.
+     */
+    @EntityGraph(attributePaths = {"tuteur", "periode", "evaluation"})
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = NdjsonExportService.FETCH_SIZE))
+    @Query("select a from Appreciation a order by a.id")
+    Stream<Appreciation> streamAll();
+
+    /**
+     * Évaluations d'une période avec leur compétence et sa catégorie : [competence id,
+     * intitulé, categorie id, intitulé, valeur globale, evaluation id, valeur, critère, commentaire].
+     */
+    @Query("select c.id, c.intitule, cat.id, cat.intitule, cat.valeur, e.id, e.valeur, e.categorieStr, e.commentaire "
+            + "from Appreciation a left join a.competences c left join c.categorie cat left join a.evaluation e "
+            + "where a.periode.id = :periodeId order by a.id")
+    List<Object[]> findDashboardRows(@Param("periodeId") Long periodeId);
+
+    /**
+     * Versions de tout ce que sérialise GET /api/appreciations/{id} : l'appréciation, sa
+     * période (avec son stage et ses personnes), son évaluation et sa compétence.
+     */
+    @Query("select a.id, a.version, a.updatedAt, ta.id, ta.version, ta.updatedAt, "
+            + "e.id, e.version, e.updatedAt, c.id, c.version, c.updatedAt, cat.id, cat.version, cat.updatedAt, "
+            + "p.id, p.version, p.updatedAt, "
+            + "s.id, s.version, s.updatedAt, ss.id, ss.version, ss.updatedAt, st.id, st.version, st.updatedAt, "
+            + "ps.id, ps.version, ps.updatedAt, pt.id, pt.version, pt.updatedAt "
+            + "from Appreciation a left join a.tuteur ta left join a.evaluation e "
+            + "left join a.competences c left join c.categorie cat "
+            + "left join a.periode p left join p.stage s left join s.stagiaire ss left join s.tuteur st "
+            + "left join p.stagiaire ps left join p.tuteur pt "
+            + "where a.id = :id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
+
+    /**
+     * Apport aux cumuls analytiques des appréciations notées, rattachées à une compétence
+     * catégorisée et au stage d'une période : [id, periode id, categorie id, competence id,
+     * entreprise, institution du stagiaire, valeur]. Les autres n'apparaissent pas.
+     */
+    @Query("select a.id, p.id, cat.id, c.id, s.entreprise, st.institution, e.valeur "
+            + "from Appreciation a join a.evaluation e join a.competences c join c.categorie cat "
+            + "join a.periode p join p.stage s left join s.stagiaire st "
+            + "where a.id in :ids and e.valeur is not null")
+    List<Object[]> findContributionRows(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.id from Appreciation a where a.periode.id in :periodeIds")
+    List<Long> findIdsByPeriodeIds(@Param("periodeIds") Collection<Long> periodeIds);
+
+    @Query("select a.id from Appreciation a where a.evaluation.id in :evaluationIds")
+    List<Long> findIdsByEvaluationIds(@Param("evaluationIds") Collection<Long> evaluationIds);
+
+    @Query("select a.id from Appreciation a join a.periode p where p.stage.id in :stageIds")
+    List<Long> findIdsByStageIds(@Param("stageIds") Collection<Long> stageIds);
+
+    @Query("select a.id from Appreciation a join a.periode p join p.stage s where s.stagiaire.id in :stagiaireIds")
+    List<Long> findIdsByStagiaireIds(@Param("stagiaireIds") Collection<Long> stagiaireIds);
+}
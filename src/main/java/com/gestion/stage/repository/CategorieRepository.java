@@ -1,13 +1,34 @@
 package com.gestion.stage.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Categorie;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CategorieRepository extends JpaRepository<Categorie, Long> {
+    /** Résultat gardé dans le cache de requêtes (région requetes.catalogue, voir ehcache.xml). */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "requetes.catalogue")})
     Optional<Categorie> findByIntitule(String intitule);
-}
\ No newline at end of file
+
+    /** Versions d'une catégorie et de ses compétences, sérialisées avec elle. */
+    @Query("select cat.id, cat.version, cat.updatedAt, c.id, c.version, c.updatedAt "
+            + "from Categorie cat left join cat.competences c where cat.id = :id order by c.id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
+
+    /** Versions de toutes les catégories et de leurs compétences (GET /api/categories). */
+    @Query("select cat.id, cat.version, cat.updatedAt, c.id, c.version, c.updatedAt "
+            + "from Categorie cat left join cat.competences c order by cat.id, c.id")
+    List<Object[]> findAllVersionRows();
+}
@@ -0,0 +1,41 @@
+package com.gestion.stage.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.gestion.stage.model.CompetenceHistogramme;
+
+@Repository
+public interface CompetenceHistogrammeRepository
+        extends JpaRepository<CompetenceHistogramme, CompetenceHistogramme.Key> {
+
+    /** Classe de la valeur d'une contribution {@code c}, en HQL. */
+    String CLASSE = "(case when c.valeur < 0 then 0 when c.valeur >= 20 then 20 "
+            + "else cast(floor(c.valeur) as Integer) end)";
+
+    /** Classes non vides d'une compétence : [classe, nombre, total, entiers]. */
+    @Query("select h.classe, h.nombre, h.total, h.entiers from CompetenceHistogramme h "
+            + "where h.competenceId = :competenceId")
+    List<Object[]> findRowsByCompetenceId(@Param("competenceId") Long competenceId);
+
+    /** Classes non vides des compétences d'une catégorie, une ligne par compétence et par classe. */
+    @Query("select h.classe, h.nombre, h.total, h.entiers from CompetenceHistogramme h "
+            + "where h.competenceId in (select c.id from Competences c where c.categorie.id = :categorieId)")
+    List<Object[]> findRowsByCategorieId(@Param("categorieId") Long categorieId);
+
+    /**
+     * Histogrammes de toutes les contributions, regroupées par compétence et par classe (même
+     * découpage que {@link CompetenceHistogramme#classe(double)}).
+     */
+    @Modifying
+    @Query("insert into CompetenceHistogramme (competenceId, classe, version, nombre, total, entiers) "
+            + "select c.competenceId, " + CLASSE + ", 0L, count(c), sum(c.valeur), "
+            + "sum(case when c.valeur = " + CLASSE + " then 1 else 0 end) "
+            + "from ScoreContribution c where c.competenceId is not null group by c.competenceId, " + CLASSE)
+    int insertFromContributions();
+}
@@ -0,0 +1,10 @@
+package com.gestion.stage.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.gestion.stage.model.CompetenceScoreCumul;
+
+@Repository
+public interface CompetenceScoreCumulRepository extends JpaRepository<CompetenceScoreCumul, Long> {
+}
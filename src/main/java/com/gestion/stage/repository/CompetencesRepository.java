@@ -1,17 +1,52 @@
 package com.gestion.stage.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Categorie;
 import com.gestion.stage.model.Competences;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface CompetencesRepository extends JpaRepository<Competences, Long> {
+public interface CompetencesRepository extends JpaRepository<Competences, Long>, JpaSpecificationExecutor<Competences> {
+    @Override
+    @EntityGraph(Competences.WITH_CATEGORIE)
+    List<Competences> findAll();
+
+    @Override
+    @EntityGraph(Competences.WITH_CATEGORIE)
+    Optional<Competences> findById(Long id);
+
+    /** Résultat gardé dans le cache de requêtes (région requetes.catalogue, voir ehcache.xml). */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "requetes.catalogue")})
+    @EntityGraph(Competences.WITH_CATEGORIE)
     Optional<Competences> findByIntitule(String intitule);
+
+    @EntityGraph(Competences.WITH_CATEGORIE)
     List<Competences> findByCategorie(Categorie categorie);
     Optional<Competences> findByIntituleAndCategorie(String intitule, Categorie categorie);
+
+    @Query("select c from Competences c join fetch c.categorie")
+    List<Competences> findAllWithCategorie();
+
+    @EntityGraph(Competences.WITH_CATEGORIE)
+    List<Competences> findByIdIn(Collection<Long> ids);
+
+    /** Versions d'une compétence et de sa catégorie, sérialisée avec elle. */
+    @Query("select c.id, c.version, c.updatedAt, cat.id, cat.version, cat.updatedAt "
+            + "from Competences c left join c.categorie cat where c.id = :id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
 }
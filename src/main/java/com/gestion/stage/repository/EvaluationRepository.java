@@ -1,14 +1,43 @@
 package com.gestion.stage.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.service.NdjsonExportService;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
+public interface EvaluationRepository extends JpaRepository<Evaluation, Long>, JpaSpecificationExecutor<Evaluation> {
     boolean existsByCategorieStr(String categorieStr);
     List<Evaluation> findByCategorieStr(String categorieStr);
+
+    /** Version d'une évaluation : [id, version, date de modification]. */
+    @Query("select e.id, e.version, e.updatedAt from Evaluation e where e.id = :id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
+
+    /**
+     * Toutes les évaluations avec leur appréciation, lues en flux pour les exports tableur
+     * (voir SpreadsheetExportService#COLUMNS) : [evaluation id, valeur, critère, commentaire,
+     * appréciation id, catégorie, compétence, période id, début, fin, entreprise, stagiaire nom,
+     * prénom, email, institution, tuteur nom, prénom, email]. Des valeurs seulement, sans
+     * entité : le contexte de persistance ne grossit pas au fil de l'export.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = NdjsonExportService.FETCH_SIZE))
+    @Query("select e.id, e.valeur, e.categorieStr, e.commentaire, a.id, cat.intitule, c.intitule, "
+            + "p.id, p.dateDebut, p.dateFin, s.entreprise, st.nom, st.prenom, st.email, st.institution, "
+            + "t.nom, t.prenom, t.email "
+            + "from Evaluation e left join e.appreciations a left join a.competences c left join c.categorie cat "
+            + "left join a.periode p left join p.stage s left join p.stagiaire st left join a.tuteur t "
+            + "order by e.id, a.id")
+    Stream<Object[]> streamExportRows();
 }
@@ -0,0 +1,60 @@
+package com.gestion.stage.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gestion.stage.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Reprend une clé expirée, ou une réservation abandonnée (réservée avant staleBefore,
+     * sans réponse) pour le même corps de requête, si elle est toujours à la version lue.
+     *
+     * @return 1 si la clé est désormais réservée pour l'appelant (à la version + 1), 0 sinon
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.version = r.version + 1, r.requestHash = :requestHash, "
+            + "r.completed = false, r.reservedAt = :now, r.expiresAt = :expiresAt, "
+            + "r.responseStatus = null, r.responseContentType = null, r.responseBody = null "
+            + "where r.id = :id and r.version = :version and (r.expiresAt < :now or (r.completed = false and r.requestHash = :requestHash "
+            + "and (r.reservedAt is null or r.reservedAt < :staleBefore)))")
+    int takeOver(@Param("id") String id, @Param("version") long version, @Param("requestHash") String requestHash, @Param("now") LocalDateTime now,
+                 @Param("staleBefore") LocalDateTime staleBefore, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Mémorise la réponse, uniquement si la réservation est toujours celle de l'appelant.
+     *
+     * @return 0 si la clé a été reprise ou libérée entre-temps
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.version = r.version + 1, r.completed = true, "
+            + "r.responseStatus = :status, r.responseContentType = :contentType, r.responseBody = :body "
+            + "where r.id = :id and r.version = :version")
+    int complete(@Param("id") String id, @Param("version") long version, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    /**
+     * Supprime la réservation, uniquement si elle est toujours celle de l'appelant.
+     *
+     * @return 0 si la clé a été reprise ou libérée entre-temps
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.version = :version")
+    int release(@Param("id") String id, @Param("version") long version);
+}
@@ -0,0 +1,42 @@
+package com.gestion.stage.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gestion.stage.model.IngestionJob;
+
+@Repository
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, Long> {
+
+    @Query("select j.id from IngestionJob j where j.status = com.gestion.stage.model.IngestionJob.Status.PENDING"
+            + " and j.createdAt < :before and (j.nextAttemptAt is null or j.nextAttemptAt <= :now) order by j.id")
+    List<Long> findPendingIds(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    /**
+     * Prend en charge un job encore PENDING : entre workers ou instances concurrents,
+     * un seul obtient 1.
+     */
+    @Transactional
+    @Modifying
+    @Query("update IngestionJob j set j.status = com.gestion.stage.model.IngestionJob.Status.RUNNING,"
+            + " j.startedAt = :now where j.id = :id and j.status = com.gestion.stage.model.IngestionJob.Status.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Rend PENDING les jobs RUNNING pris en charge avant staleBefore (instance arrêtée en cours de traitement).
+     */
+    @Transactional
+    @Modifying
+    @Query("update IngestionJob j set j.status = com.gestion.stage.model.IngestionJob.Status.PENDING"
+            + " where j.status = com.gestion.stage.model.IngestionJob.Status.RUNNING and j.startedAt < :staleBefore")
+    int releaseStale(@Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,38 @@
+package com.gestion.stage.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.gestion.stage.model.PeriodeCategorieScore;
+
+@Repository
+public interface PeriodeCategorieScoreRepository extends JpaRepository<PeriodeCategorieScore, Long> {
+
+    /** Scores pas encore cumulés : [id, categorie_id, score]. */
+    @Query("select s.id, s.categorie.id, s.score from PeriodeCategorieScore s where s.folded = false order by s.id")
+    List<Object[]> findPending(Pageable pageable);
+
+    /** Scores d'une période par catégorie : [categorie id, intitulé, valeur globale, score]. */
+    @Query("select c.id, c.intitule, c.valeur, s.score from PeriodeCategorieScore s join s.categorie c "
+            + "where s.periode.id = :periodeId order by s.id")
+    List<Object[]> findByPeriodeId(@Param("periodeId") Long periodeId);
+
+    @Modifying
+    @Query("update PeriodeCategorieScore s set s.folded = true where s.folded = false and s.id in :ids")
+    int markFolded(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Scores des périodes d'un stage avec la version de leur catégorie, dont la valeur
+     * globale figure au tableau de bord : [score id, categorie id, version, date de modification].
+     */
+    @Query("select s.id, c.id, c.version, c.updatedAt from PeriodeCategorieScore s join s.categorie c "
+            + "where s.periode.stage.id = :stageId order by s.id")
+    List<Object[]> findCategorieVersionRowsByStageId(@Param("stageId") Long stageId);
+}
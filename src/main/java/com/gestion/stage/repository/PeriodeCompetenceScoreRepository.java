@@ -0,0 +1,25 @@
+package com.gestion.stage.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.gestion.stage.model.PeriodeCompetenceScore;
+
+@Repository
+public interface PeriodeCompetenceScoreRepository extends JpaRepository<PeriodeCompetenceScore, Long> {
+
+    /** Notes pas encore cumulées : [id, competences_id, score]. */
+    @Query("select s.id, s.competences.id, s.score from PeriodeCompetenceScore s where s.folded = false order by s.id")
+    List<Object[]> findPending(Pageable pageable);
+
+    @Modifying
+    @Query("update PeriodeCompetenceScore s set s.folded = true where s.folded = false and s.id in :ids")
+    int markFolded(@Param("ids") Collection<Long> ids);
+}
@@ -2,17 +2,93 @@ package com.gestion.stage.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Periode;
 import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.service.NdjsonExportService;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface PeriodeRepository extends JpaRepository<Periode, Long> {
+public interface PeriodeRepository extends JpaRepository<Periode, Long>, JpaSpecificationExecutor<Periode> {
+    @Override
+    @EntityGraph(Periode.DETAIL)
+    List<Periode> findAll();
+
+    @Override
+    @EntityGraph(Periode.DETAIL)
+    Optional<Periode> findById(Long id);
+
+    @EntityGraph(Periode.DETAIL)
     List<Periode> findByDateDebutAfter(LocalDate date);
+
+    @EntityGraph(Periode.DETAIL)
     List<Periode> findByDateFinBefore(LocalDate date);
+
+    @EntityGraph(Periode.DETAIL)
     List<Periode> findByStagiaire(Stagiaire stagiaire);
+
+    /** Toutes les périodes, lues en flux pour l'export NDJSON (voir StageRepository#streamAll). */
+    @EntityGraph(Periode.DETAIL)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = NdjsonExportService.FETCH_SIZE))
+    @Query("select p from Periode p order by p.id")
+    Stream<Periode> streamAll();
+
     List<Periode> findByTuteurIsNull();
+
+    /** [id, dateDebut, dateFin] de toutes les périodes, lus en flux pour charger {@code PeriodeCalendar}. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = NdjsonExportService.FETCH_SIZE))
+    @Query("select p.id, p.dateDebut, p.dateFin from Periode p")
+    Stream<Object[]> streamDates();
+
+    /** Périodes d'un stage, dans l'ordre de création : [id, dateDebut, dateFin]. */
+    @Query("select p.id, p.dateDebut, p.dateFin from Periode p where p.stage.id = :stageId order by p.id")
+    List<Object[]> findDatesByStageId(@Param("stageId") Long stageId);
+
+    /** Stage de la période, vide si la période n'existe pas ou n'est rattachée à aucun stage. */
+    @Query("select s.id from Periode p join p.stage s where p.id = :id")
+    Optional<Long> findStageIdById(@Param("id") Long id);
+
+    /**
+     * [id, stageId] des périodes rattachées à un stage qui chevauchent [debut, fin], par
+     * identifiant croissant après {@code afterId} (fiches d'évaluation par lot, lues par tranches).
+     */
+    @Query("select p.id, s.id from Periode p join p.stage s "
+            + "where p.dateDebut <= :fin and p.dateFin >= :debut and p.id > :afterId order by p.id")
+    List<Object[]> findReportKeys(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin,
+                                  @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Évaluations d'une période pour son profil : [periode id, categorie id, intitulé,
+     * competence id, intitulé, evaluation id, valeur], une ligne [periode id, null...] pour
+     * une période sans appréciation, aucune ligne si la période n'existe pas.
+     */
+    @Query("select p.id, cat.id, cat.intitule, c.id, c.intitule, e.id, e.valeur "
+            + "from Periode p left join p.appreciations a left join a.competences c left join c.categorie cat "
+            + "left join a.evaluation e where p.id = :id order by a.id")
+    List<Object[]> findProfileRows(@Param("id") Long id);
+
+    /**
+     * Version de GET /api/periodes/{id} (voir {@code ResourceVersion}) : la ligne de la
+     * période, avec la version de son contenu (appréciations et évaluations), son stage et
+     * les personnes de l'un et de l'autre. Une ligne quel que soit le nombre d'appréciations.
+     */
+    @Query("select p.id, p.version, p.updatedAt, p.contentVersion, p.contentUpdatedAt, "
+            + "s.id, s.version, s.updatedAt, ss.id, ss.version, ss.updatedAt, st.id, st.version, st.updatedAt, "
+            + "ps.id, ps.version, ps.updatedAt, pt.id, pt.version, pt.updatedAt "
+            + "from Periode p left join p.stage s left join s.stagiaire ss left join s.tuteur st "
+            + "left join p.stagiaire ps left join p.tuteur pt where p.id = :id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
 }
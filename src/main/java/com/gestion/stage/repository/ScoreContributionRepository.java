@@ -0,0 +1,37 @@
+package com.gestion.stage.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.gestion.stage.model.ScoreContribution;
+
+@Repository
+public interface ScoreContributionRepository extends JpaRepository<ScoreContribution, Long> {
+
+    /** Appréciations déjà comptées pour ces périodes, y compris celles supprimées depuis. */
+    @Query("select c.appreciationId from ScoreContribution c where c.periodeId in :periodeIds")
+    List<Long> findAppreciationIdsByPeriodeIds(@Param("periodeIds") Collection<Long> periodeIds);
+
+    /** Contributions enregistrées avant que la compétence n'y figure (hors des histogrammes). */
+    boolean existsByCompetenceIdIsNull();
+
+    /**
+     * Contributions de toutes les appréciations notées, rattachées à une compétence
+     * catégorisée et au stage d'une période (mêmes règles que
+     * {@link AppreciationRepository#findContributionRows}).
+     */
+    @Modifying
+    @Query("insert into ScoreContribution (appreciationId, version, periodeId, categorieId, competenceId, "
+            + "entreprise, institution, valeur) "
+            + "select a.id, 0L, p.id, cat.id, c.id, s.entreprise, st.institution, e.valeur "
+            + "from Appreciation a join a.evaluation e join a.competences c join c.categorie cat "
+            + "join a.periode p join p.stage s left join s.stagiaire st "
+            + "where e.valeur is not null")
+    int insertFromAppreciations();
+}
@@ -0,0 +1,58 @@
+package com.gestion.stage.repository;
+
+import java.util.Arrays;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Filtres réutilisables pour les listes paginées. Chaque méthode renvoie null (pas de
+ * filtre) quand la valeur est absente, ce que Specification.allOf ignore.
+ */
+public final class Specs {
+
+    private Specs() {
+    }
+
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    /** Filtre sur l'identifiant d'une association ManyToOne, sans jointure. */
+    public static <T> Specification<T> hasId(String association, Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(association).get("id"), id);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> atLeast(String attribute, Y value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Y>get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> atMost(String attribute, Y value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<Y>get(attribute), value);
+    }
+
+    /** Recherche sans casse d'un fragment de texte dans l'un des attributs. */
+    public static <T> Specification<T> contains(String text, String... attributes) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + text.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(Arrays.stream(attributes)
+                .map(attribute -> cb.like(cb.lower(root.<String>get(attribute)), pattern, '\\'))
+                .toArray(Predicate[]::new));
+    }
+}
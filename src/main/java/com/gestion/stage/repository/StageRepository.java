@@ -1,13 +1,76 @@
 package com.gestion.stage.repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Stage;
+import com.gestion.stage.service.NdjsonExportService;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface StageRepository extends JpaRepository<Stage, Long> {
+public interface StageRepository extends JpaRepository<Stage, Long>, JpaSpecificationExecutor<Stage> {
+    @Override
+    @EntityGraph(Stage.WITH_PERSONNES)
+    List<Stage> findAll();
+
+    @Override
+    @EntityGraph(Stage.WITH_PERSONNES)
+    Optional<Stage> findById(Long id);
+
+    @EntityGraph(Stage.WITH_PERSONNES)
     List<Stage> findByEntreprise(String entreprise);
+
+    /**
+     * Tous les stages avec leurs personnes, lus en flux pour l'export NDJSON (voir
+     * {@code NdjsonExportService}) : à consommer dans une transaction puis fermer.
+     */
+    @EntityGraph(Stage.WITH_PERSONNES)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = NdjsonExportService.FETCH_SIZE))
+    @Query("select s from Stage s order by s.id")
+    Stream<Stage> streamAll();
+
+    /**
+     * Stages d'un stagiaire, qu'il y soit rattaché directement (Stage.stagiaire) ou par une
+     * de ses périodes, chacun une seule fois et en une requête. Les identifiants viennent
+     * d'une table dérivée, UNION de deux lectures indexées (stage.stagiaire_id,
+     * periode.stagiaire_id) : un « or s.id in (sous-requête) » devient sous MySQL une
+     * sous-requête dépendante évaluée pour chaque stage.
+     */
+    @EntityGraph(Stage.WITH_PERSONNES)
+    @Query("select s from Stage s join ("
+            + "select d.id as id from Stage d where d.stagiaire.id = :stagiaireId "
+            + "union select p.stage.id as id from Periode p where p.stagiaire.id = :stagiaireId"
+            + ") ids on ids.id = s.id order by s.id")
+    List<Stage> findByStagiaireDirectOrPeriode(@Param("stagiaireId") Long stagiaireId);
+
+    /**
+     * En-tête du tableau de bord d'un stage : [id, description, objectif, entreprise,
+     * stagiaire id, nom, prénom, email, institution, tuteur id, nom, prénom, email, entreprise].
+     */
+    @Query("select s.id, s.description, s.objectif, s.entreprise, "
+            + "st.id, st.nom, st.prenom, st.email, st.institution, "
+            + "t.id, t.nom, t.prenom, t.email, t.entreprise "
+            + "from Stage s left join s.stagiaire st left join s.tuteur t where s.id = :id")
+    List<Object[]> findDashboardHeader(@Param("id") Long id);
+
+    /**
+     * Version de GET /api/stages/{id} (voir {@code ResourceVersion}) : la ligne du stage, avec
+     * la version de son contenu (périodes et appréciations), et ses deux personnes. Une ligne
+     * quel que soit le nombre de périodes.
+     */
+    @Query("select s.id, s.version, s.updatedAt, s.contentVersion, s.contentUpdatedAt, "
+            + "ss.id, ss.version, ss.updatedAt, st.id, st.version, st.updatedAt "
+            + "from Stage s left join s.stagiaire ss left join s.tuteur st where s.id = :id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
 }
@@ -1,14 +1,32 @@
 package com.gestion.stage.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Stagiaire;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface StagiaireRepository extends JpaRepository<Stagiaire, Long> {
+public interface StagiaireRepository extends JpaRepository<Stagiaire, Long>, JpaSpecificationExecutor<Stagiaire> {
+    /** Résultat gardé dans le cache de requêtes (région requetes.personne, voir ehcache.xml). */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "requetes.personne")})
     Optional<Stagiaire> findByEmail(String email);
-}
 
+    @Query("select p.id from Stagiaire p where p.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    /** Version d'un stagiaire : [id, version, date de modification]. */
+    @Query("select p.id, p.version, p.updatedAt from Stagiaire p where p.id = :id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
+}
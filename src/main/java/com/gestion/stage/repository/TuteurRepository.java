@@ -3,13 +3,31 @@ package com.gestion.stage.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.gestion.stage.model.Tuteur;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface TuteurRepository extends JpaRepository<Tuteur, Long> {
+public interface TuteurRepository extends JpaRepository<Tuteur, Long>, JpaSpecificationExecutor<Tuteur> {
+    /** Résultat gardé dans le cache de requêtes (région requetes.personne, voir ehcache.xml). */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "requetes.personne")})
     Optional<Tuteur> findByEmail(String email);
     List<Tuteur> findByEntreprise(String entreprise);
-}
\ No newline at end of file
+
+    @Query("select p.id from Tuteur p where p.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    /** Version d'un tuteur : [id, version, date de modification]. */
+    @Query("select p.id, p.version, p.updatedAt from Tuteur p where p.id = :id")
+    List<Object[]> findVersionRows(@Param("id") Long id);
+}
@@ -0,0 +1,68 @@
+package com.gestion.stage.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.gestion.stage.model.AnalyticsPending;
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.model.Stagiaire;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Note pour {@link AnalyticsService} les écritures qui changent l'apport d'une appréciation
+ * aux cumuls analytiques : valeur de l'évaluation, compétence, période, entreprise du stage,
+ * institution du stagiaire. Les appréciations créées avec un formulaire sont notées par
+ * période, une seule ligne pour toutes. Le service est injecté en différé, comme pour
+ * {@link PeriodeCalendarListener}.
+ */
+public class AnalyticsListener {
+
+    private final AnalyticsService analyticsService;
+
+    @Autowired
+    public AnalyticsListener(@Lazy AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @PostPersist
+    public void persisted(Object entity) {
+        if (entity instanceof Appreciation appreciation) {
+            if (appreciation.getPeriode() != null) {
+                analyticsService.record(AnalyticsPending.Type.PERIODE, appreciation.getPeriode().getId());
+            } else {
+                analyticsService.record(AnalyticsPending.Type.APPRECIATION, appreciation.getId());
+            }
+        }
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        if (entity instanceof Appreciation appreciation) {
+            analyticsService.record(AnalyticsPending.Type.APPRECIATION, appreciation.getId());
+        } else if (entity instanceof Evaluation evaluation) {
+            analyticsService.record(AnalyticsPending.Type.EVALUATION, evaluation.getId());
+        } else if (entity instanceof Periode periode) {
+            analyticsService.record(AnalyticsPending.Type.PERIODE, periode.getId());
+        } else if (entity instanceof Stage stage) {
+            analyticsService.record(AnalyticsPending.Type.STAGE, stage.getId());
+        } else if (entity instanceof Stagiaire stagiaire) {
+            analyticsService.record(AnalyticsPending.Type.STAGIAIRE, stagiaire.getId());
+        }
+    }
+
+    // Les appréciations d'une évaluation, période ou stage supprimés le sont en cascade
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Appreciation appreciation) {
+            analyticsService.record(AnalyticsPending.Type.APPRECIATION, appreciation.getId());
+        } else if (entity instanceof Periode periode) {
+            analyticsService.record(AnalyticsPending.Type.PERIODE, periode.getId());
+        }
+    }
+}
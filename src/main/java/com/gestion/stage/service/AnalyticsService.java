@@ -0,0 +1,436 @@
+package com.gestion.stage.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.dto.AnalyticsDTO;
+import com.gestion.stage.dto.ScoreStatsDTO;
+import com.gestion.stage.model.AnalyticsCumul;
+import com.gestion.stage.model.AnalyticsPending;
+import com.gestion.stage.model.CompetenceHistogramme;
+import com.gestion.stage.model.ScoreContribution;
+import com.gestion.stage.repository.AnalyticsCumulRepository;
+import com.gestion.stage.repository.AnalyticsPendingRepository;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CompetenceHistogrammeRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.ScoreContributionRepository;
+
+/**
+ * Moyennes par catégorie des valeurs d'évaluation, par entreprise du stage et par
+ * institution du stagiaire, tenues à jour de façon incrémentale.
+ * <p>
+ * Chaque écriture d'appréciation, d'évaluation, de période, de stage ou de stagiaire est
+ * notée dans {@link AnalyticsPending} par {@link AnalyticsListener}, dans la transaction même
+ * de l'écriture : la ligne est validée ou annulée avec elle. Une tâche planifiée reprend ces
+ * lignes par lots, recalcule l'apport des appréciations concernées ({@link ScoreContribution})
+ * et reporte la différence avec l'apport précédent sur les cumuls ({@link AnalyticsCumul}).
+ * Les lectures ne touchent que les cumuls : leur taille dépend du nombre d'entreprises,
+ * d'institutions et de catégories, pas de l'historique.
+ * <p>
+ * Les mêmes différences tiennent à jour l'histogramme des valeurs de chaque compétence
+ * ({@link CompetenceHistogramme}), d'où sont tirés centiles et nombres par niveau.
+ * <p>
+ * {@link #rebuild()} recalcule tout depuis la base, par exemple après un chargement SQL
+ * direct, qui ne passe pas par Hibernate. Elle est lancée au démarrage si des contributions
+ * antérieures aux histogrammes n'ont pas encore leur compétence.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Taille des listes {@code in} des requêtes de recalcul. */
+    private static final int IN_CHUNK = 1000;
+
+    private record PendingKey(AnalyticsPending.Type type, Long cle) {
+    }
+
+    private final AnalyticsPendingRepository pendingRepository;
+    private final ScoreContributionRepository contributionRepository;
+    private final AnalyticsCumulRepository cumulRepository;
+    private final CompetenceHistogrammeRepository histogrammeRepository;
+    private final AppreciationRepository appreciationRepository;
+    private final CompetencesRepository competencesRepository;
+    private final CategorieRepository categorieRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int foldBatchSize;
+    private final int maxPageSize;
+    // Une seule mise à jour des cumuls à la fois dans cette instance (cumul planifié ou reconstruction)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    public AnalyticsService(AnalyticsPendingRepository pendingRepository,
+                            ScoreContributionRepository contributionRepository,
+                            AnalyticsCumulRepository cumulRepository,
+                            CompetenceHistogrammeRepository histogrammeRepository,
+                            AppreciationRepository appreciationRepository,
+                            CompetencesRepository competencesRepository,
+                            CategorieRepository categorieRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${gestion.analytics.fold-batch-size:500}") int foldBatchSize,
+                            @Value("${gestion.pagination.max-size:200}") int maxPageSize) {
+        this.pendingRepository = pendingRepository;
+        this.contributionRepository = contributionRepository;
+        this.cumulRepository = cumulRepository;
+        this.histogrammeRepository = histogrammeRepository;
+        this.appreciationRepository = appreciationRepository;
+        this.competencesRepository = competencesRepository;
+        this.categorieRepository = categorieRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.foldBatchSize = foldBatchSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Moyennes d'une dimension, éventuellement restreintes à une entreprise ou institution
+     * ({@code cle}) ou à une catégorie.
+     */
+    public AnalyticsDTO getCumuls(AnalyticsCumul.Dimension dimension, String cle, Long categorieId,
+                                  int page, Integer size) {
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (page < 0 || pageSize < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "La page doit être positive ou nulle et la taille de page positive.");
+        }
+        if (cle != null && categorieId != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Filtrer par " + dimension.name().toLowerCase() + " ou par catégorie, pas les deux.");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        Pageable pageable = PageRequest.of(page, pageSize);
+        List<Object[]> rows = cle != null ? cumulRepository.findRowsByCle(dimension, cle, pageable)
+                : categorieId != null ? cumulRepository.findRowsByCategorieId(dimension, categorieId, pageable)
+                : cumulRepository.findRows(dimension, pageable);
+
+        List<AnalyticsDTO.Ligne> lignes = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long nombre = (Long) row[4];
+            lignes.add(new AnalyticsDTO.Ligne((String) row[0], (Long) row[1], (String) row[2],
+                    nombre > 0 ? (Double) row[3] / nombre : null, nombre));
+        }
+        return new AnalyticsDTO(dimension.name().toLowerCase(), page, pageSize, lignes);
+    }
+
+    /**
+     * Distribution des valeurs d'une compétence, lue dans son histogramme.
+     */
+    public ScoreStatsDTO getCompetenceStats(Long competenceId) {
+        if (!competencesRepository.existsById(competenceId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Compétence non trouvée avec l'ID: " + competenceId);
+        }
+        ScoreHistogram histogram = new ScoreHistogram();
+        histogram.addRows(histogrammeRepository.findRowsByCompetenceId(competenceId));
+        return histogram.toDTO(competenceId);
+    }
+
+    /**
+     * Distribution des valeurs d'une catégorie : somme des histogrammes de ses compétences.
+     */
+    public ScoreStatsDTO getCategorieStats(Long categorieId) {
+        if (!categorieRepository.existsById(categorieId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Catégorie non trouvée avec l'ID: " + categorieId);
+        }
+        ScoreHistogram histogram = new ScoreHistogram();
+        histogram.addRows(histogrammeRepository.findRowsByCategorieId(categorieId));
+        return histogram.toDTO(categorieId);
+    }
+
+    /**
+     * Note une écriture à reporter sur les cumuls, dans la transaction en cours (une seule
+     * ligne par entité et par transaction). Appelé pendant le flush Hibernate : la ligne est
+     * insérée en JDBC sur la connexion de la transaction, validée ou annulée avec elle.
+     */
+    void record(AnalyticsPending.Type type, Long cle) {
+        if (cle == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Clés déjà notées par la transaction en cours, pas par une transaction suspendue
+            RecordedKeys recorded = null;
+            for (TransactionSynchronization registered : TransactionSynchronizationManager.getSynchronizations()) {
+                if (registered instanceof RecordedKeys keys) {
+                    recorded = keys;
+                }
+            }
+            if (recorded == null) {
+                recorded = new RecordedKeys();
+                TransactionSynchronizationManager.registerSynchronization(recorded);
+            }
+            if (!recorded.keys.add(new PendingKey(type, cle))) {
+                return;
+            }
+        }
+        jdbcTemplate.update("insert into analytics_pending (type, cle) values (?, ?)", type.name(), cle);
+    }
+
+    /** Pas un record : une synchronisation est comparée par identité, ses clés changent. */
+    private static final class RecordedKeys implements TransactionSynchronization {
+        private final Set<PendingKey> keys = new HashSet<>();
+    }
+
+    @Scheduled(fixedDelayString = "${gestion.analytics.fold-delay-ms:5000}")
+    public void scheduledFold() {
+        try {
+            while (foldPending() == foldBatchSize) {
+                // Lot complet : d'autres écritures attendent
+            }
+        } catch (Exception e) {
+            logger.warn("Échec de la mise à jour des cumuls analytiques, nouvel essai au prochain passage: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reporte un lot d'écritures en attente sur les cumuls.
+     *
+     * @return le nombre de lignes en attente traitées
+     */
+    public int foldPending() {
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                List<AnalyticsPending> pending = pendingRepository.findOldest(PageRequest.of(0, foldBatchSize));
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                Map<AnalyticsPending.Type, Set<Long>> keys = new EnumMap<>(AnalyticsPending.Type.class);
+                List<Long> ids = new ArrayList<>(pending.size());
+                for (AnalyticsPending row : pending) {
+                    ids.add(row.getId());
+                    keys.computeIfAbsent(row.getType(), type -> new LinkedHashSet<>()).add(row.getCle());
+                }
+                // Garde-fou si plusieurs instances cumulent en même temps : une écriture n'est reportée qu'une fois
+                if (pendingRepository.deleteByIds(ids) != ids.size()) {
+                    throw new OptimisticLockingFailureException("Écritures déjà reportées par une autre instance");
+                }
+
+                Set<Long> appreciationIds = new LinkedHashSet<>(keys.getOrDefault(AnalyticsPending.Type.APPRECIATION, Set.of()));
+                expand(keys, AnalyticsPending.Type.PERIODE, appreciationIds, appreciationRepository::findIdsByPeriodeIds);
+                expand(keys, AnalyticsPending.Type.PERIODE, appreciationIds, contributionRepository::findAppreciationIdsByPeriodeIds);
+                expand(keys, AnalyticsPending.Type.EVALUATION, appreciationIds, appreciationRepository::findIdsByEvaluationIds);
+                expand(keys, AnalyticsPending.Type.STAGE, appreciationIds, appreciationRepository::findIdsByStageIds);
+                expand(keys, AnalyticsPending.Type.STAGIAIRE, appreciationIds, appreciationRepository::findIdsByStagiaireIds);
+
+                List<Long> all = new ArrayList<>(appreciationIds);
+                for (int from = 0; from < all.size(); from += IN_CHUNK) {
+                    apply(all.subList(from, Math.min(all.size(), from + IN_CHUNK)));
+                }
+                logger.debug("{} écritures reportées sur les cumuls analytiques ({} appréciations)", ids.size(), all.size());
+                return ids.size();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void expand(Map<AnalyticsPending.Type, Set<Long>> keys, AnalyticsPending.Type type,
+                               Set<Long> appreciationIds, Function<Collection<Long>, List<Long>> query) {
+        List<Long> cles = new ArrayList<>(keys.getOrDefault(type, Set.of()));
+        for (int from = 0; from < cles.size(); from += IN_CHUNK) {
+            appreciationIds.addAll(query.apply(cles.subList(from, Math.min(cles.size(), from + IN_CHUNK))));
+        }
+    }
+
+    /**
+     * Remplace l'apport enregistré de chaque appréciation par son apport actuel et reporte
+     * la différence sur les cumuls.
+     */
+    private void apply(List<Long> appreciationIds) {
+        Map<Long, ScoreContribution> current = new HashMap<>();
+        for (Object[] row : appreciationRepository.findContributionRows(appreciationIds)) {
+            current.put((Long) row[0], new ScoreContribution((Long) row[0], null, (Long) row[1], (Long) row[2],
+                    (Long) row[3], (String) row[4], (String) row[5], (Double) row[6]));
+        }
+        Map<Long, ScoreContribution> previous = new HashMap<>();
+        contributionRepository.findAllById(appreciationIds).forEach(c -> previous.put(c.getAppreciationId(), c));
+
+        Map<AnalyticsCumul.Key, double[]> deltas = new LinkedHashMap<>();
+        Map<CompetenceHistogramme.Key, double[]> histogramDeltas = new LinkedHashMap<>();
+        for (Long id : appreciationIds) {
+            ScoreContribution before = previous.get(id);
+            ScoreContribution after = current.get(id);
+            if (after != null && after.sameAs(before)) {
+                continue;
+            }
+            if (before != null) {
+                add(deltas, before, -1);
+                addToHistogram(histogramDeltas, before, -1);
+            }
+            if (after == null) {
+                contributionRepository.delete(before);
+                continue;
+            }
+            add(deltas, after, 1);
+            addToHistogram(histogramDeltas, after, 1);
+            if (before != null) {
+                // Mise à jour de la ligne existante, sous contrôle de sa version
+                contributionRepository.save(copyInto(before, after));
+            } else {
+                contributionRepository.save(after);
+            }
+        }
+
+        Map<AnalyticsCumul.Key, AnalyticsCumul> cumuls = new HashMap<>();
+        cumulRepository.findAllById(deltas.keySet()).forEach(c ->
+                cumuls.put(new AnalyticsCumul.Key(c.getDimension(), c.getCle(), c.getCategorieId()), c));
+        for (Map.Entry<AnalyticsCumul.Key, double[]> delta : deltas.entrySet()) {
+            if (delta.getValue()[1] == 0 && delta.getValue()[0] == 0) {
+                continue;
+            }
+            AnalyticsCumul existing = cumuls.get(delta.getKey());
+            AnalyticsCumul cumul = existing != null ? existing : new AnalyticsCumul(delta.getKey());
+            cumul.setTotal(cumul.getTotal() + delta.getValue()[0]);
+            cumul.setNombre(cumul.getNombre() + (long) delta.getValue()[1]);
+            if (cumul.getNombre() > 0) {
+                cumulRepository.save(cumul);
+            } else if (existing != null) {
+                cumulRepository.delete(existing);
+            }
+        }
+        applyHistograms(histogramDeltas);
+    }
+
+    private void applyHistograms(Map<CompetenceHistogramme.Key, double[]> deltas) {
+        Map<CompetenceHistogramme.Key, CompetenceHistogramme> classes = new HashMap<>();
+        histogrammeRepository.findAllById(deltas.keySet()).forEach(h ->
+                classes.put(new CompetenceHistogramme.Key(h.getCompetenceId(), h.getClasse()), h));
+        for (Map.Entry<CompetenceHistogramme.Key, double[]> delta : deltas.entrySet()) {
+            double[] d = delta.getValue();
+            if (d[0] == 0 && d[1] == 0 && d[2] == 0) {
+                continue;
+            }
+            CompetenceHistogramme existing = classes.get(delta.getKey());
+            CompetenceHistogramme classe = existing != null ? existing : new CompetenceHistogramme(delta.getKey());
+            classe.setNombre(classe.getNombre() + (long) d[0]);
+            classe.setTotal(classe.getTotal() + d[1]);
+            classe.setEntiers(classe.getEntiers() + (long) d[2]);
+            if (classe.getNombre() > 0) {
+                histogrammeRepository.save(classe);
+            } else if (existing != null) {
+                histogrammeRepository.delete(existing);
+            }
+        }
+    }
+
+    private static void addToHistogram(Map<CompetenceHistogramme.Key, double[]> deltas,
+                                       ScoreContribution contribution, int sign) {
+        if (contribution.getCompetenceId() == null) {
+            return;
+        }
+        int classe = CompetenceHistogramme.classe(contribution.getValeur());
+        double[] delta = deltas.computeIfAbsent(
+                new CompetenceHistogramme.Key(contribution.getCompetenceId(), classe), k -> new double[3]);
+        delta[0] += sign;
+        delta[1] += sign * contribution.getValeur();
+        if (contribution.getValeur() == classe) {
+            delta[2] += sign;
+        }
+    }
+
+    private static ScoreContribution copyInto(ScoreContribution target, ScoreContribution source) {
+        target.setPeriodeId(source.getPeriodeId());
+        target.setCategorieId(source.getCategorieId());
+        target.setCompetenceId(source.getCompetenceId());
+        target.setEntreprise(source.getEntreprise());
+        target.setInstitution(source.getInstitution());
+        target.setValeur(source.getValeur());
+        return target;
+    }
+
+    private static void add(Map<AnalyticsCumul.Key, double[]> deltas, ScoreContribution contribution, int sign) {
+        if (contribution.getEntreprise() != null) {
+            add(deltas, new AnalyticsCumul.Key(AnalyticsCumul.Dimension.ENTREPRISE, contribution.getEntreprise(),
+                    contribution.getCategorieId()), contribution.getValeur(), sign);
+        }
+        if (contribution.getInstitution() != null) {
+            add(deltas, new AnalyticsCumul.Key(AnalyticsCumul.Dimension.INSTITUTION, contribution.getInstitution(),
+                    contribution.getCategorieId()), contribution.getValeur(), sign);
+        }
+    }
+
+    private static void add(Map<AnalyticsCumul.Key, double[]> deltas, AnalyticsCumul.Key key, double valeur, int sign) {
+        double[] delta = deltas.computeIfAbsent(key, k -> new double[2]);
+        delta[0] += sign * valeur;
+        delta[1] += sign;
+    }
+
+    /**
+     * Au démarrage : des contributions sans compétence datent d'avant les histogrammes, qui
+     * ne les comptent donc pas ; une reconstruction les complète.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfIncomplete() {
+        if (contributionRepository.existsByCompetenceIdIsNull()) {
+            logger.info("Contributions analytiques sans compétence, reconstruction des cumuls et histogrammes");
+            rebuild();
+        }
+    }
+
+    /**
+     * Recalcule contributions, cumuls et histogrammes depuis la base, en une transaction. Les écritures
+     * notées avant le début de la reconstruction sont abandonnées ; les suivantes seront
+     * reportées normalement.
+     *
+     * @return le nombre d'appréciations comptées
+     */
+    public int rebuild() {
+        lock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            int contributions = transactionTemplate.execute(status -> {
+                Long maxPendingId = pendingRepository.findMaxId();
+                cumulRepository.deleteAllInBatch();
+                histogrammeRepository.deleteAllInBatch();
+                contributionRepository.deleteAllInBatch();
+                int inserted = contributionRepository.insertFromAppreciations();
+                cumulRepository.insertEntrepriseCumuls();
+                cumulRepository.insertInstitutionCumuls();
+                histogrammeRepository.insertFromContributions();
+                if (maxPendingId != null) {
+                    pendingRepository.deleteUpTo(maxPendingId);
+                }
+                return inserted;
+            });
+            logger.info("Cumuls analytiques reconstruits: {} appréciations en {} ms",
+                    contributions, System.currentTimeMillis() - start);
+            return contributions;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -2,31 +2,59 @@ package com.gestion.stage.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Appreciation;
 import com.gestion.stage.model.Competences;
 import com.gestion.stage.model.Evaluation;
 import com.gestion.stage.model.Periode;
 import com.gestion.stage.model.Tuteur;
 import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.Specs;
 
 @Service
 public class AppreciationService {
 
+    static final Set<String> SORTABLE = Set.of("id");
+
     private final AppreciationRepository appreciationRepository;
+    private final KeysetPagination keysetPagination;
 
     @Autowired
-    public AppreciationService(AppreciationRepository appreciationRepository) {
+    public AppreciationService(AppreciationRepository appreciationRepository, KeysetPagination keysetPagination) {
         this.appreciationRepository = appreciationRepository;
+        this.keysetPagination = keysetPagination;
     }
 
     public List<Appreciation> getAllAppreciations() {
         return appreciationRepository.findAll();
     }
 
+    /**
+     * Toutes les appréciations, lues en flux pour l'export NDJSON : à consommer dans une transaction, puis fermer.
+     */
+    public Stream<Appreciation> streamAllAppreciations() {
+        return appreciationRepository.streamAll();
+    }
+
+    /**
+     * Page de la liste, triée et filtrée (filtres nuls ignorés).
+     */
+    public CursorPage<Appreciation> getAppreciationsPage(PageQuery page, Long periodeId, Long tuteurId, Long competenceId) {
+        Specification<Appreciation> filter = Specification.allOf(
+                Specs.hasId("periode", periodeId),
+                Specs.hasId("tuteur", tuteurId),
+                Specs.hasId("competences", competenceId));
+        return keysetPagination.page(appreciationRepository, filter, page, SORTABLE, Appreciation.DETAIL);
+    }
+
     public Optional<Appreciation> getAppreciationById(Long id) {
         return appreciationRepository.findById(id);
     }
@@ -0,0 +1,222 @@
+package com.gestion.stage.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gestion.stage.model.Categorie;
+import com.gestion.stage.model.Competences;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+
+/**
+ * Cache en mémoire du catalogue (catégories et compétences), indexé par intitulé.
+ * <p>
+ * Le catalogue est petit et change rarement : il est chargé au démarrage en deux requêtes
+ * puis servi sans accès à la base. Toute écriture passant par {@link CategorieService} ou
+ * {@link CompetencesService} invalide le cache, qui est rechargé au prochain accès. Les
+ * entrées créées ou modifiées par l'enregistrement des formulaires sont reportées dans
+ * le cache après le commit de leur transaction.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    public record CategorieEntry(Long id, String intitule, Double valeur) {
+    }
+
+    public record CompetenceEntry(Long id, Long categorieId, String intitule, Double note) {
+    }
+
+    public record CompetenceKey(String categorie, String competence) {
+    }
+
+    private static final class Snapshot {
+        private final Map<String, CategorieEntry> categories = new ConcurrentHashMap<>();
+        private final Map<CompetenceKey, CompetenceEntry> competences = new ConcurrentHashMap<>();
+    }
+
+    private final CategorieRepository categorieRepository;
+    private final CompetencesRepository competencesRepository;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();
+    // Verrou plutôt que synchronized : un thread virtuel qui attend la base pendant le
+    // chargement libère son thread porteur (JDK 21)
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public CatalogCache(CategorieRepository categorieRepository, CompetencesRepository competencesRepository) {
+        this.categorieRepository = categorieRepository;
+        this.competencesRepository = competencesRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        snapshot();
+    }
+
+    public Optional<CategorieEntry> categorie(String intitule) {
+        return count(snapshot().categories.get(intitule));
+    }
+
+    public Optional<CompetenceEntry> competence(String categorie, String competence) {
+        return count(snapshot().competences.get(new CompetenceKey(categorie, competence)));
+    }
+
+    /**
+     * Enregistre une catégorie créée ou dont la valeur a changé, après le commit en cours.
+     */
+    public void putCategorieAfterCommit(CategorieEntry entry) {
+        afterCommit(() -> {
+            Snapshot current = snapshot;
+            if (current != null) {
+                current.categories.put(entry.intitule(), entry);
+            }
+        });
+    }
+
+    /**
+     * Enregistre une compétence créée ou dont la note a changé, après le commit en cours.
+     */
+    public void putCompetenceAfterCommit(String categorie, CompetenceEntry entry) {
+        afterCommit(() -> {
+            Snapshot current = snapshot;
+            if (current != null) {
+                current.competences.put(new CompetenceKey(categorie, entry.intitule()), entry);
+            }
+        });
+    }
+
+    /**
+     * Vide le cache tout de suite et à nouveau à la fin de la transaction en cours : un
+     * rechargement fait entre-temps aurait lu le catalogue d'avant le commit (ou, dans la
+     * même transaction, des lignes qui peuvent encore être annulées).
+     */
+    public void invalidateAfterCommit() {
+        invalidate();
+        afterCompletion(this::invalidate);
+    }
+
+    /**
+     * Vide le cache ; il sera rechargé depuis la base au prochain accès.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        invalidations.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("reloads", reloads.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("loaded", current != null);
+        stats.put("categories", current != null ? current.categories.size() : 0);
+        stats.put("competences", current != null ? current.competences.size() : 0);
+        return stats;
+    }
+
+    private <T> Optional<T> count(T entry) {
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        return reload();
+    }
+
+    private Snapshot reload() {
+        reloadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            long loadedGeneration = generation.get();
+            Snapshot loaded = new Snapshot();
+            Map<Long, String> categorieNames = new HashMap<>();
+            for (Categorie categorie : categorieRepository.findAll()) {
+                categorieNames.put(categorie.getId(), categorie.getIntitule());
+                loaded.categories.putIfAbsent(categorie.getIntitule(),
+                        new CategorieEntry(categorie.getId(), categorie.getIntitule(), categorie.getValeur()));
+            }
+            for (Competences competence : competencesRepository.findAllWithCategorie()) {
+                if (competence.getCategorie() == null) {
+                    continue;
+                }
+                Long categorieId = competence.getCategorie().getId();
+                loaded.competences.putIfAbsent(new CompetenceKey(categorieNames.get(categorieId), competence.getIntitule()),
+                        new CompetenceEntry(competence.getId(), categorieId, competence.getIntitule(), competence.getNote()));
+            }
+            reloads.increment();
+            logger.info("Catalogue chargé en cache: {} catégories, {} compétences", loaded.categories.size(), loaded.competences.size());
+            // Une invalidation pendant le chargement rend ce contenu potentiellement périmé
+            if (generation.get() == loadedGeneration) {
+                snapshot = loaded;
+            }
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
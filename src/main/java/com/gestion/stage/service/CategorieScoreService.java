@@ -0,0 +1,109 @@
+package com.gestion.stage.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gestion.stage.model.Categorie;
+import com.gestion.stage.model.CategorieScoreCumul;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CategorieScoreCumulRepository;
+import com.gestion.stage.repository.PeriodeCategorieScoreRepository;
+
+/**
+ * Tient à jour la valeur moyenne de chaque catégorie à partir des scores par période.
+ * <p>
+ * Les formulaires n'écrivent que leurs propres lignes {@code PeriodeCategorieScore} ;
+ * cette tâche planifiée, seul écrivain des cumuls, ajoute les scores non encore pris
+ * en compte à la somme et au nombre de leur catégorie puis recalcule Categorie.valeur.
+ * Deux formulaires simultanés ne se disputent donc plus la même ligne.
+ */
+@Service
+public class CategorieScoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategorieScoreService.class);
+
+    private final PeriodeCategorieScoreRepository scoreRepository;
+    private final CategorieScoreCumulRepository cumulRepository;
+    private final CategorieRepository categorieRepository;
+    private final CatalogCache catalogCache;
+    private final int foldBatchSize;
+
+    @Autowired
+    public CategorieScoreService(PeriodeCategorieScoreRepository scoreRepository,
+                                 CategorieScoreCumulRepository cumulRepository,
+                                 CategorieRepository categorieRepository,
+                                 CatalogCache catalogCache,
+                                 @Value("${gestion.scores.fold-batch-size:5000}") int foldBatchSize) {
+        this.scoreRepository = scoreRepository;
+        this.cumulRepository = cumulRepository;
+        this.categorieRepository = categorieRepository;
+        this.catalogCache = catalogCache;
+        this.foldBatchSize = foldBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${gestion.scores.fold-delay-ms:5000}")
+    public void scheduledFold() {
+        try {
+            foldPendingScores();
+        } catch (Exception e) {
+            logger.warn("Échec du cumul des scores de catégorie, nouvel essai au prochain passage: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ajoute un lot de scores en attente aux cumuls de leurs catégories.
+     *
+     * @return le nombre de scores cumulés
+     */
+    @Transactional
+    public int foldPendingScores() {
+        List<Object[]> pending = scoreRepository.findPending(PageRequest.of(0, foldBatchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(pending.size());
+        Map<Long, double[]> sums = new HashMap<>();
+        for (Object[] row : pending) {
+            ids.add((Long) row[0]);
+            if (row[1] == null || row[2] == null) {
+                continue;
+            }
+            double[] sum = sums.computeIfAbsent((Long) row[1], id -> new double[2]);
+            sum[0] += (Double) row[2];
+            sum[1]++;
+        }
+
+        // Garde-fou si plusieurs instances cumulent en même temps : un score ne compte qu'une fois
+        if (scoreRepository.markFolded(ids) != ids.size()) {
+            throw new OptimisticLockingFailureException("Scores de catégorie déjà cumulés par une autre instance");
+        }
+
+        for (Categorie categorie : categorieRepository.findAllById(sums.keySet())) {
+            double[] sum = sums.get(categorie.getId());
+            CategorieScoreCumul cumul = cumulRepository.findById(categorie.getId())
+                    .orElseGet(() -> new CategorieScoreCumul(categorie.getId(), 0.0, 0L));
+            cumul.setTotal(cumul.getTotal() + sum[0]);
+            cumul.setNombre(cumul.getNombre() + (long) sum[1]);
+            cumulRepository.save(cumul);
+
+            categorie.setValeur(cumul.getTotal() / cumul.getNombre());
+            catalogCache.putCategorieAfterCommit(
+                    new CatalogCache.CategorieEntry(categorie.getId(), categorie.getIntitule(), categorie.getValeur()));
+        }
+        logger.debug("{} scores cumulés sur {} catégories", ids.size(), sums.size());
+        return ids.size();
+    }
+}
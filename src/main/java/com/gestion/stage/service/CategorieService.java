@@ -13,10 +13,15 @@ import com.gestion.stage.repository.CategorieRepository;
 public class CategorieService {
 
     private final CategorieRepository categorieRepository;
+    private final CatalogCache catalogCache;
+    private final PeriodeProfileCache periodeProfileCache;
 
     @Autowired
-    public CategorieService(CategorieRepository categorieRepository) {
+    public CategorieService(CategorieRepository categorieRepository, CatalogCache catalogCache,
+                            PeriodeProfileCache periodeProfileCache) {
         this.categorieRepository = categorieRepository;
+        this.catalogCache = catalogCache;
+        this.periodeProfileCache = periodeProfileCache;
     }
 
     public List<Categorie> getAllCategories() {
@@ -32,10 +37,15 @@ public class CategorieService {
     }
 
     public Categorie saveCategorie(Categorie categorie) {
-        return categorieRepository.save(categorie);
+        Categorie saved = categorieRepository.save(categorie);
+        catalogCache.invalidateAfterCommit();
+        periodeProfileCache.invalidateAfterCommit();
+        return saved;
     }
 
     public void deleteCategorie(Long id) {
         categorieRepository.deleteById(id);
+        catalogCache.invalidateAfterCommit();
+        periodeProfileCache.invalidateAfterCommit();
     }
 }
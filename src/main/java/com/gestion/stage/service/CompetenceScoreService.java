@@ -0,0 +1,113 @@
+package com.gestion.stage.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gestion.stage.model.CompetenceScoreCumul;
+import com.gestion.stage.model.Competences;
+import com.gestion.stage.repository.CompetenceScoreCumulRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.PeriodeCompetenceScoreRepository;
+
+/**
+ * Tient à jour la note moyenne de chaque compétence à partir des notes par période,
+ * sur le modèle de {@link CategorieScoreService}.
+ * <p>
+ * Les formulaires n'écrivent que leurs propres lignes {@code PeriodeCompetenceScore} ;
+ * cette tâche planifiée, seul écrivain des cumuls, ajoute les notes non encore prises
+ * en compte à la somme et au nombre de leur compétence puis recalcule Competences.note.
+ * Les compétences sont mises à jour par identifiant croissant.
+ */
+@Service
+public class CompetenceScoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompetenceScoreService.class);
+
+    private final PeriodeCompetenceScoreRepository scoreRepository;
+    private final CompetenceScoreCumulRepository cumulRepository;
+    private final CompetencesRepository competencesRepository;
+    private final CatalogCache catalogCache;
+    private final int foldBatchSize;
+
+    @Autowired
+    public CompetenceScoreService(PeriodeCompetenceScoreRepository scoreRepository,
+                                  CompetenceScoreCumulRepository cumulRepository,
+                                  CompetencesRepository competencesRepository,
+                                  CatalogCache catalogCache,
+                                  @Value("${gestion.scores.fold-batch-size:5000}") int foldBatchSize) {
+        this.scoreRepository = scoreRepository;
+        this.cumulRepository = cumulRepository;
+        this.competencesRepository = competencesRepository;
+        this.catalogCache = catalogCache;
+        this.foldBatchSize = foldBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${gestion.scores.fold-delay-ms:5000}")
+    public void scheduledFold() {
+        try {
+            foldPendingScores();
+        } catch (Exception e) {
+            logger.warn("Échec du cumul des notes de compétence, nouvel essai au prochain passage: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ajoute un lot de notes en attente aux cumuls de leurs compétences.
+     *
+     * @return le nombre de notes cumulées
+     */
+    @Transactional
+    public int foldPendingScores() {
+        List<Object[]> pending = scoreRepository.findPending(PageRequest.of(0, foldBatchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(pending.size());
+        Map<Long, double[]> sums = new TreeMap<>();
+        for (Object[] row : pending) {
+            ids.add((Long) row[0]);
+            if (row[1] == null || row[2] == null) {
+                continue;
+            }
+            double[] sum = sums.computeIfAbsent((Long) row[1], id -> new double[2]);
+            sum[0] += (Double) row[2];
+            sum[1]++;
+        }
+
+        // Garde-fou si plusieurs instances cumulent en même temps : une note ne compte qu'une fois
+        if (scoreRepository.markFolded(ids) != ids.size()) {
+            throw new OptimisticLockingFailureException("Notes de compétence déjà cumulées par une autre instance");
+        }
+
+        for (Competences competence : competencesRepository.findByIdIn(sums.keySet())) {
+            double[] sum = sums.get(competence.getId());
+            CompetenceScoreCumul cumul = cumulRepository.findById(competence.getId())
+                    .orElseGet(() -> new CompetenceScoreCumul(competence.getId(), 0.0, 0L));
+            cumul.setTotal(cumul.getTotal() + sum[0]);
+            cumul.setNombre(cumul.getNombre() + (long) sum[1]);
+            cumulRepository.save(cumul);
+
+            competence.setNote(cumul.getTotal() / cumul.getNombre());
+            if (competence.getCategorie() != null) {
+                catalogCache.putCompetenceAfterCommit(competence.getCategorie().getIntitule(),
+                        new CatalogCache.CompetenceEntry(competence.getId(), competence.getCategorie().getId(),
+                                competence.getIntitule(), competence.getNote()));
+            }
+        }
+        logger.debug("{} notes cumulées sur {} compétences", ids.size(), sums.size());
+        return ids.size();
+    }
+}
@@ -2,28 +2,52 @@ package com.gestion.stage.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Categorie;
 import com.gestion.stage.model.Competences;
 import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.Specs;
 
 @Service
 public class CompetencesService {
 
+    static final Set<String> SORTABLE = Set.of("id", "intitule", "note");
+
     private final CompetencesRepository competencesRepository;
+    private final CatalogCache catalogCache;
+    private final PeriodeProfileCache periodeProfileCache;
+    private final KeysetPagination keysetPagination;
 
     @Autowired
-    public CompetencesService(CompetencesRepository competencesRepository) {
+    public CompetencesService(CompetencesRepository competencesRepository, CatalogCache catalogCache,
+                              PeriodeProfileCache periodeProfileCache, KeysetPagination keysetPagination) {
         this.competencesRepository = competencesRepository;
+        this.catalogCache = catalogCache;
+        this.periodeProfileCache = periodeProfileCache;
+        this.keysetPagination = keysetPagination;
     }
 
     public List<Competences> getAllCompetences() {
         return competencesRepository.findAll();
     }
 
+    /**
+     * Page de la liste, triée et filtrée (filtres nuls ignorés).
+     */
+    public CursorPage<Competences> getCompetencesPage(PageQuery page, Long categorieId, String intitule) {
+        Specification<Competences> filter = Specification.allOf(
+                Specs.hasId("categorie", categorieId),
+                Specs.contains(intitule, "intitule"));
+        return keysetPagination.page(competencesRepository, filter, page, SORTABLE, Competences.WITH_CATEGORIE);
+    }
+
     public Optional<Competences> getCompetencesById(Long id) {
         return competencesRepository.findById(id);
     }
@@ -37,10 +61,15 @@ public class CompetencesService {
     }
 
     public Competences saveCompetences(Competences competences) {
-        return competencesRepository.save(competences);
+        Competences saved = competencesRepository.save(competences);
+        catalogCache.invalidateAfterCommit();
+        periodeProfileCache.invalidateAfterCommit();
+        return saved;
     }
 
     public void deleteCompetences(Long id) {
         competencesRepository.deleteById(id);
+        catalogCache.invalidateAfterCommit();
+        periodeProfileCache.invalidateAfterCommit();
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.gestion.stage.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.gestion.stage.repository.PeriodeRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fiches d'évaluation PDF des périodes, à l'unité ou par lot.
+ * <p>
+ * Un lot couvre les périodes (rattachées à un stage) qui chevauchent une fenêtre de dates.
+ * Les fiches sont rendues en parallèle sur un pool de taille fixe partagé par tous les lots
+ * (gestion.reports.threads) et écrites dans l'ordre des périodes dans une archive ZIP envoyée
+ * en flux. Au plus gestion.reports.in-flight fiches d'un lot sont en cours ou en attente
+ * d'écriture, et au plus gestion.reports.max-batches lots tournent à la fois : la mémoire
+ * reste bornée quel que soit le nombre de fiches.
+ */
+@Service
+public class EvaluationReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationReportService.class);
+
+    /** Clés de périodes lues par requête : la liste du lot n'est jamais chargée en entier. */
+    private static final int KEYS_CHUNK = 500;
+
+    private final PeriodeRepository periodeRepository;
+    private final StageDashboardService stageDashboardService;
+    private final EvaluationSheetRenderer renderer;
+    private final ExecutorService pool;
+    private final int inFlight;
+    private final Semaphore batches;
+
+    private record Sheet(String name, byte[] pdf) {
+    }
+
+    @Autowired
+    public EvaluationReportService(PeriodeRepository periodeRepository,
+                                   StageDashboardService stageDashboardService,
+                                   EvaluationSheetRenderer renderer,
+                                   @Value("${gestion.reports.threads:4}") int threads,
+                                   @Value("${gestion.reports.in-flight:16}") int inFlight,
+                                   @Value("${gestion.reports.max-batches:2}") int maxBatches) {
+        this.periodeRepository = periodeRepository;
+        this.stageDashboardService = stageDashboardService;
+        this.renderer = renderer;
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads,
+                task -> Thread.ofPlatform().name("reports-" + counter.getAndIncrement()).daemon().unstarted(task));
+        this.inFlight = inFlight;
+        this.batches = new Semaphore(maxBatches);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Fiche d'une période.
+     */
+    public byte[] renderPeriode(Long periodeId) {
+        Long stageId = periodeRepository.findStageIdById(periodeId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Période non trouvée ou sans stage: " + periodeId));
+        return render(stageId, periodeId).pdf();
+    }
+
+    /**
+     * Archive ZIP des fiches des périodes qui chevauchent [debut, fin], une entrée
+     * periode-{id}.pdf par période, écrite au moment où la réponse est envoyée.
+     *
+     * @throws ResponseStatusException 404 si aucune période ne correspond ; le corps renvoyé
+     *         lève 503 si le nombre maximal de lots en cours est atteint quand il s'exécute
+     */
+    public StreamingResponseBody renderBatch(LocalDate debut, LocalDate fin) {
+        if (debut.isAfter(fin)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La date de début doit précéder la date de fin.");
+        }
+        List<Object[]> first = keys(debut, fin, 0L);
+        if (first.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Aucune période avec un stage entre le " + debut + " et le " + fin);
+        }
+        // Jeton pris par le corps lui-même : un corps jamais exécuté (tâche asynchrone refusée,
+        // échec avant l'envoi) ne retient aucun jeton. Rien n'est encore écrit s'il en manque,
+        // l'exception est rendue en 503 par le dispatch asynchrone.
+        return out -> {
+            if (!batches.tryAcquire()) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Trop de lots de fiches en cours, veuillez réessayer plus tard.");
+            }
+            try {
+                writeZip(debut, fin, first, out);
+            } finally {
+                batches.release();
+            }
+        };
+    }
+
+    private void writeZip(LocalDate debut, LocalDate fin, List<Object[]> first, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        int count = 0;
+        Deque<Future<Sheet>> pending = new ArrayDeque<>();
+        Deque<Object[]> keys = new ArrayDeque<>(first);
+        boolean more = first.size() == KEYS_CHUNK;
+        // Le pool n'est pas l'exécuteur applicatif : le MDC du lot (identifiant de corrélation)
+        // est transmis explicitement à chaque rendu
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // Les PDF sont déjà compressés
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            while (!keys.isEmpty() || !pending.isEmpty()) {
+                while (!keys.isEmpty() && pending.size() < inFlight) {
+                    Object[] key = keys.poll();
+                    pending.add(pool.submit(() -> render((Long) key[1], (Long) key[0], context)));
+                    if (keys.isEmpty() && more) {
+                        List<Object[]> next = keys(debut, fin, (Long) key[0]);
+                        keys.addAll(next);
+                        more = next.size() == KEYS_CHUNK;
+                    }
+                }
+                Sheet sheet = pending.poll().get();
+                zip.putNextEntry(new ZipEntry(sheet.name()));
+                zip.write(sheet.pdf());
+                zip.closeEntry();
+                count++;
+            }
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Génération des fiches interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Échec du rendu d'une fiche", e.getCause());
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+        logger.info("Lot de {} fiches d'évaluation généré en {} ms", count, System.currentTimeMillis() - start);
+    }
+
+    private List<Object[]> keys(LocalDate debut, LocalDate fin, Long afterId) {
+        return periodeRepository.findReportKeys(debut, fin, afterId, PageRequest.of(0, KEYS_CHUNK));
+    }
+
+    private Sheet render(Long stageId, Long periodeId) {
+        return new Sheet("periode-" + periodeId + ".pdf",
+                renderer.render(stageDashboardService.getDashboard(stageId, periodeId)));
+    }
+
+    /** Rendu sur un thread du pool, avec le MDC du lot. */
+    private Sheet render(Long stageId, Long periodeId, Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        }
+        try {
+            return render(stageId, periodeId);
+        } finally {
+            MDC.clear();
+        }
+    }
+}
@@ -2,27 +2,45 @@ package com.gestion.stage.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Evaluation;
 import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.Specs;
 
 @Service
 public class EvaluationService {
 
+    static final Set<String> SORTABLE = Set.of("id", "valeur", "categorieStr");
+
     private final EvaluationRepository evaluationRepository;
+    private final KeysetPagination keysetPagination;
 
     @Autowired
-    public EvaluationService(EvaluationRepository evaluationRepository) {
+    public EvaluationService(EvaluationRepository evaluationRepository, KeysetPagination keysetPagination) {
         this.evaluationRepository = evaluationRepository;
+        this.keysetPagination = keysetPagination;
     }
 
     public List<Evaluation> getAllEvaluations() {
         return evaluationRepository.findAll();
     }
 
+    /**
+     * Page de la liste, triée et filtrée (filtres nuls ignorés).
+     */
+    public CursorPage<Evaluation> getEvaluationsPage(PageQuery page, String categorie) {
+        Specification<Evaluation> filter = Specification.allOf(
+                Specs.contains(categorie, "categorieStr"));
+        return keysetPagination.page(evaluationRepository, filter, page, SORTABLE);
+    }
+
     public Optional<Evaluation> getEvaluationById(Long id) {
         return evaluationRepository.findById(id);
     }
@@ -0,0 +1,177 @@
+package com.gestion.stage.service;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.gestion.stage.dto.StageDashboardDTO;
+import com.gestion.stage.dto.StageDashboardDTO.CategorieScore;
+import com.gestion.stage.dto.StageDashboardDTO.CompetenceEvaluation;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * Mise en page de la fiche d'évaluation imprimable d'une période (OpenPDF) : stage,
+ * stagiaire et tuteur, puis une table par catégorie avec le niveau et le commentaire de
+ * chaque compétence.
+ * <p>
+ * Les polices (Helvetica standard, non embarquée, encodage Cp1252 pour les accents), styles
+ * et largeurs de colonnes sont construits une fois et partagés par tous les rendus, qui
+ * peuvent s'exécuter en parallèle : seul le document est propre à chaque fiche.
+ */
+@Component
+public class EvaluationSheetRenderer {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final float[] COLUMNS = {3.5f, 1.5f, 5f};
+    private static final Color HEADER_BACKGROUND = new Color(0x1F, 0x4E, 0x79);
+    private static final Color CATEGORIE_BACKGROUND = new Color(0xDD, 0xE6, 0xF0);
+
+    private final Font titleFont;
+    private final Font sectionFont;
+    private final Font labelFont;
+    private final Font textFont;
+    private final Font headerFont;
+    private final Font categorieFont;
+
+    public EvaluationSheetRenderer() {
+        try {
+            BaseFont regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+            BaseFont bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+            this.titleFont = new Font(bold, 16);
+            this.sectionFont = new Font(bold, 11, Font.NORMAL, HEADER_BACKGROUND);
+            this.labelFont = new Font(bold, 9);
+            this.textFont = new Font(regular, 9);
+            this.headerFont = new Font(bold, 9, Font.NORMAL, Color.WHITE);
+            this.categorieFont = new Font(bold, 9);
+        } catch (IOException e) {
+            throw new IllegalStateException("Polices PDF indisponibles", e);
+        }
+    }
+
+    /**
+     * Fiche de la période sélectionnée du tableau de bord ({@link StageDashboardDTO#getPeriode()}).
+     */
+    public byte[] render(StageDashboardDTO sheet) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        Document document = new Document(PageSize.A4, 40, 40, 40, 40);
+        PdfWriter.getInstance(document, out);
+        document.addTitle("Fiche d'évaluation - période " + sheet.getPeriode().getId());
+        document.open();
+        try {
+            document.add(new Paragraph("Fiche d'évaluation de stage", titleFont));
+            document.add(new Paragraph("Période du " + DATE.format(sheet.getPeriode().getDateDebut())
+                    + " au " + DATE.format(sheet.getPeriode().getDateFin()), textFont));
+
+            section(document, "Stage");
+            document.add(fields(
+                    "Entreprise", sheet.getEntreprise(),
+                    "Description", sheet.getDescription(),
+                    "Objectif", sheet.getObjectif()));
+
+            section(document, "Stagiaire et tuteur");
+            document.add(fields(
+                    "Stagiaire", sheet.getStagiaire() == null ? null
+                            : sheet.getStagiaire().getPrenom() + " " + sheet.getStagiaire().getNom(),
+                    "Institution", sheet.getStagiaire() == null ? null : sheet.getStagiaire().getInstitution(),
+                    "Tuteur", sheet.getTuteur() == null ? null
+                            : sheet.getTuteur().getPrenom() + " " + sheet.getTuteur().getNom(),
+                    "Entreprise du tuteur", sheet.getTuteur() == null ? null : sheet.getTuteur().getEntreprise()));
+
+            section(document, "Évaluation des compétences");
+            document.add(competences(sheet));
+        } finally {
+            document.close();
+        }
+        return out.toByteArray();
+    }
+
+    private void section(Document document, String title) {
+        Paragraph paragraph = new Paragraph(title, sectionFont);
+        paragraph.setSpacingBefore(12);
+        paragraph.setSpacingAfter(4);
+        document.add(paragraph);
+    }
+
+    /** Table libellé / valeur : paires (libellé, valeur). */
+    private PdfPTable fields(String... labelsAndValues) {
+        PdfPTable table = new PdfPTable(new float[] {1.5f, 5f});
+        table.setWidthPercentage(100);
+        for (int i = 0; i < labelsAndValues.length; i += 2) {
+            table.addCell(cell(labelsAndValues[i], labelFont, null));
+            table.addCell(cell(labelsAndValues[i + 1], textFont, null));
+        }
+        return table;
+    }
+
+    private PdfPTable competences(StageDashboardDTO sheet) {
+        PdfPTable table = new PdfPTable(COLUMNS);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.addCell(cell("Compétence", headerFont, HEADER_BACKGROUND));
+        table.addCell(cell("Niveau", headerFont, HEADER_BACKGROUND));
+        table.addCell(cell("Commentaire", headerFont, HEADER_BACKGROUND));
+
+        Map<Long, List<CompetenceEvaluation>> byCategorie = new LinkedHashMap<>();
+        for (CompetenceEvaluation competence : sheet.getCompetences()) {
+            byCategorie.computeIfAbsent(competence.getCategorieId(), id -> new ArrayList<>()).add(competence);
+        }
+        for (CategorieScore categorie : sheet.getCategories()) {
+            String score = categorie.getScore() == null ? "" : " - note de la période : " + note(categorie.getScore());
+            PdfPCell header = cell(categorie.getIntitule() + score, categorieFont, CATEGORIE_BACKGROUND);
+            header.setColspan(COLUMNS.length);
+            table.addCell(header);
+            rows(table, byCategorie.remove(categorie.getId()));
+        }
+        // Évaluations sans compétence ni catégorie (critère seul)
+        byCategorie.values().forEach(rows -> rows(table, rows));
+        if (sheet.getCompetences().isEmpty()) {
+            PdfPCell empty = cell("Aucune évaluation enregistrée pour cette période.", textFont, null);
+            empty.setColspan(COLUMNS.length);
+            table.addCell(empty);
+        }
+        return table;
+    }
+
+    private void rows(PdfPTable table, List<CompetenceEvaluation> competences) {
+        if (competences == null) {
+            return;
+        }
+        for (CompetenceEvaluation competence : competences) {
+            table.addCell(cell(competence.getIntitule(), textFont, null));
+            String level = StageFormService.numericToCompetencyLevel(competence.getValeur());
+            PdfPCell niveau = cell(level != null ? level : note(competence.getValeur()), textFont, null);
+            niveau.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(niveau);
+            table.addCell(cell(competence.getCommentaire(), textFont, null));
+        }
+    }
+
+    private static String note(Double value) {
+        return value == null ? "" : String.format("%.1f / 20", value);
+    }
+
+    private static PdfPCell cell(String text, Font font, Color background) {
+        PdfPCell cell = new PdfPCell(new Phrase(text == null ? "" : text, font));
+        cell.setPadding(4);
+        if (background != null) {
+            cell.setBackgroundColor(background);
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,153 @@
+package com.gestion.stage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.gestion.stage.model.IdempotencyRecord;
+import com.gestion.stage.repository.IdempotencyRecordRepository;
+
+/**
+ * Stockage des clés d'idempotence et des réponses associées, conservées
+ * gestion.idempotency.ttl-hours heures puis purgées.
+ * <p>
+ * Une clé réservée sans réponse au bout de gestion.idempotency.lease-seconds secondes
+ * (processus arrêté en cours de requête) est reprise par la requête suivante de même corps,
+ * au lieu de renvoyer 409 jusqu'à son expiration. Le bail doit donc dépasser la durée de la
+ * plus longue requête concernée.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final Duration ttl;
+    private final Duration lease;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              @Value("${gestion.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${gestion.idempotency.lease-seconds:120}") long leaseSeconds) {
+        this.recordRepository = recordRepository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    /**
+     * Réserve la clé pour une nouvelle requête.
+     *
+     * @return la réservation de l'appelant, ou l'enregistrement existant si la clé est déjà prise
+     */
+    public Reservation begin(String recordId, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyRecord> existing = recordRepository.findById(recordId);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (!canTakeOver(record, requestHash, now)) {
+                return Reservation.taken(record);
+            }
+            // Mise à jour conditionnelle : une seule des requêtes concurrentes reprend la clé
+            if (recordRepository.takeOver(recordId, record.getVersion(), requestHash, now, now.minus(lease),
+                    now.plus(ttl)) == 1) {
+                logger.info("Clé d'idempotence {} reprise (expirée ou réservation abandonnée)", recordId);
+                return Reservation.reserved(record.getVersion() + 1);
+            }
+            return Reservation.taken(recordRepository.findById(recordId).orElse(record));
+        }
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(recordId);
+        record.setRequestHash(requestHash);
+        record.setReservedAt(now);
+        record.setExpiresAt(now.plus(ttl));
+        try {
+            // version nulle : insertion seule, jamais fusionnée avec une ligne existante
+            return Reservation.reserved(recordRepository.saveAndFlush(record).getVersion());
+        } catch (DataIntegrityViolationException e) {
+            // Même clé réservée au même instant par une autre requête
+            return Reservation.taken(recordRepository.findById(recordId).orElse(record));
+        }
+    }
+
+    private boolean canTakeOver(IdempotencyRecord record, String requestHash, LocalDateTime now) {
+        if (record.getExpiresAt().isBefore(now)) {
+            return true;
+        }
+        return !record.isCompleted() && record.getRequestHash().equals(requestHash)
+                && (record.getReservedAt() == null || record.getReservedAt().isBefore(now.minus(lease)));
+    }
+
+    /**
+     * Mémorise la réponse de la requête qui détient la réservation. Sans effet si la clé a
+     * été reprise entre-temps (bail dépassé) : la réponse du nouveau détenteur prévaut.
+     */
+    public void complete(String recordId, long token, int status, String contentType, byte[] body) {
+        if (recordRepository.complete(recordId, token, status, contentType, body) == 0) {
+            logger.warn("Réponse non mémorisée pour la clé d'idempotence {} : réservation reprise entre-temps",
+                    recordId);
+        }
+    }
+
+    /**
+     * Libère la clé : la requête a échoué et pourra être rejouée. Sans effet si la clé a été
+     * reprise entre-temps par une autre requête.
+     */
+    public void release(String recordId, long token) {
+        if (recordRepository.release(recordId, token) == 0) {
+            logger.warn("Clé d'idempotence {} non libérée : réservation reprise entre-temps", recordId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gestion.idempotency.purge-delay-ms:3600000}")
+    public void purgeExpired() {
+        int purged = recordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("{} clés d'idempotence expirées supprimées", purged);
+        }
+    }
+
+    public static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String recordId(String route, String key) {
+        return sha256((route + "\n" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Résultat de {@link #begin} : soit la clé est réservée pour l'appelant, qui présente
+     * le jeton (version de l'enregistrement) à {@link #complete} ou {@link #release}, soit
+     * elle est déjà prise et l'enregistrement existant est renvoyé.
+     */
+    public record Reservation(Long token, IdempotencyRecord existing) {
+
+        static Reservation reserved(long token) {
+            return new Reservation(token, null);
+        }
+
+        static Reservation taken(IdempotencyRecord existing) {
+            return new Reservation(null, existing);
+        }
+
+        public boolean isReserved() {
+            return token != null;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.gestion.stage.service;
+
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.config.CorrelationIdFilter;
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.IngestionJob;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.IngestionJobRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Enregistrement asynchrone des formulaires d'évaluation.
+ * <p>
+ * Le formulaire validé est journalisé en base (IngestionJob PENDING) puis son identifiant
+ * est placé dans une file bornée ; la requête reçoit aussitôt 202. Des workers sur threads
+ * virtuels vident la file par lots, prennent en charge les jobs par une mise à jour
+ * conditionnelle PENDING -> RUNNING (un job remis en file deux fois, ou lu par deux instances,
+ * n'est traité qu'une fois) et enregistrent chaque lot dans une seule transaction via
+ * {@link StageFormService#createStagesFromDTOs(List)}, le statut des jobs étant mis à jour
+ * dans cette même transaction. Si un lot échoue, ses formulaires sont rejoués un par un
+ * pour isoler ceux en erreur.
+ * <p>
+ * Les jobs restés PENDING (redémarrage, file pleine) sont remis en file au démarrage puis
+ * par un balayage périodique. Un job RUNNING depuis plus de gestion.ingestion.running-timeout-ms
+ * (instance arrêtée en cours de traitement) redevient PENDING : ce délai doit dépasser la
+ * durée de traitement d'un lot. Un job interrompu par une erreur passagère (attente de verrou,
+ * interblocage, connexion indisponible) reste PENDING et n'est repris par le balayage qu'après
+ * un délai doublé à chaque essai ; il passe FAILED après gestion.ingestion.max-attempts essais.
+ * <p>
+ * L'identifiant de corrélation de la requête de dépôt est enregistré avec le job et remis
+ * dans le MDC quand un job est traité seul ; les journaux d'un lot de plusieurs jobs n'en
+ * portent pas.
+ */
+@Service
+public class IngestionQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionQueueService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final IngestionJobRepository jobRepository;
+    private final StageFormService stageFormService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Long> queue;
+    // Jobs en file ou en cours de traitement, pour ne pas les remettre en file deux fois
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final int workerCount;
+    private final int batchSize;
+    private final long sweepDelayMillis;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long runningTimeoutMillis;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public IngestionQueueService(IngestionJobRepository jobRepository,
+                                 StageFormService stageFormService,
+                                 ObjectMapper objectMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${gestion.ingestion.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${gestion.ingestion.workers:4}") int workerCount,
+                                 @Value("${gestion.ingestion.batch-size:50}") int batchSize,
+                                 @Value("${gestion.ingestion.sweep-delay-ms:30000}") long sweepDelayMillis,
+                                 @Value("${gestion.ingestion.max-attempts:5}") int maxAttempts,
+                                 @Value("${gestion.ingestion.retry-delay-ms:5000}") long retryDelayMillis,
+                                 @Value("${gestion.ingestion.running-timeout-ms:600000}") long runningTimeoutMillis) {
+        this.jobRepository = jobRepository;
+        this.stageFormService = stageFormService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.sweepDelayMillis = sweepDelayMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.runningTimeoutMillis = runningTimeoutMillis;
+    }
+
+    /**
+     * Journalise le formulaire et le met en file.
+     *
+     * @throws ResponseStatusException 503 si la file est pleine
+     */
+    public IngestionJob submit(StageCreateDTO stageCreateDTO) {
+        StageFormService.checkDates(stageCreateDTO);
+        if (queue.remainingCapacity() == 0) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "File d'enregistrement pleine, veuillez réessayer plus tard.");
+        }
+
+        IngestionJob job = new IngestionJob();
+        job.setStatus(IngestionJob.Status.PENDING);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setCorrelationId(MDC.get(CorrelationIdFilter.MDC_KEY));
+        try {
+            job.setPayload(objectMapper.writeValueAsString(stageCreateDTO));
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formulaire illisible: " + e.getOriginalMessage());
+        }
+        job = jobRepository.save(job);
+
+        // Le job est journalisé : si la file s'est remplie entre-temps, le balayage le reprendra
+        if (!enqueue(job.getId())) {
+            logger.warn("File pleine, job {} laissé en attente dans le journal", job.getId());
+        }
+        return job;
+    }
+
+    public Optional<IngestionJob> getJob(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("ingestion-" + i).start(this::drain));
+        }
+        int recovered = requeue(LocalDateTime.now());
+        logger.info("{} workers d'enregistrement démarrés, {} jobs en attente remis en file", workerCount, recovered);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Rend PENDING les jobs RUNNING abandonnés, puis remet en file les jobs PENDING plus anciens
+     * que le délai de balayage et absents de la file.
+     */
+    @Scheduled(fixedDelayString = "${gestion.ingestion.sweep-delay-ms:30000}",
+               initialDelayString = "${gestion.ingestion.sweep-delay-ms:30000}")
+    public void sweep() {
+        if (!running) {
+            return;
+        }
+        int requeued = requeue(LocalDateTime.now().minusNanos(sweepDelayMillis * 1_000_000));
+        if (requeued > 0) {
+            logger.info("{} jobs en attente remis en file", requeued);
+        }
+    }
+
+    private int requeue(LocalDateTime createdBefore) {
+        int stale = jobRepository.releaseStale(LocalDateTime.now().minusNanos(runningTimeoutMillis * 1_000_000));
+        if (stale > 0) {
+            logger.warn("{} jobs abandonnés en cours de traitement rendus au journal", stale);
+        }
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return 0;
+        }
+        int requeued = 0;
+        for (Long id : jobRepository.findPendingIds(createdBefore, LocalDateTime.now(), PageRequest.of(0, capacity))) {
+            if (!queued.contains(id) && enqueue(id)) {
+                requeued++;
+            }
+        }
+        return requeued;
+    }
+
+    private boolean enqueue(Long id) {
+        if (!queued.add(id)) {
+            return true;
+        }
+        if (queue.offer(id)) {
+            return true;
+        }
+        queued.remove(id);
+        return false;
+    }
+
+    private void drain() {
+        while (running) {
+            List<Long> ids = new ArrayList<>(batchSize);
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                ids.add(first);
+                queue.drainTo(ids, batchSize - 1);
+                process(ids);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Les jobs restent PENDING (ou RUNNING jusqu'au délai d'abandon) et seront repris par le balayage
+                logger.error("Erreur inattendue du worker d'enregistrement", e);
+            } finally {
+                ids.forEach(queued::remove);
+            }
+        }
+    }
+
+    private void process(List<Long> ids) {
+        List<Long> claimed = claim(ids);
+        if (claimed.size() == 1) {
+            processOne(claimed.get(0));
+            return;
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<IngestionJob> jobs = claimedJobs(claimed);
+                List<Stage> stages = stageFormService.createStagesFromDTOs(jobs.stream().map(this::form).toList());
+                for (int i = 0; i < jobs.size(); i++) {
+                    done(jobs.get(i), stages.get(i));
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Échec d'un lot de {} jobs ({}), reprise job par job", claimed.size(), StageImportService.message(e));
+            claimed.forEach(this::processOne);
+        }
+    }
+
+    /**
+     * Passe à RUNNING ceux des jobs encore PENDING, dans une courte transaction validée avant
+     * leur traitement : un job déjà pris en charge ailleurs est ignoré.
+     */
+    private List<Long> claim(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(tx -> ids.stream()
+                .filter(id -> jobRepository.claim(id, now) == 1)
+                .toList());
+    }
+
+    private void processOne(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> claimedJobs(List.of(id)).forEach(job -> {
+                if (job.getCorrelationId() != null) {
+                    MDC.put(CorrelationIdFilter.MDC_KEY, job.getCorrelationId());
+                }
+                done(job, stageFormService.createStageFromDTO(form(job)));
+            }));
+        } catch (Exception e) {
+            failed(id, e);
+        } finally {
+            MDC.remove(CorrelationIdFilter.MDC_KEY);
+        }
+    }
+
+    private void failed(Long id, Exception e) {
+        String message = StageImportService.message(e);
+        boolean retry = isTransient(e);
+        transactionTemplate.executeWithoutResult(tx -> jobRepository.findById(id).ifPresent(job -> {
+            job.setAttempts(job.getAttempts() + (retry ? 1 : 0));
+            job.setError(message != null && message.length() > MAX_ERROR_LENGTH
+                    ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            if (retry && job.getAttempts() < maxAttempts) {
+                // Rendu au journal : repris par le balayage une fois le délai écoulé
+                job.setStatus(IngestionJob.Status.PENDING);
+                long delay = retryDelayMillis << Math.min(job.getAttempts() - 1, 16);
+                job.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+                logger.warn("Job {} interrompu (essai {}/{}), nouvel essai dans {} ms: {}",
+                        id, job.getAttempts(), maxAttempts, delay, message);
+                return;
+            }
+            logger.warn("Job {} en échec: {}", id, message);
+            job.setStatus(IngestionJob.Status.FAILED);
+            job.setFinishedAt(LocalDateTime.now());
+        }));
+    }
+
+    /**
+     * Erreur due à la charge de la base plutôt qu'au formulaire : délai d'attente d'un verrou,
+     * interblocage, connexion indisponible. Un nouvel essai a des chances d'aboutir.
+     */
+    static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<IngestionJob> claimedJobs(List<Long> ids) {
+        return jobRepository.findAllById(ids).stream()
+                .filter(job -> job.getStatus() == IngestionJob.Status.RUNNING)
+                .toList();
+    }
+
+    private StageCreateDTO form(IngestionJob job) {
+        try {
+            return objectMapper.readValue(job.getPayload(), StageCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formulaire illisible: " + e.getOriginalMessage());
+        }
+    }
+
+    private static void done(IngestionJob job, Stage stage) {
+        job.setStatus(IngestionJob.Status.DONE);
+        job.setStageId(stage.getId());
+        job.setFinishedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,284 @@
+package com.gestion.stage.service;
+
+import java.util.Arrays;
+
+/**
+ * Arbre d'intervalles [début, fin] (bornes incluses, en jours depuis l'époque) : un treap
+ * ordonné par (début, identifiant) dont chaque nœud connaît la plus grande fin de son
+ * sous-arbre. Insertion, modification et suppression en O(log n), recherche des intervalles
+ * qui chevauchent une fenêtre en O(log n + k) : les sous-arbres dont aucune fin n'atteint la
+ * fenêtre sont ignorés, et le parcours s'arrête au premier début qui la dépasse.
+ * <p>
+ * Les nœuds sont stockés dans des tableaux de primitives, sans objet par nœud : une
+ * cinquantaine d'octets par intervalle, table des identifiants comprise. La priorité d'un
+ * nœud est dérivée de son identifiant. Non synchronisé : voir {@link PeriodeCalendar}.
+ */
+final class IntervalTreap {
+
+    /** Reçoit les intervalles trouvés, dans l'ordre des débuts ; false pour arrêter. */
+    @FunctionalInterface
+    interface Visitor {
+        boolean visit(long id, int start, int end);
+    }
+
+    private static final int NIL = -1;
+
+    private int[] start;
+    private int[] end;
+    private int[] maxEnd;
+    private int[] left;
+    private int[] right;
+    private long[] ids;
+    private int root = NIL;
+    private int size;
+    /** Emplacements libérés, chaînés par left[]. */
+    private int free = NIL;
+    private int used;
+
+    /** Identifiant -> emplacement : adressage ouvert, 0 pour une case vide. */
+    private long[] slotKeys;
+    private int[] slotValues;
+
+    IntervalTreap() {
+        this(1024);
+    }
+
+    IntervalTreap(int capacity) {
+        capacity = Math.max(capacity, 16);
+        start = new int[capacity];
+        end = new int[capacity];
+        maxEnd = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        ids = new long[capacity];
+        slotKeys = new long[tableSize(capacity)];
+        slotValues = new int[slotKeys.length];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Ajoute l'intervalle d'un identifiant (strictement positif), ou remplace le précédent.
+     */
+    void put(long id, int from, int to) {
+        remove(id);
+        int slot = allocate();
+        start[slot] = from;
+        end[slot] = to;
+        maxEnd[slot] = to;
+        left[slot] = NIL;
+        right[slot] = NIL;
+        ids[slot] = id;
+        root = insert(root, slot);
+        mapPut(id, slot);
+        size++;
+    }
+
+    boolean remove(long id) {
+        int slot = mapRemove(id);
+        if (slot == NIL) {
+            return false;
+        }
+        root = delete(root, slot);
+        left[slot] = free;
+        free = slot;
+        size--;
+        return true;
+    }
+
+    /**
+     * Parcourt les intervalles qui chevauchent [from, to], par début croissant.
+     */
+    void overlapping(int from, int to, Visitor visitor) {
+        collect(root, from, to, visitor);
+    }
+
+    private boolean collect(int node, int from, int to, Visitor visitor) {
+        if (node == NIL || maxEnd[node] < from) {
+            return true;
+        }
+        if (!collect(left[node], from, to, visitor)) {
+            return false;
+        }
+        if (start[node] > to) {
+            // Le sous-arbre droit commence encore plus tard
+            return false;
+        }
+        if (end[node] >= from && !visitor.visit(ids[node], start[node], end[node])) {
+            return false;
+        }
+        return collect(right[node], from, to, visitor);
+    }
+
+    private int insert(int node, int slot) {
+        if (node == NIL) {
+            return slot;
+        }
+        if (before(slot, node)) {
+            left[node] = insert(left[node], slot);
+            if (priority(left[node]) > priority(node)) {
+                node = rotateRight(node);
+            }
+        } else {
+            right[node] = insert(right[node], slot);
+            if (priority(right[node]) > priority(node)) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private int delete(int node, int slot) {
+        if (node == slot) {
+            return merge(left[node], right[node]);
+        }
+        if (before(slot, node)) {
+            left[node] = delete(left[node], slot);
+        } else {
+            right[node] = delete(right[node], slot);
+        }
+        update(node);
+        return node;
+    }
+
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (priority(a) > priority(b)) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(int node) {
+        int max = end[node];
+        if (left[node] != NIL) {
+            max = Math.max(max, maxEnd[left[node]]);
+        }
+        if (right[node] != NIL) {
+            max = Math.max(max, maxEnd[right[node]]);
+        }
+        maxEnd[node] = max;
+    }
+
+    private boolean before(int a, int b) {
+        return start[a] < start[b] || (start[a] == start[b] && ids[a] < ids[b]);
+    }
+
+    private int priority(int node) {
+        return mix(ids[node]);
+    }
+
+    private int allocate() {
+        if (free != NIL) {
+            int slot = free;
+            free = left[slot];
+            return slot;
+        }
+        if (used == ids.length) {
+            grow(ids.length + (ids.length >> 1));
+        }
+        return used++;
+    }
+
+    private void grow(int capacity) {
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+        maxEnd = Arrays.copyOf(maxEnd, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        if (tableSize(capacity) > slotKeys.length) {
+            rehash(tableSize(capacity));
+        }
+    }
+
+    // Table identifiant -> emplacement (sondage linéaire, taux de remplissage <= 3/4)
+
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity * 4 / 3 - 1) << 1;
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int home(long id) {
+        return mix(id) & (slotKeys.length - 1);
+    }
+
+    private void mapPut(long id, int slot) {
+        int i = home(id);
+        while (slotKeys[i] != 0) {
+            i = (i + 1) & (slotKeys.length - 1);
+        }
+        slotKeys[i] = id;
+        slotValues[i] = slot;
+    }
+
+    private int mapRemove(long id) {
+        int mask = slotKeys.length - 1;
+        int i = home(id);
+        while (slotKeys[i] != id) {
+            if (slotKeys[i] == 0) {
+                return NIL;
+            }
+            i = (i + 1) & mask;
+        }
+        int slot = slotValues[i];
+        // Décalage arrière : les clés suivantes de la même séquence reprennent la case libérée
+        int hole = i;
+        for (int j = (i + 1) & mask; slotKeys[j] != 0; j = (j + 1) & mask) {
+            int wanted = home(slotKeys[j]);
+            if (((j - wanted) & mask) >= ((j - hole) & mask)) {
+                slotKeys[hole] = slotKeys[j];
+                slotValues[hole] = slotValues[j];
+                hole = j;
+            }
+        }
+        slotKeys[hole] = 0;
+        return slot;
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = slotKeys;
+        int[] oldValues = slotValues;
+        slotKeys = new long[tableSize];
+        slotValues = new int[tableSize];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                mapPut(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
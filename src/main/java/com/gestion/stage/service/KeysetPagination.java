@@ -0,0 +1,186 @@
+package com.gestion.stage.service;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
+
+import jakarta.persistence.AttributeNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Pagination par curseur (keyset) des listes.
+ * <p>
+ * Les lignes sont triées sur l'attribut demandé puis sur l'identifiant, ce qui donne un
+ * ordre total et stable. Le curseur encode la clé de tri et l'identifiant de la dernière
+ * ligne servie ; la page suivante reprend strictement après, par une condition sur ces
+ * colonnes plutôt qu'un OFFSET, sans relire les pages précédentes. Les valeurs nulles
+ * sont considérées comme les plus petites, comme le fait MySQL dans ORDER BY.
+ * <p>
+ * Un graphe d'entité nommé peut être fourni pour joindre dans la même requête les
+ * associations to-one sérialisées avec chaque ligne ; il ne doit pas contenir de
+ * collection, sous peine de pagination en mémoire.
+ */
+@Component
+public class KeysetPagination {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final Map<String, List<String>> graphPaths = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public KeysetPagination(ObjectMapper objectMapper,
+                            @Value("${gestion.pagination.max-size:200}") int maxPageSize) {
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> filter,
+                                  PageQuery query, Set<String> sortable) {
+        return page(repository, filter, query, sortable, null);
+    }
+
+    /**
+     * @param graph nom du graphe d'entité (to-one uniquement) à charger avec la page, ou null
+     */
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> filter,
+                                  PageQuery query, Set<String> sortable, String graph) {
+        String sort = query.getSort() != null ? query.getSort() : "id";
+        if (!sortable.contains(sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Tri non supporté: " + sort + ". Valeurs possibles: " + sortable);
+        }
+        boolean descending = "desc".equalsIgnoreCase(query.getDirection());
+        if (!descending && query.getDirection() != null && !"asc".equalsIgnoreCase(query.getDirection())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La direction de tri doit être asc ou desc.");
+        }
+        int size = query.getSize() != null ? query.getSize() : DEFAULT_PAGE_SIZE;
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La taille de page doit être positive.");
+        }
+        size = Math.min(size, maxPageSize);
+
+        Specification<T> spec = Specification.allOf(filter, after(query.getCursor(), sort, descending));
+        Sort.Order idOrder = descending ? Sort.Order.desc("id") : Sort.Order.asc("id");
+        Sort order = "id".equals(sort) ? Sort.by(idOrder)
+                : Sort.by(descending ? Sort.Order.desc(sort) : Sort.Order.asc(sort), idOrder);
+
+        // Une ligne de plus que la page pour savoir s'il en reste
+        int limit = size + 1;
+        List<String> fetch = graph != null ? graphPaths.computeIfAbsent(graph, this::paths) : List.of();
+        List<T> rows = repository.findBy(spec, q -> q.sortBy(order).limit(limit).project(fetch).all());
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? encode(items.get(items.size() - 1), sort, descending) : null;
+        return new CursorPage<>(items, items.size(), sort, descending ? "desc" : "asc", hasMore, nextCursor);
+    }
+
+    private <T> Specification<T> after(String cursor, String sort, boolean descending) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        JsonNode decoded;
+        try {
+            decoded = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide.");
+        }
+        if (!sort.equals(decoded.path("s").asText()) || descending != decoded.path("d").asBoolean()
+                || !decoded.path("id").canConvertToLong()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Le curseur ne correspond pas au tri demandé.");
+        }
+        long lastId = decoded.path("id").asLong();
+        JsonNode lastValue = decoded.path("v");
+
+        return (root, q, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+            if ("id".equals(sort)) {
+                return idAfter;
+            }
+            Path<Comparable<Object>> key = root.get(sort);
+            if (lastValue.isNull() || lastValue.isMissingNode()) {
+                // Dernière ligne servie à clé nulle : nulls en tête en ordre croissant, en fin en décroissant
+                Predicate sameNull = cb.and(cb.isNull(key), idAfter);
+                return descending ? sameNull : cb.or(sameNull, cb.isNotNull(key));
+            }
+            Comparable<Object> value = convert(lastValue, key.getJavaType());
+            Predicate beyond = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+            Predicate tie = cb.and(cb.equal(key, value), idAfter);
+            return descending ? cb.or(beyond, tie, cb.isNull(key)) : cb.or(beyond, tie);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparable<Object> convert(JsonNode value, Class<?> type) {
+        try {
+            return (Comparable<Object>) objectMapper.treeToValue(value, type);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide.");
+        }
+    }
+
+    /**
+     * Chemins (« stage.tuteur »...) des attributs d'un graphe d'entité nommé.
+     */
+    private List<String> paths(String graph) {
+        List<String> paths = new ArrayList<>();
+        collect(entityManager.getEntityGraph(graph).getAttributeNodes(), "", paths);
+        return List.copyOf(paths);
+    }
+
+    private static void collect(List<? extends AttributeNode<?>> nodes, String prefix, List<String> paths) {
+        for (AttributeNode<?> node : nodes) {
+            String path = prefix + node.getAttributeName();
+            paths.add(path);
+            for (Subgraph<?> subgraph : node.getSubgraphs().values()) {
+                collect(subgraph.getAttributeNodes(), path + ".", paths);
+            }
+        }
+    }
+
+    private String encode(Object last, String sort, boolean descending) {
+        BeanWrapper accessor = PropertyAccessorFactory.forBeanPropertyAccess(last);
+        ObjectNode cursor = objectMapper.createObjectNode();
+        cursor.put("s", sort);
+        cursor.put("d", descending);
+        cursor.set("id", objectMapper.valueToTree(accessor.getPropertyValue("id")));
+        if (!"id".equals(sort)) {
+            cursor.set("v", objectMapper.valueToTree(accessor.getPropertyValue(sort)));
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
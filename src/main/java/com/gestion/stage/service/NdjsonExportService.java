@@ -0,0 +1,100 @@
+package com.gestion.stage.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Export complet d'une table au format NDJSON (un objet JSON par ligne), écrit en flux.
+ * <p>
+ * Les lignes sont lues par une requête {@code Stream<T>} du repository, avec une taille de
+ * fetch JDBC de {@link #FETCH_SIZE}, dans une transaction en lecture seule ouverte par le
+ * thread qui écrit la réponse. Elles sont sérialisées par lots de la même taille : les
+ * associations LAZY d'un lot sont chargées par lots (default_batch_fetch_size), puis le
+ * contexte de persistance est vidé, ce qui détache les entités écrites. Seul le lot en cours
+ * est en mémoire, quelle que soit la taille de la table.
+ */
+@Service
+public class NdjsonExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonExportService.class);
+
+    /** Taille de fetch JDBC des requêtes d'export (hint des repositories) et taille des lots écrits. */
+    public static final String FETCH_SIZE = "500";
+
+    private static final int CHUNK_SIZE = Integer.parseInt(FETCH_SIZE);
+
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public NdjsonExportService(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.rowWriter = objectMapper.writer();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Corps de réponse qui exécute la requête et écrit ses lignes au moment où la réponse
+     * est envoyée (thread de traitement asynchrone de Spring MVC).
+     *
+     * @param what  nom de la table, pour les logs
+     * @param query requête du repository, appelée dans la transaction de l'export
+     */
+    public <T> StreamingResponseBody export(String what, Supplier<Stream<T>> query) {
+        return out -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> write(what, query, out));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private <T> void write(String what, Supplier<Stream<T>> query, OutputStream out) {
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<T> stream = query.get()) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (T row : chunk) {
+                        out.write(rowWriter.writeValueAsBytes(row));
+                        out.write('\n');
+                    }
+                    rows += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("Export {} terminé: {} lignes en {} ms", what, rows, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,167 @@
+package com.gestion.stage.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.dto.CalendrierDTO;
+import com.gestion.stage.repository.PeriodeRepository;
+
+/**
+ * Calendrier des périodes en mémoire : les dates de toutes les périodes dans un arbre
+ * d'intervalles ({@link IntervalTreap}), pour répondre sans accès à la base aux questions
+ * « quelles périodes sont en cours tel jour » ou « chevauchent telle fenêtre ».
+ * <p>
+ * Chargé au démarrage en une requête lue en flux, puis tenu à jour par
+ * {@link PeriodeCalendarListener} après le commit de chaque création, modification ou
+ * suppression de période faite par Hibernate (y compris en cascade depuis un stage). Les
+ * écritures SQL directes n'y sont pas vues : recharger le calendrier après un import de ce
+ * genre ({@link #reload()}).
+ */
+@Component
+public class PeriodeCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeriodeCalendar.class);
+
+    private final PeriodeRepository periodeRepository;
+    private final int maxResults;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IntervalTreap intervals = new IntervalTreap();
+
+    @Autowired
+    public PeriodeCalendar(PeriodeRepository periodeRepository,
+                           @Value("${gestion.periodes.calendrier.max-results:10000}") int maxResults) {
+        this.periodeRepository = periodeRepository;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Recharge toutes les périodes depuis la base. Les lectures et écritures du calendrier
+     * attendent la fin du chargement.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            IntervalTreap loaded = new IntervalTreap((int) periodeRepository.count());
+            try (Stream<Object[]> rows = periodeRepository.streamDates()) {
+                rows.forEach(row -> {
+                    if (row[1] != null && row[2] != null) {
+                        loaded.put((Long) row[0], day((LocalDate) row[1]), day((LocalDate) row[2]));
+                    }
+                });
+            }
+            intervals = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Calendrier des périodes chargé: {} périodes en {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Périodes qui chevauchent [debut, fin] (début <= fin de la fenêtre et fin >= début de
+     * la fenêtre), par date de début croissante, au plus {@code limit}.
+     */
+    public CalendrierDTO overlapping(LocalDate debut, LocalDate fin, Integer limit) {
+        if (debut.isAfter(fin)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La date de début doit précéder la date de fin.");
+        }
+        int max = limit != null ? limit : maxResults;
+        if (max < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La limite doit être positive.");
+        }
+        int wanted = Math.min(max, maxResults);
+        List<CalendrierDTO.Intervalle> periodes = new ArrayList<>();
+        boolean[] truncated = {false};
+        lock.readLock().lock();
+        try {
+            intervals.overlapping(day(debut), day(fin), (id, from, to) -> {
+                if (periodes.size() == wanted) {
+                    truncated[0] = true;
+                    return false;
+                }
+                periodes.add(new CalendrierDTO.Intervalle(id, LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to)));
+                return true;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new CalendrierDTO(debut, fin, truncated[0], periodes);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return intervals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Enregistre les dates d'une période créée ou modifiée, après le commit en cours ; une
+     * période sans date est retirée du calendrier.
+     */
+    public void putAfterCommit(Long id, LocalDate debut, LocalDate fin) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (debut != null && fin != null) {
+                    intervals.put(id, day(debut), day(fin));
+                } else {
+                    intervals.remove(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Retire une période supprimée, après le commit en cours.
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                intervals.remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static int day(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.gestion.stage.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.gestion.stage.model.Periode;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Reporte les écritures de périodes dans le {@link PeriodeCalendar}, après le commit de leur
+ * transaction. Instancié par Hibernate via Spring ; le calendrier est injecté en différé car
+ * il dépend lui-même de l'EntityManagerFactory qui crée cet écouteur.
+ */
+public class PeriodeCalendarListener {
+
+    private final PeriodeCalendar periodeCalendar;
+
+    @Autowired
+    public PeriodeCalendarListener(@Lazy PeriodeCalendar periodeCalendar) {
+        this.periodeCalendar = periodeCalendar;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Periode periode) {
+        periodeCalendar.putAfterCommit(periode.getId(), periode.getDateDebut(), periode.getDateFin());
+    }
+
+    @PostRemove
+    public void removed(Periode periode) {
+        periodeCalendar.removeAfterCommit(periode.getId());
+    }
+}
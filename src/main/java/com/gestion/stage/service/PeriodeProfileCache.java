@@ -0,0 +1,169 @@
+package com.gestion.stage.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gestion.stage.dto.PeriodeProfileDTO;
+
+/**
+ * Profils de période déjà calculés ({@link PeriodeProfileService}), les plus récemment lus
+ * d'abord dans la limite de gestion.periodes.profile.cache-size.
+ * <p>
+ * Chaque profil retient les évaluations dont il est tiré : la modification d'une évaluation
+ * n'invalide que les périodes qui l'utilisent. Les invalidations ont lieu après le commit de
+ * l'écriture ; un profil calculé pendant ce temps, donc peut-être périmé, n'est pas conservé
+ * (voir {@link #startLoad}).
+ */
+@Component
+public class PeriodeProfileCache {
+
+    private record Entry(PeriodeProfileDTO profile, long[] evaluationIds) {
+    }
+
+    private final int maxEntries;
+    private final Map<Long, Entry> entries;
+    private final Map<Long, Long> periodeByEvaluation = new HashMap<>();
+    /** Calculs en cours : période -> jeton, retiré par toute invalidation de la période. */
+    private final Map<Long, Long> loads = new HashMap<>();
+    private final AtomicLong tokens = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public PeriodeProfileCache(@Value("${gestion.periodes.profile.cache-size:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized Optional<PeriodeProfileDTO> get(Long periodeId) {
+        Entry entry = entries.get(periodeId);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.profile());
+    }
+
+    /**
+     * À appeler avant de lire la période en base : le jeton rendu autorise {@link #put} tant
+     * qu'aucune invalidation de la période n'est survenue entre-temps.
+     */
+    public synchronized long startLoad(Long periodeId) {
+        long token = tokens.incrementAndGet();
+        loads.put(periodeId, token);
+        return token;
+    }
+
+    /** Fin d'un calcul sans {@link #put} (période absente, erreur) ; sans effet après un put. */
+    public synchronized void abandonLoad(Long periodeId, long token) {
+        loads.remove(periodeId, token);
+    }
+
+    public synchronized void put(Long periodeId, long token, PeriodeProfileDTO profile, long[] evaluationIds) {
+        if (!loads.remove(periodeId, token)) {
+            return;
+        }
+        remove(periodeId);
+        entries.put(periodeId, new Entry(profile, evaluationIds));
+        for (long evaluationId : evaluationIds) {
+            periodeByEvaluation.put(evaluationId, periodeId);
+        }
+        if (entries.size() > maxEntries) {
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    /** Invalide la période après le commit en cours. */
+    public void evictAfterCommit(Long periodeId) {
+        afterCommit(() -> evict(periodeId));
+    }
+
+    /** Invalide la période qui utilise cette évaluation, après le commit en cours. */
+    public void evictEvaluationAfterCommit(Long evaluationId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                // Une période en cours de calcul, pas encore en cache, peut aussi l'utiliser
+                loads.clear();
+                Long periodeId = periodeByEvaluation.get(evaluationId);
+                if (periodeId != null) {
+                    evict(periodeId);
+                }
+            }
+        });
+    }
+
+    /** Vide le cache tout de suite et à nouveau à la fin de la transaction en cours. */
+    public void invalidateAfterCommit() {
+        invalidate();
+        afterCompletion(this::invalidate);
+    }
+
+    /** Vide le cache, par exemple quand l'intitulé d'une catégorie ou d'une compétence change. */
+    public synchronized void invalidate() {
+        entries.clear();
+        periodeByEvaluation.clear();
+        loads.clear();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("entries", entries.size());
+        return stats;
+    }
+
+    private synchronized void evict(Long periodeId) {
+        loads.remove(periodeId);
+        remove(periodeId);
+    }
+
+    private void remove(Long periodeId) {
+        Entry entry = entries.remove(periodeId);
+        if (entry != null) {
+            for (long evaluationId : entry.evaluationIds()) {
+                periodeByEvaluation.remove(evaluationId, periodeId);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.gestion.stage.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Evaluation;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Invalide dans le {@link PeriodeProfileCache}, après le commit, les profils des périodes
+ * dont une appréciation ou une évaluation change. Une appréciation déplacée vers une autre
+ * période invalide aussi l'ancienne, retrouvée par son évaluation.
+ */
+public class PeriodeProfileListener {
+
+    private final PeriodeProfileCache periodeProfileCache;
+
+    @Autowired
+    public PeriodeProfileListener(PeriodeProfileCache periodeProfileCache) {
+        this.periodeProfileCache = periodeProfileCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (entity instanceof Appreciation appreciation) {
+            if (appreciation.getPeriode() != null) {
+                periodeProfileCache.evictAfterCommit(appreciation.getPeriode().getId());
+            }
+            if (appreciation.getEvaluation() != null) {
+                periodeProfileCache.evictEvaluationAfterCommit(appreciation.getEvaluation().getId());
+            }
+        } else if (entity instanceof Evaluation evaluation) {
+            periodeProfileCache.evictEvaluationAfterCommit(evaluation.getId());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.gestion.stage.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.dto.PeriodeProfileDTO;
+import com.gestion.stage.repository.PeriodeRepository;
+
+/**
+ * Profil d'évaluation d'une période : moyenne par catégorie et vecteur des compétences,
+ * calculés en une requête puis servis depuis {@link PeriodeProfileCache}.
+ */
+@Service
+public class PeriodeProfileService {
+
+    private final PeriodeRepository periodeRepository;
+    private final PeriodeProfileCache cache;
+
+    private static final class Sum {
+        private final String intitule;
+        private double total;
+        private int nombre;
+
+        private Sum(String intitule) {
+            this.intitule = intitule;
+        }
+
+        private void add(double valeur) {
+            total += valeur;
+            nombre++;
+        }
+    }
+
+    @Autowired
+    public PeriodeProfileService(PeriodeRepository periodeRepository, PeriodeProfileCache cache) {
+        this.periodeRepository = periodeRepository;
+        this.cache = cache;
+    }
+
+    public PeriodeProfileDTO getProfile(Long periodeId) {
+        Optional<PeriodeProfileDTO> cached = cache.get(periodeId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long token = cache.startLoad(periodeId);
+        try {
+            return load(periodeId, token);
+        } finally {
+            cache.abandonLoad(periodeId, token);
+        }
+    }
+
+    private PeriodeProfileDTO load(Long periodeId, long token) {
+        List<Object[]> rows = periodeRepository.findProfileRows(periodeId);
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Période non trouvée avec l'ID: " + periodeId);
+        }
+
+        // Catégories puis compétences par identifiant croissant : ordre stable des axes du radar
+        Map<Long, Sum> categories = new TreeMap<>();
+        Map<Long, Map<Long, Sum>> competences = new TreeMap<>();
+        List<Long> evaluationIds = new ArrayList<>();
+        double total = 0;
+        int nombre = 0;
+        for (Object[] row : rows) {
+            Long categorieId = (Long) row[1];
+            Long competenceId = (Long) row[3];
+            Double valeur = (Double) row[6];
+            if (row[5] != null) {
+                evaluationIds.add((Long) row[5]);
+            }
+            if (valeur == null) {
+                continue;
+            }
+            total += valeur;
+            nombre++;
+            if (categorieId != null) {
+                categories.computeIfAbsent(categorieId, id -> new Sum((String) row[2])).add(valeur);
+                competences.computeIfAbsent(categorieId, id -> new TreeMap<>())
+                        .computeIfAbsent(competenceId, id -> new Sum((String) row[4])).add(valeur);
+            }
+        }
+
+        PeriodeProfileDTO profile = new PeriodeProfileDTO(periodeId, nombre > 0 ? round(total / nombre) : null, nombre,
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        categories.forEach((id, sum) -> profile.getCategories()
+                .add(new PeriodeProfileDTO.Categorie(id, sum.intitule, round(sum.total / sum.nombre), sum.nombre)));
+        competences.values().forEach(byCompetence -> byCompetence.values().forEach(sum -> {
+            profile.getCompetences().add(sum.intitule);
+            profile.getValeurs().add(round(sum.total / sum.nombre));
+        }));
+        cache.put(periodeId, token, profile, evaluationIds.stream().mapToLong(Long::longValue).toArray());
+        return profile;
+    }
+
+    private static double round(double valeur) {
+        return Math.round(valeur * 100) / 100.0;
+    }
+}
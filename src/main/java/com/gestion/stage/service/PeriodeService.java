@@ -3,28 +3,81 @@ package com.gestion.stage.service;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Periode;
 import com.gestion.stage.model.Stagiaire;
 import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.Specs;
 
 @Service
 public class PeriodeService {
 
+    static final Set<String> SORTABLE = Set.of("id", "dateDebut", "dateFin");
+
     private final PeriodeRepository periodeRepository;
+    private final KeysetPagination keysetPagination;
 
     @Autowired
-    public PeriodeService(PeriodeRepository periodeRepository) {
+    public PeriodeService(PeriodeRepository periodeRepository, KeysetPagination keysetPagination) {
         this.periodeRepository = periodeRepository;
+        this.keysetPagination = keysetPagination;
     }
 
     public List<Periode> getAllPeriodes() {
         return periodeRepository.findAll();
     }
 
+    /**
+     * Toutes les périodes, lues en flux pour l'export NDJSON : à consommer dans une transaction, puis fermer.
+     */
+    public Stream<Periode> streamAllPeriodes() {
+        return periodeRepository.streamAll();
+    }
+
+    /**
+     * Page de la liste, triée et filtrée (filtres nuls ignorés).
+     */
+    public CursorPage<Periode> getPeriodesPage(PageQuery page, Long stageId, Long stagiaireId, Long tuteurId, LocalDate dateDebutMin, LocalDate dateFinMax) {
+        Specification<Periode> filter = Specification.allOf(
+                Specs.hasId("stage", stageId),
+                Specs.hasId("stagiaire", stagiaireId),
+                Specs.hasId("tuteur", tuteurId),
+                Specs.atLeast("dateDebut", dateDebutMin),
+                Specs.atMost("dateFin", dateFinMax));
+        return keysetPagination.page(periodeRepository, filter, page, SORTABLE, Periode.DETAIL);
+    }
+
+    /**
+     * Page des périodes en cours à cette date (début <= date <= fin).
+     */
+    public CursorPage<Periode> getPeriodesActivesPage(PageQuery page, LocalDate date) {
+        return getPeriodesChevauchantPage(page, date, date);
+    }
+
+    /**
+     * Page des périodes qui chevauchent [debut, fin] : commencées au plus tard à la fin de la
+     * fenêtre et terminées au plus tôt à son début (index idx_periode_debut_fin et idx_periode_fin_debut).
+     */
+    public CursorPage<Periode> getPeriodesChevauchantPage(PageQuery page, LocalDate debut, LocalDate fin) {
+        if (debut.isAfter(fin)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La date de début doit précéder la date de fin.");
+        }
+        Specification<Periode> filter = Specification.allOf(
+                Specs.atMost("dateDebut", fin),
+                Specs.atLeast("dateFin", debut));
+        return keysetPagination.page(periodeRepository, filter, page, SORTABLE, Periode.DETAIL);
+    }
+
     public Optional<Periode> getPeriodeById(Long id) {
         return periodeRepository.findById(id);
     }
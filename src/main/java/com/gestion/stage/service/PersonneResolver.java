@@ -0,0 +1,224 @@
+package com.gestion.stage.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+
+/**
+ * Retrouve ou crée le stagiaire et le tuteur d'un formulaire d'évaluation, par email.
+ * <p>
+ * Les identifiants déjà résolus sont gardés en mémoire (email -> id), ce qui évite la
+ * requête sur personne + stagiaire/tuteur pour les personnes connues. Pour une personne
+ * inconnue, un verrou par email (réparti sur {@value #STRIPES} verrous) fait qu'une seule
+ * requête de l'instance la crée ; la création est validée dans sa propre courte
+ * transaction, pour être visible des autres formulaires sans attendre le leur. Entre
+ * instances, l'index unique sur personne.email tranche : le perdant relit la ligne créée.
+ * <p>
+ * Les personnes créées sont signalées à l'appelant ; si son formulaire échoue ensuite, il
+ * les rend via {@link #discardStagiaire(Long)} / {@link #discardTuteur(Long)}, qui les
+ * suppriment tant qu'aucun autre formulaire ne les référence.
+ */
+@Service
+public class PersonneResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonneResolver.class);
+
+    static final int STRIPES = 64;
+    static final int MAX_CACHED_EMAILS = 10_000;
+
+    private final StagiaireRepository stagiaireRepository;
+    private final TuteurRepository tuteurRepository;
+    private final TransactionTemplate requiresNew;
+
+    private final Lock[] locks = new Lock[STRIPES];
+    private final Map<String, Long> stagiaireIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> tuteurIds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PersonneResolver(StagiaireRepository stagiaireRepository,
+                            TuteurRepository tuteurRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.stagiaireRepository = stagiaireRepository;
+        this.tuteurRepository = tuteurRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @param created reçoit l'id du stagiaire s'il vient d'être créé
+     */
+    public Long stagiaireId(String nomComplet, String email, String institution, Collection<Long> created) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "L'email du stagiaire est obligatoire pour le retrouver ou le créer.");
+        }
+        String trimmed = email.trim();
+        return resolve(stagiaireIds, trimmed,
+                () -> stagiaireRepository.findIdByEmail(trimmed),
+                () -> stagiaireRepository.save(newStagiaire(nomComplet, trimmed, institution)).getId(),
+                created);
+    }
+
+    /**
+     * @param created reçoit l'id du tuteur s'il vient d'être créé
+     */
+    public Long tuteurId(String nomComplet, String email, String entrepriseNom, Collection<Long> created) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "L'email du tuteur est obligatoire pour le retrouver ou le créer.");
+        }
+        String trimmed = email.trim();
+        return resolve(tuteurIds, trimmed,
+                () -> tuteurRepository.findIdByEmail(trimmed),
+                () -> tuteurRepository.save(newTuteur(nomComplet, trimmed, entrepriseNom)).getId(),
+                created);
+    }
+
+    /**
+     * Supprime un stagiaire créé pour un formulaire qui a échoué, sauf s'il est déjà
+     * référencé par un autre formulaire validé entre-temps.
+     */
+    public void discardStagiaire(Long stagiaireId) {
+        discard(stagiaireIds, stagiaireId, id -> {
+            stagiaireRepository.deleteById(id);
+            stagiaireRepository.flush();
+        });
+    }
+
+    /**
+     * Supprime un tuteur créé pour un formulaire qui a échoué, sauf s'il est déjà
+     * référencé par un autre formulaire validé entre-temps.
+     */
+    public void discardTuteur(Long tuteurId) {
+        discard(tuteurIds, tuteurId, id -> {
+            tuteurRepository.deleteById(id);
+            tuteurRepository.flush();
+        });
+    }
+
+    /**
+     * Oublie une personne modifiée ou supprimée (son email a pu changer).
+     */
+    public void evict(Long personneId) {
+        stagiaireIds.values().removeIf(personneId::equals);
+        tuteurIds.values().removeIf(personneId::equals);
+    }
+
+    private Long resolve(Map<String, Long> cache, String email, Supplier<Optional<Long>> find, Supplier<Long> create,
+                         Collection<Long> created) {
+        String key = StageFormService.emailKey(email);
+        Long id = cache.get(key);
+        if (id != null) {
+            return id;
+        }
+        Lock lock = locks[Math.floorMod(key.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            id = cache.get(key);
+            if (id == null) {
+                id = findOrCreate(email, find, () -> {
+                    Long createdId = create.get();
+                    created.add(createdId);
+                    return createdId;
+                });
+                if (cache.size() >= MAX_CACHED_EMAILS) {
+                    cache.clear();
+                }
+                cache.put(key, id);
+            }
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard(Map<String, Long> cache, Long personneId, Consumer<Long> delete) {
+        cache.values().removeIf(personneId::equals);
+        try {
+            requiresNew.executeWithoutResult(tx -> delete.accept(personneId));
+            logger.info("Personne {} créée pour un formulaire en échec, supprimée", personneId);
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Personne {} déjà référencée par un autre formulaire, conservée", personneId);
+        }
+    }
+
+    private Long findOrCreate(String email, Supplier<Optional<Long>> find, Supplier<Long> create) {
+        try {
+            return requiresNew.execute(tx -> find.get().orElseGet(create));
+        } catch (DataIntegrityViolationException e) {
+            // Créée au même moment par une autre instance, ou email déjà pris par une
+            // personne de l'autre type (l'unicité porte sur toute la table personne)
+            logger.debug("Conflit à la création de {}, relecture", email);
+            return requiresNew.execute(tx -> find.get())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                        "L'email " + email + " est déjà utilisé par une autre personne."));
+        }
+    }
+
+    private static Stagiaire newStagiaire(String nomComplet, String email, String institution) {
+        logger.info("Stagiaire non trouvé avec l'email {}, création en cours...", email);
+        String[] nomPrenom = parseNomPrenom(nomComplet);
+        Stagiaire newStagiaire = new Stagiaire();
+        newStagiaire.setPrenom(nomPrenom[0].trim());
+        newStagiaire.setNom(nomPrenom[1].trim());
+        newStagiaire.setEmail(email);
+        if (newStagiaire.getNom().isEmpty()){
+              throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le nom du stagiaire (partie du nom complet) ne peut pas être vide.");
+        }
+        // Le prénom peut être vide, mais le nom et l'email sont essentiels.
+        newStagiaire.setInstitution((institution != null && !institution.trim().isEmpty()) ? institution.trim() :"N/A");
+        return newStagiaire;
+    }
+
+    private static Tuteur newTuteur(String nomComplet, String email, String entrepriseNom) {
+        logger.info("Tuteur non trouvé avec l'email {}, création en cours...", email);
+        String[] nomPrenom = parseNomPrenom(nomComplet);
+        Tuteur newTuteur = new Tuteur();
+        newTuteur.setPrenom(nomPrenom[0].trim());
+        newTuteur.setNom(nomPrenom[1].trim());
+        newTuteur.setEmail(email);
+         if (newTuteur.getNom().isEmpty()){
+             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le nom du tuteur (partie du nom complet) ne peut pas être vide.");
+        }
+        if (entrepriseNom == null || entrepriseNom.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le nom de l'entreprise est obligatoire pour créer un tuteur.");
+        }
+        newTuteur.setEntreprise(entrepriseNom.trim());
+        return newTuteur;
+    }
+
+    // Helper method to parse "Prénom Nom" into a String[2] = {prénom, nom}
+    // Basic split, assumes first word is prenom, rest is nom.
+    private static String[] parseNomPrenom(String nomComplet) {
+        if (nomComplet == null || nomComplet.trim().isEmpty()) {
+            return new String[]{"", ""};
+        }
+        String[] parts = nomComplet.trim().split("\\s+", 2);
+        if (parts.length == 1) {
+            return new String[]{"", parts[0]}; // Considérer comme nom si un seul mot
+        }
+        return new String[]{parts[0], parts[1]};
+    }
+}
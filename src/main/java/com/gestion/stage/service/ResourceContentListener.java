@@ -0,0 +1,59 @@
+package com.gestion.stage.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.Stage;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Fait avancer, via {@link ResourceVersions}, la version de contenu du stage ou de la
+ * période dont une période, une appréciation ou une évaluation change. Un stage ou une
+ * période créés dans la transaction sont notés pour ne pas être mis à jour aussitôt
+ * (formulaire d'évaluation : tout est neuf). Le service est injecté en différé, comme pour
+ * {@link AnalyticsListener}.
+ */
+public class ResourceContentListener {
+
+    private final ResourceVersions resourceVersions;
+
+    @Autowired
+    public ResourceContentListener(@Lazy ResourceVersions resourceVersions) {
+        this.resourceVersions = resourceVersions;
+    }
+
+    // Une évaluation créée n'est servie qu'une fois rattachée par son appréciation
+    @PostPersist
+    public void persisted(Object entity) {
+        if (entity instanceof Stage stage) {
+            resourceVersions.created(Stage.class, stage.getId());
+        } else if (entity instanceof Periode periode) {
+            resourceVersions.created(Periode.class, periode.getId());
+            changed(periode);
+        } else if (entity instanceof Appreciation appreciation) {
+            changed(appreciation);
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (entity instanceof Periode periode) {
+            if (periode.getStage() != null) {
+                resourceVersions.stageContentChanged(periode.getStage().getId());
+            }
+        } else if (entity instanceof Appreciation appreciation) {
+            if (appreciation.getPeriode() != null) {
+                resourceVersions.periodeContentChanged(appreciation.getPeriode().getId());
+            }
+        } else if (entity instanceof Evaluation evaluation) {
+            resourceVersions.evaluationChanged(evaluation.getId());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.gestion.stage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Version d'une ressource HTTP, calculée par une requête de projection sans charger ni
+ * sérialiser ses entités.
+ * <p>
+ * Les lignes lues contiennent, pour chaque entité sérialisée dans la réponse (la racine
+ * en tête, puis ses associations et les éléments de ses collections), son identifiant,
+ * sa colonne {@code @Version} et sa date de modification ; les collections d'un stage ou
+ * d'une période sont résumées par leur version de contenu (voir {@link ResourceVersions}).
+ * L'ETag fort est une empreinte de ces valeurs : il change dès qu'une entité de la réponse
+ * est modifiée, ajoutée ou retirée.
+ * Last-Modified est la date de modification la plus récente ; une suppression ne la fait
+ * pas avancer, seul l'ETag en tient compte (il prime sur If-Modified-Since).
+ *
+ * @param version version de l'entité racine, reportée sur l'entité fusionnée par un PUT
+ */
+public record ResourceVersion(String etag, Instant lastModified, long version) {
+
+    public static ResourceVersion of(List<Object[]> rows) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Instant lastModified = null;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                if (value instanceof Instant instant && (lastModified == null || instant.isAfter(lastModified))) {
+                    lastModified = instant;
+                }
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update((byte) '\n');
+        }
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        long version = rows.isEmpty() || rows.get(0)[1] == null ? 0 : ((Number) rows.get(0)[1]).longValue();
+        return new ResourceVersion(etag, lastModified, version);
+    }
+
+    /**
+     * Évalue les en-têtes conditionnels de la requête. Vrai si la réponse est déjà
+     * complète, sans corps : 304 pour un GET dont If-None-Match / If-Modified-Since
+     * correspond, 412 pour une écriture dont If-Match / If-Unmodified-Since ne correspond
+     * plus. Sinon ETag et Last-Modified sont ajoutés à la réponse d'un GET.
+     */
+    public boolean checkNotModified(WebRequest request) {
+        return request.checkNotModified(etag, lastModified != null ? lastModified.toEpochMilli() : -1);
+    }
+
+    /**
+     * Enregistre une entité à laquelle {@link #version()} a été reportée : si elle a été
+     * modifiée depuis la vérification, l'écriture est refusée (409) au lieu d'écraser
+     * la modification concurrente.
+     */
+    public <T> T update(Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "La ressource a été modifiée entre-temps, rechargez-la avant de la modifier.");
+        }
+    }
+}
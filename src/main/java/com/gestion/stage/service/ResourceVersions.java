@@ -0,0 +1,226 @@
+package com.gestion.stage.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.PeriodeCategorieScoreRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+
+/**
+ * Version des ressources servies en GET, pour les requêtes conditionnelles
+ * (If-None-Match, If-Match) : une requête de projection par ressource, vide si elle
+ * n'existe pas.
+ * <p>
+ * La version est lue avant le corps de la réponse : une écriture intercalée donne au pire
+ * un corps plus récent que son ETag, corrigé au prochain appel, jamais un 304 à tort.
+ * <p>
+ * Un stage et une période portent en plus une version de leur contenu (contentVersion,
+ * contentUpdatedAt), avancée dans la transaction de l'écriture par
+ * {@link ResourceContentListener} : leur ETag se lit sur leur ligne et celles de leurs
+ * personnes, sans parcourir périodes et appréciations. Les compétences et catégories, partagées
+ * par toutes les appréciations, n'en font pas partie : leur note change en tâche de fond.
+ */
+@Service
+public class ResourceVersions {
+
+    private final StageRepository stageRepository;
+    private final PeriodeRepository periodeRepository;
+    private final AppreciationRepository appreciationRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final CategorieRepository categorieRepository;
+    private final CompetencesRepository competencesRepository;
+    private final StagiaireRepository stagiaireRepository;
+    private final TuteurRepository tuteurRepository;
+    private final PeriodeCategorieScoreRepository scoreRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ResourceVersions(StageRepository stageRepository,
+                            PeriodeRepository periodeRepository,
+                            AppreciationRepository appreciationRepository,
+                            EvaluationRepository evaluationRepository,
+                            CategorieRepository categorieRepository,
+                            CompetencesRepository competencesRepository,
+                            StagiaireRepository stagiaireRepository,
+                            TuteurRepository tuteurRepository,
+                            PeriodeCategorieScoreRepository scoreRepository,
+                            JdbcTemplate jdbcTemplate) {
+        this.stageRepository = stageRepository;
+        this.periodeRepository = periodeRepository;
+        this.appreciationRepository = appreciationRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.categorieRepository = categorieRepository;
+        this.competencesRepository = competencesRepository;
+        this.stagiaireRepository = stagiaireRepository;
+        this.tuteurRepository = tuteurRepository;
+        this.scoreRepository = scoreRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<ResourceVersion> stage(Long id) {
+        return of(stageRepository.findVersionRows(id));
+    }
+
+    /**
+     * Tableau de bord d'un stage : le stage et ses périodes, plus les catégories notées
+     * sur ses périodes, dont la valeur globale est affichée.
+     */
+    public Optional<ResourceVersion> stageDashboard(Long stageId) {
+        List<Object[]> rows = stageRepository.findVersionRows(stageId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        rows = new ArrayList<>(rows);
+        rows.addAll(scoreRepository.findCategorieVersionRowsByStageId(stageId));
+        return of(rows);
+    }
+
+    public Optional<ResourceVersion> periode(Long id) {
+        return of(periodeRepository.findVersionRows(id));
+    }
+
+    public Optional<ResourceVersion> appreciation(Long id) {
+        return of(appreciationRepository.findVersionRows(id));
+    }
+
+    public Optional<ResourceVersion> evaluation(Long id) {
+        return of(evaluationRepository.findVersionRows(id));
+    }
+
+    public Optional<ResourceVersion> categorie(Long id) {
+        return of(categorieRepository.findVersionRows(id));
+    }
+
+    public ResourceVersion categories() {
+        return ResourceVersion.of(categorieRepository.findAllVersionRows());
+    }
+
+    public Optional<ResourceVersion> competences(Long id) {
+        return of(competencesRepository.findVersionRows(id));
+    }
+
+    public Optional<ResourceVersion> stagiaire(Long id) {
+        return of(stagiaireRepository.findVersionRows(id));
+    }
+
+    public Optional<ResourceVersion> tuteur(Long id) {
+        return of(tuteurRepository.findVersionRows(id));
+    }
+
+    private static Optional<ResourceVersion> of(List<Object[]> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(ResourceVersion.of(rows));
+    }
+
+    /**
+     * Note un stage ou une période créés dans la transaction en cours : leur contenu est neuf
+     * avec eux, leur version de contenu n'a pas à avancer avant le commit.
+     */
+    void created(Class<?> type, Long id) {
+        ContentChanges changes = changes();
+        if (changes != null && id != null) {
+            changes.created.add(new ContentKey(type, id));
+        }
+    }
+
+    void stageContentChanged(Long stageId) {
+        if (!firstChange(Stage.class, stageId)) {
+            return;
+        }
+        bump("update stage set content_version = content_version + 1, content_updated_at = ? where id = ?", stageId);
+    }
+
+    /** La période et son stage, qui la sérialise. */
+    void periodeContentChanged(Long periodeId) {
+        if (!firstChange(Periode.class, periodeId)) {
+            return;
+        }
+        bump("update periode set content_version = content_version + 1, content_updated_at = ? where id = ?", periodeId);
+        bump("update stage set content_version = content_version + 1, content_updated_at = ? "
+                + "where id = (select stage_id from periode where id = ?)", periodeId);
+    }
+
+    /** Les périodes dont une appréciation porte l'évaluation, et leurs stages. */
+    void evaluationChanged(Long evaluationId) {
+        if (!firstChange(Evaluation.class, evaluationId)) {
+            return;
+        }
+        bump("update periode set content_version = content_version + 1, content_updated_at = ? "
+                + "where id in (select periode_id from appreciation where evaluation_id = ?)", evaluationId);
+        bump("update stage set content_version = content_version + 1, content_updated_at = ? "
+                + "where id in (select p.stage_id from periode p join appreciation a on a.periode_id = p.id "
+                + "where a.evaluation_id = ?)", evaluationId);
+    }
+
+    /**
+     * Vrai la première fois que la ressource change dans la transaction en cours, faux aussi
+     * pour un stage ou une période créés par celle-ci.
+     */
+    private boolean firstChange(Class<?> type, Long id) {
+        if (id == null) {
+            return false;
+        }
+        ContentChanges changes = changes();
+        if (changes == null) {
+            return true;
+        }
+        ContentKey key = new ContentKey(type, id);
+        return !changes.created.contains(key) && changes.changed.add(key);
+    }
+
+    private void bump(String sql, Long id) {
+        // Horodatage UTC, lié comme Hibernate lie un Instant sous MySQL
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update(sql, ps -> {
+            ps.setTimestamp(1, now, Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC)));
+            ps.setLong(2, id);
+        });
+    }
+
+    /** Changements de la transaction en cours, pas d'une transaction suspendue ; null hors transaction. */
+    private static ContentChanges changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization registered : TransactionSynchronizationManager.getSynchronizations()) {
+            if (registered instanceof ContentChanges changes) {
+                return changes;
+            }
+        }
+        ContentChanges changes = new ContentChanges();
+        TransactionSynchronizationManager.registerSynchronization(changes);
+        return changes;
+    }
+
+    private record ContentKey(Class<?> type, Long id) {
+    }
+
+    /** Pas un record : une synchronisation est comparée par identité, ses clés changent. */
+    private static final class ContentChanges implements TransactionSynchronization {
+        private final Set<ContentKey> created = new HashSet<>();
+        private final Set<ContentKey> changed = new HashSet<>();
+    }
+}
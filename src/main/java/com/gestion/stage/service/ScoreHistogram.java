@@ -0,0 +1,86 @@
+package com.gestion.stage.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gestion.stage.dto.ScoreStatsDTO;
+import com.gestion.stage.model.CompetenceHistogramme;
+
+/**
+ * Histogramme en mémoire des valeurs d'évaluation, par classes de {@link CompetenceHistogramme} :
+ * les histogrammes de plusieurs compétences se fusionnent en additionnant leurs classes, ce
+ * qui donne celui de leur catégorie sans relire les évaluations.
+ */
+final class ScoreHistogram {
+
+    private final long[] nombres = new long[CompetenceHistogramme.CLASSES];
+    private final double[] totaux = new double[CompetenceHistogramme.CLASSES];
+    private final long[] entiers = new long[CompetenceHistogramme.CLASSES];
+
+    /**
+     * Ajoute des lignes [classe, nombre, total, entiers] (voir CompetenceHistogrammeRepository),
+     * d'une ou de plusieurs compétences.
+     */
+    void addRows(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            int classe = (Integer) row[0];
+            nombres[classe] += (Long) row[1];
+            totaux[classe] += (Double) row[2];
+            entiers[classe] += (Long) row[3];
+        }
+    }
+
+    long count() {
+        long count = 0;
+        for (long nombre : nombres) {
+            count += nombre;
+        }
+        return count;
+    }
+
+    /**
+     * Centile {@code q} (0 < q <= 1) : moyenne de la classe qui contient la valeur de rang
+     * ceil(q × nombre), null si l'histogramme est vide.
+     */
+    Double percentile(double q) {
+        long count = count();
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long cumul = 0;
+        for (int i = 0; i < nombres.length; i++) {
+            cumul += nombres[i];
+            if (cumul >= rank) {
+                return round(totaux[i] / nombres[i]);
+            }
+        }
+        throw new IllegalStateException("Rang " + rank + " au-delà de " + count + " valeurs");
+    }
+
+    ScoreStatsDTO toDTO(Long id) {
+        long count = 0;
+        double total = 0;
+        List<ScoreStatsDTO.Classe> classes = new ArrayList<>();
+        Map<String, Long> niveaux = new LinkedHashMap<>();
+        for (int i = 0; i < nombres.length; i++) {
+            String niveau = StageFormService.numericToCompetencyLevel((double) i);
+            if (niveau != null) {
+                niveaux.put(niveau, entiers[i]);
+            }
+            if (nombres[i] > 0) {
+                count += nombres[i];
+                total += totaux[i];
+                classes.add(new ScoreStatsDTO.Classe(i, nombres[i], round(totaux[i] / nombres[i])));
+            }
+        }
+        return new ScoreStatsDTO(id, count, count > 0 ? round(total / count) : null,
+                percentile(0.1), percentile(0.5), percentile(0.9), niveaux, classes);
+    }
+
+    private static double round(double valeur) {
+        return Math.round(valeur * 100) / 100.0;
+    }
+}
@@ -0,0 +1,191 @@
+package com.gestion.stage.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.hibernate.search.engine.search.common.BooleanOperator;
+import org.hibernate.search.engine.search.predicate.dsl.SimpleQueryStringPredicateFieldMoreStep;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.mapper.orm.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.dto.SearchResultsDTO;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.StageRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Recherche plein texte dans les stages (description, objectif, entreprise) et les
+ * commentaires d'évaluation.
+ * <p>
+ * L'index Lucene est local (hibernate.search.backend.directory.root) et tenu à jour par
+ * Hibernate Search à chaque commit d'une transaction qui crée, modifie ou supprime un stage
+ * ou une évaluation : seuls les documents modifiés sont réindexés. Une requête ne lit que
+ * l'index inversé, sans LIKE '%...%' sur les tables, puis charge les entités de la page
+ * (une requête par type). Les écritures SQL directes ne passent pas par Hibernate : après
+ * un chargement de ce genre, reconstruire l'index (POST /api/search/reindex).
+ */
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /** Au-delà, le nombre total de résultats n'est plus compté exactement. */
+    private static final int TOTAL_HIT_COUNT_THRESHOLD = 1000;
+
+    /** Une correspondance sur le nom de l'entreprise compte plus que dans le texte. */
+    private static final float ENTREPRISE_BOOST = 3f;
+
+    private static final int EXCERPT_LENGTH = 200;
+
+    private static final List<Class<?>> INDEXED = List.of(Stage.class, Evaluation.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StageRepository stageRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final int maxPageSize;
+    private final int maxResults;
+    private volatile CompletableFuture<?> reindexing = CompletableFuture.completedFuture(null);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public SearchService(EntityManagerFactory entityManagerFactory,
+                         StageRepository stageRepository,
+                         EvaluationRepository evaluationRepository,
+                         @Value("${gestion.pagination.max-size:200}") int maxPageSize,
+                         @Value("${gestion.search.max-results:10000}") int maxResults) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.stageRepository = stageRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.maxPageSize = maxPageSize;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * @param q    requête en syntaxe simple : mots (tous requis), "phrase exacte", préfixe*,
+     *             -exclusion, a | b
+     * @param type stage ou evaluation pour restreindre la recherche, null pour les deux
+     * @param page numéro de page, à partir de 0
+     */
+    @Transactional(readOnly = true)
+    public SearchResultsDTO search(String q, String type, int page, Integer size) {
+        if (q == null || q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le paramètre q est obligatoire.");
+        }
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (page < 0 || pageSize < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "La page doit être positive ou nulle et la taille de page positive.");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        long offset = (long) page * pageSize;
+        if (offset + pageSize > maxResults) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Seuls les " + maxResults + " premiers résultats sont consultables : préciser la recherche.");
+        }
+
+        List<Class<?>> types = types(type);
+        SearchResult<SearchResultsDTO.Hit> result = Search.session(entityManager)
+                .search(types)
+                .select(f -> f.composite().from(f.entity(), f.score()).as(SearchService::toHit))
+                .where(f -> {
+                    // Chaque champ doit exister dans au moins un des index interrogés
+                    SimpleQueryStringPredicateFieldMoreStep<?, ?> fields = types.contains(Stage.class)
+                            ? f.simpleQueryString().field("entreprise").boost(ENTREPRISE_BOOST)
+                                    .fields("description", "objectif")
+                            : f.simpleQueryString().field("commentaire");
+                    if (types.contains(Stage.class) && types.contains(Evaluation.class)) {
+                        fields = fields.field("commentaire");
+                    }
+                    return fields.matching(q).defaultOperator(BooleanOperator.AND);
+                })
+                .totalHitCountThreshold(TOTAL_HIT_COUNT_THRESHOLD)
+                .fetch((int) offset, pageSize);
+
+        return new SearchResultsDTO(q, page, pageSize,
+                result.total().hitCountLowerBound(), result.total().isHitCountExact(),
+                result.took().toMillis(), result.hits());
+    }
+
+    /**
+     * Reconstruit l'index à partir de la base, en tâche de fond. Les recherches restent
+     * possibles pendant la reconstruction, sur un index incomplet.
+     */
+    public synchronized CompletableFuture<?> reindex() {
+        if (!reindexing.isDone()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Une reconstruction de l'index est déjà en cours.");
+        }
+        logger.info("Reconstruction de l'index de recherche");
+        reindexing = Search.mapping(entityManagerFactory).scope(INDEXED)
+                .massIndexer()
+                .start()
+                .toCompletableFuture()
+                .whenComplete((done, error) -> {
+                    if (error != null) {
+                        logger.error("Échec de la reconstruction de l'index de recherche", error);
+                    } else {
+                        logger.info("Index de recherche reconstruit");
+                    }
+                });
+        return reindexing;
+    }
+
+    /** Premier démarrage sur une base déjà remplie : l'index, encore vide, est construit. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void indexExistingData() {
+        long indexed = Search.session(entityManager).search(INDEXED)
+                .where(f -> f.matchAll())
+                .fetchTotalHitCount();
+        if (indexed == 0 && (stageRepository.count() > 0 || evaluationRepository.count() > 0)) {
+            reindex();
+        }
+    }
+
+    private static List<Class<?>> types(String type) {
+        if (type == null || type.isBlank()) {
+            return INDEXED;
+        }
+        return switch (type.toLowerCase()) {
+            case "stage" -> List.of(Stage.class);
+            case "evaluation" -> List.of(Evaluation.class);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Type de résultat non supporté: " + type + ". Valeurs possibles: stage, evaluation");
+        };
+    }
+
+    private static SearchResultsDTO.Hit toHit(Object entity, Float score) {
+        if (entity instanceof Stage stage) {
+            return new SearchResultsDTO.Hit("stage", stage.getId(), score, stage.getEntreprise(),
+                    excerpt(stage.getDescription()));
+        }
+        Evaluation evaluation = (Evaluation) entity;
+        return new SearchResultsDTO.Hit("evaluation", evaluation.getId(), score, evaluation.getCategorieStr(),
+                excerpt(evaluation.getCommentaire()));
+    }
+
+    private static String excerpt(String text) {
+        if (text == null || text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        return text.substring(0, EXCERPT_LENGTH) + "…";
+    }
+}
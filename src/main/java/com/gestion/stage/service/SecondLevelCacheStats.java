@@ -0,0 +1,56 @@
+package com.gestion.stage.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Taux de succès du cache de second niveau Hibernate, par région (entités, collections et
+ * requêtes, voir ehcache.xml), depuis le démarrage. Les mêmes compteurs sont publiés par
+ * Micrometer : hibernate.second.level.cache.requests et hibernate.cache.query.requests.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    private final Statistics statistics;
+
+    @Autowired
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String name : new TreeSet<>(List.of(statistics.getSecondLevelCacheRegionNames()))) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, counters(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entities", counters(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        stats.put("queries", counters(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        stats.put("regions", regions);
+        return stats;
+    }
+
+    private static Map<String, Object> counters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        counters.put("puts", puts);
+        return counters;
+    }
+}
@@ -0,0 +1,186 @@
+package com.gestion.stage.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.gestion.stage.repository.EvaluationRepository;
+
+/**
+ * Export tableur (CSV ou XLSX) de toutes les évaluations, jointes à leur appréciation, leur
+ * compétence et sa catégorie, leur période, son stage, son stagiaire et le tuteur.
+ * <p>
+ * Comme pour {@link NdjsonExportService}, une seule requête jointe est lue en flux (curseur
+ * JDBC, fetch de {@link NdjsonExportService#FETCH_SIZE} lignes) dans une transaction en lecture
+ * seule ouverte par le thread qui écrit la réponse. Les lignes sont des valeurs, pas des
+ * entités, et sont écrites dès leur lecture : en CSV rien ne s'accumule ; en XLSX, le classeur
+ * SXSSF ne garde en mémoire que les {@link #XLSX_WINDOW} dernières lignes et écrit les autres
+ * dans un fichier temporaire compressé, supprimé à la fin de l'export.
+ */
+@Service
+public class SpreadsheetExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpreadsheetExportService.class);
+
+    /** En-têtes, dans l'ordre des colonnes de {@link EvaluationRepository#streamExportRows()}. */
+    public static final List<String> COLUMNS = List.of(
+            "evaluation_id", "valeur", "critere", "commentaire", "appreciation_id", "categorie", "competence",
+            "periode_id", "date_debut", "date_fin", "entreprise", "stagiaire_nom", "stagiaire_prenom",
+            "stagiaire_email", "institution", "tuteur_nom", "tuteur_prenom", "tuteur_email");
+
+    /** Lignes XLSX gardées en mémoire avant d'être écrites dans le fichier temporaire. */
+    private static final int XLSX_WINDOW = 100;
+
+    private static final int CHUNK_SIZE = Integer.parseInt(NdjsonExportService.FETCH_SIZE);
+
+    private final EvaluationRepository evaluationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CsvSchema csvSchema;
+
+    @Autowired
+    public SpreadsheetExportService(EvaluationRepository evaluationRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.evaluationRepository = evaluationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        COLUMNS.forEach(schema::addColumn);
+        this.csvSchema = schema.build();
+        this.csvMapper.enable(CsvGenerator.Feature.ALWAYS_QUOTE_STRINGS);
+    }
+
+    public StreamingResponseBody exportCsv() {
+        return export("csv", this::writeCsv);
+    }
+
+    public StreamingResponseBody exportXlsx() {
+        return export("xlsx", this::writeXlsx);
+    }
+
+    private interface RowsWriter {
+        long write(Iterator<Object[]> rows, OutputStream out) throws IOException;
+    }
+
+    private StreamingResponseBody export(String format, RowsWriter writer) {
+        return out -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    long start = System.currentTimeMillis();
+                    long rows;
+                    try (Stream<Object[]> stream = evaluationRepository.streamExportRows()) {
+                        rows = writer.write(stream.iterator(), out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    logger.info("Export {} des évaluations terminé: {} lignes en {} ms", format, rows,
+                            System.currentTimeMillis() - start);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private long writeCsv(Iterator<Object[]> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = csvMapper.writer(csvSchema).writeValues(out)) {
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                for (int i = 0; i < row.length; i++) {
+                    // Un null dans un tableau serait omis par le générateur CSV, décalant les colonnes
+                    if (row[i] == null) {
+                        row[i] = "";
+                    } else if (row[i] instanceof LocalDate date) {
+                        row[i] = date.toString();
+                    }
+                }
+                writer.write(row);
+                if (++count % CHUNK_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeXlsx(Iterator<Object[]> rows, OutputStream out) throws IOException {
+        // close() supprime aussi les fichiers temporaires des lignes sorties de la fenêtre
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW)) {
+            workbook.setCompressTempFiles(true);
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+
+            // Au-delà du maximum d'une feuille (1 048 576 lignes), la suite va sur une nouvelle feuille
+            int maxRows = SpreadsheetVersion.EXCEL2007.getMaxRows();
+            SXSSFSheet sheet = null;
+            int rowIndex = maxRows;
+            long count = 0;
+            while (rows.hasNext()) {
+                if (rowIndex == maxRows) {
+                    sheet = workbook.createSheet("evaluations" + (workbook.getNumberOfSheets() == 0
+                            ? "" : "-" + (workbook.getNumberOfSheets() + 1)));
+                    writeHeader(sheet.createRow(0), headerStyle);
+                    rowIndex = 1;
+                }
+                Object[] values = rows.next();
+                Row row = sheet.createRow(rowIndex++);
+                for (int i = 0; i < values.length; i++) {
+                    setCell(row.createCell(i), values[i], dateStyle);
+                }
+                count++;
+            }
+            if (sheet == null) {
+                writeHeader(workbook.createSheet("evaluations").createRow(0), headerStyle);
+            }
+            workbook.write(out);
+            return count;
+        }
+    }
+
+    private static void writeHeader(Row row, CellStyle style) {
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(COLUMNS.get(i));
+            cell.setCellStyle(style);
+        }
+    }
+
+    private static void setCell(Cell cell, Object value, CellStyle dateStyle) {
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else if (value instanceof LocalDate date) {
+            cell.setCellValue(date);
+            cell.setCellStyle(dateStyle);
+        } else if (value != null) {
+            cell.setCellValue(value.toString());
+        }
+    }
+}
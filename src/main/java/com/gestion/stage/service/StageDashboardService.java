@@ -0,0 +1,114 @@
+package com.gestion.stage.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.dto.StageDashboardDTO;
+import com.gestion.stage.dto.StageDashboardDTO.CategorieScore;
+import com.gestion.stage.dto.StageDashboardDTO.CompetenceEvaluation;
+import com.gestion.stage.dto.StageDashboardDTO.PeriodeInfo;
+import com.gestion.stage.dto.StageDashboardDTO.StagiaireInfo;
+import com.gestion.stage.dto.StageDashboardDTO.TuteurInfo;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.PeriodeCategorieScoreRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.StageRepository;
+
+/**
+ * Construit le tableau de bord d'un stage en quatre requêtes de projection (en-tête,
+ * périodes, évaluations de la période, scores de la période), sans charger d'entités :
+ * le coût ne dépend que des lignes du stage, pas de la taille des tables.
+ */
+@Service
+public class StageDashboardService {
+
+    private final StageRepository stageRepository;
+    private final PeriodeRepository periodeRepository;
+    private final AppreciationRepository appreciationRepository;
+    private final PeriodeCategorieScoreRepository scoreRepository;
+
+    @Autowired
+    public StageDashboardService(StageRepository stageRepository,
+                                 PeriodeRepository periodeRepository,
+                                 AppreciationRepository appreciationRepository,
+                                 PeriodeCategorieScoreRepository scoreRepository) {
+        this.stageRepository = stageRepository;
+        this.periodeRepository = periodeRepository;
+        this.appreciationRepository = appreciationRepository;
+        this.scoreRepository = scoreRepository;
+    }
+
+    /**
+     * @param stageId le stage
+     * @param periodeId la période à afficher ; la première période du stage si nul
+     */
+    @Transactional(readOnly = true)
+    public StageDashboardDTO getDashboard(Long stageId, Long periodeId) {
+        List<Object[]> header = stageRepository.findDashboardHeader(stageId);
+        if (header.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stage non trouvé avec l'ID: " + stageId);
+        }
+        StageDashboardDTO dashboard = header(header.get(0));
+
+        for (Object[] row : periodeRepository.findDatesByStageId(stageId)) {
+            PeriodeInfo periode = new PeriodeInfo((Long) row[0], (LocalDate) row[1], (LocalDate) row[2]);
+            dashboard.getPeriodes().add(periode);
+            if (periodeId == null ? dashboard.getPeriode() == null : periodeId.equals(periode.getId())) {
+                dashboard.setPeriode(periode);
+            }
+        }
+        if (dashboard.getPeriode() == null) {
+            if (periodeId != null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Période " + periodeId + " non trouvée pour le stage " + stageId);
+            }
+            return dashboard;
+        }
+
+        Long selected = dashboard.getPeriode().getId();
+        Map<Long, CategorieScore> categories = new LinkedHashMap<>();
+        for (Object[] row : appreciationRepository.findDashboardRows(selected)) {
+            Long categorieId = (Long) row[2];
+            if (categorieId != null) {
+                categories.computeIfAbsent(categorieId,
+                        id -> new CategorieScore(id, (String) row[3], null, (Double) row[4]));
+            }
+            // Le critère de l'évaluation tient lieu d'intitulé si la compétence a disparu
+            String intitule = row[1] != null ? (String) row[1] : (String) row[7];
+            dashboard.getCompetences().add(new CompetenceEvaluation((Long) row[0], intitule, categorieId,
+                    (Long) row[5], (Double) row[6], (String) row[8]));
+        }
+        for (Object[] row : scoreRepository.findByPeriodeId(selected)) {
+            categories.computeIfAbsent((Long) row[0],
+                    id -> new CategorieScore(id, (String) row[1], null, (Double) row[2]))
+                    .setScore((Double) row[3]);
+        }
+        dashboard.getCategories().addAll(categories.values());
+        return dashboard;
+    }
+
+    private static StageDashboardDTO header(Object[] row) {
+        StageDashboardDTO dashboard = new StageDashboardDTO();
+        dashboard.setId((Long) row[0]);
+        dashboard.setDescription((String) row[1]);
+        dashboard.setObjectif((String) row[2]);
+        dashboard.setEntreprise((String) row[3]);
+        if (row[4] != null) {
+            dashboard.setStagiaire(new StagiaireInfo((Long) row[4], (String) row[5], (String) row[6],
+                    (String) row[7], (String) row[8]));
+        }
+        if (row[9] != null) {
+            dashboard.setTuteur(new TuteurInfo((Long) row[9], (String) row[10], (String) row[11],
+                    (String) row[12], (String) row[13]));
+        }
+        return dashboard;
+    }
+}
@@ -0,0 +1,468 @@
+package com.gestion.stage.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.dto.CompetencyDetailDTO;
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Categorie;
+import com.gestion.stage.model.Competences;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.PeriodeCategorieScore;
+import com.gestion.stage.model.PeriodeCompetenceScore;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.PeriodeCategorieScoreRepository;
+import com.gestion.stage.repository.PeriodeCompetenceScoreRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+
+/**
+ * Enregistre un formulaire d'évaluation complet (StageCreateDTO) : stage, période,
+ * évaluations et appréciations, dans une seule transaction.
+ * <p>
+ * Les entités sont seulement rendues persistantes pendant le traitement ; Hibernate
+ * les écrit au commit par lots JDBC (identifiants alloués par séquence, voir
+ * hibernate.jdbc.batch_size dans application.properties). Les catégories et compétences
+ * sont résolues par {@link CatalogCache}, sans requête sur le catalogue, et les
+ * personnes par {@link PersonneResolver}.
+ * <p>
+ * Un formulaire n'écrit aucune ligne partagée du catalogue : ses scores de catégorie et
+ * ses notes de compétence sont insérés comme lignes propres à la période, puis cumulés
+ * par {@link CategorieScoreService} et {@link CompetenceScoreService}.
+ */
+@Service
+public class StageFormService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageFormService.class);
+
+    public static final String APPRECIATIONS_GENERALES = "Appréciations Générales";
+    public static final String COMPETENCES_INDIVIDU = "Compétences liées à l'individu";
+    public static final String COMPETENCES_ENTREPRISE = "Compétences liées à l'entreprise";
+    public static final String COMPETENCES_TECHNIQUES = "Compétences Scientifiques et Techniques";
+    public static final String COMPETENCES_METIER = "Compétences Spécifiques Métier";
+
+    private final StageRepository stageRepository;
+    private final PeriodeRepository periodeRepository;
+    private final StagiaireRepository stagiaireRepository;
+    private final TuteurRepository tuteurRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final AppreciationRepository appreciationRepository;
+    private final CategorieRepository categorieRepository;
+    private final CompetencesRepository competencesRepository;
+    private final PeriodeCategorieScoreRepository periodeCategorieScoreRepository;
+    private final PeriodeCompetenceScoreRepository periodeCompetenceScoreRepository;
+    private final CatalogCache catalogCache;
+    private final PersonneResolver personneResolver;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public StageFormService(StageRepository stageRepository,
+                            PeriodeRepository periodeRepository,
+                            StagiaireRepository stagiaireRepository,
+                            TuteurRepository tuteurRepository,
+                            EvaluationRepository evaluationRepository,
+                            AppreciationRepository appreciationRepository,
+                            CategorieRepository categorieRepository,
+                            CompetencesRepository competencesRepository,
+                            PeriodeCategorieScoreRepository periodeCategorieScoreRepository,
+                            PeriodeCompetenceScoreRepository periodeCompetenceScoreRepository,
+                            CatalogCache catalogCache,
+                            PersonneResolver personneResolver,
+                            TransactionTemplate transactionTemplate) {
+        this.stageRepository = stageRepository;
+        this.periodeRepository = periodeRepository;
+        this.stagiaireRepository = stagiaireRepository;
+        this.tuteurRepository = tuteurRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.appreciationRepository = appreciationRepository;
+        this.categorieRepository = categorieRepository;
+        this.competencesRepository = competencesRepository;
+        this.periodeCategorieScoreRepository = periodeCategorieScoreRepository;
+        this.periodeCompetenceScoreRepository = periodeCompetenceScoreRepository;
+        this.catalogCache = catalogCache;
+        this.personneResolver = personneResolver;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public Stage createStageFromDTO(StageCreateDTO stageCreateDTO) {
+        return createStagesFromDTOs(List.of(stageCreateDTO)).get(0);
+    }
+
+    /**
+     * Enregistre plusieurs formulaires dans une même transaction. Les stagiaires et tuteurs
+     * sont résolus au préalable par {@link PersonneResolver} (les nouveaux sont alors créés
+     * et validés), puis les formulaires sont écrits ; si l'un d'eux est invalide, toute
+     * cette écriture est annulée et les personnes créées pour l'occasion sont supprimées.
+     */
+    public List<Stage> createStagesFromDTOs(List<StageCreateDTO> stageCreateDTOs) {
+        stageCreateDTOs.forEach(StageFormService::checkDates);
+        Map<String, Long> stagiaireIds = new HashMap<>();
+        Map<String, Long> tuteurIds = new HashMap<>();
+        List<Long> createdStagiaires = new ArrayList<>();
+        List<Long> createdTuteurs = new ArrayList<>();
+        try {
+            for (StageCreateDTO form : stageCreateDTOs) {
+                Long stagiaireId = personneResolver.stagiaireId(form.getStudentName(), form.getStudentEmail(),
+                                                                form.getStagiaireInstitution(), createdStagiaires);
+                stagiaireIds.put(emailKey(form.getStudentEmail()), stagiaireId);
+                Long tuteurId = personneResolver.tuteurId(form.getTutorName(), form.getTutorEmail(),
+                                                          form.getEntreprise(), createdTuteurs);
+                tuteurIds.put(emailKey(form.getTutorEmail()), tuteurId);
+            }
+
+            return transactionTemplate.execute(tx -> {
+                FormBatch batch = new FormBatch(stagiaireIds, tuteurIds);
+                List<Stage> stages = new ArrayList<>(stageCreateDTOs.size());
+                for (StageCreateDTO stageCreateDTO : stageCreateDTOs) {
+                    stages.add(batch.write(stageCreateDTO));
+                }
+                batch.flush();
+                return stages;
+            });
+        } catch (RuntimeException e) {
+            createdStagiaires.forEach(personneResolver::discardStagiaire);
+            createdTuteurs.forEach(personneResolver::discardTuteur);
+            throw e;
+        }
+    }
+
+    /**
+     * Contrôles du formulaire qui ne dépendent pas de la base, faits avant toute écriture
+     * (et avant la mise en file en mode asynchrone).
+     */
+    public static void checkDates(StageCreateDTO stageCreateDTO) {
+        if (stageCreateDTO.getDateDebut() == null || stageCreateDTO.getDateFin() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Les dates de début et de fin sont obligatoires.");
+        }
+        if (stageCreateDTO.getDateDebut().isAfter(stageCreateDTO.getDateFin())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La date de début ne peut pas être après la date de fin.");
+        }
+    }
+
+    /**
+     * Convertit un niveau de compétence du formulaire en note sur 20.
+     */
+    static int competencyLevelToNumeric(String level) {
+        if (level == null) {
+            return 0;
+        }
+        switch (level.toUpperCase()) {
+            case "NA": return 0;
+            case "DEBUTANT": return 8;
+            case "AUTONOME": return 14;
+            case "AUTONOME +":
+            case "AUTONOME+":
+                return 18;
+            default: return 0;
+        }
+    }
+
+    /**
+     * Niveau du formulaire correspondant à une note sur 20 (inverse de
+     * {@link #competencyLevelToNumeric(String)}), null pour une autre note.
+     */
+    static String numericToCompetencyLevel(Double note) {
+        if (note == null || note % 1 != 0) {
+            return null;
+        }
+        switch (note.intValue()) {
+            case 0: return "NA";
+            case 8: return "DEBUTANT";
+            case 14: return "AUTONOME";
+            case 18: return "AUTONOME +";
+            default: return null;
+        }
+    }
+
+    /**
+     * Moyenne des niveaux renseignés d'une catégorie de compétences (0 si aucun).
+     */
+    static double averageLevel(Map<String, CompetencyDetailDTO> competenciesMap) {
+        double sum = 0;
+        int numCompetencies = 0;
+        for (CompetencyDetailDTO detail : competenciesMap.values()) {
+            if (detail != null && detail.getLevel() != null) {
+                sum += competencyLevelToNumeric(detail.getLevel());
+                numCompetencies++;
+            }
+        }
+        return (numCompetencies > 0) ? (sum / numCompetencies) : 0.0;
+    }
+
+    /**
+     * Moyenne des notes générales renseignées (0 si aucune).
+     */
+    static double averageNote(Double... notes) {
+        double sum = 0;
+        int count = 0;
+        for (Double note : notes) {
+            if (note != null) {
+                sum += note;
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    /**
+     * Clé de recherche d'une personne : la colonne email est comparée sans tenir compte
+     * de la casse par MySQL, la clé en mémoire doit faire de même.
+     */
+    static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Contexte d'écriture d'un ou plusieurs formulaires : personnes déjà résolues,
+     * catalogue utilisé et entités à écrire en fin de lot.
+     */
+    private final class FormBatch {
+        private final Map<String, Long> stagiaireIds;
+        private final Map<String, Long> tuteurIds;
+        private final Map<String, CategorieRef> categories = new HashMap<>();
+        private final Map<CatalogCache.CompetenceKey, CompetenceRef> competences = new HashMap<>();
+        private final List<Evaluation> evaluations = new ArrayList<>();
+        private final List<Appreciation> appreciations = new ArrayList<>();
+        private final List<PeriodeCategorieScore> scores = new ArrayList<>();
+        private final List<PeriodeCompetenceScore> competenceScores = new ArrayList<>();
+
+        FormBatch(Map<String, Long> stagiaireIds, Map<String, Long> tuteurIds) {
+            this.stagiaireIds = stagiaireIds;
+            this.tuteurIds = tuteurIds;
+        }
+
+        Stage write(StageCreateDTO stageCreateDTO) {
+            // Personnes déjà résolues : de simples références, sans requête
+            Stagiaire stagiaire = stagiaireRepository.getReferenceById(stagiaireIds.get(emailKey(stageCreateDTO.getStudentEmail())));
+            Tuteur tuteur = tuteurRepository.getReferenceById(tuteurIds.get(emailKey(stageCreateDTO.getTutorEmail())));
+
+            Stage stage = new Stage();
+            stage.setDescription(stageCreateDTO.getDescription());
+            stage.setObjectif(stageCreateDTO.getObjectif());
+            stage.setEntreprise(stageCreateDTO.getEntreprise());
+            stage.setStagiaire(stagiaire);
+            stage.setTuteur(tuteur);
+            Stage savedStage = stageRepository.save(stage);
+
+            Periode periode = new Periode();
+            periode.setStage(savedStage);
+            periode.setDateDebut(stageCreateDTO.getDateDebut());
+            periode.setDateFin(stageCreateDTO.getDateFin());
+            periode.setStagiaire(stagiaire);
+            periode.setTuteur(tuteur);
+            Periode savedPeriode = periodeRepository.save(periode);
+
+            int before = appreciations.size();
+            addGeneralAppreciation("Implication dans ses activités", stageCreateDTO.getImplicationNote(), savedPeriode, tuteur);
+            addGeneralAppreciation("Ouverture aux autres", stageCreateDTO.getOuvertureNote(), savedPeriode, tuteur);
+            addGeneralAppreciation("Qualité du travail", stageCreateDTO.getQualiteTravailNote(), savedPeriode, tuteur);
+
+            addCompetencyCategory(COMPETENCES_INDIVIDU, stageCreateDTO.getIndividualCompetencies(), stageCreateDTO.getIndividualScore(), savedPeriode, tuteur);
+            addCompetencyCategory(COMPETENCES_ENTREPRISE, stageCreateDTO.getCompanyCompetencies(), stageCreateDTO.getCompanyScore(), savedPeriode, tuteur);
+            addCompetencyCategory(COMPETENCES_TECHNIQUES, stageCreateDTO.getTechnicalCompetencies(), stageCreateDTO.getTechnicalScore(), savedPeriode, tuteur);
+            addCompetencyCategory(COMPETENCES_METIER, stageCreateDTO.getSpecificJobCompetencies(), null, savedPeriode, tuteur);
+
+            if (stageCreateDTO.getImplicationNote() != null || stageCreateDTO.getOuvertureNote() != null
+                    || stageCreateDTO.getQualiteTravailNote() != null) {
+                double average = averageNote(stageCreateDTO.getImplicationNote(),
+                                             stageCreateDTO.getOuvertureNote(),
+                                             stageCreateDTO.getQualiteTravailNote());
+                addScore(categorie(APPRECIATIONS_GENERALES, average), average, savedPeriode);
+                logger.debug("Score '{}' de la période: {}", APPRECIATIONS_GENERALES, average);
+            }
+
+            logger.debug("Saved Periode with ID: {} ({} appréciations)", savedPeriode.getId(), appreciations.size() - before);
+            return savedStage;
+        }
+
+        /**
+         * Rend persistantes les évaluations, appréciations et scores par période accumulés ;
+         * Hibernate les insère par lots au commit. Les catégories et compétences existantes
+         * ne sont pas modifiées ici : voir {@link CategorieScoreService} et
+         * {@link CompetenceScoreService}.
+         */
+        void flush() {
+            evaluationRepository.saveAll(evaluations);
+            appreciationRepository.saveAll(appreciations);
+            periodeCategorieScoreRepository.saveAll(scores);
+            periodeCompetenceScoreRepository.saveAll(competenceScores);
+
+            for (CategorieRef ref : categories.values()) {
+                if (ref.created) {
+                    catalogCache.putCategorieAfterCommit(new CatalogCache.CategorieEntry(ref.id, ref.intitule, ref.entity.getValeur()));
+                }
+            }
+            for (CompetenceRef ref : competences.values()) {
+                if (ref.created) {
+                    catalogCache.putCompetenceAfterCommit(ref.categorie.intitule,
+                            new CatalogCache.CompetenceEntry(ref.id, ref.categorie.id, ref.intitule, ref.entity.getNote()));
+                }
+            }
+        }
+
+        private CategorieRef categorie(String intitule, double valeurInitiale) {
+            return categories.computeIfAbsent(intitule, name -> catalogCache.categorie(name)
+                    .map(entry -> new CategorieRef(categorieRepository.getReferenceById(entry.id()), entry.id(), name, false))
+                    .orElseGet(() -> {
+                        Categorie newCat = new Categorie();
+                        newCat.setIntitule(name);
+                        newCat.setValeur(valeurInitiale);
+                        newCat = categorieRepository.save(newCat);
+                        return new CategorieRef(newCat, newCat.getId(), name, true);
+                    }));
+        }
+
+        private CompetenceRef competence(String intitule, CategorieRef categorie, Double note) {
+            return competences.computeIfAbsent(
+                    new CatalogCache.CompetenceKey(categorie.intitule, intitule),
+                    key -> catalogCache.competence(categorie.intitule, intitule)
+                            .map(entry -> new CompetenceRef(competencesRepository.getReferenceById(entry.id()), entry.id(),
+                                    categorie, intitule, false))
+                            .orElseGet(() -> {
+                                Competences newComp = new Competences();
+                                newComp.setIntitule(intitule);
+                                newComp.setNote(note);
+                                newComp.setCategorie(categorie.entity);
+                                newComp = competencesRepository.save(newComp);
+                                return new CompetenceRef(newComp, newComp.getId(), categorie, intitule, true);
+                            }));
+        }
+
+        private void addGeneralAppreciation(String competenceIntitule, Double note, Periode periode, Tuteur tuteur) {
+            if (note == null) {
+                return;
+            }
+            CategorieRef categorie = categorie(APPRECIATIONS_GENERALES, note);
+
+            Evaluation evaluation = new Evaluation();
+            evaluation.setCategorieStr(competenceIntitule);
+            evaluation.setValeur(note);
+
+            add(evaluation, competence(competenceIntitule, categorie, note), periode, tuteur);
+        }
+
+        private void addCompetencyCategory(String categoryName,
+                                           Map<String, CompetencyDetailDTO> competenciesMap,
+                                           @Nullable Integer globalCategoryScore,
+                                           Periode periode,
+                                           Tuteur tuteur) {
+            Double globalScore = null;
+            if (globalCategoryScore != null) {
+                globalScore = globalCategoryScore.doubleValue();
+            } else if (COMPETENCES_METIER.equals(categoryName) && competenciesMap != null && !competenciesMap.isEmpty()) {
+                globalScore = averageLevel(competenciesMap);
+                logger.debug("Calculated average score for '{}': {}", categoryName, globalScore);
+            }
+
+            CategorieRef mainCategorie = categorie(categoryName, globalScore != null ? globalScore : 0.0);
+            if (globalScore != null) {
+                addScore(mainCategorie, globalScore, periode);
+            }
+
+            if (competenciesMap == null || competenciesMap.isEmpty()) {
+                logger.debug("Aucune compétence détaillée fournie pour la catégorie: {}", categoryName);
+                return;
+            }
+
+            for (Map.Entry<String, CompetencyDetailDTO> entry : competenciesMap.entrySet()) {
+                String competenceIntitule = entry.getKey();
+                CompetencyDetailDTO detail = entry.getValue();
+                if (detail == null) {
+                    logger.warn("CompetencyDetailDTO is null for competence: {} in category: {}", competenceIntitule, categoryName);
+                    continue;
+                }
+                Double numericNote = (double) competencyLevelToNumeric(detail.getLevel());
+
+                Evaluation evaluation = new Evaluation();
+                evaluation.setValeur(numericNote);
+                evaluation.setCategorieStr(competenceIntitule);
+                evaluation.setCommentaire(detail.getComment());
+
+                add(evaluation, competence(competenceIntitule, mainCategorie, numericNote), periode, tuteur);
+            }
+        }
+
+        private void addScore(CategorieRef categorie, double score, Periode periode) {
+            PeriodeCategorieScore periodeScore = new PeriodeCategorieScore();
+            periodeScore.setPeriode(periode);
+            periodeScore.setCategorie(categorie.entity);
+            periodeScore.setScore(score);
+            scores.add(periodeScore);
+        }
+
+        private void add(Evaluation evaluation, CompetenceRef competence, Periode periode, Tuteur tuteur) {
+            Appreciation appreciation = new Appreciation();
+            appreciation.setPeriode(periode);
+            appreciation.setTuteur(tuteur);
+            appreciation.setEvaluation(evaluation);
+            appreciation.setCompetences(competence.entity);
+            evaluations.add(evaluation);
+            appreciations.add(appreciation);
+
+            PeriodeCompetenceScore competenceScore = new PeriodeCompetenceScore();
+            competenceScore.setPeriode(periode);
+            competenceScore.setCompetences(competence.entity);
+            competenceScore.setScore(evaluation.getValeur());
+            competenceScores.add(competenceScore);
+        }
+    }
+
+    /**
+     * Catégorie utilisée par un lot : entité nouvelle ou simple référence vers une ligne
+     * existante.
+     */
+    private static final class CategorieRef {
+        private final Categorie entity;
+        private final Long id;
+        private final String intitule;
+        private final boolean created;
+
+        CategorieRef(Categorie entity, Long id, String intitule, boolean created) {
+            this.entity = entity;
+            this.id = id;
+            this.intitule = intitule;
+            this.created = created;
+        }
+    }
+
+    /**
+     * Compétence utilisée par un lot, sur le même principe que {@link CategorieRef}.
+     */
+    private static final class CompetenceRef {
+        private final Competences entity;
+        private final Long id;
+        private final CategorieRef categorie;
+        private final String intitule;
+        private final boolean created;
+
+        CompetenceRef(Competences entity, Long id, CategorieRef categorie, String intitule, boolean created) {
+            this.entity = entity;
+            this.id = id;
+            this.categorie = categorie;
+            this.intitule = intitule;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.gestion.stage.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.gestion.stage.dto.ImportReportDTO;
+import com.gestion.stage.dto.StageCreateDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Import en masse de formulaires d'évaluation (StageCreateDTO) au format NDJSON ou CSV.
+ * <p>
+ * Le corps de la requête est lu en flux, un enregistrement à la fois ; seuls les
+ * formulaires du lot en cours sont gardés en mémoire. Chaque lot est enregistré dans
+ * sa propre transaction via {@link StageFormService#createStagesFromDTOs(List)}, puis
+ * le contexte de persistance est vidé. Si un lot échoue, ses formulaires sont rejoués
+ * un par un pour isoler les lignes en erreur.
+ * <p>
+ * En CSV, les colonnes portent les noms des champs du DTO ; les compétences détaillées
+ * sont des colonnes {@code individualCompetencies.<intitulé>} (ou company, technical,
+ * specificJob) dont la valeur est {@code NIVEAU} ou {@code NIVEAU|commentaire}.
+ */
+@Service
+public class StageImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageImportService.class);
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    static final int MAX_CHUNK_SIZE = 5000;
+
+    private static final Set<String> COMPETENCY_MAPS = Set.of("individualCompetencies", "companyCompetencies",
+            "technicalCompetencies", "specificJobCompetencies");
+
+    private final StageFormService stageFormService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader ndjsonReader;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final Validator validator;
+    private final int defaultChunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public StageImportService(StageFormService stageFormService,
+                              ObjectMapper objectMapper,
+                              Validator validator,
+                              @Value("${gestion.import.chunk-size:200}") int defaultChunkSize) {
+        this.stageFormService = stageFormService;
+        this.objectMapper = objectMapper;
+        // Le flux sert à plusieurs analyseurs successifs (voir readNdjson) : il n'est pas fermé avec eux
+        this.ndjsonReader = objectMapper.readerFor(StageCreateDTO.class)
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        this.validator = validator;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    public ImportReportDTO importForms(InputStream body, MediaType contentType, Integer chunkSize) throws IOException {
+        int size = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (size < 1 || size > MAX_CHUNK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "La taille de lot doit être comprise entre 1 et " + MAX_CHUNK_SIZE + ".");
+        }
+
+        long start = System.currentTimeMillis();
+        ChunkWriter writer = new ChunkWriter(size);
+        Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+        if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(CSV_VALUE))) {
+            readCsv(reader, writer);
+        } else {
+            readNdjson(reader, writer);
+        }
+        writer.flush();
+
+        ImportReportDTO report = writer.report;
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        logger.info("Import terminé: {} enregistrements, {} importés, {} en erreur, {} lots en {} ms",
+                report.getTotalRecords(), report.getImported(), report.getFailed(), report.getChunks(),
+                report.getDurationMillis());
+        return report;
+    }
+
+    /**
+     * Un seul analyseur pour tout le flux, comme en CSV. Après une ligne invalide, la lecture
+     * reprend à la ligne suivante avec un nouvel analyseur sur le même {@link NdjsonLines}.
+     */
+    private void readNdjson(Reader reader, ChunkWriter writer) throws IOException {
+        NdjsonLines lines = new NdjsonLines(reader);
+        long firstLine = 1;
+        while (firstLine > 0) {
+            try (MappingIterator<StageCreateDTO> forms = ndjsonReader.readValues(lines)) {
+                firstLine = readForms(forms, firstLine - 1, lines, writer);
+            }
+        }
+    }
+
+    /**
+     * Lit les formulaires jusqu'à la fin du flux (renvoie 0) ou jusqu'à la première ligne
+     * invalide, rejetée ; renvoie alors le numéro de la ligne suivante, où reprendre.
+     */
+    private long readForms(MappingIterator<StageCreateDTO> forms, long lineOffset, NdjsonLines lines,
+                           ChunkWriter writer) throws IOException {
+        while (true) {
+            long lineNumber = 0;
+            try {
+                if (!forms.hasNextValue()) {
+                    return 0;
+                }
+                lineNumber = lineOffset + forms.getCurrentLocation().getLineNr();
+                lines.forgetBefore(lineNumber);
+                StageCreateDTO form = forms.nextValue();
+                writer.accept(lineNumber, form);
+            } catch (JsonProcessingException e) {
+                if (lineNumber == 0) {
+                    // Rien de lisible avant l'erreur : c'est la ligne où l'analyseur s'est arrêté
+                    lineNumber = lineOffset + forms.getCurrentLocation().getLineNr();
+                }
+                writer.reject(lineNumber, "JSON invalide: " + e.getOriginalMessage());
+                lines.resumeAfter(lineNumber);
+                return lineNumber + 1;
+            }
+        }
+    }
+
+    private void readCsv(Reader reader, ChunkWriter writer) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class).with(schema).readValues(reader)) {
+            while (true) {
+                long lineNumber = rows.getCurrentLocation().getLineNr();
+                Map<String, String> row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    lineNumber = rows.getCurrentLocation().getLineNr();
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    writer.reject(lineNumber, "Ligne CSV invalide: " + e.getOriginalMessage());
+                    continue;
+                }
+                try {
+                    writer.accept(lineNumber, objectMapper.treeToValue(csvRowToTree(row), StageCreateDTO.class));
+                } catch (JsonProcessingException e) {
+                    writer.reject(lineNumber, "Valeur invalide: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private ObjectNode csvRowToTree(Map<String, String> row) {
+        ObjectNode node = objectMapper.createObjectNode();
+        for (Map.Entry<String, String> column : row.entrySet()) {
+            String name = column.getKey().trim();
+            String value = column.getValue();
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            int dot = name.indexOf('.');
+            if (dot > 0 && COMPETENCY_MAPS.contains(name.substring(0, dot))) {
+                String[] levelAndComment = value.split("\\|", 2);
+                ObjectNode detail = node.withObjectProperty(name.substring(0, dot)).putObject(name.substring(dot + 1));
+                detail.put("level", levelAndComment[0].trim());
+                if (levelAndComment.length > 1) {
+                    detail.put("comment", levelAndComment[1].trim());
+                }
+            } else {
+                node.put(name, value.trim());
+            }
+        }
+        return node;
+    }
+
+    static String message(Exception e) {
+        if (e instanceof ResponseStatusException rse) {
+            return rse.getReason();
+        }
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private record ParsedForm(long line, StageCreateDTO form) {
+    }
+
+    private record NumberedLine(long number, String text) {
+    }
+
+    /**
+     * Rend le flux NDJSON une ligne au plus par appel à read() : l'analyseur ne lit pas
+     * au-delà de l'enregistrement en cours tant qu'il n'en a pas besoin. Les lignes lues
+     * depuis le début de l'enregistrement en cours sont gardées, pour être relues si celui-ci
+     * est invalide (un objet non fermé fait lire la ligne suivante à l'analyseur).
+     */
+    private static final class NdjsonLines extends Reader {
+        private final BufferedReader source;
+        private final Deque<NumberedLine> read = new ArrayDeque<>();
+        private final Deque<NumberedLine> replay = new ArrayDeque<>();
+        private String current = "";
+        private int position;
+        private long lineNumber;
+
+        NdjsonLines(Reader source) {
+            this.source = new BufferedReader(source);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (position == current.length()) {
+                NumberedLine next = replay.pollFirst();
+                if (next == null) {
+                    String text = source.readLine();
+                    if (text == null) {
+                        return -1;
+                    }
+                    next = new NumberedLine(lineNumber + 1, text);
+                }
+                lineNumber = next.number();
+                read.addLast(next);
+                current = next.text() + "\n";
+                position = 0;
+            }
+            int count = Math.min(length, current.length() - position);
+            current.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        /** Oublie les lignes avant celle où commence l'enregistrement en cours. */
+        void forgetBefore(long line) {
+            while (!read.isEmpty() && read.peekFirst().number() < line) {
+                read.pollFirst();
+            }
+        }
+
+        /** Abandonne la ligne invalide et fait relire celles déjà lues après elle. */
+        void resumeAfter(long line) {
+            while (!read.isEmpty()) {
+                NumberedLine last = read.pollLast();
+                if (last.number() > line) {
+                    replay.addFirst(last);
+                }
+            }
+            current = "";
+            position = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+
+    /**
+     * Accumule les formulaires valides et les enregistre par lots.
+     */
+    private final class ChunkWriter {
+        private final int chunkSize;
+        private final List<ParsedForm> chunk;
+        private final ImportReportDTO report = new ImportReportDTO();
+
+        ChunkWriter(int chunkSize) {
+            this.chunkSize = chunkSize;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        void accept(long line, StageCreateDTO form) {
+            report.setTotalRecords(report.getTotalRecords() + 1);
+            Set<ConstraintViolation<StageCreateDTO>> violations = validator.validate(form);
+            if (!violations.isEmpty()) {
+                report.addError(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            chunk.add(new ParsedForm(line, form));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            report.setTotalRecords(report.getTotalRecords() + 1);
+            report.addError(line, message);
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            report.setChunks(report.getChunks() + 1);
+            try {
+                stageFormService.createStagesFromDTOs(chunk.stream().map(ParsedForm::form).toList());
+                report.setImported(report.getImported() + chunk.size());
+            } catch (Exception e) {
+                logger.warn("Échec du lot {} ({}), reprise formulaire par formulaire", report.getChunks(), message(e));
+                entityManager.clear();
+                for (ParsedForm parsed : chunk) {
+                    try {
+                        stageFormService.createStageFromDTO(parsed.form());
+                        report.setImported(report.getImported() + 1);
+                    } catch (Exception ex) {
+                        entityManager.clear();
+                        report.addError(parsed.line(), message(ex));
+                    }
+                }
+            }
+            // Les entités du lot ne servent plus : le contexte de persistance (ouvert pour
+            // toute la requête) est vidé pour garder une mémoire constante.
+            entityManager.clear();
+            chunk.clear();
+        }
+    }
+}
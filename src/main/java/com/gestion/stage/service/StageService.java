@@ -2,33 +2,56 @@ package com.gestion.stage.service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import com.gestion.stage.model.Periode;
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Stage;
 import com.gestion.stage.model.Stagiaire;
-import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.Specs;
 import com.gestion.stage.repository.StageRepository;
 
 @Service
 public class StageService {
 
+    static final Set<String> SORTABLE = Set.of("id", "entreprise");
+
     private final StageRepository stageRepository;
-    private final PeriodeRepository periodeRepository;
+    private final KeysetPagination keysetPagination;
 
     @Autowired
-    public StageService(StageRepository stageRepository, PeriodeRepository periodeRepository) {
+    public StageService(StageRepository stageRepository, KeysetPagination keysetPagination) {
         this.stageRepository = stageRepository;
-        this.periodeRepository = periodeRepository;
+        this.keysetPagination = keysetPagination;
     }
 
     public List<Stage> getAllStages() {
         return stageRepository.findAll();
     }
 
+    /**
+     * Tous les stages, lus en flux pour l'export NDJSON : à consommer dans une transaction, puis fermer.
+     */
+    public Stream<Stage> streamAllStages() {
+        return stageRepository.streamAll();
+    }
+
+    /**
+     * Page de la liste, triée et filtrée (filtres nuls ignorés).
+     */
+    public CursorPage<Stage> getStagesPage(PageQuery page, String entreprise, Long stagiaireId, Long tuteurId) {
+        Specification<Stage> filter = Specification.allOf(
+                Specs.equal("entreprise", entreprise),
+                Specs.hasId("stagiaire", stagiaireId),
+                Specs.hasId("tuteur", tuteurId));
+        return keysetPagination.page(stageRepository, filter, page, SORTABLE, Stage.WITH_PERSONNES);
+    }
+
     public Optional<Stage> getStageById(Long id) {
         return stageRepository.findById(id);
     }
@@ -37,15 +60,11 @@ public class StageService {
         return stageRepository.existsById(id);
     }
 
+    /**
+     * Stages du stagiaire, liés directement ou par ses périodes, sans doublon (une requête).
+     */
     public List<Stage> getStagesByStagiaire(Stagiaire stagiaire) {
-        // Récupérer les périodes du stagiaire
-        List<Periode> periodes = periodeRepository.findByStagiaire(stagiaire);
-
-        // Extraire et retourner les stages uniques associés à ces périodes
-        return periodes.stream()
-                .map(Periode::getStage)
-                .distinct()
-                .collect(Collectors.toList());
+        return stageRepository.findByStagiaireDirectOrPeriode(stagiaire.getId());
     }
 
     public List<Stage> getStagesByEntreprise(String entreprise) {
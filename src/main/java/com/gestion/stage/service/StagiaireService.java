@@ -2,27 +2,48 @@ package com.gestion.stage.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.repository.Specs;
 import com.gestion.stage.repository.StagiaireRepository;
 
 @Service
 public class StagiaireService {
 
+    static final Set<String> SORTABLE = Set.of("id", "nom", "prenom", "email", "institution");
+
     private final StagiaireRepository stagiaireRepository;
+    private final PersonneResolver personneResolver;
+    private final KeysetPagination keysetPagination;
 
     @Autowired
-    public StagiaireService(StagiaireRepository stagiaireRepository) {
+    public StagiaireService(StagiaireRepository stagiaireRepository, PersonneResolver personneResolver, KeysetPagination keysetPagination) {
         this.stagiaireRepository = stagiaireRepository;
+        this.personneResolver = personneResolver;
+        this.keysetPagination = keysetPagination;
     }
 
     public List<Stagiaire> getAllStagiaires() {
         return stagiaireRepository.findAll();
     }
 
+    /**
+     * Page de la liste, triée et filtrée (filtres nuls ignorés).
+     */
+    public CursorPage<Stagiaire> getStagiairesPage(PageQuery page, String institution, String q) {
+        Specification<Stagiaire> filter = Specification.allOf(
+                Specs.equal("institution", institution),
+                Specs.contains(q, "nom", "prenom", "email"));
+        return keysetPagination.page(stagiaireRepository, filter, page, SORTABLE);
+    }
+
     public Optional<Stagiaire> getStagiaireById(Long id) {
         return stagiaireRepository.findById(id);
     }
@@ -32,10 +53,14 @@ public class StagiaireService {
     }
 
     public Stagiaire saveStagiaire(Stagiaire stagiaire) {
+        if (stagiaire.getId() != null) {
+            personneResolver.evict(stagiaire.getId());
+        }
         return stagiaireRepository.save(stagiaire);
     }
 
     public void deleteStagiaire(Long id) {
         stagiaireRepository.deleteById(id);
+        personneResolver.evict(id);
     }
 }
\ No newline at end of file
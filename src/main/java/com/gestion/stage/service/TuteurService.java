@@ -2,27 +2,48 @@ package com.gestion.stage.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.gestion.stage.dto.CursorPage;
+import com.gestion.stage.dto.PageQuery;
 import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.repository.Specs;
 import com.gestion.stage.repository.TuteurRepository;
 
 @Service
 public class TuteurService {
 
+    static final Set<String> SORTABLE = Set.of("id", "nom", "prenom", "email", "entreprise");
+
     private final TuteurRepository tuteurRepository;
+    private final PersonneResolver personneResolver;
+    private final KeysetPagination keysetPagination;
 
     @Autowired
-    public TuteurService(TuteurRepository tuteurRepository) {
+    public TuteurService(TuteurRepository tuteurRepository, PersonneResolver personneResolver, KeysetPagination keysetPagination) {
         this.tuteurRepository = tuteurRepository;
+        this.personneResolver = personneResolver;
+        this.keysetPagination = keysetPagination;
     }
 
     public List<Tuteur> getAllTuteurs() {
         return tuteurRepository.findAll();
     }
 
+    /**
+     * Page de la liste, triée et filtrée (filtres nuls ignorés).
+     */
+    public CursorPage<Tuteur> getTuteursPage(PageQuery page, String entreprise, String q) {
+        Specification<Tuteur> filter = Specification.allOf(
+                Specs.equal("entreprise", entreprise),
+                Specs.contains(q, "nom", "prenom", "email"));
+        return keysetPagination.page(tuteurRepository, filter, page, SORTABLE);
+    }
+
     public Optional<Tuteur> getTuteurById(Long id) {
         return tuteurRepository.findById(id);
     }
@@ -36,10 +57,14 @@ public class TuteurService {
     }
 
     public Tuteur saveTuteur(Tuteur tuteur) {
+        if (tuteur.getId() != null) {
+            personneResolver.evict(tuteur.getId());
+        }
         return tuteurRepository.save(tuteur);
     }
 
     public void deleteTuteur(Long id) {
         tuteurRepository.deleteById(id);
+        personneResolver.evict(id);
     }
 }
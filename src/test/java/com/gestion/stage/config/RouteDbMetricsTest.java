@@ -0,0 +1,76 @@
+package com.gestion.stage.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.support.EvaluationForms;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métriques base de données par route : ordres SQL et temps de transaction enregistrés
+ * sous la route de la requête, compteurs de la requête retirés du thread à la fin.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:route_db_metrics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class RouteDbMetricsTest {
+
+    private static final String ROUTE = "/api/stages/create-from-dto";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void statementsAndTransactionTimeAreRecordedPerRoute() throws Exception {
+        mockMvc.perform(post(ROUTE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(EvaluationForms.form(1))))
+                .andExpect(status().isCreated());
+
+        // MockMvc exécute la requête sur ce thread : le filtre doit l'avoir laissé propre
+        assertThat(RouteDbMetrics.current()).isNull();
+
+        DistributionSummary statements = meterRegistry.get("gestion.db.statements")
+                .tags("method", "POST", "uri", ROUTE).summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isPositive();
+        Timer transaction = meterRegistry.get("gestion.db.transaction")
+                .tags("method", "POST", "uri", ROUTE).timer();
+        assertThat(transaction.count()).isEqualTo(1);
+        assertThat(transaction.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(meterRegistry.get("gestion.db.entities.loaded").tags("method", "POST", "uri", ROUTE).summary()
+                .count()).isEqualTo(1);
+
+        // Une autre route a ses propres échantillons
+        mockMvc.perform(get("/api/stages").param("size", "5")).andExpect(status().isOk());
+        assertThat(RouteDbMetrics.current()).isNull();
+        assertThat(meterRegistry.get("gestion.db.statements").tags("method", "GET", "uri", "/api/stages")
+                .summary().totalAmount()).isPositive();
+        assertThat(statements.count()).isEqualTo(1);
+    }
+}
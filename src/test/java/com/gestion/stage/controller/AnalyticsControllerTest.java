@@ -0,0 +1,170 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Categorie;
+import com.gestion.stage.model.Competences;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.service.AnalyticsService;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Cumuls par entreprise et par institution et histogrammes par compétence : après des
+ * créations, une note modifiée, un changement d'entreprise et une appréciation supprimée, les
+ * valeurs tenues à jour incrémentalement sont celles qu'une reconstruction complète recalcule.
+ * Des contributions antérieures aux histogrammes (sans compétence) sont complétées au démarrage.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:analytics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000",
+        "gestion.analytics.fold-batch-size=2"
+})
+@AutoConfigureMockMvc
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private StageRepository stageRepository;
+
+    @Autowired
+    private AppreciationRepository appreciationRepository;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @Autowired
+    private CompetencesRepository competencesRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void incrementalCumulsMatchAFullRebuild() throws Exception {
+        List<Stage> stages = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            stages.add(stageFormService.createStageFromDTO(EvaluationForms.form(i)));
+        }
+        foldAll();
+        JsonNode entreprise1 = json("/api/analytics/entreprises?entreprise=Entreprise 1");
+        assertThat(entreprise1.get("lignes")).isNotEmpty();
+        entreprise1.get("lignes").forEach(ligne -> assertThat(ligne.get("nombre").asLong()).isPositive());
+
+        // Niveaux des six formulaires pour cette compétence : NA, DEBUTANT, AUTONOME, AUTONOME +, NA, DEBUTANT
+        Competences competence = competencesRepository.findByIntitule("Individu compétence 0").orElseThrow();
+        JsonNode stats = json("/api/competences/" + competence.getId() + "/stats");
+        assertThat(stats.get("nombre").asLong()).isEqualTo(6);
+        assertThat(stats.get("niveaux").toString())
+                .isEqualTo("{\"NA\":2,\"DEBUTANT\":2,\"AUTONOME\":1,\"AUTONOME +\":1}");
+        assertThat(stats.get("p10").asDouble()).isEqualTo(0.0);
+        assertThat(stats.get("p50").asDouble()).isEqualTo(8.0);
+        assertThat(stats.get("p90").asDouble()).isEqualTo(18.0);
+        assertThat(json("/api/categories/" + competence.getCategorie().getId() + "/stats").get("nombre").asLong())
+                .isEqualTo(60);
+        assertMatchesRebuild();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Appreciation appreciation = appreciationRepository.findAll().get(0);
+            appreciation.getEvaluation().setValeur(appreciation.getEvaluation().getValeur() + 3);
+            evaluationRepository.save(appreciation.getEvaluation());
+
+            Stage stage = stageRepository.findById(stages.get(2).getId()).orElseThrow();
+            stage.setEntreprise("Entreprise renommée");
+            stageRepository.save(stage);
+
+            appreciationRepository.delete(appreciationRepository.findAll().get(5));
+        });
+        foldAll();
+        assertThat(json("/api/analytics/entreprises?entreprise=Entreprise renommée").get("lignes")).isNotEmpty();
+        assertThat(json("/api/analytics/entreprises?entreprise=Entreprise 2").get("lignes")).isEmpty();
+        assertMatchesRebuild();
+
+        // Base d'avant les histogrammes : contributions sans compétence, histogrammes vides
+        List<JsonNode> allStats = allStats();
+        jdbcTemplate.update("update score_contribution set competence_id = null");
+        jdbcTemplate.update("delete from competence_histogramme");
+        analyticsService.rebuildIfIncomplete();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from score_contribution where competence_id is null", Long.class)).isZero();
+        assertThat(allStats()).isEqualTo(allStats);
+
+        mockMvc.perform(get("/api/analytics/institutions").param("institution", "ENSA").param("categorieId", "1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/competences/999999/stats")).andExpect(status().isNotFound());
+    }
+
+    private void foldAll() {
+        while (analyticsService.foldPending() > 0) {
+            // Lots de deux écritures
+        }
+    }
+
+    private void assertMatchesRebuild() throws Exception {
+        JsonNode entreprises = json("/api/analytics/entreprises?size=200");
+        JsonNode institutions = json("/api/analytics/institutions?size=200");
+        List<JsonNode> stats = allStats();
+        mockMvc.perform(post("/api/analytics/rebuild")).andExpect(status().isOk());
+        assertThat(json("/api/analytics/entreprises?size=200")).isEqualTo(entreprises);
+        assertThat(json("/api/analytics/institutions?size=200")).isEqualTo(institutions);
+        assertThat(allStats()).isEqualTo(stats);
+        assertThat(institutions.get("lignes")).isNotEmpty();
+    }
+
+    private List<JsonNode> allStats() throws Exception {
+        List<JsonNode> stats = new ArrayList<>();
+        for (Competences competence : competencesRepository.findAll()) {
+            stats.add(json("/api/competences/" + competence.getId() + "/stats"));
+        }
+        for (Categorie categorie : categorieRepository.findAll()) {
+            stats.add(json("/api/categories/" + categorie.getId() + "/stats"));
+        }
+        return stats;
+    }
+
+    private JsonNode json(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
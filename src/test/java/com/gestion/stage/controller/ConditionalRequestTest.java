@@ -0,0 +1,141 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+import com.gestion.stage.support.SqlStatementCounter;
+
+/**
+ * Requêtes conditionnelles : un GET dont l'ETag n'a pas changé répond 304 après la seule
+ * requête de version, une modification change l'ETag des ressources qui l'incluent, y compris
+ * celle d'une évaluation pour la période et le stage, et un PUT sur un ETag périmé est
+ * refusé (412).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional_requests;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Config.class)
+class ConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Autowired
+    private AppreciationRepository appreciationRepository;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @Test
+    void unchangedResourcesOnlyCostTheVersionCheck() throws Exception {
+        Stage stage = stageFormService.createStageFromDTO(EvaluationForms.form(0));
+        Long periodeId = (Long) periodeRepository.findDatesByStageId(stage.getId()).get(0)[0];
+        Long appreciationId = appreciationRepository.findAll().get(0).getId();
+
+        Map<String, Integer> versionChecks = new LinkedHashMap<>();
+        versionChecks.put("/api/stages/" + stage.getId(), 1);
+        versionChecks.put("/api/stages/" + stage.getId() + "/dashboard", 2);
+        versionChecks.put("/api/periodes/" + periodeId, 1);
+        versionChecks.put("/api/appreciations/" + appreciationId, 1);
+        versionChecks.put("/api/categories", 1);
+
+        for (Map.Entry<String, Integer> endpoint : versionChecks.entrySet()) {
+            String etag = etag(endpoint.getKey());
+            sqlCounter.reset();
+            mockMvc.perform(get(endpoint.getKey()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            sqlCounter.assertStatements("GET conditionnel " + endpoint.getKey(), endpoint.getValue());
+        }
+    }
+
+    @Test
+    void writesChangeTheEtagAndStaleIfMatchIsRejected() throws Exception {
+        Stage stage = stageFormService.createStageFromDTO(EvaluationForms.form(1));
+        Long periodeId = (Long) periodeRepository.findDatesByStageId(stage.getId()).get(0)[0];
+        String stageUrl = "/api/stages/" + stage.getId();
+        String periodeUrl = "/api/periodes/" + periodeId;
+
+        String stageEtag = etag(stageUrl);
+        MvcResult periode = mockMvc.perform(get(periodeUrl)).andExpect(status().isOk()).andReturn();
+        String periodeEtag = periode.getResponse().getHeader(HttpHeaders.ETAG);
+        String body = periode.getResponse().getContentAsString()
+                .replaceFirst("\"dateFin\":\"[^\"]*\"", "\"dateFin\":\"2030-01-31\"");
+
+        mockMvc.perform(put(periodeUrl).header(HttpHeaders.IF_MATCH, periodeEtag)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        // La période est sérialisée dans le stage : son ETag change aussi.
+        mockMvc.perform(get(stageUrl).header(HttpHeaders.IF_NONE_MATCH, stageEtag))
+                .andExpect(status().isOk());
+        assertThat(etag(periodeUrl)).isNotEqualTo(periodeEtag);
+
+        mockMvc.perform(put(periodeUrl).header(HttpHeaders.IF_MATCH, periodeEtag)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void evaluationChangeAdvancesThePeriodeAndStageEtags() throws Exception {
+        Stage stage = stageFormService.createStageFromDTO(EvaluationForms.form(2));
+        Long periodeId = (Long) periodeRepository.findDatesByStageId(stage.getId()).get(0)[0];
+        String stageUrl = "/api/stages/" + stage.getId();
+        String periodeUrl = "/api/periodes/" + periodeId;
+        String stageEtag = etag(stageUrl);
+        String periodeEtag = etag(periodeUrl);
+
+        Appreciation appreciation = appreciationRepository.findAll().stream()
+                .filter(candidate -> periodeId.equals(candidate.getPeriode().getId()))
+                .findFirst().orElseThrow();
+        Evaluation evaluation = evaluationRepository.findById(appreciation.getEvaluation().getId()).orElseThrow();
+        evaluation.setValeur(evaluation.getValeur() + 1);
+        evaluationRepository.save(evaluation);
+
+        assertThat(etag(periodeUrl)).isNotEqualTo(periodeEtag);
+        assertThat(etag(stageUrl)).isNotEqualTo(stageEtag);
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
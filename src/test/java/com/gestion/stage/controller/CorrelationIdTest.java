@@ -0,0 +1,65 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.gestion.stage.config.CorrelationIdFilter;
+
+/**
+ * Identifiant de corrélation : repris de l'en-tête s'il est valable, généré sinon, renvoyé
+ * dans la réponse et transmis par le MDC aux tâches de l'exécuteur applicatif.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CorrelationIdTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskExecutor applicationTaskExecutor;
+
+    @Test
+    void receivedIdIsEchoed() throws Exception {
+        mockMvc.perform(get("/api/stages").param("size", "1").header(CorrelationIdFilter.HEADER, "front-42.a"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CorrelationIdFilter.HEADER, "front-42.a"));
+    }
+
+    @Test
+    void missingOrInvalidIdIsReplaced() throws Exception {
+        String generated = mockMvc.perform(get("/api/stages").param("size", "1"))
+                .andReturn().getResponse().getHeader(CorrelationIdFilter.HEADER);
+        assertThat(UUID.fromString(generated)).isNotNull();
+
+        String replaced = mockMvc.perform(get("/api/stages").param("size", "1")
+                        .header(CorrelationIdFilter.HEADER, "a\nfausse ligne de journal"))
+                .andReturn().getResponse().getHeader(CorrelationIdFilter.HEADER);
+        assertThat(UUID.fromString(replaced)).isNotNull();
+    }
+
+    @Test
+    void asyncTasksKeepTheCorrelationId() throws Exception {
+        CompletableFuture<String> seen = new CompletableFuture<>();
+        MDC.put(CorrelationIdFilter.MDC_KEY, "tache-1");
+        try {
+            applicationTaskExecutor.execute(() -> seen.complete(MDC.get(CorrelationIdFilter.MDC_KEY)));
+        } finally {
+            MDC.remove(CorrelationIdFilter.MDC_KEY);
+        }
+        assertThat(seen.get()).isEqualTo("tache-1");
+    }
+}
@@ -0,0 +1,161 @@
+package com.gestion.stage.controller;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+import com.gestion.stage.support.SqlStatementCounter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Nombre exact d'ordres SQL de chaque endpoint de lecture.
+ * <p>
+ * Toutes les associations sont LAZY : un endpoint qui sérialise des associations sans
+ * graphe d'entité ni chargement par lots fait une requête par ligne (N+1) et son compte
+ * change. En cas d'écart, le message d'échec liste les requêtes exécutées. Base H2 dédiée
+ * pour maîtriser le jeu de données, tâches planifiées espacées pour qu'elles n'exécutent
+ * pas de SQL pendant les mesures.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_count;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Config.class)
+class EndpointQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Autowired
+    private AppreciationRepository appreciationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void readEndpointsRunAFixedNumberOfStatements() throws Exception {
+        Stage stage = stageFormService.createStageFromDTO(EvaluationForms.form(0));
+        stageFormService.createStageFromDTO(EvaluationForms.form(1));
+        Map<String, Integer> bounded = boundedEndpoints(stage);
+        assertEndpoints(fullLists());
+        assertEndpoints(bounded);
+
+        // Les listes complètes grandissent d'une requête par lot de default_batch_fetch_size
+        // lignes ; les pages et les lectures par identifiant ne doivent pas bouger.
+        for (int i = 2; i < 8; i++) {
+            stageFormService.createStageFromDTO(EvaluationForms.form(i));
+        }
+        assertEndpoints(bounded);
+        assertWarmEndpoints(warmEndpoints(stage));
+    }
+
+    /** Listes complètes, mesurées sur le petit jeu de données (chaque niveau tient dans un lot). */
+    private Map<String, Integer> fullLists() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("/api/stages?unpaged=true", 6);
+        expected.put("/api/periodes?unpaged=true", 5);
+        expected.put("/api/periodes/debut-apres/2000-01-01", 5);
+        expected.put("/api/appreciations?unpaged=true", 3);
+        expected.put("/api/evaluations?unpaged=true", 1);
+        expected.put("/api/competences?unpaged=true", 1);
+        expected.put("/api/categories", 3);
+        expected.put("/api/tuteurs?unpaged=true", 1);
+        expected.put("/api/stagiaires?unpaged=true", 1);
+        return expected;
+    }
+
+    /** Pages et lectures ciblées : leur coût ne dépend pas du volume total. */
+    private Map<String, Integer> boundedEndpoints(Stage stage) {
+        Long stageId = stage.getId();
+        Long periodeId = (Long) periodeRepository.findDatesByStageId(stageId).get(0)[0];
+        Long appreciationId = appreciationRepository.findAll().get(0).getId();
+        Long stagiaireId = stage.getStagiaire().getId();
+
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("/api/stages?size=2", 6);
+        expected.put("/api/stages/" + stageId, 7);
+        expected.put("/api/stages/" + stageId + "/dashboard", 6);
+        expected.put("/api/stages/stagiaire/" + stagiaireId, 7);
+        expected.put("/api/periodes?size=2", 5);
+        expected.put("/api/periodes/" + periodeId, 6);
+        expected.put("/api/periodes/" + periodeId + "/tuteur", 1);
+        expected.put("/api/periodes/stagiaire/" + stagiaireId, 6);
+        expected.put("/api/appreciations?size=20", 3);
+        expected.put("/api/appreciations?periodeId=" + periodeId, 3);
+        expected.put("/api/appreciations/" + appreciationId, 4);
+        expected.put("/api/appreciations/periode/" + periodeId, 2);
+        expected.put("/api/evaluations?size=20", 1);
+        expected.put("/api/competences?size=20", 1);
+        expected.put("/api/tuteurs?size=20", 1);
+        expected.put("/api/stagiaires?size=20", 1);
+        return expected;
+    }
+
+    /**
+     * Lectures répétées, cache de second niveau chaud : catégories, compétences et personnes
+     * ne sont plus relues, seules restent les requêtes sur les entités hors cache (stages,
+     * périodes, appréciations, évaluations) et la lecture des versions.
+     */
+    private Map<String, Integer> warmEndpoints(Stage stage) {
+        Long stageId = stage.getId();
+        Long periodeId = (Long) periodeRepository.findDatesByStageId(stageId).get(0)[0];
+        Long appreciationId = appreciationRepository.findAll().get(0).getId();
+
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("/api/stages/" + stageId, 5);
+        expected.put("/api/periodes/" + periodeId, 4);
+        expected.put("/api/appreciations/" + appreciationId, 3);
+        expected.put("/api/stages/stagiaire/" + stage.getStagiaire().getId(), 4);
+        expected.put("/api/categories", 2);
+        return expected;
+    }
+
+    /** Cache de second niveau vidé avant chaque mesure : plan d'exécution complet. */
+    private void assertEndpoints(Map<String, Integer> expected) {
+        assertAll(expected.entrySet().stream().map(endpoint -> (Executable) () -> {
+            entityManagerFactory.getCache().evictAll();
+            sqlCounter.reset();
+            mockMvc.perform(get(endpoint.getKey())).andExpect(status().isOk());
+            sqlCounter.assertStatements("GET " + endpoint.getKey(), endpoint.getValue());
+        }));
+    }
+
+    /** Deuxième appel de chaque endpoint, après un premier qui a rempli le cache. */
+    private void assertWarmEndpoints(Map<String, Integer> expected) {
+        assertAll(expected.entrySet().stream().map(endpoint -> (Executable) () -> {
+            mockMvc.perform(get(endpoint.getKey())).andExpect(status().isOk());
+            sqlCounter.reset();
+            mockMvc.perform(get(endpoint.getKey())).andExpect(status().isOk());
+            sqlCounter.assertStatements("GET " + endpoint.getKey() + " (cache chaud)", endpoint.getValue());
+        }));
+    }
+}
@@ -0,0 +1,134 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Export CSV puis XLSX d'un million d'évaluations dans une JVM limitée à 128 Mo de tas (profil
+ * Maven "perf"), lus en flux côté client : comme pour {@link StageExportPerfTest}, ni le
+ * serveur ni le test ne peuvent garder l'export en mémoire.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/perf/evaluation_export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "LAZY_QUERY_EXECUTION=TRUE;CACHE_SIZE=8192",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+class EvaluationExportPerfTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int INSERT_CHUNK = 100_000;
+    /** Identifiants des évaluations insérées en SQL, au-delà de celles du formulaire. */
+    private static final long FIRST_ID = 1_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Test
+    void exportsOneMillionEvaluationsWithAFlatHeap() throws Exception {
+        long expected = insertEvaluations();
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<InputStream> csv = client.send(request("csv"), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(csv.statusCode()).isEqualTo(200);
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv.body(), StandardCharsets.UTF_8))) {
+            assertThat(reader.readLine()).startsWith("\"evaluation_id\",\"valeur\"");
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        assertThat(lines).isEqualTo(expected);
+
+        HttpResponse<InputStream> xlsx = client.send(request("xlsx"), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(xlsx.statusCode()).isEqualTo(200);
+        long rows = 0;
+        // Entrées Zip64 à descripteur de données, que java.util.zip.ZipInputStream lit mal en flux
+        try (ZipArchiveInputStream zip = new ZipArchiveInputStream(xlsx.body())) {
+            for (ZipArchiveEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (entry.getName().startsWith("xl/worksheets/")) {
+                    rows += countRows(zip);
+                }
+            }
+        }
+        assertThat(rows).isEqualTo(expected + 1);
+    }
+
+    private HttpRequest request(String format) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rapports/evaluations?format=" + format))
+                .build();
+    }
+
+    /** Compte les balises {@code </row>} d'une feuille, lue par blocs. */
+    private static long countRows(InputStream sheet) throws Exception {
+        byte[] tag = "</row>".getBytes(StandardCharsets.US_ASCII);
+        byte[] buffer = new byte[64 * 1024];
+        long count = 0;
+        int matched = 0;
+        for (int read = sheet.read(buffer); read > 0; read = sheet.read(buffer)) {
+            for (int i = 0; i < read; i++) {
+                matched = buffer[i] == tag[matched] ? matched + 1 : (buffer[i] == tag[0] ? 1 : 0);
+                if (matched == tag.length) {
+                    count++;
+                    matched = 0;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Un formulaire complet pour la période, le tuteur et les compétences, puis un million
+     * d'évaluations et d'appréciations insérées en SQL par INSERT ... SELECT.
+     */
+    private long insertEvaluations() {
+        Stage stage = stageFormService.createStageFromDTO(EvaluationForms.form(0));
+        Long periodeId = (Long) periodeRepository.findDatesByStageId(stage.getId()).get(0)[0];
+        Object[] source = jdbcTemplate.queryForObject(
+                "select tuteur_id, competences_id from appreciation where periode_id = ? and competences_id is not null limit 1",
+                (rs, i) -> new Object[] {rs.getLong(1), rs.getLong(2)}, periodeId);
+
+        for (long from = FIRST_ID; from < FIRST_ID + ROWS; from += INSERT_CHUNK) {
+            jdbcTemplate.update("insert into evaluation (id, version, updated_at, valeur, categorie, commentaire) "
+                    + "select \"X\", 0, current_timestamp, mod(\"X\", 21), 'Critère', concat('Commentaire ', \"X\") "
+                    + "from system_range(?, ?)", from, from + INSERT_CHUNK - 1);
+            jdbcTemplate.update("insert into appreciation (id, version, updated_at, periode_id, evaluation_id, "
+                    + "tuteur_id, competences_id) select \"X\", 0, current_timestamp, ?, \"X\", ?, ? "
+                    + "from system_range(?, ?)", periodeId, source[0], source[1], from, from + INSERT_CHUNK - 1);
+        }
+        return jdbcTemplate.queryForObject("select count(*) from evaluation", Long.class);
+    }
+}
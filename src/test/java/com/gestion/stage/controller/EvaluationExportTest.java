@@ -0,0 +1,90 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.service.SpreadsheetExportService;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Exports tableur des évaluations : une ligne par évaluation avec sa période, son stagiaire
+ * et son tuteur, identique en CSV et en XLSX.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:evaluation_export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class EvaluationExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @Test
+    void exportsEveryEvaluationAsCsvAndXlsx() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            stageFormService.createStageFromDTO(EvaluationForms.form(i));
+        }
+        long evaluations = evaluationRepository.count();
+
+        List<Map<String, String>> lignes = new ArrayList<>();
+        try (MappingIterator<Map<String, String>> it = new CsvMapper().readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader()).readValues(export("csv"))) {
+            it.forEachRemaining(lignes::add);
+        }
+        assertThat(lignes).hasSize((int) evaluations);
+        assertThat(lignes.get(0).keySet()).containsExactlyElementsOf(SpreadsheetExportService.COLUMNS);
+        assertThat(lignes).allSatisfy(ligne -> {
+            assertThat(ligne.get("periode_id")).isNotEmpty();
+            assertThat(ligne.get("date_debut")).isEqualTo("2024-02-01");
+            assertThat(ligne.get("institution")).isEqualTo("ENSA");
+        });
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(export("xlsx")))) {
+            Sheet sheet = workbook.getSheet("evaluations");
+            assertThat(sheet.getLastRowNum()).isEqualTo(evaluations);
+            assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("valeur");
+            assertThat(sheet.getRow(1).getCell(0).getNumericCellValue())
+                    .isEqualTo(Double.parseDouble(lignes.get(0).get("evaluation_id")));
+        }
+
+        mockMvc.perform(get("/api/rapports/evaluations?format=ods")).andExpect(status().isBadRequest());
+    }
+
+    private byte[] export(String format) throws Exception {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/rapports/evaluations?format=" + format))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
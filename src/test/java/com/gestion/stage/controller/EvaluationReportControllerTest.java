@@ -0,0 +1,87 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Fiches d'évaluation PDF : une période à la demande, puis un lot plus grand que le nombre
+ * de fiches en vol, dont l'archive contient une fiche par période dans l'ordre.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:evaluation_reports;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.reports.threads=2",
+        "gestion.reports.in-flight=2"
+})
+@AutoConfigureMockMvc
+class EvaluationReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Test
+    void rendersOneSheetAndZipsABatch() throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Stage stage = stageFormService.createStageFromDTO(EvaluationForms.form(i));
+            expected.add("periode-" + periodeRepository.findDatesByStageId(stage.getId()).get(0)[0] + ".pdf");
+        }
+        String first = expected.get(0).replace("periode-", "").replace(".pdf", "");
+
+        byte[] pdf = mockMvc.perform(get("/api/rapports/periodes/" + first))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new String(pdf, 0, 5, StandardCharsets.ISO_8859_1)).isEqualTo("%PDF-");
+
+        MvcResult started = mockMvc.perform(get("/api/rapports/periodes?debut=2024-03-01&fin=2024-03-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] zip = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.add(entry.getName());
+                assertThat(new String(in.readNBytes(5), StandardCharsets.ISO_8859_1)).isEqualTo("%PDF-");
+            }
+        }
+        assertThat(entries).containsExactlyElementsOf(expected);
+
+        mockMvc.perform(get("/api/rapports/periodes/999999")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/rapports/periodes?debut=2030-01-01&fin=2030-12-31")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/rapports/periodes?debut=2024-03-31&fin=2024-03-01")).andExpect(status().isBadRequest());
+    }
+}
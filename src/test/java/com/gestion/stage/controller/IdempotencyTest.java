@@ -0,0 +1,150 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.config.IdempotencyFilter;
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.IdempotencyRecord;
+import com.gestion.stage.repository.IdempotencyRecordRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.service.IdempotencyService;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * En-tête Idempotency-Key sur create-from-dto : rejeu de la réponse mémorisée, clé réutilisée
+ * pour un autre corps, requête encore en cours ou abandonnée, clé libérée après une erreur,
+ * réservation reprise que la requête d'origine ne peut plus modifier.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.idempotency.lease-seconds=60"
+})
+@AutoConfigureMockMvc
+class IdempotencyTest {
+
+    private static final String ROUTE = "/api/stages/create-from-dto";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private StageRepository stageRepository;
+
+    @Test
+    void repeatedRequestReplaysTheStoredResponse() throws Exception {
+        byte[] body = json(EvaluationForms.form(1));
+        String first = submit("cle-rejeu", body)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        long stages = stageRepository.count();
+
+        String replayed = submit("cle-rejeu", body)
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(replayed).isEqualTo(first);
+        assertThat(stageRepository.count()).isEqualTo(stages);
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() throws Exception {
+        submit("cle-autre-corps", json(EvaluationForms.form(2))).andExpect(status().isCreated());
+        long stages = stageRepository.count();
+
+        submit("cle-autre-corps", json(EvaluationForms.form(3))).andExpect(status().isUnprocessableEntity());
+        assertThat(stageRepository.count()).isEqualTo(stages);
+    }
+
+    @Test
+    void requestInFlightGetsConflictUntilItsLeaseRunsOut() throws Exception {
+        byte[] body = json(EvaluationForms.form(4));
+        String recordId = IdempotencyService.recordId(ROUTE, "cle-en-cours");
+        // La première requête a réservé la clé et n'a pas encore répondu
+        assertThat(idempotencyService.begin(recordId, IdempotencyService.sha256(body)).isReserved()).isTrue();
+
+        submit("cle-en-cours", body).andExpect(status().isConflict());
+
+        // Processus arrêté en cours de requête : passé le bail, la clé est reprise
+        IdempotencyRecord record = recordRepository.findById(recordId).orElseThrow();
+        record.setReservedAt(LocalDateTime.now().minusMinutes(5));
+        recordRepository.save(record);
+        submit("cle-en-cours", body).andExpect(status().isCreated());
+        assertThat(recordRepository.findById(recordId).orElseThrow().isCompleted()).isTrue();
+    }
+
+    @Test
+    void abandonedOwnerCannotTouchTheKeyOnceTakenOver() {
+        String recordId = IdempotencyService.recordId(ROUTE, "cle-reprise");
+        String hash = IdempotencyService.sha256(new byte[] {1});
+        IdempotencyService.Reservation abandoned = idempotencyService.begin(recordId, hash);
+        assertThat(abandoned.isReserved()).isTrue();
+
+        IdempotencyRecord record = recordRepository.findById(recordId).orElseThrow();
+        record.setReservedAt(LocalDateTime.now().minusMinutes(5));
+        recordRepository.save(record);
+        IdempotencyService.Reservation current = idempotencyService.begin(recordId, hash);
+        assertThat(current.isReserved()).isTrue();
+
+        // La requête d'origine termine après la reprise : ni sa libération ni sa réponse
+        // ne s'appliquent à la réservation du nouveau détenteur
+        idempotencyService.release(recordId, abandoned.token());
+        idempotencyService.complete(recordId, abandoned.token(), 500, null, new byte[0]);
+        assertThat(recordRepository.findById(recordId).orElseThrow().isCompleted()).isFalse();
+
+        idempotencyService.complete(recordId, current.token(), 201, "application/json", new byte[] {2});
+        IdempotencyRecord completed = recordRepository.findById(recordId).orElseThrow();
+        assertThat(completed.isCompleted()).isTrue();
+        assertThat(completed.getResponseStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void errorResponseReleasesTheKey() throws Exception {
+        StageCreateDTO invalid = EvaluationForms.form(5);
+        invalid.setDescription("");
+        submit("cle-erreur", json(invalid)).andExpect(status().isBadRequest());
+        assertThat(recordRepository.findById(IdempotencyService.recordId(ROUTE, "cle-erreur"))).isEmpty();
+
+        submit("cle-erreur", json(EvaluationForms.form(5)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    private ResultActions submit(String key, byte[] body) throws Exception {
+        return mockMvc.perform(post(ROUTE)
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private byte[] json(StageCreateDTO dto) throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+}
@@ -0,0 +1,244 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.config.CorrelationIdFilter;
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.IngestionJob;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.repository.IngestionJobRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.service.IngestionQueueService;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Enregistrement asynchrone (POST /api/stages/create-from-dto/async puis GET /api/jobs/{id}) :
+ * job mené à DONE avec l'identifiant de corrélation du dépôt, formulaire refusé à
+ * l'enregistrement mené à FAILED avec son message, 503 quand la file est pleine, jobs restés
+ * PENDING repris par le balayage, job interrompu par une attente de verrou laissé PENDING
+ * puis repris, job pris en charge une seule fois et rendu au journal s'il est abandonné.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingestion_queue;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=500",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.ingestion.queue-capacity=2",
+        "gestion.ingestion.workers=1",
+        "gestion.ingestion.retry-delay-ms=1",
+        "gestion.ingestion.running-timeout-ms=60000"
+})
+@AutoConfigureMockMvc
+class IngestionQueueTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IngestionQueueService ingestionQueueService;
+
+    @Autowired
+    private IngestionJobRepository jobRepository;
+
+    @Autowired
+    private StageRepository stageRepository;
+
+    @Autowired
+    private StagiaireRepository stagiaireRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void submittedFormIsSavedInTheBackground() throws Exception {
+        byte[] response = mockMvc.perform(post("/api/stages/create-from-dto/async")
+                        .header(CorrelationIdFilter.HEADER, "depot-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(EvaluationForms.form(1))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/jobs/")))
+                .andReturn().getResponse().getContentAsByteArray();
+        Long id = objectMapper.readValue(response, IngestionJob.class).getId();
+
+        IngestionJob job = awaitFinished(id);
+
+        assertThat(job.getStatus()).isEqualTo(IngestionJob.Status.DONE);
+        assertThat(stageRepository.existsById(job.getStageId())).isTrue();
+        assertThat(job.getFinishedAt()).isNotNull();
+        // Repris dans le MDC du worker
+        assertThat(job.getCorrelationId()).isEqualTo("depot-1");
+    }
+
+    @Test
+    void formRejectedByTheWorkerEndsFailed() throws Exception {
+        StageCreateDTO form = EvaluationForms.form(2);
+        form.setStudentEmail("pas-un-email");
+        byte[] response = submit(form)
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        IngestionJob job = awaitFinished(objectMapper.readValue(response, IngestionJob.class).getId());
+
+        assertThat(job.getStatus()).isEqualTo(IngestionJob.Status.FAILED);
+        assertThat(job.getError()).contains("Format d'email invalide");
+        assertThat(job.getStageId()).isNull();
+    }
+
+    @Test
+    void fullQueueIsRejected() throws Exception {
+        // Sans worker, la file (2 places) n'est plus vidée
+        ingestionQueueService.stop();
+        List<Long> accepted = new ArrayList<>();
+        try {
+            for (int i = 3; i <= 4; i++) {
+                byte[] response = submit(EvaluationForms.form(i))
+                        .andExpect(status().isAccepted())
+                        .andReturn().getResponse().getContentAsByteArray();
+                accepted.add(objectMapper.readValue(response, IngestionJob.class).getId());
+            }
+            submit(EvaluationForms.form(5)).andExpect(status().isServiceUnavailable());
+        } finally {
+            ingestionQueueService.start();
+        }
+        // La file est vidée une fois les workers relancés
+        for (Long id : accepted) {
+            assertThat(awaitFinished(id).getStatus()).isEqualTo(IngestionJob.Status.DONE);
+        }
+    }
+
+    @Test
+    void sweepPicksUpPendingJobs() throws Exception {
+        IngestionJob valid = pending(objectMapper.writeValueAsString(EvaluationForms.form(6)));
+        IngestionJob unreadable = pending("{\"description\": pas du json");
+
+        ingestionQueueService.sweep();
+
+        assertThat(awaitFinished(valid.getId()).getStatus()).isEqualTo(IngestionJob.Status.DONE);
+        IngestionJob failed = awaitFinished(unreadable.getId());
+        assertThat(failed.getStatus()).isEqualTo(IngestionJob.Status.FAILED);
+        assertThat(failed.getError()).startsWith("Formulaire illisible");
+    }
+
+    @Test
+    void jobInterruptedByALockWaitStaysPendingAndIsRetried() throws Exception {
+        StageCreateDTO form = EvaluationForms.form(7);
+        form.setStudentEmail("stagiaire-verrou@ecole.fr");
+
+        // Une autre transaction crée le même stagiaire sans valider : l'insertion du worker
+        // attend le verrou de l'index unique sur l'email jusqu'au délai d'attente
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        Long id;
+        try {
+            Stagiaire stagiaire = new Stagiaire();
+            stagiaire.setPrenom("Prenom");
+            stagiaire.setNom("Verrou");
+            stagiaire.setEmail(form.getStudentEmail());
+            stagiaire.setInstitution("ENSA");
+            stagiaireRepository.saveAndFlush(stagiaire);
+
+            id = CompletableFuture.supplyAsync(() -> ingestionQueueService.submit(form)).get().getId();
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (attempts(id) == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            transactionManager.rollback(tx);
+        }
+
+        IngestionJob interrupted = jobRepository.findById(id).orElseThrow();
+        assertThat(interrupted.getStatus()).isEqualTo(IngestionJob.Status.PENDING);
+        assertThat(interrupted.getAttempts()).isEqualTo(1);
+        assertThat(interrupted.getNextAttemptAt()).isNotNull();
+
+        // Journalisé avant le délai de balayage, le job est repris une fois le verrou libéré
+        interrupted.setCreatedAt(LocalDateTime.now().minusHours(2));
+        jobRepository.save(interrupted);
+        ingestionQueueService.sweep();
+
+        IngestionJob retried = awaitFinished(id);
+        assertThat(retried.getStatus()).isEqualTo(IngestionJob.Status.DONE);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void jobIsClaimedOnceAndReleasedWhenAbandoned() throws Exception {
+        IngestionJob job = pending(objectMapper.writeValueAsString(EvaluationForms.form(8)));
+        LocalDateTime startedAt = LocalDateTime.now().minusHours(1);
+        // Pris en charge par une instance arrêtée depuis : les autres ne le traitent pas
+        assertThat(jobRepository.claim(job.getId(), startedAt)).isEqualTo(1);
+        assertThat(jobRepository.claim(job.getId(), startedAt)).isZero();
+
+        // Passé le délai d'abandon, le balayage le rend au journal et le remet en file
+        ingestionQueueService.sweep();
+
+        IngestionJob done = awaitFinished(job.getId());
+        assertThat(done.getStatus()).isEqualTo(IngestionJob.Status.DONE);
+        assertThat(done.getStartedAt()).isAfter(startedAt);
+    }
+
+    private int attempts(Long id) {
+        return jdbcTemplate.queryForObject("select attempts from ingestion_job where id = ?", Integer.class, id);
+    }
+
+    private ResultActions submit(StageCreateDTO form) throws Exception {
+        return mockMvc.perform(post("/api/stages/create-from-dto/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(form)));
+    }
+
+    /** Job journalisé avant le dernier démarrage, jamais mis en file (redémarrage, file pleine). */
+    private IngestionJob pending(String payload) {
+        IngestionJob job = new IngestionJob();
+        job.setStatus(IngestionJob.Status.PENDING);
+        job.setCreatedAt(LocalDateTime.now().minusHours(2));
+        job.setPayload(payload);
+        return jobRepository.save(job);
+    }
+
+    private IngestionJob awaitFinished(Long id) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (true) {
+            byte[] body = mockMvc.perform(get("/api/jobs/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            IngestionJob job = objectMapper.readValue(body, IngestionJob.class);
+            boolean finished = job.getStatus() != IngestionJob.Status.PENDING
+                    && job.getStatus() != IngestionJob.Status.RUNNING;
+            if (finished || System.currentTimeMillis() > deadline) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.repository.StagiaireRepository;
+
+/**
+ * Pagination par curseur sur GET /api/stagiaires : parcours complet sans doublon ni oubli
+ * malgré les égalités sur la colonne de tri, dans les deux sens ; curseur altéré ou tri
+ * inconnu refusés ; taille de page plafonnée.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset_pagination;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.pagination.max-size=5"
+})
+@AutoConfigureMockMvc
+class KeysetPaginationTest {
+
+    private static final String[] INSTITUTIONS = {"ENSA", "EMI", "ENSIAS"};
+    private static final int STAGIAIRES = 13;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StagiaireRepository stagiaireRepository;
+
+    @BeforeEach
+    void createStagiaires() {
+        if (stagiaireRepository.findByEmail("keyset0@ecole.fr").isPresent()) {
+            return;
+        }
+        for (int i = 0; i < STAGIAIRES; i++) {
+            Stagiaire stagiaire = new Stagiaire();
+            stagiaire.setNom("Nom" + i);
+            stagiaire.setPrenom("Prenom" + i);
+            stagiaire.setEmail("keyset" + i + "@ecole.fr");
+            stagiaire.setInstitution(INSTITUTIONS[i % INSTITUTIONS.length]);
+            stagiaireRepository.save(stagiaire);
+        }
+    }
+
+    @Test
+    void walkingAllPagesServesEachRowOnceInOrder() throws Exception {
+        Comparator<Stagiaire> byInstitution = Comparator.comparing(Stagiaire::getInstitution)
+                .thenComparing(Stagiaire::getId);
+        for (String direction : List.of("asc", "desc")) {
+            List<Long> expected = stagiaireRepository.findAll().stream()
+                    .sorted("asc".equals(direction) ? byInstitution : byInstitution.reversed())
+                    .map(Stagiaire::getId)
+                    .toList();
+            assertThat(expected).hasSizeGreaterThanOrEqualTo(STAGIAIRES);
+
+            assertThat(walk("institution", direction)).as("institution %s", direction).containsExactlyElementsOf(expected);
+            assertThat(walk("id", direction)).as("id %s", direction)
+                    .containsExactlyElementsOf(expected.stream()
+                            .sorted("asc".equals(direction) ? Comparator.<Long>naturalOrder() : Comparator.<Long>reverseOrder())
+                            .toList());
+        }
+    }
+
+    @Test
+    void tamperedOrMismatchedCursorIsRejected() throws Exception {
+        String cursor = page(get("/api/stagiaires").param("size", "3").param("sort", "institution"))
+                .path("nextCursor").asText();
+
+        mockMvc.perform(get("/api/stagiaires").param("sort", "institution").param("cursor", "x" + cursor))
+                .andExpect(status().isBadRequest());
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"s\":\"institution\",\"d\":false,\"id\":\"un\"}".getBytes());
+        mockMvc.perform(get("/api/stagiaires").param("sort", "institution").param("cursor", forged))
+                .andExpect(status().isBadRequest());
+        // Curseur d'un autre tri ou d'un autre sens
+        mockMvc.perform(get("/api/stagiaires").param("sort", "nom").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/stagiaires").param("sort", "institution").param("direction", "desc")
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/stagiaires").param("sort", "motDePasse")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/stagiaires").param("direction", "haut")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void pageSizeIsCapped() throws Exception {
+        JsonNode page = page(get("/api/stagiaires").param("size", "1000"));
+
+        assertThat(page.path("items")).hasSize(5);
+        assertThat(page.path("size").asInt()).isEqualTo(5);
+        assertThat(page.path("hasMore").asBoolean()).isTrue();
+        mockMvc.perform(get("/api/stagiaires").param("size", "0")).andExpect(status().isBadRequest());
+    }
+
+    private List<Long> walk(String sort, String direction) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/stagiaires")
+                    .param("size", "4").param("sort", sort).param("direction", direction);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = page(request);
+            page.path("items").forEach(item -> ids.add(item.path("id").asLong()));
+            cursor = page.path("hasMore").asBoolean() ? page.path("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+    }
+}
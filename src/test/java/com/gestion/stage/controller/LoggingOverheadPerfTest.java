@@ -0,0 +1,171 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.GestionStageApplication;
+import com.gestion.stage.config.CorrelationIdFilter;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Coût de la journalisation sur la latence des requêtes (profil Maven "perf") : la même
+ * charge, {@value #THREADS} clients simultanés sur create-from-dto puis GET /api/stages, passe
+ * sur l'ancienne configuration (show-sql, logs DEBUG écrits par le thread de la requête, en
+ * texte) puis sur la nouvelle (JSON écrit par un thread dédié, INFO, 1 % des ordres SQL).
+ * <p>
+ * La sortie standard est redirigée vers un fichier de target/ pendant chaque passage, comme
+ * celle d'un conteneur vers son collecteur ; sa taille est affichée avec les latences.
+ */
+@Tag("perf")
+class LoggingOverheadPerfTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOverheadPerfTest.class);
+
+    private static final int THREADS = 8;
+    private static final int WARMUP = 20;
+    private static final int CREATES = 200;
+    private static final int READS = 400;
+
+    private record Result(String scenario, int requests, int errors, double seconds, double mean, long p50, long p99) {
+        @Override
+        public String toString() {
+            return String.format("%-16s %4d req %3d err %7.1f req/s  moyenne %6.2f ms  p50 %4d ms  p99 %4d ms",
+                    scenario, requests, errors, requests / seconds, mean, p50, p99);
+        }
+    }
+
+    @Test
+    void asyncJsonLoggingCutsRequestLatency() throws Exception {
+        List<String> report = new ArrayList<>();
+        long[] logBytes = new long[2];
+        String[][] configurations = {
+                {"--logging.config=classpath:logback-sync.xml",
+                        "--spring.jpa.show-sql=true", "--spring.jpa.properties.hibernate.format_sql=true",
+                        "--logging.level.com.gestion.stage=DEBUG", "--gestion.logging.sql.sample-rate=0"},
+                {"--gestion.logging.format=json",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.gestion.stage=INFO", "--gestion.logging.sql.sample-rate=0.01"}};
+        String[] names = {"avant", "après"};
+
+        for (int c = 0; c < configurations.length; c++) {
+            Path log = Path.of("target", "logging-overhead-" + c + ".log");
+            PrintStream stdout = System.out;
+            Result create;
+            Result read;
+            try (PrintStream file = new PrintStream(new FileOutputStream(log.toFile()), true, StandardCharsets.UTF_8)) {
+                System.setOut(file);
+                try (ConfigurableApplicationContext context = start(c, configurations[c])) {
+                    MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                            .addFilters(context.getBean(CorrelationIdFilter.class))
+                            .build();
+                    ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+                    IntFunction<RequestBuilder> createRequest = i -> {
+                        try {
+                            return post("/api/stages/create-from-dto")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(EvaluationForms.form(i)));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    };
+                    run(mockMvc, "warmup", WARMUP, createRequest);
+                    create = run(mockMvc, names[c] + " create", CREATES, i -> createRequest.apply(WARMUP + i));
+                    read = run(mockMvc, names[c] + " GET", READS, i -> get("/api/stages").param("size", "20"));
+                }
+            } finally {
+                System.setOut(stdout);
+            }
+            logBytes[c] = Files.size(log);
+            report.add(create.toString());
+            report.add(read.toString());
+            report.add(String.format("%-16s %,d octets de journal", names[c], logBytes[c]));
+
+            assertThat(create.errors()).isZero();
+            assertThat(read.errors()).isZero();
+        }
+        logger.info("Journalisation, {} clients (avant : show-sql, DEBUG, synchrone ; après : JSON asynchrone, "
+                + "INFO, 1 % du SQL) :{}  {}", THREADS, System.lineSeparator(),
+                String.join(System.lineSeparator() + "  ", report));
+
+        assertThat(logBytes[1]).isLessThan(logBytes[0]);
+    }
+
+    private static ConfigurableApplicationContext start(int index, String[] logging) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:logging_" + index + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--gestion.scores.fold-delay-ms=3600000",
+                "--gestion.ingestion.sweep-delay-ms=3600000",
+                "--gestion.analytics.fold-delay-ms=3600000"));
+        args.addAll(Arrays.asList(logging));
+        return new SpringApplicationBuilder(GestionStageApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    private static Result run(MockMvc mockMvc, String scenario, int requests, IntFunction<RequestBuilder> request)
+            throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        try {
+                            int status = mockMvc.perform(request.apply(i)).andReturn().getResponse().getStatus();
+                            if (status >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double mean = Arrays.stream(latencies).average().orElse(0) / 1e6;
+        Arrays.sort(latencies);
+        return new Result(scenario, requests, errors.get(), seconds, mean,
+                latencies[requests / 2] / 1_000_000, latencies[(int) Math.ceil(requests * 0.99) - 1] / 1_000_000);
+    }
+}
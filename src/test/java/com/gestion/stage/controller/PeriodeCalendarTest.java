@@ -0,0 +1,114 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.StageRepository;
+
+/**
+ * Périodes en cours à une date et chevauchant une fenêtre : mêmes réponses depuis la base
+ * (pagination par curseur) et depuis le calendrier en mémoire, qui suit les créations (y
+ * compris en cascade depuis un stage), modifications et suppressions.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:periode_calendar;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class PeriodeCalendarTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StageRepository stageRepository;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Test
+    void activeAndOverlappingPeriodesFromDatabaseAndCalendar() throws Exception {
+        Periode janvier = periodeRepository.save(periode("2031-01-01", "2031-01-31"));
+        Periode hiver = periodeRepository.save(periode("2031-01-15", "2031-03-15"));
+        Periode mars = periodeRepository.save(periode("2031-03-01", "2031-03-31"));
+
+        Stage stage = new Stage();
+        stage.setEntreprise("Entreprise");
+        stage.setDescription("Description");
+        stage.setObjectif("Objectif");
+        Periode cascade = periode("2031-02-10", "2031-02-12");
+        cascade.setStage(stage);
+        stage.setPeriodes(new ArrayList<>(List.of(cascade)));
+        stageRepository.save(stage);
+        Long cascadeId = (Long) periodeRepository.findDatesByStageId(stage.getId()).get(0)[0];
+
+        assertThat(database("/api/periodes/actives?date=2031-01-20")).containsExactly(janvier.getId(), hiver.getId());
+        assertThat(calendar("debut=2031-01-20&fin=2031-01-20")).containsExactly(janvier.getId(), hiver.getId());
+        assertThat(database("/api/periodes/chevauchant?debut=2031-02-01&fin=2031-03-01"))
+                .containsExactly(hiver.getId(), mars.getId(), cascadeId);
+        assertThat(calendar("debut=2031-02-01&fin=2031-03-01"))
+                .containsExactly(hiver.getId(), cascadeId, mars.getId());
+        assertThat(database("/api/periodes/actives?date=2031-01-20&size=1")).containsExactly(janvier.getId());
+        assertThat(calendarResponse("debut=2031-01-01&fin=2031-12-31&limit=2").get("truncated").asBoolean()).isTrue();
+
+        janvier.setDateFin(LocalDate.parse("2031-01-10"));
+        periodeRepository.save(janvier);
+        periodeRepository.deleteById(hiver.getId());
+        assertThat(calendar("debut=2031-01-20&fin=2031-01-20")).isEmpty();
+        assertThat(calendar("debut=2031-01-05&fin=2031-01-05")).containsExactly(janvier.getId());
+
+        mockMvc.perform(get("/api/periodes/chevauchant?debut=2031-02-01&fin=2031-01-01")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/periodes/calendrier?debut=2031-02-01&fin=2031-01-01")).andExpect(status().isBadRequest());
+    }
+
+    private List<Long> database(String url) throws Exception {
+        return ids(json(url).get("items"));
+    }
+
+    private List<Long> calendar(String window) throws Exception {
+        return ids(calendarResponse(window).get("periodes"));
+    }
+
+    private JsonNode calendarResponse(String window) throws Exception {
+        return json("/api/periodes/calendrier?" + window);
+    }
+
+    private JsonNode json(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<Long> ids(JsonNode items) {
+        List<Long> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private static Periode periode(String debut, String fin) {
+        Periode periode = new Periode();
+        periode.setDateDebut(LocalDate.parse(debut));
+        periode.setDateFin(LocalDate.parse(fin));
+        return periode;
+    }
+}
@@ -0,0 +1,107 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+import com.gestion.stage.support.SqlStatementCounter;
+
+/**
+ * Profil d'une période : servi depuis le cache sans requête SQL, recalculé après la
+ * modification d'une de ses évaluations.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:periode_profile;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Config.class)
+class PeriodeProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Autowired
+    private AppreciationRepository appreciationRepository;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void profileIsCachedUntilAnEvaluationChanges() throws Exception {
+        Stage stage = stageFormService.createStageFromDTO(EvaluationForms.form(1));
+        stageFormService.createStageFromDTO(EvaluationForms.form(2));
+        Long periodeId = (Long) periodeRepository.findDatesByStageId(stage.getId()).get(0)[0];
+        String url = "/api/periodes/" + periodeId + "/profile";
+
+        JsonNode profile = json(url);
+        assertThat(profile.get("periodeId").asLong()).isEqualTo(periodeId);
+        assertThat(profile.get("categories")).hasSize(5);
+        assertThat(profile.get("competences")).hasSize(43);
+        assertThat(profile.get("valeurs")).hasSize(43);
+        profile.get("valeurs").forEach(valeur -> assertThat(valeur.asDouble()).isBetween(0.0, 20.0));
+
+        sqlCounter.reset();
+        assertThat(json(url)).isEqualTo(profile);
+        sqlCounter.assertStatements("GET " + url + " (en cache)", 0);
+        JsonNode stats = json("/api/catalog-cache/periode-profiles/stats");
+        assertThat(stats.get("hits").asLong()).isPositive();
+        assertThat(stats.get("entries").asInt()).isPositive();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Appreciation> appreciations = appreciationRepository.findAllById(
+                    appreciationRepository.findIdsByPeriodeIds(List.of(periodeId)));
+            appreciations.forEach(appreciation -> {
+                appreciation.getEvaluation().setValeur(20.0);
+                evaluationRepository.save(appreciation.getEvaluation());
+            });
+        });
+        JsonNode updated = json(url);
+        assertThat(updated.get("moyenne").asDouble()).isEqualTo(20.0);
+        updated.get("valeurs").forEach(valeur -> assertThat(valeur.asDouble()).isEqualTo(20.0));
+
+        mockMvc.perform(get("/api/periodes/999999/profile")).andExpect(status().isNotFound());
+    }
+
+    private JsonNode json(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,120 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.StageRepository;
+
+/**
+ * Recherche plein texte : accents, pluriels et élisions sont ignorés, l'entreprise pèse plus
+ * que le texte, l'index suit les créations, modifications et suppressions, et la pagination
+ * découpe le même classement.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:full_text_search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StageRepository stageRepository;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @Test
+    void ranksStagesAndCommentsAndFollowsWrites() throws Exception {
+        Stage entreprise = stageRepository.save(stage("Photovoltaïque Services", "Suivi de chantiers"));
+        Stage description = stageRepository.save(stage("Énergies du Sud", "Pose de panneaux photovoltaïques"));
+        Stage other = stageRepository.save(stage("Boulangerie Martin", "Gestion des stocks"));
+        Evaluation evaluation = new Evaluation();
+        evaluation.setValeur(4.0);
+        evaluation.setCategorieStr("Compétences techniques");
+        evaluation.setCommentaire("Bonne maîtrise du dimensionnement d'une installation photovoltaïque");
+        evaluation = evaluationRepository.save(evaluation);
+
+        JsonNode all = search("q=photovoltaique");
+        assertThat(all.get("total").asLong()).isEqualTo(3);
+        assertThat(all.get("totalExact").asBoolean()).isTrue();
+        assertThat(hits(all)).containsExactlyInAnyOrder("stage:" + entreprise.getId(),
+                "stage:" + description.getId(), "evaluation:" + evaluation.getId());
+        assertThat(hits(all).get(0)).isEqualTo("stage:" + entreprise.getId());
+        assertThat(all.at("/hits/0/titre").asText()).isEqualTo("Photovoltaïque Services");
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            JsonNode onePerPage = search("q=photovoltaique&size=1&page=" + page);
+            assertThat(onePerPage.get("hits")).hasSize(1);
+            paged.addAll(hits(onePerPage));
+        }
+        assertThat(paged).isEqualTo(hits(all));
+        assertThat(search("q=photovoltaique&size=1&page=3").get("hits")).isEmpty();
+
+        assertThat(hits(search("q=photovoltaique&type=evaluation")))
+                .containsExactly("evaluation:" + evaluation.getId());
+        assertThat(hits(search("q=l'installation photovoltaïque")))
+                .containsExactly("evaluation:" + evaluation.getId());
+        assertThat(hits(search("q=photovoltaique -panneaux")))
+                .doesNotContain("stage:" + description.getId());
+
+        other.setObjectif("Étude d'une toiture photovoltaïque");
+        stageRepository.save(other);
+        stageRepository.deleteById(entreprise.getId());
+        assertThat(hits(search("q=photovoltaique")))
+                .contains("stage:" + other.getId())
+                .doesNotContain("stage:" + entreprise.getId());
+    }
+
+    @Test
+    void rejectsInvalidQueries() throws Exception {
+        mockMvc.perform(get("/api/search")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search").param("q", " ")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search?q=stage&type=periode")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search?q=stage&page=-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search?q=stage&page=100000&size=20")).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode search(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/search?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<String> hits(JsonNode results) {
+        List<String> hits = new ArrayList<>();
+        results.get("hits").forEach(hit -> hits.add(hit.get("type").asText() + ":" + hit.get("id").asLong()));
+        return hits;
+    }
+
+    private static Stage stage(String entreprise, String description) {
+        Stage stage = new Stage();
+        stage.setEntreprise(entreprise);
+        stage.setDescription(description);
+        stage.setObjectif("Découvrir le métier");
+        return stage;
+    }
+}
@@ -0,0 +1,188 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+import com.gestion.stage.service.CatalogCache;
+import com.gestion.stage.service.StageFormService;
+import com.gestion.stage.support.EvaluationForms;
+import com.gestion.stage.support.LegacyStageFormWriter;
+import com.gestion.stage.support.SqlStatementCounter;
+
+/**
+ * Coût en base d'un formulaire d'évaluation complet (40 compétences) posté sur
+ * /api/stages/create-from-dto, sur la base H2 embarquée : le nombre d'allers-retours JDBC
+ * est vérifié à chaque build ; la latence moyenne n'est mesurée que par le profil Maven "perf".
+ * <p>
+ * Le chemin d'origine, entité par entité ({@link LegacyStageFormWriter}), est mesuré sur les
+ * mêmes formulaires pour servir de référence : les deux chemins sont comparés à chaque build
+ * (allers-retours) et dans le journal du profil "perf" (allers-retours et latence).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:create_from_dto;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        // Pas de cumul en tâche de fond : seuls les ordres des requêtes sont comptés
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Config.class)
+class StageCreateFromDtoBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageCreateFromDtoBenchmarkTest.class);
+
+    /** Assez de formulaires pour que stagiaires, tuteurs et catalogue existent tous. */
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 10;
+    private static final int PERF_WARMUP = 20;
+    private static final int PERF_ITERATIONS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private StageRepository stageRepository;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @Autowired
+    private AppreciationRepository appreciationRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private CompetencesRepository competencesRepository;
+
+    @Autowired
+    private StagiaireRepository stagiaireRepository;
+
+    @Autowired
+    private TuteurRepository tuteurRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LegacyStageFormWriter legacyWriter;
+
+    @BeforeEach
+    void legacyWriter() {
+        legacyWriter = new LegacyStageFormWriter(stageRepository, periodeRepository, evaluationRepository,
+                appreciationRepository, categorieRepository, competencesRepository, stagiaireRepository,
+                tuteurRepository, transactionManager);
+    }
+
+    @Test
+    void createFromDtoUsesAHandfulOfRoundTrips() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            submit(i);
+        }
+
+        sqlCounter.reset();
+        Object missesBefore = catalogCache.getStats().get("misses");
+        for (int i = WARMUP; i < WARMUP + ITERATIONS; i++) {
+            submit(i);
+        }
+
+        double roundTrips = (double) sqlCounter.roundTrips() / ITERATIONS;
+        assertThat(roundTrips).isLessThanOrEqualTo(15);
+        // Catalogue déjà en cache après l'échauffement : aucune recherche ne doit échouer
+        assertThat(catalogCache.getStats().get("misses")).isEqualTo(missesBefore);
+
+        // Référence : les mêmes formulaires par le chemin d'origine
+        sqlCounter.reset();
+        for (int i = WARMUP; i < WARMUP + ITERATIONS; i++) {
+            legacyWriter.write(EvaluationForms.form(i));
+        }
+        double legacyRoundTrips = (double) sqlCounter.roundTrips() / ITERATIONS;
+        logger.info(String.format("create-from-dto : %.1f allers-retours, chemin d'origine : %.1f",
+                roundTrips, legacyRoundTrips));
+        assertThat(roundTrips).isLessThan(legacyRoundTrips / 5);
+    }
+
+    @Test
+    @Tag("perf")
+    void createFromDtoLatency() throws Exception {
+        for (int i = 0; i < PERF_WARMUP; i++) {
+            submit(i);
+        }
+
+        sqlCounter.reset();
+        long start = System.nanoTime();
+        for (int i = PERF_WARMUP; i < PERF_WARMUP + PERF_ITERATIONS; i++) {
+            submit(i);
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / PERF_ITERATIONS;
+
+        logger.info(String.format("create-from-dto (40 compétences) : %.1f allers-retours, %.1f ordres SQL, "
+                + "%.2f ms en moyenne [%s]", (double) sqlCounter.roundTrips() / PERF_ITERATIONS,
+                (double) sqlCounter.statements() / PERF_ITERATIONS, avgMillis, sqlCounter));
+
+        // Avant / après sans la couche HTTP : chemin d'origine puis StageFormService, mêmes formulaires
+        logPath("chemin d'origine", i -> legacyWriter.write(EvaluationForms.form(i)));
+        logPath("StageFormService", i -> stageFormService.createStageFromDTO(EvaluationForms.form(i)));
+    }
+
+    private void logPath(String name, IntConsumer write) {
+        for (int i = 0; i < PERF_WARMUP; i++) {
+            write.accept(i);
+        }
+        sqlCounter.reset();
+        long start = System.nanoTime();
+        for (int i = PERF_WARMUP; i < PERF_WARMUP + PERF_ITERATIONS; i++) {
+            write.accept(i);
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / PERF_ITERATIONS;
+        logger.info(String.format("%s : %.1f allers-retours, %.1f ordres SQL, %.2f ms en moyenne", name,
+                (double) sqlCounter.roundTrips() / PERF_ITERATIONS,
+                (double) sqlCounter.statements() / PERF_ITERATIONS, avgMillis));
+    }
+
+    private void submit(int i) throws Exception {
+        mockMvc.perform(post("/api/stages/create-from-dto")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(EvaluationForms.form(i))))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,113 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+
+/**
+ * Export NDJSON d'un million de stages dans une JVM limitée à 128 Mo de tas (profil Maven
+ * "perf") : la liste complète n'y tiendrait pas, l'export doit donc rester en flux du
+ * ResultSet jusqu'à la socket.
+ * <p>
+ * Base H2 sur disque (target/perf) pour que les lignes ne soient pas dans le tas, exécution
+ * paresseuse des requêtes, vrai serveur HTTP : MockMvc garderait toute la réponse en mémoire.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/perf/stage_export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "LAZY_QUERY_EXECUTION=TRUE;CACHE_SIZE=8192",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000"
+})
+class StageExportPerfTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int INSERT_CHUNK = 100_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StagiaireRepository stagiaireRepository;
+
+    @Autowired
+    private TuteurRepository tuteurRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsOneMillionStagesWithAFlatHeap() throws Exception {
+        insertStages();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stages/export")).build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/x-ndjson");
+
+        long count = 0;
+        long lastId = 0;
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                JsonNode stage = objectMapper.readTree(iterator.next());
+                assertThat(stage.get("id").asLong()).isGreaterThan(lastId);
+                lastId = stage.get("id").asLong();
+                if (count == 0) {
+                    assertThat(stage.at("/stagiaire/nom").asText()).isEqualTo("Perf");
+                    assertThat(stage.get("periodes")).isEmpty();
+                }
+                count++;
+            }
+        }
+        assertThat(count).isEqualTo(ROWS);
+        assertThat(lastId).isEqualTo(ROWS);
+    }
+
+    /** Stages insérés en SQL par INSERT ... SELECT, sans passer par des entités. */
+    private void insertStages() {
+        Stagiaire stagiaire = new Stagiaire();
+        stagiaire.setNom("Perf");
+        stagiaire.setPrenom("Test");
+        stagiaire.setEmail("perf@stagiaire.test");
+        stagiaire.setInstitution("Institution");
+        Long stagiaireId = stagiaireRepository.save(stagiaire).getId();
+
+        Tuteur tuteur = new Tuteur();
+        tuteur.setNom("Perf");
+        tuteur.setPrenom("Test");
+        tuteur.setEmail("perf@tuteur.test");
+        tuteur.setEntreprise("Entreprise");
+        Long tuteurId = tuteurRepository.save(tuteur).getId();
+
+        for (int from = 1; from <= ROWS; from += INSERT_CHUNK) {
+            jdbcTemplate.update("insert into stage (id, version, updated_at, description, objectif, entreprise, "
+                    + "stagiaire_id, tuteur_id) select \"X\", 0, current_timestamp, concat('Stage ', \"X\"), "
+                    + "'Objectif', concat('Entreprise ', mod(\"X\", 100)), ?, ? from system_range(?, ?)",
+                    stagiaireId, tuteurId, from, from + INSERT_CHUNK - 1);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.stage.dto.ImportReportDTO;
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.service.StageImportService;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Import en masse sur POST /api/stages/import : NDJSON et CSV, erreurs rapportées par numéro
+ * de ligne, lot en échec rejoué formulaire par formulaire, bornes de la taille de lot.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stage_import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class StageImportTest {
+
+    private static final String CSV_HEADER = "description,objectif,entreprise,studentName,studentEmail,"
+            + "stagiaireInstitution,tutorName,tutorEmail,dateDebut,dateFin,"
+            + "individualCompetencies.Ponctualité,technicalCompetencies.Java";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ndjsonReportsInvalidLinesAndImportsTheOthers() throws Exception {
+        StageCreateDTO invalid = form("ndjson", 3);
+        invalid.setDescription("");
+        String body = String.join("\n",
+                json(form("ndjson", 1)),
+                "{\"description\": pas du json",
+                "",
+                json(invalid),
+                json(form("ndjson", 5)));
+
+        ImportReportDTO report = importForms(StageImportService.NDJSON_VALUE, body, null);
+
+        assertThat(report.getTotalRecords()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReportDTO.LineError::getLine).containsExactly(2L, 4L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("JSON invalide");
+        assertThat(report.getErrors().get(1).getMessage()).isEqualTo("La description est obligatoire");
+        assertThat(stages("ndjson")).isEqualTo(2);
+    }
+
+    @Test
+    void ndjsonResumesOnTheLineAfterABrokenRecord() throws Exception {
+        // Objet non fermé (l'analyseur lit la ligne suivante) puis jeton invalide en début de ligne
+        String body = String.join("\n",
+                "{\"description\": \"coupé\"",
+                json(form("reprise", 2)),
+                "pas du json",
+                json(form("reprise", 4)));
+
+        ImportReportDTO report = importForms(StageImportService.NDJSON_VALUE, body, null);
+
+        assertThat(report.getErrors()).extracting(ImportReportDTO.LineError::getLine).containsExactly(1L, 3L);
+        assertThat(report.getErrors()).allSatisfy(error -> assertThat(error.getMessage()).startsWith("JSON invalide"));
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(stages("reprise")).isEqualTo(2);
+    }
+
+    @Test
+    void csvMapsCompetencyColumnsAndReportsInvalidRows() throws Exception {
+        String body = String.join("\n",
+                CSV_HEADER,
+                row("csv 1", "2024-02-01", "AUTONOME|Toujours à l'heure", "AUTONOME +"),
+                row("csv 2", "pas-une-date", "NA", "NA"),
+                row("", "2024-02-01", "NA", "NA"),
+                row("csv 4", "2024-02-01", "DEBUTANT", "") + ",colonne en trop",
+                row("csv 5", "2024-02-01", "DEBUTANT", "AUTONOME"));
+
+        ImportReportDTO report = importForms(StageImportService.CSV_VALUE, body, null);
+
+        assertThat(report.getTotalRecords()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReportDTO.LineError::getLine).containsExactly(3L, 4L, 5L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Valeur invalide");
+        assertThat(report.getErrors().get(1).getMessage()).isEqualTo("La description est obligatoire");
+        assertThat(report.getErrors().get(2).getMessage()).startsWith("Ligne CSV invalide");
+        assertThat(stages("csv")).isEqualTo(2);
+
+        // NIVEAU|commentaire : note du niveau et commentaire sur l'évaluation de la compétence
+        assertThat(jdbcTemplate.queryForObject(
+                "select e.valeur from evaluation e where e.commentaire = ?", Double.class, "Toujours à l'heure"))
+                .isEqualTo(14.0);
+        assertThat(jdbcTemplate.queryForList(
+                "select e.valeur from evaluation e join appreciation a on a.evaluation_id = e.id "
+                        + "join competences c on a.competences_id = c.id where c.intitule = 'Java'", Double.class))
+                .containsExactlyInAnyOrder(18.0, 14.0);
+    }
+
+    @Test
+    void failedChunkIsReplayedFormByForm() throws Exception {
+        StageCreateDTO inverted = form("lot", 2);
+        inverted.setDateDebut(LocalDate.of(2024, 7, 1));
+        List<String> lines = new ArrayList<>();
+        lines.add(json(form("lot", 1)));
+        lines.add(json(inverted));
+        lines.add(json(form("lot", 3)));
+        lines.add(json(form("lot", 4)));
+
+        ImportReportDTO report = importForms(StageImportService.NDJSON_VALUE, String.join("\n", lines), 3);
+
+        assertThat(report.getChunks()).isEqualTo(2);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getMessage()).isEqualTo("La date de début ne peut pas être après la date de fin.");
+        });
+        assertThat(stages("lot")).isEqualTo(3);
+    }
+
+    @Test
+    void chunkSizeOutOfBoundsIsRejected() throws Exception {
+        String body = json(form("bornes", 1));
+        for (String chunkSize : List.of("0", "5001")) {
+            mockMvc.perform(post("/api/stages/import")
+                            .param("chunkSize", chunkSize)
+                            .contentType(StageImportService.NDJSON_VALUE)
+                            .content(body))
+                    .andExpect(status().isBadRequest());
+        }
+        assertThat(stages("bornes")).isZero();
+    }
+
+    private ImportReportDTO importForms(String contentType, String body, Integer chunkSize) throws Exception {
+        var request = post("/api/stages/import")
+                .contentType(contentType)
+                .content(body.getBytes(StandardCharsets.UTF_8));
+        if (chunkSize != null) {
+            request.param("chunkSize", chunkSize.toString());
+        }
+        byte[] response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readValue(response, ImportReportDTO.class);
+    }
+
+    private static StageCreateDTO form(String prefix, int i) {
+        StageCreateDTO dto = EvaluationForms.form(i);
+        dto.setDescription(prefix + " " + i);
+        return dto;
+    }
+
+    private static String row(String description, String dateDebut, String ponctualite, String java) {
+        return String.join(",", description, "Objectif", "Entreprise 1", "Prenom Stagiaire", "stagiaire1@ecole.fr",
+                "ENSA", "Prenom Tuteur", "tuteur1@entreprise.fr", dateDebut, "2024-06-30", ponctualite, java);
+    }
+
+    private String json(StageCreateDTO dto) throws Exception {
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private long stages(String prefix) {
+        return jdbcTemplate.queryForObject("select count(*) from stage where description like ?", Long.class,
+                prefix + " %");
+    }
+}
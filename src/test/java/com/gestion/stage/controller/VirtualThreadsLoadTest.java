@@ -0,0 +1,213 @@
+package com.gestion.stage.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.gestion.stage.GestionStageApplication;
+import com.gestion.stage.support.EvaluationForms;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Charge comparée, threads de plateforme contre profil "virtual-threads" (profil Maven
+ * "load") : {@value #CLIENTS} clients simultanés, plus que les 200 threads Tomcat, postent
+ * des formulaires sur /api/stages/create-from-dto puis lisent /api/stages.
+ * <p>
+ * La base H2 embarquée ne fait pas d'entrée-sortie : chaque ordre SQL attend
+ * {@value #LATENCY_MS} ms avant d'être exécuté, comme l'aller-retour réseau vers MySQL. Le pool
+ * Hikari est le même dans les deux cas, seul le modèle de threads change. Les épinglages de
+ * threads virtuels (événements JFR jdk.VirtualThreadPinned) sont comptés et affichés.
+ */
+@Tag("load")
+class VirtualThreadsLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsLoadTest.class);
+
+    private static final int CLIENTS = 250;
+    private static final int REQUESTS_PER_CLIENT = 2;
+    private static final int LATENCY_MS = 2;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    private record Result(String scenario, int requests, int errors, String firstError, double seconds,
+                          long p50, long p99) {
+        @Override
+        public String toString() {
+            return String.format("%-16s %6d req %4d err %8.1f req/s  p50 %5d ms  p99 %5d ms",
+                    scenario, requests, errors, requests / seconds, p50, p99);
+        }
+    }
+
+    @Test
+    void comparesPlatformAndVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            String mode = virtual ? "virtuels" : "plateforme";
+            AtomicLong pinned = new AtomicLong();
+            try (RecordingStream jfr = new RecordingStream();
+                 ConfigurableApplicationContext context = start(virtual)) {
+                jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1));
+                jfr.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+                jfr.startAsync();
+
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build();
+                // Échauffement : catalogue en cache, JIT, connexions du pool ouvertes
+                run(client, "warmup", 20, 2, i -> create(port, i));
+
+                Result create = run(client, "create-from-dto", CLIENTS, REQUESTS_PER_CLIENT, i -> create(port, i));
+                Result list = run(client, "GET /api/stages", CLIENTS, REQUESTS_PER_CLIENT,
+                        i -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stages?size=20")).build());
+                report.add("threads " + mode + " : " + create);
+                report.add("threads " + mode + " : " + list);
+                report.add("threads " + mode + " : " + pinned.get() + " épinglages de threads virtuels > 1 ms");
+
+                assertThat(create.errors()).as(create.firstError()).isZero();
+                assertThat(list.errors()).as(list.firstError()).isZero();
+            }
+        }
+        logger.info("Charge comparée ({} clients, {} ms par ordre SQL, pool Hikari de 20) :{}  {}",
+                CLIENTS, LATENCY_MS, System.lineSeparator(), String.join(System.lineSeparator() + "  ", report));
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        String name = virtual ? "virtual" : "platform";
+        return new SpringApplicationBuilder(GestionStageApplication.class, Latency.class)
+                .profiles(virtual ? new String[] {"test", "virtual-threads"} : new String[] {"test"})
+                // En arguments : des propriétés par défaut passeraient après application.properties
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load_" + name
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=20",
+                        "--spring.datasource.hikari.connection-timeout=60000",
+                        "--logging.level.com.gestion.stage=WARN",
+                        "--gestion.scores.fold-delay-ms=3600000",
+                        "--gestion.ingestion.sweep-delay-ms=3600000",
+                        "--gestion.analytics.fold-delay-ms=3600000");
+    }
+
+    private HttpRequest create(int port, int i) {
+        try {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stages/create-from-dto"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(EvaluationForms.form(i))))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Result run(HttpClient client, String scenario, int clients, int perClient,
+                              IntFunction<HttpRequest> request) throws Exception {
+        long[] latencies = new long[clients * perClient];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < perClient; r++) {
+                        int i = next.getAndIncrement();
+                        long sent = System.nanoTime();
+                        try {
+                            int status = client.send(request.apply(i), HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400) {
+                                errors.incrementAndGet();
+                                firstError.compareAndSet(null, "HTTP " + status);
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            firstError.compareAndSet(null, e.toString());
+                        }
+                        latencies[i] = (System.nanoTime() - sent) / 1_000_000;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        return new Result(scenario, latencies.length, errors.get(), firstError.get(), seconds,
+                latencies[latencies.length / 2], latencies[(int) Math.ceil(latencies.length * 0.99) - 1]);
+    }
+
+    /** Retarde chaque ordre SQL de {@value #LATENCY_MS} ms, comme un aller-retour réseau. */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Latency {
+
+        @Bean
+        static BeanPostProcessor latencyDataSourceWrapper() {
+            QueryExecutionListener listener = new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    try {
+                        Thread.sleep(LATENCY_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    // Rien à mesurer
+                }
+            };
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(listener).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
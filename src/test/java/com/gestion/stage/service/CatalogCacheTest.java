@@ -0,0 +1,60 @@
+package com.gestion.stage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gestion.stage.model.Categorie;
+
+/**
+ * Une écriture du catalogue faite dans une transaction ne laisse pas dans le cache ce
+ * qu'un rechargement a lu avant la fin de cette transaction.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog_cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+class CatalogCacheTest {
+
+    @Autowired
+    private CategorieService categorieService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reloadDuringTheWritingTransactionIsDroppedAtItsEnd() {
+        Categorie categorie = new Categorie();
+        categorie.setIntitule("Catégorie du cache");
+        categorie.setValeur(10.0);
+        Long id = categorieService.saveCategorie(categorie).getId();
+        assertThat(catalogCache.categorie("Catégorie du cache").orElseThrow().valeur()).isEqualTo(10.0);
+
+        // Rechargé dans la transaction, avec la valeur pas encore validée, puis annulé
+        transactionTemplate.executeWithoutResult(tx -> {
+            Categorie changed = categorieService.getCategorieById(id).orElseThrow();
+            changed.setValeur(20.0);
+            categorieService.saveCategorie(changed);
+            assertThat(catalogCache.categorie("Catégorie du cache").orElseThrow().valeur()).isEqualTo(20.0);
+            tx.setRollbackOnly();
+        });
+        assertThat(catalogCache.categorie("Catégorie du cache").orElseThrow().valeur()).isEqualTo(10.0);
+
+        // Même chose validée : la valeur servie est celle de la base
+        transactionTemplate.executeWithoutResult(tx -> {
+            Categorie changed = categorieService.getCategorieById(id).orElseThrow();
+            changed.setValeur(30.0);
+            categorieService.saveCategorie(changed);
+            catalogCache.categorie("Catégorie du cache");
+        });
+        assertThat(catalogCache.categorie("Catégorie du cache").orElseThrow().valeur()).isEqualTo(30.0);
+    }
+}
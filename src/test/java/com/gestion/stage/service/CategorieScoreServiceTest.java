@@ -0,0 +1,91 @@
+package com.gestion.stage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.PeriodeCategorieScore;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CategorieScoreCumulRepository;
+import com.gestion.stage.repository.PeriodeCategorieScoreRepository;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Cumul des scores par période dans Categorie.valeur : la moyenne suit les formulaires
+ * cumulés, et un score déjà cumulé ne compte jamais deux fois.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:categorie_scores;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+class CategorieScoreServiceTest {
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private CategorieScoreService categorieScoreService;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private CategorieScoreCumulRepository cumulRepository;
+
+    @Autowired
+    private PeriodeCategorieScoreRepository scoreRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void foldAveragesScoresAndCountsEachOnce() {
+        submit(0, 10);
+        submit(1, 14);
+        submit(2, 18);
+        fold();
+        assertThat(valeur()).isEqualTo(14.0);
+
+        // Le formulaire n'écrit que son score : la moyenne ne bouge qu'au cumul suivant
+        submit(3, 6);
+        assertThat(valeur()).isEqualTo(14.0);
+        fold();
+        assertThat(valeur()).isEqualTo(12.0);
+
+        // Rien à cumuler : un nouveau passage ne change rien
+        assertThat(categorieScoreService.foldPendingScores()).isZero();
+        assertThat(valeur()).isEqualTo(12.0);
+
+        // Scores déjà cumulés : markFolded ne les reprend pas
+        List<Long> ids = scoreRepository.findAll().stream().map(PeriodeCategorieScore::getId).toList();
+        assertThat(scoreRepository.findAll()).allMatch(PeriodeCategorieScore::isFolded);
+        Integer refolded = transactionTemplate.execute(tx -> scoreRepository.markFolded(ids));
+        assertThat(refolded).isZero();
+        Long categorieId = categorieRepository.findByIntitule(StageFormService.COMPETENCES_INDIVIDU).orElseThrow().getId();
+        assertThat(cumulRepository.findById(categorieId).orElseThrow().getNombre()).isEqualTo(4);
+    }
+
+    private void submit(int i, int individualScore) {
+        StageCreateDTO form = EvaluationForms.form(i);
+        form.setIndividualScore(individualScore);
+        stageFormService.createStageFromDTO(form);
+    }
+
+    private void fold() {
+        while (categorieScoreService.foldPendingScores() > 0) {
+            // lots suivants
+        }
+    }
+
+    private double valeur() {
+        return categorieRepository.findByIntitule(StageFormService.COMPETENCES_INDIVIDU).orElseThrow().getValeur();
+    }
+}
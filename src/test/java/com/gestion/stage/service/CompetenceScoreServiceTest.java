@@ -0,0 +1,68 @@
+package com.gestion.stage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.gestion.stage.model.Competences;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Note des compétences cumulée en tâche de fond : un formulaire ne modifie pas la ligne
+ * partagée de la compétence (ni sa note, ni sa version), le cumul en fait la moyenne.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:competence_scores;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+class CompetenceScoreServiceTest {
+
+    // NA, DEBUTANT puis AUTONOME pour les formulaires 0, 1 et 2 (voir EvaluationForms)
+    private static final String COMPETENCE = "Individu compétence 0";
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private CompetenceScoreService competenceScoreService;
+
+    @Autowired
+    private CompetencesRepository competencesRepository;
+
+    @Test
+    void formsLeaveTheSharedRowAloneAndTheFoldAveragesTheirNotes() {
+        stageFormService.createStageFromDTO(EvaluationForms.form(0));
+        Competences created = competence();
+        assertThat(created.getNote()).isEqualTo(0.0);
+
+        stageFormService.createStageFromDTO(EvaluationForms.form(1));
+        stageFormService.createStageFromDTO(EvaluationForms.form(2));
+        Competences unchanged = competence();
+        assertThat(unchanged.getNote()).isEqualTo(0.0);
+        assertThat(unchanged.getVersion()).isEqualTo(created.getVersion());
+
+        while (competenceScoreService.foldPendingScores() > 0) {
+            // lots suivants
+        }
+        Competences folded = competence();
+        assertThat(folded.getNote()).isCloseTo((0 + 8 + 14) / 3.0, within(1e-9));
+        assertThat(folded.getVersion()).isEqualTo(created.getVersion() + 1);
+
+        // Rien à cumuler : un nouveau passage ne change rien
+        assertThat(competenceScoreService.foldPendingScores()).isZero();
+        assertThat(competence().getVersion()).isEqualTo(folded.getVersion());
+    }
+
+    private Competences competence() {
+        return competencesRepository.findAll().stream()
+                .filter(competence -> COMPETENCE.equals(competence.getIntitule()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
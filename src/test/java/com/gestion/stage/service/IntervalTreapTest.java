@@ -0,0 +1,74 @@
+package com.gestion.stage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Arbre d'intervalles comparé à un parcours exhaustif, après des ajouts, remplacements et
+ * suppressions aléatoires (dont la réutilisation des emplacements libérés et l'agrandissement
+ * des tableaux).
+ */
+class IntervalTreapTest {
+
+    @Test
+    void matchesALinearScan() {
+        Random random = new Random(42);
+        IntervalTreap treap = new IntervalTreap(16);
+        Map<Long, int[]> expected = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            long id = 1 + random.nextInt(3_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(treap.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                int from = random.nextInt(1_000);
+                int to = from + random.nextInt(60);
+                treap.put(id, from, to);
+                expected.put(id, new int[] {from, to});
+            }
+            if (step % 500 == 0) {
+                assertThat(treap.size()).isEqualTo(expected.size());
+                for (int query = 0; query < 20; query++) {
+                    int from = random.nextInt(1_100) - 50;
+                    int to = from + random.nextInt(30);
+                    assertThat(overlapping(treap, from, to)).isEqualTo(scan(expected, from, to));
+                }
+            }
+        }
+    }
+
+    @Test
+    void stopsWhenTheVisitorDeclines() {
+        IntervalTreap treap = new IntervalTreap();
+        for (long id = 1; id <= 100; id++) {
+            treap.put(id, (int) id, (int) id + 10);
+        }
+        List<Long> visited = new ArrayList<>();
+        treap.overlapping(0, 1_000, (id, from, to) -> visited.add(id) && visited.size() < 5);
+        assertThat(visited).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    private static List<Long> overlapping(IntervalTreap treap, int from, int to) {
+        List<Long> ids = new ArrayList<>();
+        treap.overlapping(from, to, (id, start, end) -> ids.add(id));
+        return ids;
+    }
+
+    /** Attendu : chevauchements triés par (début, identifiant), l'ordre de l'arbre. */
+    private static List<Long> scan(Map<Long, int[]> intervals, int from, int to) {
+        return intervals.entrySet().stream()
+                .filter(e -> e.getValue()[0] <= to && e.getValue()[1] >= from)
+                .sorted(Comparator.<Map.Entry<Long, int[]>>comparingInt(e -> e.getValue()[0])
+                        .thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.gestion.stage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gestion.stage.dto.CalendrierDTO;
+import com.gestion.stage.dto.PageQuery;
+
+/**
+ * Un million de périodes réparties sur dix ans (profil Maven "perf", tas de 128 Mo) :
+ * périodes en cours à une date, depuis le calendrier en mémoire et depuis la base par les
+ * index composites (dateDebut, dateFin) / (dateFin, dateDebut). Le calendrier doit répondre
+ * en moins d'une milliseconde et donner les mêmes périodes que la base.
+ */
+@Tag("perf")
+@SpringBootTest(properties = {
+        // Cache de pages H2 réduit à 1 Mo : la base partage le tas avec le contexte et avec le
+        // calendrier, qui occupe une cinquantaine de Mo pour un million de périodes
+        "spring.datasource.url=jdbc:h2:file:./target/perf/periode_intervals;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "LAZY_QUERY_EXECUTION=TRUE;CACHE_SIZE=1024",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+class PeriodeIntervalPerfTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeriodeIntervalPerfTest.class);
+
+    private static final int ROWS = 1_000_000;
+    private static final int INSERT_CHUNK = 100_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final int DAYS = 3650;
+    private static final int LIMIT = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PeriodeCalendar periodeCalendar;
+
+    @Autowired
+    private PeriodeService periodeService;
+
+    @Test
+    void activeOnDateOverOneMillionPeriodes() {
+        insertPeriodes();
+        long start = System.nanoTime();
+        periodeCalendar.reload();
+        logger.info("Calendrier: {} périodes chargées en {} ms", periodeCalendar.size(), millis(start));
+        assertThat(periodeCalendar.size()).isEqualTo(ROWS);
+
+        Random random = new Random(7);
+        long[] calendar = new long[10_000];
+        for (int i = 0; i < calendar.length; i++) {
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            long begin = System.nanoTime();
+            CalendrierDTO result = periodeCalendar.overlapping(date, date, LIMIT);
+            calendar[i] = System.nanoTime() - begin;
+            assertThat(result.getPeriodes()).hasSize(LIMIT);
+        }
+        Arrays.sort(calendar);
+        logger.info("Calendrier, {} premières périodes en cours à une date: médiane {} µs, p99 {} µs",
+                LIMIT, calendar[calendar.length / 2] / 1000, calendar[calendar.length * 99 / 100] / 1000);
+        assertThat(calendar[calendar.length / 2]).isLessThan(1_000_000L);
+
+        long[] database = new long[50];
+        for (int i = 0; i < database.length; i++) {
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            PageQuery page = new PageQuery();
+            page.setSize(LIMIT);
+            page.setSort("dateDebut");
+            long begin = System.nanoTime();
+            List<Long> fromDatabase = periodeService.getPeriodesActivesPage(page, date).getItems().stream()
+                    .map(periode -> periode.getId())
+                    .toList();
+            database[i] = System.nanoTime() - begin;
+            List<Long> fromCalendar = periodeCalendar.overlapping(date, date, LIMIT).getPeriodes().stream()
+                    .map(CalendrierDTO.Intervalle::getId)
+                    .toList();
+            assertThat(fromCalendar).isEqualTo(fromDatabase);
+        }
+        Arrays.sort(database);
+        logger.info("Base, page de {} périodes en cours à une date: médiane {} ms, p99 {} ms",
+                LIMIT, database[database.length / 2] / 1_000_000, database[database.length * 99 / 100] / 1_000_000);
+    }
+
+    /** Périodes de 20 à 180 jours insérées en SQL, débuts répartis sur dix ans. */
+    private void insertPeriodes() {
+        for (int from = 1; from <= ROWS; from += INSERT_CHUNK) {
+            jdbcTemplate.update("insert into periode (id, version, updated_at, date_debut, date_fin) "
+                    + "select \"X\", 0, current_timestamp, "
+                    + "dateadd('DAY', mod(\"X\" * 7919, " + DAYS + "), date '" + FIRST_DAY + "'), "
+                    + "dateadd('DAY', mod(\"X\" * 7919, " + DAYS + ") + 20 + mod(\"X\", 160), date '" + FIRST_DAY + "') "
+                    + "from system_range(?, ?)",
+                    from, from + INSERT_CHUNK - 1);
+        }
+    }
+
+    private static long millis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,120 @@
+package com.gestion.stage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+import com.gestion.stage.support.EvaluationForms;
+
+/**
+ * Des centaines de formulaires simultanés pour un petit nombre d'emails : chaque stagiaire
+ * et chaque tuteur doit être créé une seule fois, et aucun formulaire ne doit échouer sur
+ * l'index unique de personne.email. Un formulaire en échec ne laisse pas de personne créée
+ * pour lui.
+ */
+@SpringBootTest
+class StageFormServiceConcurrencyTest {
+
+    private static final int SUBMISSIONS = 400;
+    private static final int STAGIAIRES = 20;
+    private static final int TUTEURS = 8;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private StageFormService stageFormService;
+
+    @Autowired
+    private StagiaireRepository stagiaireRepository;
+
+    @Autowired
+    private TuteurRepository tuteurRepository;
+
+    @Test
+    void parallelSubmissionsCreateEachPersonOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Stage>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < SUBMISSIONS; i++) {
+                StageCreateDTO form = form(i);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return stageFormService.createStageFromDTO(form);
+                }));
+            }
+            start.countDown();
+
+            Set<Long> stageIds = new HashSet<>();
+            for (Future<Stage> result : results) {
+                stageIds.add(result.get(2, TimeUnit.MINUTES).getId());
+            }
+            assertThat(stageIds).hasSize(SUBMISSIONS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long stagiaireRows = stagiaireRepository.findAll().stream()
+                .filter(s -> s.getEmail().startsWith("concurrence-"))
+                .count();
+        long tuteurRows = tuteurRepository.findAll().stream()
+                .filter(t -> t.getEmail().startsWith("concurrence-"))
+                .count();
+        assertThat(stagiaireRows).isEqualTo(STAGIAIRES);
+        assertThat(tuteurRows).isEqualTo(TUTEURS);
+    }
+
+    @Test
+    void failedFormsLeaveNoOrphanPerson() {
+        StageCreateDTO valid = EvaluationForms.form(0);
+        valid.setStudentEmail("orphelin-stagiaire0@ecole.fr");
+        valid.setTutorEmail("orphelin-tuteur0@entreprise.fr");
+        // Description trop longue pour la colonne : l'écriture échoue dans la transaction du lot
+        StageCreateDTO tooLong = EvaluationForms.form(1);
+        tooLong.setStudentEmail("orphelin-stagiaire1@ecole.fr");
+        tooLong.setTutorEmail("orphelin-tuteur1@entreprise.fr");
+        tooLong.setDescription("x".repeat(1001));
+        // Tuteur sans entreprise : refusé après la création du stagiaire
+        StageCreateDTO noEntreprise = EvaluationForms.form(2);
+        noEntreprise.setStudentEmail("orphelin-stagiaire2@ecole.fr");
+        noEntreprise.setTutorEmail("orphelin-tuteur2@entreprise.fr");
+        noEntreprise.setEntreprise(" ");
+
+        assertThatThrownBy(() -> stageFormService.createStagesFromDTOs(List.of(valid, tooLong)))
+                .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> stageFormService.createStageFromDTO(noEntreprise))
+                .isInstanceOf(ResponseStatusException.class);
+
+        assertThat(stagiaireRepository.findAll()).noneMatch(s -> s.getEmail().startsWith("orphelin-"));
+        assertThat(tuteurRepository.findAll()).noneMatch(t -> t.getEmail().startsWith("orphelin-"));
+
+        // Les mêmes personnes sont recréées au formulaire suivant
+        stageFormService.createStageFromDTO(valid);
+        assertThat(stagiaireRepository.findIdByEmail("orphelin-stagiaire0@ecole.fr")).isPresent();
+        assertThat(tuteurRepository.findIdByEmail("orphelin-tuteur0@entreprise.fr")).isPresent();
+    }
+
+    private static StageCreateDTO form(int i) {
+        StageCreateDTO form = EvaluationForms.form(i);
+        form.setStudentEmail("concurrence-stagiaire" + (i % STAGIAIRES) + "@ecole.fr");
+        form.setTutorEmail("concurrence-tuteur" + (i % TUTEURS) + "@entreprise.fr");
+        return form;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gestion.stage.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+import com.gestion.stage.support.SqlStatementCounter;
+
+/**
+ * Stages d'un stagiaire : liés directement ou par ses périodes, chacun une fois, et en
+ * une seule requête quel que soit le nombre de périodes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stages_stagiaire;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "gestion.scores.fold-delay-ms=3600000",
+        "gestion.ingestion.sweep-delay-ms=3600000",
+        "gestion.analytics.fold-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.Config.class)
+class StageServiceQueryCountTest {
+
+    @Autowired
+    private StageService stageService;
+
+    @Autowired
+    private StagiaireRepository stagiaireRepository;
+
+    @Autowired
+    private TuteurRepository tuteurRepository;
+
+    @Autowired
+    private StageRepository stageRepository;
+
+    @Autowired
+    private PeriodeRepository periodeRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlCounter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void stagesByStagiaireIsOneQueryWhateverThePeriodeCount() throws Exception {
+        Stagiaire stagiaire = stagiaire("direct");
+        Stagiaire autre = stagiaire("autre");
+        Tuteur tuteur = tuteur();
+        Stage direct = stage("direct", stagiaire, tuteur);
+        Stage parPeriode = stage("par-periode", autre, tuteur);
+        stage("sans-lien", autre, tuteur);
+        periodes(direct, stagiaire, tuteur, 1);
+        periodes(parPeriode, stagiaire, tuteur, 1);
+
+        List<Long> expected = List.of(direct.getId(), parPeriode.getId());
+        assertThat(stagesOf(stagiaire)).isEqualTo(expected);
+        long endpointStatements = endpointStatements(stagiaire);
+
+        periodes(direct, stagiaire, tuteur, 30);
+        periodes(parPeriode, stagiaire, tuteur, 30);
+
+        assertThat(stagesOf(stagiaire)).isEqualTo(expected);
+        assertThat(endpointStatements(stagiaire)).isEqualTo(endpointStatements);
+    }
+
+    private List<Long> stagesOf(Stagiaire stagiaire) {
+        sqlCounter.reset();
+        List<Long> ids = stageService.getStagesByStagiaire(stagiaire).stream().map(Stage::getId).toList();
+        sqlCounter.assertStatements("stages du stagiaire " + stagiaire.getId(), 1);
+        return ids;
+    }
+
+    private long endpointStatements(Stagiaire stagiaire) throws Exception {
+        sqlCounter.reset();
+        mockMvc.perform(get("/api/stages/stagiaire/" + stagiaire.getId())).andExpect(status().isOk());
+        return sqlCounter.statements();
+    }
+
+    private Stagiaire stagiaire(String nom) {
+        Stagiaire stagiaire = new Stagiaire();
+        stagiaire.setNom(nom);
+        stagiaire.setPrenom("Test");
+        stagiaire.setEmail(nom + "@stagiaire.test");
+        stagiaire.setInstitution("Institution");
+        return stagiaireRepository.save(stagiaire);
+    }
+
+    private Tuteur tuteur() {
+        Tuteur tuteur = new Tuteur();
+        tuteur.setNom("Tuteur");
+        tuteur.setPrenom("Test");
+        tuteur.setEmail("tuteur@tuteur.test");
+        tuteur.setEntreprise("Entreprise");
+        return tuteurRepository.save(tuteur);
+    }
+
+    private Stage stage(String description, Stagiaire stagiaire, Tuteur tuteur) {
+        Stage stage = new Stage();
+        stage.setDescription(description);
+        stage.setObjectif("Objectif");
+        stage.setEntreprise("Entreprise");
+        stage.setStagiaire(stagiaire);
+        stage.setTuteur(tuteur);
+        return stageRepository.save(stage);
+    }
+
+    private void periodes(Stage stage, Stagiaire stagiaire, Tuteur tuteur, int count) {
+        for (int i = 0; i < count; i++) {
+            Periode periode = new Periode();
+            periode.setDateDebut(LocalDate.of(2024, 1, 1).plusWeeks(i));
+            periode.setDateFin(LocalDate.of(2024, 1, 7).plusWeeks(i));
+            periode.setStage(stage);
+            periode.setStagiaire(stagiaire);
+            periode.setTuteur(tuteur);
+            periodeRepository.save(periode);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gestion.stage.support;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.gestion.stage.dto.CompetencyDetailDTO;
+import com.gestion.stage.dto.StageCreateDTO;
+
+/**
+ * Formulaires d'évaluation complets (4 catégories de 10 compétences) pour les tests.
+ */
+public final class EvaluationForms {
+
+    private static final int COMPETENCIES_PER_CATEGORY = 10;
+
+    private EvaluationForms() {
+    }
+
+    public static StageCreateDTO form(int i) {
+        StageCreateDTO dto = new StageCreateDTO();
+        dto.setDescription("Stage de développement " + i);
+        dto.setObjectif("Objectif " + i);
+        dto.setEntreprise("Entreprise " + (i % 5));
+        dto.setStudentName("Prenom Stagiaire" + i);
+        dto.setStudentEmail("stagiaire" + (i % 10) + "@ecole.fr");
+        dto.setStagiaireInstitution("ENSA");
+        dto.setTutorName("Prenom Tuteur" + i);
+        dto.setTutorEmail("tuteur" + (i % 5) + "@entreprise.fr");
+        dto.setDateDebut(LocalDate.of(2024, 2, 1));
+        dto.setDateFin(LocalDate.of(2024, 6, 30));
+        dto.setImplicationNote(15.0);
+        dto.setOuvertureNote(12.0);
+        dto.setQualiteTravailNote(16.0);
+        dto.setIndividualCompetencies(competencies("Individu", i));
+        dto.setCompanyCompetencies(competencies("Entreprise", i));
+        dto.setTechnicalCompetencies(competencies("Technique", i));
+        dto.setSpecificJobCompetencies(competencies("Métier", i));
+        dto.setIndividualScore(14);
+        dto.setCompanyScore(12);
+        dto.setTechnicalScore(16);
+        return dto;
+    }
+
+    private static Map<String, CompetencyDetailDTO> competencies(String prefix, int i) {
+        String[] levels = {"NA", "DEBUTANT", "AUTONOME", "AUTONOME +"};
+        Map<String, CompetencyDetailDTO> map = new LinkedHashMap<>();
+        for (int c = 0; c < COMPETENCIES_PER_CATEGORY; c++) {
+            CompetencyDetailDTO detail = new CompetencyDetailDTO();
+            detail.setLevel(levels[(c + i) % levels.length]);
+            detail.setComment("Commentaire " + prefix + " " + c);
+            map.put(prefix + " compétence " + c, detail);
+        }
+        return map;
+    }
+}
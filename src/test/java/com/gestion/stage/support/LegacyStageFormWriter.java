@@ -0,0 +1,165 @@
+package com.gestion.stage.support;
+
+import java.util.Map;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gestion.stage.dto.CompetencyDetailDTO;
+import com.gestion.stage.dto.StageCreateDTO;
+import com.gestion.stage.model.Appreciation;
+import com.gestion.stage.model.Categorie;
+import com.gestion.stage.model.Competences;
+import com.gestion.stage.model.Evaluation;
+import com.gestion.stage.model.Periode;
+import com.gestion.stage.model.Stage;
+import com.gestion.stage.model.Stagiaire;
+import com.gestion.stage.model.Tuteur;
+import com.gestion.stage.repository.AppreciationRepository;
+import com.gestion.stage.repository.CategorieRepository;
+import com.gestion.stage.repository.CompetencesRepository;
+import com.gestion.stage.repository.EvaluationRepository;
+import com.gestion.stage.repository.PeriodeRepository;
+import com.gestion.stage.repository.StageRepository;
+import com.gestion.stage.repository.StagiaireRepository;
+import com.gestion.stage.repository.TuteurRepository;
+import com.gestion.stage.service.StageFormService;
+
+/**
+ * Chemin d'écriture d'origine de create-from-dto (avant StageFormService), gardé pour
+ * mesurer le gain du chemin actuel sur la même base et la même configuration : une
+ * recherche par catégorie et par compétence, un save() par entité et la mise à jour des
+ * notes partagées, le tout dans une transaction. Chaque recherche vide d'abord les
+ * insertions en attente, ce qui casse les lots JDBC.
+ */
+public class LegacyStageFormWriter {
+
+    private final StageRepository stageRepository;
+    private final PeriodeRepository periodeRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final AppreciationRepository appreciationRepository;
+    private final CategorieRepository categorieRepository;
+    private final CompetencesRepository competencesRepository;
+    private final StagiaireRepository stagiaireRepository;
+    private final TuteurRepository tuteurRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public LegacyStageFormWriter(StageRepository stageRepository,
+                                 PeriodeRepository periodeRepository,
+                                 EvaluationRepository evaluationRepository,
+                                 AppreciationRepository appreciationRepository,
+                                 CategorieRepository categorieRepository,
+                                 CompetencesRepository competencesRepository,
+                                 StagiaireRepository stagiaireRepository,
+                                 TuteurRepository tuteurRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.stageRepository = stageRepository;
+        this.periodeRepository = periodeRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.appreciationRepository = appreciationRepository;
+        this.categorieRepository = categorieRepository;
+        this.competencesRepository = competencesRepository;
+        this.stagiaireRepository = stagiaireRepository;
+        this.tuteurRepository = tuteurRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Stage write(StageCreateDTO dto) {
+        return transactionTemplate.execute(tx -> {
+            Stagiaire stagiaire = stagiaireRepository.findByEmail(dto.getStudentEmail().trim()).orElseThrow();
+            Tuteur tuteur = tuteurRepository.findByEmail(dto.getTutorEmail().trim()).orElseThrow();
+
+            Stage stage = new Stage();
+            stage.setDescription(dto.getDescription());
+            stage.setObjectif(dto.getObjectif());
+            stage.setEntreprise(dto.getEntreprise());
+            stage.setStagiaire(stagiaire);
+            stage.setTuteur(tuteur);
+            Stage savedStage = stageRepository.save(stage);
+
+            Periode periode = new Periode();
+            periode.setStage(savedStage);
+            periode.setDateDebut(dto.getDateDebut());
+            periode.setDateFin(dto.getDateFin());
+            periode.setStagiaire(stagiaire);
+            periode.setTuteur(tuteur);
+            Periode savedPeriode = periodeRepository.save(periode);
+
+            generale("Implication dans ses activités", dto.getImplicationNote(), savedPeriode, tuteur);
+            generale("Ouverture aux autres", dto.getOuvertureNote(), savedPeriode, tuteur);
+            generale("Qualité du travail", dto.getQualiteTravailNote(), savedPeriode, tuteur);
+
+            category(StageFormService.COMPETENCES_INDIVIDU, dto.getIndividualCompetencies(),
+                    dto.getIndividualScore(), savedPeriode, tuteur);
+            category(StageFormService.COMPETENCES_ENTREPRISE, dto.getCompanyCompetencies(),
+                    dto.getCompanyScore(), savedPeriode, tuteur);
+            category(StageFormService.COMPETENCES_TECHNIQUES, dto.getTechnicalCompetencies(),
+                    dto.getTechnicalScore(), savedPeriode, tuteur);
+            category(StageFormService.COMPETENCES_METIER, dto.getSpecificJobCompetencies(),
+                    null, savedPeriode, tuteur);
+            return savedStage;
+        });
+    }
+
+    private void generale(String intitule, Double note, Periode periode, Tuteur tuteur) {
+        if (note == null) {
+            return;
+        }
+        Categorie categorie = categorieRepository.findByIntitule(StageFormService.APPRECIATIONS_GENERALES)
+                .orElseThrow();
+        appreciation(intitule, note, null, categorie, periode, tuteur);
+    }
+
+    private void category(String intitule, Map<String, CompetencyDetailDTO> competencies, Integer score,
+                          Periode periode, Tuteur tuteur) {
+        Categorie categorie = categorieRepository.findByIntitule(intitule).orElseThrow();
+        double valeur = score != null ? score : 0.0;
+        if (categorie.getValeur() == null || categorie.getValeur() != valeur) {
+            categorie.setValeur(valeur);
+            categorieRepository.save(categorie);
+        }
+        if (competencies == null) {
+            return;
+        }
+        for (Map.Entry<String, CompetencyDetailDTO> entry : competencies.entrySet()) {
+            CompetencyDetailDTO detail = entry.getValue();
+            appreciation(entry.getKey(), (double) levelToNumeric(detail.getLevel()), detail.getComment(),
+                    categorie, periode, tuteur);
+        }
+    }
+
+    private void appreciation(String intitule, Double note, String commentaire, Categorie categorie,
+                              Periode periode, Tuteur tuteur) {
+        Evaluation evaluation = new Evaluation();
+        evaluation.setValeur(note);
+        evaluation.setCategorieStr(intitule);
+        evaluation.setCommentaire(commentaire);
+        evaluationRepository.save(evaluation);
+
+        Competences competence = competencesRepository.findByIntituleAndCategorie(intitule, categorie)
+                .orElseThrow();
+        if (competence.getNote() == null || !competence.getNote().equals(note)) {
+            competence.setNote(note);
+            competencesRepository.save(competence);
+        }
+
+        Appreciation appreciation = new Appreciation();
+        appreciation.setPeriode(periode);
+        appreciation.setTuteur(tuteur);
+        appreciation.setEvaluation(evaluation);
+        appreciation.setCompetences(competence);
+        appreciationRepository.save(appreciation);
+    }
+
+    private static int levelToNumeric(String level) {
+        if (level == null) {
+            return 0;
+        }
+        return switch (level.toUpperCase()) {
+            case "DEBUTANT" -> 8;
+            case "AUTONOME" -> 14;
+            case "AUTONOME +", "AUTONOME+" -> 18;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package com.gestion.stage.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Compte les ordres SQL réellement envoyés à la base pendant un test.
+ * <p>
+ * Un « aller-retour » correspond à un appel JDBC execute/executeBatch ; un lot
+ * de 40 INSERT envoyé par executeBatch compte donc pour un seul aller-retour
+ * mais pour 40 ordres. À importer dans un test via {@code @Import(SqlStatementCounter.Config.class)}.
+ * <p>
+ * Le texte des premiers ordres est conservé pour que {@link #assertStatements(String, long)}
+ * puisse montrer, en cas d'écart, les requêtes réellement exécutées (un N+1 s'y voit tout de suite).
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final int MAX_RECORDED = 500;
+
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong selects = new AtomicLong();
+    private final AtomicLong inserts = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+    private final List<String> recorded = Collections.synchronizedList(new ArrayList<>());
+
+    public void reset() {
+        roundTrips.set(0);
+        statements.set(0);
+        selects.set(0);
+        inserts.set(0);
+        updates.set(0);
+        deletes.set(0);
+        recorded.clear();
+    }
+
+    public long roundTrips() {
+        return roundTrips.get();
+    }
+
+    public long statements() {
+        return statements.get();
+    }
+
+    public long selects() {
+        return selects.get();
+    }
+
+    public long inserts() {
+        return inserts.get();
+    }
+
+    public long updates() {
+        return updates.get();
+    }
+
+    public long deletes() {
+        return deletes.get();
+    }
+
+    /**
+     * Ordres SQL exécutés depuis le dernier {@link #reset()} (les {@value #MAX_RECORDED} premiers).
+     */
+    public List<String> queries() {
+        synchronized (recorded) {
+            return List.copyOf(recorded);
+        }
+    }
+
+    /**
+     * Vérifie le nombre exact d'ordres SQL exécutés depuis le dernier {@link #reset()}.
+     *
+     * @param what ce qui a été mesuré (l'endpoint appelé), repris dans le message d'échec
+     */
+    public void assertStatements(String what, long expected) {
+        assertThat(statements())
+                .withFailMessage(() -> String.format("%s : %d ordres SQL attendus, %d exécutés [%s]%n  %s", what,
+                        expected, statements(), this, String.join(System.lineSeparator() + "  ", queries())))
+                .isEqualTo(expected);
+    }
+
+    @Override
+    public String toString() {
+        return "allers-retours=" + roundTrips + ", ordres=" + statements + " (select=" + selects
+                + ", insert=" + inserts + ", update=" + updates + ", delete=" + deletes + ")";
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Rien à faire avant l'exécution
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        roundTrips.incrementAndGet();
+        for (QueryInfo queryInfo : queryInfoList) {
+            int executions = Math.max(1, queryInfo.getParametersList().size());
+            statements.addAndGet(executions);
+            if (recorded.size() < MAX_RECORDED) {
+                recorded.add(queryInfo.getQuery());
+            }
+            String sql = queryInfo.getQuery().trim().toLowerCase();
+            if (sql.startsWith("select") || sql.startsWith("with")) {
+                selects.addAndGet(executions);
+            } else if (sql.startsWith("insert")) {
+                inserts.addAndGet(executions);
+            } else if (sql.startsWith("update")) {
+                updates.addAndGet(executions);
+            } else if (sql.startsWith("delete")) {
+                deletes.addAndGet(executions);
+            }
+        }
+    }
+
+    /**
+     * Enveloppe la DataSource de l'application avec le compteur.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        public SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+
+        @Bean
+        public static BeanPostProcessor sqlStatementCounterDataSourceWrapper(
+                ObjectProvider<SqlStatementCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .listener(counter.getObject())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}